@@ -0,0 +1,68 @@
+package com.sistema.pedidos.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int quantidadeRegistros;
+
+    @Param({"1", "10"})
+    private int itensPorPedido;
+
+    private ObjectMapper objectMapper;
+    private List<PedidoEntity> pedidos;
+    private List<ProdutoEntity> produtos;
+
+    @Setup
+    public void preparar() {
+        // Mesmo builder usado pelo Spring MVC para montar o ObjectMapper das respostas
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        produtos = new ArrayList<>(quantidadeRegistros);
+        for (long id = 1; id <= quantidadeRegistros; id++) {
+            produtos.add(new ProdutoEntity(id, "Produto " + id, "Descrição do produto " + id,
+                    new BigDecimal("29.90"), 100));
+        }
+
+        pedidos = new ArrayList<>(quantidadeRegistros);
+        for (long id = 1; id <= quantidadeRegistros; id++) {
+            PedidoEntity pedido = new PedidoEntity(id, "Cliente " + id, LocalDateTime.now(), "Observação",
+                    BigDecimal.ZERO, PedidoEntity.StatusPedido.PENDENTE);
+            List<ItemPedidoEntity> itens = new ArrayList<>(itensPorPedido);
+            for (int i = 0; i < itensPorPedido; i++) {
+                itens.add(new ItemPedidoEntity(produtos.get(i % produtos.size()), 2));
+            }
+            pedido.setItens(itens);
+            pedidos.add(pedido);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarPedidos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] serializarProdutos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(produtos);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.pedidos.entity;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PedidoEntityBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int quantidadeItens;
+
+    private PedidoEntity pedido;
+    private ItemPedidoEntity item;
+
+    @Setup
+    public void preparar() {
+        List<ItemPedidoEntity> itens = new ArrayList<>(quantidadeItens);
+        for (int i = 0; i < quantidadeItens; i++) {
+            ProdutoEntity produto = new ProdutoEntity((long) i, "Produto " + i, null,
+                    new BigDecimal("19.90").add(BigDecimal.valueOf(i, 2)), 1000);
+            itens.add(new ItemPedidoEntity(produto, 1 + i % 5));
+        }
+
+        pedido = new PedidoEntity(1L, "Cliente", null, null, BigDecimal.ZERO, PedidoEntity.StatusPedido.PENDENTE);
+        pedido.setItens(itens);
+        item = itens.get(0);
+    }
+
+    @Benchmark
+    public BigDecimal recalcularValorTotal() {
+        pedido.recalcularValorTotal();
+        return pedido.getValorTotal();
+    }
+
+    @Benchmark
+    public void calcularValorTotalItens(Blackhole blackhole) {
+        for (ItemPedidoEntity itemPedido : pedido.getItens()) {
+            itemPedido.calcularValorTotal();
+            blackhole.consume(itemPedido.getValorTotal());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calcularValorTotalItem() {
+        item.calcularValorTotal();
+        return item.getValorTotal();
+    }
+}
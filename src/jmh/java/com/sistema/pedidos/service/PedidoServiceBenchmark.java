@@ -0,0 +1,78 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.metricas.MetricasPedidos;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PedidoServiceBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int quantidadeItens;
+
+    private PedidoService pedidoService;
+    private PedidoRequest request;
+
+    @Setup
+    public void preparar() {
+        // Catálogo em memória no lugar do repositório, para medir apenas a validação
+        Map<Long, ProdutoEntity> catalogo = LongStream.rangeClosed(1, quantidadeItens)
+                .mapToObj(id -> new ProdutoEntity(id, "Produto " + id, null, new BigDecimal("49.90"), 1_000_000))
+                .collect(Collectors.toMap(ProdutoEntity::getId, Function.identity()));
+
+        MetricasPedidos metricasPedidos = new MetricasPedidos(new SimpleMeterRegistry());
+        ProdutoService produtoService = new ProdutoService(null, metricasPedidos) {
+            @Override
+            public ProdutoEntity buscarPorId(Long id) {
+                return catalogo.get(id);
+            }
+        };
+        pedidoService = new PedidoService(null, produtoService, null, metricasPedidos, null, null, null, null, null);
+
+        List<ItemPedidoRequest> itens = new ArrayList<>(quantidadeItens);
+        for (long id = 1; id <= quantidadeItens; id++) {
+            itens.add(new ItemPedidoRequest(id, 2));
+        }
+        request = new PedidoRequest("Cliente", null, null, null, null, itens);
+    }
+
+    @Benchmark
+    public PedidoEntity validarItensPedido() {
+        return pedidoService.validarItensPedido(request, new PedidoEntity("Cliente", null));
+    }
+
+    @Benchmark
+    public PedidoEntity.StatusPedido validarAlteracaoStatusPermitida() {
+        pedidoService.validarAlteracaoStatus(PedidoEntity.StatusPedido.PENDENTE, PedidoEntity.StatusPedido.APROVADO);
+        return PedidoEntity.StatusPedido.APROVADO;
+    }
+
+    @Benchmark
+    public BadRequestException validarAlteracaoStatusRejeitada() {
+        try {
+            pedidoService.validarAlteracaoStatus(PedidoEntity.StatusPedido.ENTREGUE, PedidoEntity.StatusPedido.PENDENTE);
+            return null;
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+}
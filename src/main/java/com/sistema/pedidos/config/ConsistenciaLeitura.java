@@ -0,0 +1,50 @@
+package com.sistema.pedidos.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Consistência de leitura da requisição atual: o token de consistência que as leituras exigem da réplica
+ * (o recebido do cliente ou o das escritas da própria requisição) e a resposta em que o token das escritas
+ * confirmadas é devolvido. Tokens são horários de commit em milissegundos; 0 indica que não há exigência.
+ */
+public final class ConsistenciaLeitura implements AutoCloseable {
+
+    public static final String CABECALHO = "X-Token-Consistencia";
+
+    private static final ThreadLocal<ConsistenciaLeitura> ATUAL = new ThreadLocal<>();
+
+    private final HttpServletResponse resposta;
+    private long tokenExigido;
+
+    private ConsistenciaLeitura(long tokenExigido, HttpServletResponse resposta) {
+        this.tokenExigido = tokenExigido;
+        this.resposta = resposta;
+    }
+
+    public static ConsistenciaLeitura iniciar(long tokenExigido, HttpServletResponse resposta) {
+        ConsistenciaLeitura consistencia = new ConsistenciaLeitura(tokenExigido, resposta);
+        ATUAL.set(consistencia);
+        return consistencia;
+    }
+
+    static ConsistenciaLeitura atual() {
+        return ATUAL.get();
+    }
+
+    long getTokenExigido() {
+        return tokenExigido;
+    }
+
+    // Leituras seguintes da mesma requisição também precisam enxergar a escrita
+    void registrarEscrita(long token) {
+        tokenExigido = Math.max(tokenExigido, token);
+        if (!resposta.isCommitted()) {
+            resposta.setHeader(CABECALHO, Long.toString(tokenExigido));
+        }
+    }
+
+    @Override
+    public void close() {
+        ATUAL.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package com.sistema.pedidos.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@ConditionalOnProperty(name = "pedidos.replica.habilitada", havingValue = "true")
+public class ConsistenciaLeituraFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsistenciaLeituraFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (ConsistenciaLeitura ignorada = ConsistenciaLeitura.iniciar(lerToken(request), response)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    // Token inválido é ignorado: a leitura segue a réplica, como se o cliente não tivesse enviado o cabeçalho
+    private static long lerToken(HttpServletRequest request) {
+        String token = request.getHeader(ConsistenciaLeitura.CABECALHO);
+        if (token == null || token.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Math.max(Long.parseLong(token.trim()), 0L);
+        } catch (NumberFormatException e) {
+            logger.debug("message=Token de consistência inválido ignorado, token={}, uri={}", token, request.getRequestURI());
+            return 0L;
+        }
+    }
+}
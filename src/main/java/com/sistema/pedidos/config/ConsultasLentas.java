@@ -0,0 +1,148 @@
+package com.sistema.pedidos.config;
+
+import com.sistema.pedidos.model.ConsultaLenta;
+import com.sistema.pedidos.model.ConsultasLentasResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro das consultas SQL acima do limite configurado. As últimas N ficam em um buffer circular
+ * lock-free (cada escrita reserva uma posição com getAndIncrement); o log é amostrado e limitado por segundo.
+ */
+@Component
+public class ConsultasLentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasLentas.class);
+
+    private static final String PACOTE_APLICACAO = "com.sistema.pedidos.";
+    private static final int TAMANHO_MAXIMO_SQL = 2000;
+
+    private final boolean habilitada;
+    private final long limiteNanos;
+    private final int amostragemLog;
+    private final int logsPorSegundo;
+
+    private final AtomicReferenceArray<Registro> buffer;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final AtomicLong segundoAtual = new AtomicLong();
+    private final AtomicInteger logsNoSegundo = new AtomicInteger();
+    private final LongAdder logsSuprimidos = new LongAdder();
+
+    public ConsultasLentas(
+            @Value("${pedidos.consultas-lentas.habilitada:true}") boolean habilitada,
+            @Value("${pedidos.consultas-lentas.limite:PT0.2S}") Duration limite,
+            @Value("${pedidos.consultas-lentas.capacidade:200}") int capacidade,
+            @Value("${pedidos.consultas-lentas.amostragem-log:1}") int amostragemLog,
+            @Value("${pedidos.consultas-lentas.logs-por-segundo:5}") int logsPorSegundo) {
+        this.habilitada = habilitada;
+        this.limiteNanos = limite.toNanos();
+        this.buffer = new AtomicReferenceArray<>(Math.max(1, capacidade));
+        this.amostragemLog = Math.max(1, amostragemLog);
+        this.logsPorSegundo = logsPorSegundo;
+    }
+
+    boolean acimaDoLimite(long duracaoNanos) {
+        return habilitada && duracaoNanos >= limiteNanos;
+    }
+
+    void registrar(String sql, long duracaoNanos, Collection<String> parametros) {
+        ConsultaLenta consulta = new ConsultaLenta(LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(duracaoNanos),
+                truncar(sql), List.copyOf(parametros), origem(), Thread.currentThread().getName());
+
+        long posicao = sequencia.getAndIncrement();
+        buffer.set((int) (posicao % buffer.length()), new Registro(posicao, consulta));
+
+        if (posicao % amostragemLog == 0 && permitirLog()) {
+            logger.warn("message=Consulta SQL lenta, duracaoMs={}, origem={}, parametros={}, sql={}",
+                    consulta.getDuracaoMs(), consulta.getOrigem(), consulta.getParametros(), consulta.getSql());
+        } else {
+            logsSuprimidos.increment();
+        }
+    }
+
+    public ConsultasLentasResponse listar() {
+        List<Registro> registros = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            Registro registro = buffer.get(i);
+            if (registro != null) {
+                registros.add(registro);
+            }
+        }
+        registros.sort(Comparator.comparingLong((Registro registro) -> registro.posicao).reversed());
+
+        List<ConsultaLenta> consultas = new ArrayList<>(registros.size());
+        registros.forEach(registro -> consultas.add(registro.consulta));
+        return new ConsultasLentasResponse(TimeUnit.NANOSECONDS.toMillis(limiteNanos), sequencia.get(),
+                logsSuprimidos.sum(), consultas);
+    }
+
+    // Janela de um segundo: o primeiro a perceber a virada zera o contador
+    private boolean permitirLog() {
+        long segundo = System.currentTimeMillis() / 1000;
+        long anterior = segundoAtual.get();
+        if (anterior != segundo && segundoAtual.compareAndSet(anterior, segundo)) {
+            logsNoSegundo.set(0);
+        }
+        return logsNoSegundo.incrementAndGet() <= logsPorSegundo;
+    }
+
+    // Só percorre a pilha para consultas lentas; ignora a própria medição e os proxies
+    private static String origem() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PACOTE_APLICACAO)
+                        && !infraestrutura(frame.getClassName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simplificar(frame.getClassName()) + "." + nomeMetodo(frame.getMethodName()) + ":" + frame.getLineNumber())
+                .orElse("desconhecida"));
+    }
+
+    private static boolean infraestrutura(String nomeClasse) {
+        String externa = nomeClasse.contains("$") ? nomeClasse.substring(0, nomeClasse.indexOf('$')) : nomeClasse;
+        return externa.equals(ConsultasLentas.class.getName()) || externa.equals(MedicaoSqlDataSource.class.getName());
+    }
+
+    // "lambda$atualizarEstoque$1" -> "atualizarEstoque"
+    private static String nomeMetodo(String nome) {
+        return nome.startsWith("lambda$") ? nome.substring(7, Math.max(7, nome.lastIndexOf('$'))) : nome;
+    }
+
+    private static String simplificar(String nomeClasse) {
+        return nomeClasse.substring(nomeClasse.lastIndexOf('.') + 1);
+    }
+
+    private static String truncar(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String compacto = String.join(" ", Arrays.asList(sql.trim().split("\\s+")));
+        return compacto.length() > TAMANHO_MAXIMO_SQL ? compacto.substring(0, TAMANHO_MAXIMO_SQL) + "..." : compacto;
+    }
+
+    private static final class Registro {
+
+        private final long posicao;
+        private final ConsultaLenta consulta;
+
+        private Registro(long posicao, ConsultaLenta consulta) {
+            this.posicao = posicao;
+            this.consulta = consulta;
+        }
+    }
+}
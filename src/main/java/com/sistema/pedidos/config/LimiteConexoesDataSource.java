@@ -0,0 +1,90 @@
+package com.sistema.pedidos.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita as conexões em uso ao tamanho do pool com um semáforo justo (FIFO). Com threads virtuais
+ * não há mais o teto do pool do Tomcat: o excesso espera aqui, em fila, e após a espera máxima falha rápido em vez
+ * de acumular milhares de threads no pool de conexões. A permissão é devolvida no close da conexão.
+ */
+public class LimiteConexoesDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final int conexoesSimultaneas;
+    private final Duration esperaMaxima;
+
+    public LimiteConexoesDataSource(DataSource alvo, int conexoesSimultaneas, Duration esperaMaxima) {
+        super(alvo);
+        this.permissoes = new Semaphore(conexoesSimultaneas, true);
+        this.conexoesSimultaneas = conexoesSimultaneas;
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int getPermissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public int getThreadsAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirirPermissao() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Limite de " + conexoesSimultaneas
+                        + " conexões simultâneas atingido após " + esperaMaxima.toMillis() + " ms de espera");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(LimiteConexoesDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName()) && liberada.compareAndSet(false, true)) {
+                        permissoes.release();
+                    }
+                    try {
+                        return metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
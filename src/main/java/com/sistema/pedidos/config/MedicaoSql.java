@@ -0,0 +1,74 @@
+package com.sistema.pedidos.config;
+
+/**
+ * Contadores de SQL da thread atual: statements executados, linhas lidas e tempo gasto no banco.
+ * Medições podem ser aninhadas (ex.: a requisição inteira e um trecho dela); cada execução
+ * é contabilizada em todas as medições abertas na thread.
+ */
+public final class MedicaoSql implements AutoCloseable {
+
+    private static final ThreadLocal<MedicaoSql> ATUAL = new ThreadLocal<>();
+
+    private final MedicaoSql anterior;
+    private int statements;
+    private long linhas;
+    private long nanos;
+    private boolean encerrada;
+
+    private MedicaoSql(MedicaoSql anterior) {
+        this.anterior = anterior;
+    }
+
+    public static MedicaoSql iniciar() {
+        MedicaoSql medicao = new MedicaoSql(ATUAL.get());
+        ATUAL.set(medicao);
+        return medicao;
+    }
+
+    static boolean ativa() {
+        return ATUAL.get() != null;
+    }
+
+    static void registrarStatement(long duracaoNanos) {
+        for (MedicaoSql medicao = ATUAL.get(); medicao != null; medicao = medicao.anterior) {
+            medicao.statements++;
+            medicao.nanos += duracaoNanos;
+        }
+    }
+
+    static void registrarLinha() {
+        for (MedicaoSql medicao = ATUAL.get(); medicao != null; medicao = medicao.anterior) {
+            medicao.linhas++;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (encerrada) {
+            return;
+        }
+        encerrada = true;
+        if (anterior == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(anterior);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public long getTempoMillis() {
+        return nanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", linhas=" + linhas + ", tempoMs=" + getTempoMillis();
+    }
+}
@@ -0,0 +1,29 @@
+package com.sistema.pedidos.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+// O registro de consultas lentas depende do DataSource envolvido, mas não da medição por requisição
+@ConditionalOnExpression("${pedidos.medicao-sql.habilitada:true} or ${pedidos.consultas-lentas.habilitada:true}")
+public class MedicaoSqlConfig {
+
+    // Envolve o DataSource do pool para contabilizar statements, linhas e tempo por requisição e registrar consultas lentas
+    @Bean
+    public static BeanPostProcessor medicaoSqlDataSourcePostProcessor(ObjectProvider<ConsultasLentas> consultasLentas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof MedicaoSqlDataSource)) {
+                    return new MedicaoSqlDataSource(dataSource, consultasLentas.getIfAvailable());
+                }
+                return bean;
+            }
+        };
+    }
+}
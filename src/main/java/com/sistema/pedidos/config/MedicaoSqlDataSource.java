@@ -0,0 +1,153 @@
+package com.sistema.pedidos.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DataSource que contabiliza, na {@link MedicaoSql} aberta na thread, cada statement executado,
+ * o tempo de execução e as linhas lidas dos ResultSets, e entrega ao {@link ConsultasLentas}
+ * os statements acima do limite, com o SQL e o tipo dos parâmetros ligados.
+ */
+public class MedicaoSqlDataSource extends DelegatingDataSource {
+
+    private final ConsultasLentas consultasLentas;
+
+    public MedicaoSqlDataSource(DataSource alvo, ConsultasLentas consultasLentas) {
+        super(alvo);
+        this.consultasLentas = consultasLentas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxyConexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxyConexao(super.getConnection(username, password));
+    }
+
+    private Connection proxyConexao(Connection conexao) {
+        return criarProxy(Connection.class, conexao, (proxy, metodo, args) -> {
+            Object resultado = invocar(conexao, metodo, args);
+            // prepareStatement/prepareCall recebem o SQL no primeiro argumento; createStatement o recebe no execute
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+            if (resultado instanceof CallableStatement chamada) {
+                return criarProxy(CallableStatement.class, chamada, new StatementMedido(chamada, sql));
+            }
+            if (resultado instanceof PreparedStatement preparado) {
+                return criarProxy(PreparedStatement.class, preparado, new StatementMedido(preparado, sql));
+            }
+            if (resultado instanceof Statement statement) {
+                return criarProxy(Statement.class, statement, new StatementMedido(statement, null));
+            }
+            return resultado;
+        });
+    }
+
+    private final class StatementMedido implements InvocationHandler {
+
+        private final Statement statement;
+        private final String sqlPreparado;
+
+        // Valores ligados por posição; o tipo só é calculado se o statement for lento
+        private final List<Object> parametros = new ArrayList<>();
+
+        private StatementMedido(Statement statement, String sqlPreparado) {
+            this.statement = statement;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.startsWith("execute")) {
+                return executar(metodo, args);
+            }
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                ligarParametro(indice, nome.equals("setNull") ? null : args[1]);
+            } else if (nome.equals("clearParameters")) {
+                parametros.clear();
+            }
+            return envolverResultSet(invocar(statement, metodo, args));
+        }
+
+        private Object executar(Method metodo, Object[] args) throws Throwable {
+            long inicio = System.nanoTime();
+            try {
+                return envolverResultSet(invocar(statement, metodo, args));
+            } finally {
+                long duracao = System.nanoTime() - inicio;
+                if (MedicaoSql.ativa()) {
+                    MedicaoSql.registrarStatement(duracao);
+                }
+                if (consultasLentas != null && consultasLentas.acimaDoLimite(duracao)) {
+                    String sql = sqlPreparado != null ? sqlPreparado
+                            : args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                    consultasLentas.registrar(sql, duracao, tiposDosParametros());
+                }
+            }
+        }
+
+        private void ligarParametro(int indice, Object valor) {
+            while (parametros.size() < indice) {
+                parametros.add(null);
+            }
+            parametros.set(indice - 1, valor);
+        }
+
+        private Collection<String> tiposDosParametros() {
+            List<String> tipos = new ArrayList<>(parametros.size());
+            for (Object valor : parametros) {
+                if (valor == null) {
+                    tipos.add("null");
+                } else if (valor instanceof CharSequence texto) {
+                    tipos.add("String(" + texto.length() + ")");
+                } else {
+                    tipos.add(valor.getClass().getSimpleName());
+                }
+            }
+            return tipos;
+        }
+    }
+
+    private static Object envolverResultSet(Object resultado) {
+        if (resultado instanceof ResultSet resultSet && MedicaoSql.ativa()) {
+            return criarProxy(ResultSet.class, resultSet, (proxy, metodo, args) -> {
+                Object retorno = invocar(resultSet, metodo, args);
+                if ("next".equals(metodo.getName()) && Boolean.TRUE.equals(retorno)) {
+                    MedicaoSql.registrarLinha();
+                }
+                return retorno;
+            });
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T criarProxy(Class<T> tipo, T alvo, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MedicaoSqlDataSource.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
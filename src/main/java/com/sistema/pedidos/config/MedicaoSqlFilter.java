@@ -0,0 +1,45 @@
+package com.sistema.pedidos.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@ConditionalOnProperty(name = "pedidos.medicao-sql.habilitada", havingValue = "true", matchIfMissing = true)
+public class MedicaoSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicaoSqlFilter.class);
+
+    private final int alertaStatements;
+
+    public MedicaoSqlFilter(@Value("${pedidos.medicao-sql.alerta-statements:50}") int alertaStatements) {
+        this.alertaStatements = alertaStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MedicaoSql medicao = MedicaoSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            medicao.close();
+            if (medicao.getStatements() > alertaStatements) {
+                logger.warn("message=Requisição acima do limite de statements SQL, metodo={}, uri={}, limite={}, {}",
+                        request.getMethod(), request.getRequestURI(), alertaStatements, medicao);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("message=SQL da requisição, metodo={}, uri={}, {}",
+                        request.getMethod(), request.getRequestURI(), medicao);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sistema.pedidos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * JDBC/JPA e R2DBC lado a lado. Com um ConnectionFactory do R2DBC no contexto o Spring Boot deixa de criar o
+ * DataSource e pode deixar de criar o JpaTransactionManager; os dois são declarados aqui com a mesma configuração
+ * do Boot (spring.datasource.* e spring.datasource.hikari.*). O gerenciador JPA é o padrão do @Transactional.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class PersistenciaConfig {
+
+    // Com a réplica de leitura habilitada o DataSource vem do ReplicaConfig
+    @Bean
+    @ConditionalOnProperty(name = "pedidos.replica.habilitada", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    // Pools adicionais (réplica, shards) com as mesmas configurações de spring.datasource.hikari.* do pool principal
+    static HikariDataSource criarPool(DataSourceProperties properties, String nome, Binder binder) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        return pool;
+    }
+}
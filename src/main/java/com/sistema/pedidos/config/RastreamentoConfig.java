@@ -0,0 +1,73 @@
+package com.sistema.pedidos.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+@Configuration
+@ConditionalOnProperty(name = "pedidos.rastreamento.arquivo.habilitado", havingValue = "true")
+public class RastreamentoConfig {
+
+    // O OtlpJsonLoggingSpanExporter escreve cada lote em OTLP-JSON no java.util.logging; o logger é desviado
+    // do console para arquivos que giram por tamanho (traces.0.jsonl, traces.1.jsonl, ...)
+    @Bean
+    public SpanExporter exportadorArquivoOtlp(
+            @Value("${pedidos.rastreamento.arquivo.diretorio:logs}") Path diretorio,
+            @Value("${pedidos.rastreamento.arquivo.tamanho-maximo:50MB}") DataSize tamanhoMaximo,
+            @Value("${pedidos.rastreamento.arquivo.quantidade:5}") int quantidade) throws IOException {
+        Files.createDirectories(diretorio);
+        FileHandler arquivo = new FileHandler(diretorio.resolve("traces.%g.jsonl").toString(),
+                (int) Math.min(Integer.MAX_VALUE, tamanhoMaximo.toBytes()), quantidade, true);
+        arquivo.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord registro) {
+                return registro.getMessage() + System.lineSeparator();
+            }
+        });
+
+        Logger logger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.INFO);
+        logger.addHandler(arquivo);
+
+        return new ExportadorArquivo(OtlpJsonLoggingSpanExporter.create(), logger, arquivo);
+    }
+
+    private record ExportadorArquivo(SpanExporter delegado, Logger logger, FileHandler arquivo) implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return delegado.export(spans);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            arquivo.flush();
+            return delegado.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            CompletableResultCode resultado = delegado.shutdown();
+            logger.removeHandler(arquivo);
+            arquivo.close();
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sistema.pedidos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de leitura (pedidos.replica.habilitada=true): o DataSource da aplicação passa a rotear transações somente
+ * leitura para pedidos.replica.datasource.* e as demais para spring.datasource.*. Os dois pools usam as mesmas
+ * configurações de spring.datasource.hikari.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.replica.habilitada", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public ReplicaLeitura replicaLeitura(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replica = binder.bind("pedidos.replica.datasource", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("pedidos.replica.datasource.url não configurada"));
+        return new ReplicaLeitura(PersistenciaConfig.criarPool(properties, "primario", binder),
+                PersistenciaConfig.criarPool(replica, "replica", binder));
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaLeitura replicaLeitura) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoReplicaDataSource(replicaLeitura));
+    }
+}
@@ -0,0 +1,102 @@
+package com.sistema.pedidos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pools do primário e da réplica de leitura, e até onde a réplica está atualizada. Um batimento com o horário atual
+ * é gravado periodicamente no primário e lido na réplica; como a replicação aplica as transações na ordem de commit,
+ * a réplica contém toda escrita confirmada antes do último batimento que ela mostra. Os horários vêm do relógio das
+ * instâncias da aplicação, que devem estar sincronizados (NTP).
+ */
+public class ReplicaLeitura implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLeitura.class);
+
+    private final HikariDataSource primario;
+    private final HikariDataSource replica;
+
+    // Último batimento visto na réplica; 0 enquanto não foi possível lê-lo
+    private volatile long batimentoReplica;
+
+    public ReplicaLeitura(HikariDataSource primario, HikariDataSource replica) {
+        this.primario = primario;
+        this.replica = replica;
+    }
+
+    public HikariDataSource getPrimario() {
+        return primario;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        try (Connection conexao = primario.getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_batimento (id INT NOT NULL PRIMARY KEY, momento BIGINT NOT NULL)");
+        } catch (SQLException e) {
+            logger.warn("message=Falha ao criar a tabela de batimento no primário, erro={}", e.getMessage());
+        }
+        registrarBatimento();
+        atualizarPosicao();
+    }
+
+    /**
+     * Se a réplica já contém as escritas confirmadas até o token. Batimento e escrita gravados no mesmo milissegundo
+     * não têm ordem conhecida, por isso o batimento precisa ser maior que o token.
+     */
+    public boolean alcancou(long token) {
+        return token == 0 || batimentoReplica > token;
+    }
+
+    @Scheduled(initialDelayString = "${pedidos.replica.intervalo-batimento:PT1S}",
+            fixedDelayString = "${pedidos.replica.intervalo-batimento:PT1S}")
+    public void registrarBatimento() {
+        long agora = System.currentTimeMillis();
+        try (Connection conexao = primario.getConnection()) {
+            try (PreparedStatement update = conexao.prepareStatement("UPDATE replica_batimento SET momento = ? WHERE id = 1")) {
+                update.setLong(1, agora);
+                if (update.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO replica_batimento (id, momento) VALUES (1, ?)")) {
+                insert.setLong(1, agora);
+                insert.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.warn("message=Falha ao gravar o batimento no primário, erro={}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${pedidos.replica.intervalo-batimento:PT1S}",
+            fixedDelayString = "${pedidos.replica.intervalo-batimento:PT1S}")
+    public void atualizarPosicao() {
+        try (Connection conexao = replica.getConnection();
+             Statement statement = conexao.createStatement();
+             ResultSet resultado = statement.executeQuery("SELECT momento FROM replica_batimento WHERE id = 1")) {
+            if (resultado.next()) {
+                batimentoReplica = resultado.getLong(1);
+            }
+        } catch (SQLException e) {
+            logger.warn("message=Falha ao ler o batimento na réplica, erro={}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primario.close();
+    }
+}
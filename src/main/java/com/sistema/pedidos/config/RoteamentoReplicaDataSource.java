@@ -0,0 +1,63 @@
+package com.sistema.pedidos.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Envia transações somente leitura para a réplica e o restante para o primário. Leituras de uma requisição cujo
+ * token de consistência a réplica ainda não alcançou vão para o primário. Precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy: o Hibernate pede a conexão antes de a transação ser marcada como somente leitura.
+ */
+public class RoteamentoReplicaDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    private final ReplicaLeitura replicaLeitura;
+    private final Object chaveSincronizacao = new Object();
+
+    public RoteamentoReplicaDataSource(ReplicaLeitura replicaLeitura) {
+        this.replicaLeitura = replicaLeitura;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, replicaLeitura.getPrimario(), Destino.REPLICA, replicaLeitura.getReplica()));
+        setDefaultTargetDataSource(replicaLeitura.getPrimario());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ConsistenciaLeitura consistencia = ConsistenciaLeitura.atual();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarTokenAposCommit(consistencia);
+            return Destino.PRIMARIO;
+        }
+        if (consistencia != null && !replicaLeitura.alcancou(consistencia.getTokenExigido())) {
+            return Destino.PRIMARIO;
+        }
+        return Destino.REPLICA;
+    }
+
+    // Uma vez por transação de escrita da requisição; fora de requisições (ex.: jobs) não há a quem devolver o token
+    private void registrarTokenAposCommit(ConsistenciaLeitura consistencia) {
+        if (consistencia == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(chaveSincronizacao)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(chaveSincronizacao, consistencia);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                consistencia.registrarEscrita(System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(chaveSincronizacao);
+            }
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.sistema.pedidos.config;
+
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import com.sistema.pedidos.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedidos em shards (pedidos.sharding.habilitado=true): pedidos e itens vão para os bancos de
+ * pedidos.sharding.shards[N].*, escolhidos pelo hash do ID do pedido, e os produtos continuam em spring.datasource.*.
+ * A quantidade de shards não pode mudar depois que houver pedidos gravados.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.sharding.habilitado", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public PedidoShardRepository pedidoShardRepository(DataSource dataSource, ProdutoRepository produtoRepository,
+                                                       Environment environment,
+                                                       @Value("${pedidos.sharding.bloco-ids:100}") int blocoIds) {
+        // Operam só sobre as tabelas de pedidos do catálogo, que com shards não recebem pedidos novos
+        validarDesabilitado(environment, "pedidos.arquivamento.habilitado", true);
+        validarDesabilitado(environment, "pedidos.analise.habilitada", false);
+
+        Binder binder = Binder.get(environment);
+        List<DataSourceProperties> configuracoes = binder
+                .bind("pedidos.sharding.shards", Bindable.listOf(DataSourceProperties.class))
+                .orElseThrow(() -> new IllegalStateException("pedidos.sharding.shards não configurado"));
+
+        List<DataSource> shards = new ArrayList<>(configuracoes.size());
+        for (int i = 0; i < configuracoes.size(); i++) {
+            shards.add(PersistenciaConfig.criarPool(configuracoes.get(i), "shard-" + i, binder));
+        }
+
+        PedidoShardRepository repository = new PedidoShardRepository(shards, dataSource, produtoRepository, blocoIds);
+        repository.criarTabelas();
+        return repository;
+    }
+
+    private static void validarDesabilitado(Environment environment, String propriedade, boolean padrao) {
+        if (environment.getProperty(propriedade, Boolean.class, padrao)) {
+            throw new IllegalStateException(propriedade + "=true não é suportado com pedidos.sharding.habilitado=true");
+        }
+    }
+}
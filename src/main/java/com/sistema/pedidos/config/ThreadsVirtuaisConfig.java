@@ -0,0 +1,96 @@
+package com.sistema.pedidos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de execução em threads virtuais (Java 21+): requisições do Tomcat e tarefas assíncronas do Spring MVC
+ * rodam cada uma em uma thread virtual, e as conexões com o banco passam pelo {@link LimiteConexoesDataSource}.
+ * O código é compilado para Java 17; as APIs de threads virtuais são obtidas por reflexão na inicialização.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.threads-virtuais.habilitadas", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadsVirtuaisConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService executorThreadsVirtuais() {
+        return criarExecutor("pedidos-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat(ExecutorService executorThreadsVirtuais) {
+        return protocolHandler -> protocolHandler.setExecutor(executorThreadsVirtuais);
+    }
+
+    // Substitui o executor padrão usado pelo Spring MVC em respostas assíncronas (ex.: StreamingResponseBody)
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService executorThreadsVirtuais) {
+        return new TaskExecutorAdapter(executorThreadsVirtuais);
+    }
+
+    // Limita as conexões simultâneas ao tamanho do pool do Hikari (ou a pedidos.threads-virtuais.conexoes-simultaneas)
+    @Bean
+    public static BeanPostProcessor limiteConexoesDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConexoesDataSource)) {
+                    int tamanhoPool = tamanhoPool(dataSource);
+                    int conexoes = environment.getProperty("pedidos.threads-virtuais.conexoes-simultaneas", Integer.class, tamanhoPool);
+                    Duration espera = environment.getProperty("pedidos.threads-virtuais.espera-conexao", Duration.class, Duration.ofSeconds(5));
+                    logger.info("message=Conexões limitadas para threads virtuais, conexoes={}, espera={}", conexoes, espera);
+                    return new LimiteConexoesDataSource(dataSource, conexoes, espera);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // O DataSource pode já estar envolvido pelo MedicaoSqlDataSource; o Hikari é obtido por unwrap
+    private static int tamanhoPool(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.warn("message=Tamanho do pool não identificado, usando o padrão do Hikari, erro={}", e.getMessage());
+        }
+        return 10;
+    }
+
+    static ExecutorService criarExecutor(String prefixoNome) {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("pedidos.threads-virtuais.habilitadas=true exige Java 21 ou superior; em execução: "
+                    + Runtime.version());
+        }
+        try {
+            Class<?> tipoBuilder = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = tipoBuilder.getMethod("name", String.class, long.class).invoke(builder, prefixoNome, 0L);
+            ThreadFactory fabrica = (ThreadFactory) tipoBuilder.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, fabrica);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar o executor de threads virtuais", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.config.ConsultasLentas;
+import com.sistema.pedidos.job.ArquivamentoPedidosJob;
+import com.sistema.pedidos.job.CancelamentoAutomaticoJob;
+import com.sistema.pedidos.metricas.GravacaoJfr;
+import com.sistema.pedidos.model.ArquivamentoMetricas;
+import com.sistema.pedidos.model.CancelamentoAutomaticoMetricas;
+import com.sistema.pedidos.model.ConsultasLentasResponse;
+import com.sistema.pedidos.model.GravacaoJfrResponse;
+import com.sistema.pedidos.service.ClientesDistintosService;
+import com.sistema.pedidos.service.ResumoClientesService;
+import com.sistema.pedidos.service.VendasDiariasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Administração", description = "API para acompanhamento das rotinas internas")
+public class AdminController {
+
+    private final CancelamentoAutomaticoJob cancelamentoAutomaticoJob;
+    private final ConsultasLentas consultasLentas;
+    private final GravacaoJfr gravacaoJfr;
+    private final ArquivamentoPedidosJob arquivamentoPedidosJob;
+    private final VendasDiariasService vendasDiariasService;
+    private final ClientesDistintosService clientesDistintosService;
+    private final ResumoClientesService resumoClientesService;
+
+    @Autowired
+    public AdminController(CancelamentoAutomaticoJob cancelamentoAutomaticoJob, ConsultasLentas consultasLentas,
+                           GravacaoJfr gravacaoJfr, ArquivamentoPedidosJob arquivamentoPedidosJob,
+                           VendasDiariasService vendasDiariasService, ClientesDistintosService clientesDistintosService,
+                           ResumoClientesService resumoClientesService) {
+        this.cancelamentoAutomaticoJob = cancelamentoAutomaticoJob;
+        this.consultasLentas = consultasLentas;
+        this.gravacaoJfr = gravacaoJfr;
+        this.arquivamentoPedidosJob = arquivamentoPedidosJob;
+        this.vendasDiariasService = vendasDiariasService;
+        this.clientesDistintosService = clientesDistintosService;
+        this.resumoClientesService = resumoClientesService;
+    }
+
+    @GetMapping("/cancelamento-automatico")
+    @Operation(summary = "Métricas do cancelamento automático", description = "Retorna vazão e atraso do cancelamento automático de pedidos PENDENTE antigos")
+    public ResponseEntity<CancelamentoAutomaticoMetricas> metricasCancelamentoAutomatico() {
+        return ResponseEntity.ok(cancelamentoAutomaticoJob.getMetricas());
+    }
+
+    @GetMapping("/arquivamento")
+    @Operation(summary = "Métricas do arquivamento", description = "Retorna vazão e totais do arquivamento de pedidos ENTREGUE e CANCELADO antigos")
+    public ResponseEntity<ArquivamentoMetricas> metricasArquivamento() {
+        return ResponseEntity.ok(arquivamentoPedidosJob.getMetricas());
+    }
+
+    @PostMapping("/vendas-diarias/reconstrucao")
+    @Operation(summary = "Reconstruir vendas diárias", description = "Recalcula os totais diários por produto a partir dos pedidos ativos e arquivados; retorna a quantidade de linhas")
+    public ResponseEntity<Integer> reconstruirVendasDiarias() {
+        return ResponseEntity.ok(vendasDiariasService.reconstruir());
+    }
+
+    @PostMapping("/clientes-distintos/reconstrucao")
+    @Operation(summary = "Reconstruir sketches de clientes distintos", description = "Recalcula os sketches de clientes por dia e produto a partir dos pedidos ativos e arquivados; retorna a quantidade de sketches")
+    public ResponseEntity<Integer> reconstruirClientesDistintos() {
+        return ResponseEntity.ok(clientesDistintosService.reconstruir());
+    }
+
+    @PostMapping("/resumos-clientes/reconstrucao")
+    @Operation(summary = "Reconstruir resumos de clientes", description = "Recalcula os resumos por cliente a partir dos pedidos ativos e arquivados; retorna a quantidade de clientes")
+    public ResponseEntity<Integer> reconstruirResumosClientes() {
+        return ResponseEntity.ok(resumoClientesService.reconstruir());
+    }
+
+    @GetMapping("/consultas-lentas")
+    @Operation(summary = "Consultas SQL lentas", description = "Retorna as últimas consultas SQL acima do limite configurado, com o método de origem e o tipo dos parâmetros")
+    public ResponseEntity<ConsultasLentasResponse> consultasLentas() {
+        return ResponseEntity.ok(consultasLentas.listar());
+    }
+
+    @PostMapping("/jfr")
+    @Operation(summary = "Iniciar gravação JFR", description = "Inicia uma gravação JFR limitada em duração e tamanho, incluindo os eventos de fase dos pedidos")
+    public ResponseEntity<GravacaoJfrResponse> iniciarGravacaoJfr(@RequestParam(defaultValue = "PT1M") Duration duracao) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(gravacaoJfr.iniciar(duracao));
+    }
+
+    @GetMapping("/jfr")
+    @Operation(summary = "Situação da gravação JFR", description = "Retorna o estado e o tamanho da gravação JFR atual ou da última concluída")
+    public ResponseEntity<GravacaoJfrResponse> consultarGravacaoJfr() {
+        return ResponseEntity.ok(gravacaoJfr.consultar());
+    }
+
+    @GetMapping("/jfr/arquivo")
+    @Operation(summary = "Download da gravação JFR", description = "Retorna o arquivo .jfr com o conteúdo gravado até o momento, para abrir no JDK Mission Control ou com o comando jfr")
+    public ResponseEntity<StreamingResponseBody> baixarGravacaoJfr() {
+        Path arquivo = gravacaoJfr.despejar();
+        StreamingResponseBody corpo = saida -> {
+            try {
+                Files.copy(arquivo, saida);
+            } finally {
+                Files.deleteIfExists(arquivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(arquivo.getFileName().toString()).build().toString())
+                .body(corpo);
+    }
+}
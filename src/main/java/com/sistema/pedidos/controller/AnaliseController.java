@@ -0,0 +1,44 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.AnaliseResponse;
+import com.sistema.pedidos.model.DimensaoAnalise;
+import com.sistema.pedidos.service.AnaliseColunarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(name = "pedidos.analise.habilitada", havingValue = "true")
+@Tag(name = "Análises", description = "API de análises ad hoc sobre o snapshot em memória dos itens de pedido")
+public class AnaliseController {
+
+    private final AnaliseColunarService analiseColunarService;
+
+    @Autowired
+    public AnaliseController(AnaliseColunarService analiseColunarService) {
+        this.analiseColunarService = analiseColunarService;
+    }
+
+    @GetMapping("/itens")
+    @Operation(summary = "Totais dos itens de pedido", description = "Filtra por período, status e produto e agrupa por produto, status, dia, semana ou mês, somando linhas, pedidos, quantidade e valor sem consultar o banco")
+    public ResponseEntity<AnaliseResponse> itens(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) List<PedidoEntity.StatusPedido> status,
+            @RequestParam(required = false) Long produtoId,
+            @RequestParam(defaultValue = "PRODUTO") DimensaoAnalise agruparPor) {
+        return ResponseEntity.ok(analiseColunarService.consultar(inicio, fim, status, produtoId, agruparPor));
+    }
+}
@@ -0,0 +1,31 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.entity.ResumoClienteEntity;
+import com.sistema.pedidos.service.ResumoClientesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/clientes")
+@Tag(name = "Clientes", description = "API de resumo dos pedidos por cliente")
+public class ClienteController {
+
+    private final ResumoClientesService resumoClientesService;
+
+    @Autowired
+    public ClienteController(ResumoClientesService resumoClientesService) {
+        this.resumoClientesService = resumoClientesService;
+    }
+
+    @GetMapping("/{cliente}/resumo")
+    @Operation(summary = "Resumo do cliente", description = "Retorna quantidade de pedidos e valor total (sem cancelados), pedidos em aberto e data do último pedido do cliente, lidos de uma linha mantida a cada gravação de pedido")
+    public ResponseEntity<ResumoClienteEntity> resumo(@PathVariable String cliente) {
+        return ResponseEntity.ok(resumoClientesService.buscar(cliente));
+    }
+}
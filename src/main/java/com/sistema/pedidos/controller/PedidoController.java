@@ -1,7 +1,12 @@
 package com.sistema.pedidos.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteRequest;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteResponse;
 import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.service.ConsultaPeriodoParalelaService;
 import com.sistema.pedidos.service.PedidoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,9 +16,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,12 +33,17 @@ import java.util.List;
 public class PedidoController {
 
     private final PedidoService pedidoService;
+    private final ConsultaPeriodoParalelaService consultaPeriodoParalelaService;
+    private final ObjectWriter escritorJson;
 
     private static final Logger logger = LoggerFactory.getLogger(PedidoController.class);
 
     @Autowired
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService, ConsultaPeriodoParalelaService consultaPeriodoParalelaService,
+                            ObjectMapper objectMapper) {
         this.pedidoService = pedidoService;
+        this.consultaPeriodoParalelaService = consultaPeriodoParalelaService;
+        this.escritorJson = objectMapper.writer();
     }
 
     @GetMapping
@@ -61,6 +76,34 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoEntities);
     }
 
+    @GetMapping(value = "/periodo/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Transmitir pedidos por período", description = "Retorna os pedidos do período em NDJSON, em ordem de data; períodos longos são divididos em faixas consultadas em paralelo")
+    public ResponseEntity<StreamingResponseBody> transmitirPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        StreamingResponseBody corpo = saida -> {
+            try {
+                consultaPeriodoParalelaService.buscar(inicio, fim, pedidos -> escrever(saida, pedidos));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    // Cada faixa é enviada assim que chega, sem esperar o período inteiro
+    private void escrever(OutputStream saida, List<PedidoEntity> pedidos) {
+        try {
+            for (PedidoEntity pedido : pedidos) {
+                saida.write(escritorJson.writeValueAsBytes(pedido));
+                saida.write('\n');
+            }
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Buscar pedidos por status", description = "Retorna uma lista de pedidos com um status específico com seus itens")
     public ResponseEntity<List<PedidoEntity>> buscarPorStatus(@PathVariable PedidoEntity.StatusPedido status) {
@@ -93,6 +136,14 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoEntityAtualizado);
     }
 
+    @PatchMapping("/status")
+    @Operation(summary = "Atualizar status de pedidos em lote", description = "Aplica a mesma regra de transição de status a vários pedidos e informa quais foram rejeitados")
+    public ResponseEntity<AtualizacaoStatusLoteResponse> atualizarStatusEmLote(
+            @Valid @RequestBody AtualizacaoStatusLoteRequest request) {
+        AtualizacaoStatusLoteResponse resultado = pedidoService.atualizarStatusEmLote(request.getIds(), request.getStatus());
+        return ResponseEntity.ok(resultado);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Excluir um pedido", description = "Remove um pedido do sistema")
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
@@ -0,0 +1,65 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.PedidoReativoEntity;
+import com.sistema.pedidos.service.ConsultaReativaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Listagens em NDJSON (padrão) ou SSE, escolhido pelo Accept; cada pedido é escrito assim que lido do banco
+@RestController
+@RequestMapping(value = "/api/reactive/pedidos", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+@Tag(name = "Pedidos (reativo)", description = "API de leitura de pedidos em streaming, sem os itens")
+public class PedidoReativoController {
+
+    private final ConsultaReativaService consultaReativaService;
+
+    @Autowired
+    public PedidoReativoController(ConsultaReativaService consultaReativaService) {
+        this.consultaReativaService = consultaReativaService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar todos os pedidos em streaming", description = "Emite todos os pedidos, um por linha (NDJSON) ou por evento (SSE)")
+    public Flux<PedidoReativoEntity> listarTodos() {
+        return consultaReativaService.buscarPedidos();
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido específico pelo seu ID, sem os itens")
+    public Mono<PedidoReativoEntity> buscarPorId(@PathVariable Long id) {
+        return consultaReativaService.buscarPedidoPorId(id);
+    }
+
+    @GetMapping("/cliente")
+    @Operation(summary = "Buscar pedidos por cliente em streaming", description = "Emite os pedidos cujo cliente contenha o nome informado")
+    public Flux<PedidoReativoEntity> buscarPorCliente(@RequestParam String cliente) {
+        return consultaReativaService.buscarPedidosPorCliente(cliente);
+    }
+
+    @GetMapping("/periodo")
+    @Operation(summary = "Buscar pedidos por período em streaming", description = "Emite os pedidos realizados dentro do período informado")
+    public Flux<PedidoReativoEntity> buscarPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return consultaReativaService.buscarPedidosPorPeriodo(inicio, fim);
+    }
+
+    @GetMapping("/status/{status}")
+    @Operation(summary = "Buscar pedidos por status em streaming", description = "Emite os pedidos com o status informado")
+    public Flux<PedidoReativoEntity> buscarPorStatus(@PathVariable PedidoEntity.StatusPedido status) {
+        return consultaReativaService.buscarPedidosPorStatus(status);
+    }
+}
@@ -1,15 +1,22 @@
 package com.sistema.pedidos.controller;
 
 import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.AjusteProdutosLoteRequest;
+import com.sistema.pedidos.model.AjusteProdutosLoteResponse;
+import com.sistema.pedidos.model.ImportacaoProdutosResponse;
+import com.sistema.pedidos.service.AjusteProdutoLoteService;
+import com.sistema.pedidos.service.ImportacaoProdutoService;
 import com.sistema.pedidos.service.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,10 +25,17 @@ import java.util.List;
 public class ProdutoController {
 
     private final ProdutoService produtoService;
+    private final ImportacaoProdutoService importacaoProdutoService;
+    private final AjusteProdutoLoteService ajusteProdutoLoteService;
 
     @Autowired
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(
+            ProdutoService produtoService,
+            ImportacaoProdutoService importacaoProdutoService,
+            AjusteProdutoLoteService ajusteProdutoLoteService) {
         this.produtoService = produtoService;
+        this.importacaoProdutoService = importacaoProdutoService;
+        this.ajusteProdutoLoteService = ajusteProdutoLoteService;
     }
 
     @GetMapping
@@ -52,6 +66,20 @@ public class ProdutoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(novoProdutoEntity);
     }
 
+    @PostMapping(value = "/importacao", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Importar produtos de um CSV", description = "Importa o catálogo em lotes a partir de um CSV (colunas id, nome, descricao, preco, quantidadeEstoque); linhas com id atualizam o produto existente e linhas sem id criam um novo")
+    public ResponseEntity<ImportacaoProdutosResponse> importar(InputStream csv) {
+        ImportacaoProdutosResponse resultado = importacaoProdutoService.importar(csv);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PatchMapping("/lote")
+    @Operation(summary = "Ajustar preço e estoque em lote", description = "Aplica reajuste de preço (absoluto ou percentual) e de estoque (definir ou delta) a vários produtos, ou valores individuais por produto, informando os IDs rejeitados")
+    public ResponseEntity<AjusteProdutosLoteResponse> ajustarEmLote(@RequestBody AjusteProdutosLoteRequest request) {
+        AjusteProdutosLoteResponse resultado = ajusteProdutoLoteService.ajustar(request);
+        return ResponseEntity.ok(resultado);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar um produto", description = "Atualiza os dados de um produto existente")
     public ResponseEntity<ProdutoEntity> atualizar(@PathVariable Long id, @Valid @RequestBody ProdutoEntity produtoEntity) {
@@ -0,0 +1,47 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.entity.ProdutoReativoEntity;
+import com.sistema.pedidos.service.ConsultaReativaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Listagens em NDJSON (padrão) ou SSE, escolhido pelo Accept; cada produto é escrito assim que lido do banco
+@RestController
+@RequestMapping(value = "/api/reactive/produtos", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+@Tag(name = "Produtos (reativo)", description = "API de leitura de produtos em streaming")
+public class ProdutoReativoController {
+
+    private final ConsultaReativaService consultaReativaService;
+
+    @Autowired
+    public ProdutoReativoController(ConsultaReativaService consultaReativaService) {
+        this.consultaReativaService = consultaReativaService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar todos os produtos em streaming", description = "Emite todos os produtos, um por linha (NDJSON) ou por evento (SSE)")
+    public Flux<ProdutoReativoEntity> listarTodos() {
+        return consultaReativaService.buscarProdutos();
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo seu ID")
+    public Mono<ProdutoReativoEntity> buscarPorId(@PathVariable Long id) {
+        return consultaReativaService.buscarProdutoPorId(id);
+    }
+
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar produtos por nome em streaming", description = "Emite os produtos que contenham o nome informado")
+    public Flux<ProdutoReativoEntity> buscarPorNome(@RequestParam String nome) {
+        return consultaReativaService.buscarProdutosPorNome(nome);
+    }
+}
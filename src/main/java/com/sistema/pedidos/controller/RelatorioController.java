@@ -0,0 +1,107 @@
+package com.sistema.pedidos.controller;
+
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.ClientesDistintos;
+import com.sistema.pedidos.model.CriterioRanking;
+import com.sistema.pedidos.model.ReceitaPeriodo;
+import com.sistema.pedidos.model.TotalVendasPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.model.TotalVendasStatus;
+import com.sistema.pedidos.service.ClientesDistintosService;
+import com.sistema.pedidos.service.RelatorioService;
+import com.sistema.pedidos.service.TopProdutosService;
+import com.sistema.pedidos.service.VendasDiariasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@Tag(name = "Relatórios", description = "API de totais de vendas calculados no banco")
+public class RelatorioController {
+
+    private final RelatorioService relatorioService;
+    private final VendasDiariasService vendasDiariasService;
+    private final TopProdutosService topProdutosService;
+    private final ClientesDistintosService clientesDistintosService;
+
+    @Autowired
+    public RelatorioController(RelatorioService relatorioService, VendasDiariasService vendasDiariasService,
+                               TopProdutosService topProdutosService, ClientesDistintosService clientesDistintosService) {
+        this.relatorioService = relatorioService;
+        this.vendasDiariasService = vendasDiariasService;
+        this.topProdutosService = topProdutosService;
+        this.clientesDistintosService = clientesDistintosService;
+    }
+
+    @GetMapping("/vendas")
+    @Operation(summary = "Vendas por período", description = "Retorna quantidade de pedidos e receita por dia, semana ou mês, sem pedidos cancelados")
+    public ResponseEntity<List<TotalVendasPeriodo>> vendasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "DIA") AgrupamentoPeriodo agrupamento) {
+        return ResponseEntity.ok(relatorioService.vendasPorPeriodo(inicio, fim, agrupamento));
+    }
+
+    @GetMapping("/vendas/status")
+    @Operation(summary = "Vendas por status", description = "Retorna quantidade de pedidos e valor total por status no período")
+    public ResponseEntity<List<TotalVendasStatus>> vendasPorStatus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return ResponseEntity.ok(relatorioService.vendasPorStatus(inicio, fim));
+    }
+
+    @GetMapping("/vendas/produtos")
+    @Operation(summary = "Vendas por produto", description = "Retorna quantidade vendida e receita por produto no período, da maior para a menor receita, sem pedidos cancelados")
+    public ResponseEntity<List<TotalVendasProduto>> vendasPorProduto(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return ResponseEntity.ok(relatorioService.vendasPorProduto(inicio, fim));
+    }
+
+    @GetMapping("/vendas/produtos/mais-vendidos")
+    @Operation(summary = "Produtos mais vendidos", description = "Retorna os N produtos com maior quantidade vendida ou receita no período, sem pedidos cancelados, somando os itens lidos em streaming")
+    public ResponseEntity<List<TotalVendasProduto>> maisVendidos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "QUANTIDADE") CriterioRanking criterio,
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(topProdutosService.maisVendidos(inicio, fim, criterio, limite));
+    }
+
+    @GetMapping("/vendas-diarias")
+    @Operation(summary = "Receita diária para dashboards", description = "Retorna quantidade vendida e receita por dia, semana ou mês a partir dos totais diários por produto, sem varrer os pedidos")
+    public ResponseEntity<List<ReceitaPeriodo>> receitaDiaria(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(defaultValue = "DIA") AgrupamentoPeriodo agrupamento) {
+        return ResponseEntity.ok(vendasDiariasService.receitaPorPeriodo(inicio, fim, agrupamento));
+    }
+
+    @GetMapping("/vendas-diarias/produtos")
+    @Operation(summary = "Vendas por produto para dashboards", description = "Retorna quantidade vendida, pedidos e receita por produto a partir dos totais diários, da maior para a menor receita")
+    public ResponseEntity<List<TotalVendasProduto>> vendasDiariasPorProduto(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        return ResponseEntity.ok(vendasDiariasService.vendasPorProduto(inicio, fim));
+    }
+
+    @GetMapping("/clientes-distintos")
+    @Operation(summary = "Clientes distintos", description = "Estima quantos clientes distintos criaram pedidos no período, em todos os produtos ou no produto informado, unindo sketches HyperLogLog diários; a resposta traz o erro padrão da estimativa")
+    public ResponseEntity<ClientesDistintos> clientesDistintos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Long produtoId) {
+        return ResponseEntity.ok(clientesDistintosService.estimar(inicio, fim, produtoId));
+    }
+}
@@ -0,0 +1,82 @@
+package com.sistema.pedidos.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+// Item de um pedido arquivado, com o mesmo ID que tinha na tabela itens_pedido
+@Entity
+@Table(name = "itens_pedido_arquivo", indexes = {
+        @Index(name = "idx_itens_pedido_arquivo_pedido_id", columnList = "pedido_id")
+})
+public class ItemPedidoArquivadoEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "produto_id", nullable = false)
+    private ProdutoEntity produto;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Column(nullable = false)
+    private BigDecimal precoUnitario;
+
+    @Column(nullable = false)
+    private BigDecimal valorTotal;
+
+    ItemPedidoEntity paraItemPedido() {
+        ItemPedidoEntity item = new ItemPedidoEntity();
+        item.setId(id);
+        item.setPedidoId(pedidoId);
+        item.setProduto(produto);
+        item.setQuantidade(quantidade);
+        // Preço do momento da compra, não o atual do produto
+        item.setPrecoUnitario(precoUnitario);
+        return item;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public ProdutoEntity getProduto() {
+        return produto;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getPrecoUnitario() {
+        return precoUnitario;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemPedidoArquivadoEntity that = (ItemPedidoArquivadoEntity) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
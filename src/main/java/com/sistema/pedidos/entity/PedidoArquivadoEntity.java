@@ -0,0 +1,102 @@
+package com.sistema.pedidos.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Pedido finalizado (ENTREGUE ou CANCELADO) movido da tabela pedidos pelo arquivamento; não é mais alterado
+@Entity
+@Table(name = "pedidos_arquivo", indexes = {
+        @Index(name = "idx_pedidos_arquivo_data_pedido", columnList = "dataPedido")
+})
+public class PedidoArquivadoEntity {
+
+    // Mesmo ID que o pedido tinha na tabela pedidos
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String cliente;
+
+    @Column(nullable = false)
+    private LocalDateTime dataPedido;
+
+    @Column
+    private String observacao;
+
+    @Column(nullable = false)
+    private BigDecimal valorTotal;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PedidoEntity.StatusPedido status;
+
+    @Column(nullable = false)
+    private LocalDateTime dataArquivamento;
+
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", referencedColumnName = "id", insertable = false, updatable = false)
+    private List<ItemPedidoArquivadoEntity> itens = new ArrayList<>();
+
+    // Converte para a mesma representação dos pedidos ativos, para que o arquivamento seja transparente nas buscas
+    public PedidoEntity paraPedido() {
+        PedidoEntity pedido = new PedidoEntity(id, cliente, dataPedido, observacao, valorTotal, status);
+        List<ItemPedidoEntity> itensPedido = new ArrayList<>(itens.size());
+        for (ItemPedidoArquivadoEntity item : itens) {
+            itensPedido.add(item.paraItemPedido());
+        }
+        pedido.setItens(itensPedido);
+        pedido.setValorTotal(valorTotal);
+        return pedido;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getCliente() {
+        return cliente;
+    }
+
+    public LocalDateTime getDataPedido() {
+        return dataPedido;
+    }
+
+    public String getObservacao() {
+        return observacao;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public PedidoEntity.StatusPedido getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getDataArquivamento() {
+        return dataArquivamento;
+    }
+
+    public List<ItemPedidoArquivadoEntity> getItens() {
+        return itens;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PedidoArquivadoEntity that = (PedidoArquivadoEntity) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -11,7 +11,9 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_status_data_pedido", columnList = "status, dataPedido")
+})
 public class PedidoEntity {
 
     @Id
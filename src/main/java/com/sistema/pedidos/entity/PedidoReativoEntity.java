@@ -0,0 +1,74 @@
+package com.sistema.pedidos.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Linha da tabela pedidos lida via R2DBC, sem os itens (R2DBC não carrega relacionamentos)
+@Table("pedidos")
+public class PedidoReativoEntity {
+
+    @Id
+    private Long id;
+
+    private String cliente;
+
+    private LocalDateTime dataPedido;
+
+    private String observacao;
+
+    private BigDecimal valorTotal;
+
+    private PedidoEntity.StatusPedido status;
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(String cliente) {
+        this.cliente = cliente;
+    }
+
+    public LocalDateTime getDataPedido() {
+        return dataPedido;
+    }
+
+    public void setDataPedido(LocalDateTime dataPedido) {
+        this.dataPedido = dataPedido;
+    }
+
+    public String getObservacao() {
+        return observacao;
+    }
+
+    public void setObservacao(String observacao) {
+        this.observacao = observacao;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public void setValorTotal(BigDecimal valorTotal) {
+        this.valorTotal = valorTotal;
+    }
+
+    public PedidoEntity.StatusPedido getStatus() {
+        return status;
+    }
+
+    public void setStatus(PedidoEntity.StatusPedido status) {
+        this.status = status;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sistema.pedidos.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +10,8 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "produtos")
+// Itens de pedido carregam o produto de forma LAZY; ignora os campos internos do proxy do Hibernate na serialização
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ProdutoEntity {
 
     @Id
@@ -0,0 +1,65 @@
+package com.sistema.pedidos.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Totais por cliente normalizado, mantidos na mesma transação das gravações de pedidos
+@Entity
+@Table(name = "resumos_clientes")
+public class ResumoClienteEntity {
+
+    @Id
+    @Column(nullable = false)
+    private String cliente;
+
+    // Pedidos não cancelados
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos;
+
+    // Soma do valor total dos pedidos não cancelados
+    @Column(name = "valor_total", nullable = false)
+    private BigDecimal valorTotal;
+
+    // Pedidos PENDENTE ou APROVADO
+    @Column(name = "pedidos_abertos", nullable = false)
+    private Long pedidosAbertos;
+
+    // Data do pedido mais recente já feito pelo cliente, inclusive cancelado; exclusões não a diminuem
+    @Column(name = "ultimo_pedido")
+    private LocalDateTime ultimoPedido;
+
+    protected ResumoClienteEntity() {
+    }
+
+    public ResumoClienteEntity(String cliente, Long quantidadePedidos, BigDecimal valorTotal, Long pedidosAbertos,
+                               LocalDateTime ultimoPedido) {
+        this.cliente = cliente;
+        this.quantidadePedidos = quantidadePedidos;
+        this.valorTotal = valorTotal;
+        this.pedidosAbertos = pedidosAbertos;
+        this.ultimoPedido = ultimoPedido;
+    }
+
+    // Getters
+    public String getCliente() {
+        return cliente;
+    }
+
+    public Long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public Long getPedidosAbertos() {
+        return pedidosAbertos;
+    }
+
+    public LocalDateTime getUltimoPedido() {
+        return ultimoPedido;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sistema.pedidos.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Sketch HyperLogLog serializado dos clientes distintos por dia do pedido e produto; produto 0 é o dia inteiro
+@Entity
+@Table(name = "sketches_clientes", indexes = {
+        @Index(name = "idx_sketches_clientes_produto_dia", columnList = "produto_id, dia")
+})
+@IdClass(SketchClientesEntity.Chave.class)
+public class SketchClientesEntity {
+
+    public static final long TODOS_OS_PRODUTOS = 0L;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    // Cabe o formato denso da maior precisão suportada (2 bytes de cabeçalho + 2^16 registradores)
+    @Column(nullable = false, length = 65538)
+    private byte[] registros;
+
+    protected SketchClientesEntity() {
+    }
+
+    public SketchClientesEntity(LocalDate dia, Long produtoId, byte[] registros) {
+        this.dia = dia;
+        this.produtoId = produtoId;
+        this.registros = registros;
+    }
+
+    // Getters e setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public byte[] getRegistros() {
+        return registros;
+    }
+
+    public void setRegistros(byte[] registros) {
+        this.registros = registros;
+    }
+
+    public static class Chave implements Serializable, Comparable<Chave> {
+
+        private LocalDate dia;
+
+        private Long produtoId;
+
+        public Chave() {
+        }
+
+        public Chave(LocalDate dia, Long produtoId) {
+            this.dia = dia;
+            this.produtoId = produtoId;
+        }
+
+        public LocalDate getDia() {
+            return dia;
+        }
+
+        public Long getProdutoId() {
+            return produtoId;
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            int porDia = dia.compareTo(outra.dia);
+            return porDia != 0 ? porDia : produtoId.compareTo(outra.produtoId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Chave chave = (Chave) o;
+            return Objects.equals(dia, chave.dia) && Objects.equals(produtoId, chave.produtoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, produtoId);
+        }
+    }
+}
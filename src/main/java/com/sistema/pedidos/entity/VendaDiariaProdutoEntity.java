@@ -0,0 +1,92 @@
+package com.sistema.pedidos.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Totais por dia do pedido e produto, mantidos na mesma transação das gravações de pedidos
+@Entity
+@Table(name = "vendas_diarias_produto")
+@IdClass(VendaDiariaProdutoEntity.Chave.class)
+public class VendaDiariaProdutoEntity {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Column(nullable = false)
+    private BigDecimal receita;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos;
+
+    protected VendaDiariaProdutoEntity() {
+    }
+
+    public VendaDiariaProdutoEntity(LocalDate dia, Long produtoId, Long quantidade, BigDecimal receita, Long quantidadePedidos) {
+        this.dia = dia;
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+        this.receita = receita;
+        this.quantidadePedidos = quantidadePedidos;
+    }
+
+    // Getters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getReceita() {
+        return receita;
+    }
+
+    public Long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public static class Chave implements Serializable {
+
+        private LocalDate dia;
+
+        private Long produtoId;
+
+        public Chave() {
+        }
+
+        public Chave(LocalDate dia, Long produtoId) {
+            this.dia = dia;
+            this.produtoId = produtoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Chave chave = (Chave) o;
+            return Objects.equals(dia, chave.dia) && Objects.equals(produtoId, chave.produtoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, produtoId);
+        }
+    }
+}
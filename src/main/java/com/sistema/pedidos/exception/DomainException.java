@@ -0,0 +1,14 @@
+package com.sistema.pedidos.exception;
+
+/**
+ * Base das exceções de domínio, respondidas com 4xx pelo {@link GlobalExceptionHandler}. São esperadas e a pilha
+ * não é logada, então por padrão não a capturam; -Dpedidos.excecoes.pilha=true volta a capturá-la para depuração.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    static final boolean CAPTURAR_PILHA = Boolean.getBoolean("pedidos.excecoes.pilha");
+
+    protected DomainException(String message) {
+        super(message, null, false, CAPTURAR_PILHA);
+    }
+}
@@ -1,84 +1,119 @@
 package com.sistema.pedidos.exception;
 
+import com.sistema.pedidos.model.ErroResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final Duration intervaloLog;
+
+    // Erros 4xx e 503 são só contados por tipo; o total do intervalo é logado por registrarErrosAgregados
+    private final Map<Class<?>, LongAdder> errosNoIntervalo = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(@Value("${pedidos.erros.intervalo-log:PT1M}") Duration intervaloLog) {
+        this.intervaloLog = intervaloLog;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<?> handleResourceNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-
-        logger.error("message={}",body,ex);
+        contarErro(ex);
 
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(erro(ex.getMessage(), HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<?> handleBadRequestException(
             BadRequestException ex, WebRequest request) {
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-
-        logger.error("message={}",body,ex);
+        contarErro(ex);
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(erro(ex.getMessage(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
 
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("errors", errors);
+        List<FieldError> fieldErrors = ex.getBindingResult().getFieldErrors();
+        Map<String, String> errors = new LinkedHashMap<>((int) (fieldErrors.size() / 0.75f) + 1);
+        fieldErrors.forEach((error) -> errors.put(error.getField(), error.getDefaultMessage()));
 
-        logger.error("message={}",body,ex);
+        contarErro(ex);
 
+        ErroResponse body = new ErroResponse(LocalDateTime.now(), null, HttpStatus.BAD_REQUEST.value(), errors, null);
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    // Conexão não obtida dentro da espera máxima (pool ou LimiteConexoesDataSource): sobrecarga esperada, sem pilha no log
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<?> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex, WebRequest request) {
+
+        contarErro(ex);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(erro("Banco de dados sobrecarregado, tente novamente em instantes", HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", "Ocorreu um erro interno no servidor");
-        body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        body.put("error", ex.getMessage());
+        ErroResponse body = new ErroResponse(LocalDateTime.now(), "Ocorreu um erro interno no servidor",
+                HttpStatus.INTERNAL_SERVER_ERROR.value(), null, ex.getMessage());
 
-        logger.error("message={}",body,ex);
+        logger.error("message={}",body.getMessage(),ex);
 
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @Scheduled(initialDelayString = "${pedidos.erros.intervalo-log:PT1M}", fixedDelayString = "${pedidos.erros.intervalo-log:PT1M}")
+    public void registrarErrosAgregados() {
+        Map<String, Long> contagens = new TreeMap<>();
+        errosNoIntervalo.forEach((tipo, contador) -> {
+            long quantidade = contador.sumThenReset();
+            if (quantidade > 0) {
+                contagens.put(tipo.getSimpleName(), quantidade);
+            }
+        });
+
+        if (!contagens.isEmpty()) {
+            logger.warn("message=Erros de requisição no intervalo, intervalo={}, contagens={}", intervaloLog, contagens);
+        }
+    }
+
+    private void contarErro(Exception ex) {
+        errosNoIntervalo.computeIfAbsent(ex.getClass(), tipo -> new LongAdder()).increment();
+        logger.debug("message=Erro de requisição, tipo={}, erro={}", ex.getClass().getSimpleName(), ex.getMessage());
+    }
+
+    private static ErroResponse erro(String message, HttpStatus status) {
+        return new ErroResponse(LocalDateTime.now(), message, status.value(), null, null);
+    }
 }
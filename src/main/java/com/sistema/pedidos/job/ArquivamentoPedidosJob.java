@@ -0,0 +1,118 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.model.ArquivamentoMetricas;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.service.ArquivamentoPedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ArquivamentoPedidosJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivamentoPedidosJob.class);
+
+    private final PedidoRepository pedidoRepository;
+    private final ArquivamentoPedidoService arquivamentoPedidoService;
+
+    private final boolean habilitado;
+    private final Duration idadeMinima;
+    private final int tamanhoLote;
+    private final Duration pausaEntreLotes;
+    private final int maximoLotesPorExecucao;
+
+    private final AtomicLong execucoes = new AtomicLong();
+    private final AtomicLong lotesProcessados = new AtomicLong();
+    private final AtomicLong pedidosArquivados = new AtomicLong();
+
+    private volatile LocalDateTime ultimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile double pedidosPorSegundo;
+
+    @Autowired
+    public ArquivamentoPedidosJob(
+            PedidoRepository pedidoRepository,
+            ArquivamentoPedidoService arquivamentoPedidoService,
+            @Value("${pedidos.arquivamento.habilitado:true}") boolean habilitado,
+            @Value("${pedidos.arquivamento.idade-minima:P90D}") Duration idadeMinima,
+            @Value("${pedidos.arquivamento.tamanho-lote:500}") int tamanhoLote,
+            @Value("${pedidos.arquivamento.pausa-entre-lotes:PT0.2S}") Duration pausaEntreLotes,
+            @Value("${pedidos.arquivamento.maximo-lotes-por-execucao:100}") int maximoLotesPorExecucao) {
+        this.pedidoRepository = pedidoRepository;
+        this.arquivamentoPedidoService = arquivamentoPedidoService;
+        this.habilitado = habilitado;
+        this.idadeMinima = idadeMinima;
+        this.tamanhoLote = tamanhoLote;
+        this.pausaEntreLotes = pausaEntreLotes;
+        this.maximoLotesPorExecucao = maximoLotesPorExecucao;
+    }
+
+    @Scheduled(initialDelayString = "${pedidos.arquivamento.intervalo:PT1H}",
+            fixedDelayString = "${pedidos.arquivamento.intervalo:PT1H}")
+    public void executar() {
+        if (!habilitado) {
+            return;
+        }
+
+        LocalDateTime limite = LocalDateTime.now().minus(idadeMinima);
+        long inicio = System.nanoTime();
+        long arquivadosNaExecucao = 0;
+
+        for (int lote = 0; lote < maximoLotesPorExecucao; lote++) {
+            // Varredura pelo índice (status, data_pedido); cada lote sai da tabela ativa, então a próxima busca começa do zero
+            List<Long> ids = pedidoRepository.findIdsByStatusInAndDataPedidoBefore(
+                    ArquivamentoPedidoService.STATUS_FINAIS, limite, PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            arquivadosNaExecucao += arquivamentoPedidoService.arquivarLote(ids);
+            lotesProcessados.incrementAndGet();
+
+            if (ids.size() < tamanhoLote || !pausar()) {
+                break;
+            }
+        }
+
+        long duracaoNanos = System.nanoTime() - inicio;
+        execucoes.incrementAndGet();
+        pedidosArquivados.addAndGet(arquivadosNaExecucao);
+        ultimaExecucao = LocalDateTime.now();
+        duracaoUltimaExecucaoMs = Duration.ofNanos(duracaoNanos).toMillis();
+        pedidosPorSegundo = duracaoNanos > 0 ? arquivadosNaExecucao * 1_000_000_000d / duracaoNanos : 0;
+
+        if (arquivadosNaExecucao > 0) {
+            logger.info("message=Arquivamento de pedidos finalizado. arquivados={} duracaoMs={}",
+                    arquivadosNaExecucao, duracaoUltimaExecucaoMs);
+        }
+    }
+
+    public ArquivamentoMetricas getMetricas() {
+        return new ArquivamentoMetricas(habilitado, execucoes.get(), lotesProcessados.get(), pedidosArquivados.get(),
+                ultimaExecucao, duracaoUltimaExecucaoMs, pedidosPorSegundo);
+    }
+
+    // Pausa entre lotes para não disputar conexões e locks com o tráfego online
+    private boolean pausar() {
+        if (pausaEntreLotes.isZero() || pausaEntreLotes.isNegative()) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pausaEntreLotes.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
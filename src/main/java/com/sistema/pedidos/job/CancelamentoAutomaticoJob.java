@@ -0,0 +1,133 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.CancelamentoAutomaticoMetricas;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import com.sistema.pedidos.service.PedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CancelamentoAutomaticoJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CancelamentoAutomaticoJob.class);
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoService pedidoService;
+    // Presente apenas com pedidos.sharding.habilitado=true; os pendentes são procurados nos shards
+    private final PedidoShardRepository pedidoShardRepository;
+
+    private final boolean habilitado;
+    private final Duration idadeMaxima;
+    private final int tamanhoLote;
+    private final Duration pausaEntreLotes;
+    private final int maximoLotesPorExecucao;
+
+    private final AtomicLong execucoes = new AtomicLong();
+    private final AtomicLong lotesProcessados = new AtomicLong();
+    private final AtomicLong pedidosCancelados = new AtomicLong();
+
+    private volatile LocalDateTime ultimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile double pedidosPorSegundo;
+    private volatile long atrasoSegundos;
+
+    @Autowired
+    public CancelamentoAutomaticoJob(
+            PedidoRepository pedidoRepository,
+            PedidoService pedidoService,
+            @Nullable PedidoShardRepository pedidoShardRepository,
+            @Value("${pedidos.cancelamento-automatico.habilitado:true}") boolean habilitado,
+            @Value("${pedidos.cancelamento-automatico.idade-maxima:P3D}") Duration idadeMaxima,
+            @Value("${pedidos.cancelamento-automatico.tamanho-lote:200}") int tamanhoLote,
+            @Value("${pedidos.cancelamento-automatico.pausa-entre-lotes:PT0.2S}") Duration pausaEntreLotes,
+            @Value("${pedidos.cancelamento-automatico.maximo-lotes-por-execucao:100}") int maximoLotesPorExecucao) {
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoService = pedidoService;
+        this.pedidoShardRepository = pedidoShardRepository;
+        this.habilitado = habilitado;
+        this.idadeMaxima = idadeMaxima;
+        this.tamanhoLote = tamanhoLote;
+        this.pausaEntreLotes = pausaEntreLotes;
+        this.maximoLotesPorExecucao = maximoLotesPorExecucao;
+    }
+
+    @Scheduled(initialDelayString = "${pedidos.cancelamento-automatico.intervalo:PT5M}",
+            fixedDelayString = "${pedidos.cancelamento-automatico.intervalo:PT5M}")
+    public void executar() {
+        if (!habilitado) {
+            return;
+        }
+
+        LocalDateTime limite = LocalDateTime.now().minus(idadeMaxima);
+        long inicio = System.nanoTime();
+        long canceladosNaExecucao = 0;
+
+        for (int lote = 0; lote < maximoLotesPorExecucao; lote++) {
+            // Varredura pelo índice (status, data_pedido), sempre do pedido mais antigo para o mais novo
+            List<Long> ids = pedidoShardRepository != null
+                    ? pedidoShardRepository.buscarIdsPorStatusAntesDe(PedidoEntity.StatusPedido.PENDENTE, limite, tamanhoLote)
+                    : pedidoRepository.findIdsByStatusAndDataPedidoBefore(
+                            PedidoEntity.StatusPedido.PENDENTE, limite, PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            canceladosNaExecucao += pedidoService.cancelarPendentesEmLote(ids);
+            lotesProcessados.incrementAndGet();
+
+            if (ids.size() < tamanhoLote || !pausar()) {
+                break;
+            }
+        }
+
+        long duracaoNanos = System.nanoTime() - inicio;
+        LocalDateTime maisAntigoPendente = pedidoShardRepository != null
+                ? pedidoShardRepository.buscarMenorDataPedido(PedidoEntity.StatusPedido.PENDENTE, limite)
+                : pedidoRepository.findMenorDataPedidoByStatusAndDataPedidoBefore(PedidoEntity.StatusPedido.PENDENTE, limite);
+
+        execucoes.incrementAndGet();
+        pedidosCancelados.addAndGet(canceladosNaExecucao);
+        ultimaExecucao = LocalDateTime.now();
+        duracaoUltimaExecucaoMs = Duration.ofNanos(duracaoNanos).toMillis();
+        pedidosPorSegundo = duracaoNanos > 0 ? canceladosNaExecucao * 1_000_000_000d / duracaoNanos : 0;
+        atrasoSegundos = maisAntigoPendente != null ? Duration.between(maisAntigoPendente, limite).getSeconds() : 0;
+
+        if (canceladosNaExecucao > 0) {
+            logger.info("message=Cancelamento automatico finalizado. cancelados={} duracaoMs={} atrasoSegundos={}",
+                    canceladosNaExecucao, duracaoUltimaExecucaoMs, atrasoSegundos);
+        }
+    }
+
+    public CancelamentoAutomaticoMetricas getMetricas() {
+        return new CancelamentoAutomaticoMetricas(habilitado, execucoes.get(), lotesProcessados.get(),
+                pedidosCancelados.get(), ultimaExecucao, duracaoUltimaExecucaoMs, pedidosPorSegundo, atrasoSegundos);
+    }
+
+    // Pausa entre lotes para não disputar conexões e locks com o tráfego online
+    private boolean pausar() {
+        if (pausaEntreLotes.isZero() || pausaEntreLotes.isNegative()) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pausaEntreLotes.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
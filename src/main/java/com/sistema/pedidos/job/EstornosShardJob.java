@@ -0,0 +1,54 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import com.sistema.pedidos.service.PedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "pedidos.sharding.habilitado", havingValue = "true")
+public class EstornosShardJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstornosShardJob.class);
+
+    private final PedidoService pedidoService;
+    private final PedidoShardRepository pedidoShardRepository;
+
+    private final Duration idadeMinima;
+    private final Duration retencaoMarcas;
+
+    @Autowired
+    public EstornosShardJob(
+            PedidoService pedidoService,
+            PedidoShardRepository pedidoShardRepository,
+            @Value("${pedidos.sharding.estornos.idade-minima:PT1M}") Duration idadeMinima,
+            @Value("${pedidos.sharding.estornos.retencao-marcas:P7D}") Duration retencaoMarcas) {
+        this.pedidoService = pedidoService;
+        this.pedidoShardRepository = pedidoShardRepository;
+        this.idadeMinima = idadeMinima;
+        this.retencaoMarcas = retencaoMarcas;
+    }
+
+    // Pendentes mais novos que idade-minima ainda podem estar com a transação do catálogo em andamento
+    @Scheduled(initialDelayString = "${pedidos.sharding.estornos.intervalo:PT1M}",
+            fixedDelayString = "${pedidos.sharding.estornos.intervalo:PT1M}")
+    public void executar() {
+        try {
+            int estornados = pedidoService.reaplicarEstornosPendentes(LocalDateTime.now().minus(idadeMinima));
+            if (estornados > 0) {
+                logger.warn("message=Estornos de pedidos cancelados nos shards reaplicados. pedidos={}", estornados);
+            }
+            pedidoShardRepository.excluirMarcasEstorno(LocalDateTime.now().minus(retencaoMarcas));
+        } catch (RuntimeException e) {
+            logger.warn("message=Falha ao reaplicar estornos dos shards, erro={}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.service.ClientesDistintosService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SketchesClientesJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SketchesClientesJob.class);
+
+    private final ClientesDistintosService clientesDistintosService;
+
+    @Autowired
+    public SketchesClientesJob(ClientesDistintosService clientesDistintosService) {
+        this.clientesDistintosService = clientesDistintosService;
+    }
+
+    // Falha mantém os pendentes em memória para a próxima execução
+    @Scheduled(initialDelayString = "${pedidos.clientes-distintos.intervalo-gravacao:PT10S}",
+            fixedDelayString = "${pedidos.clientes-distintos.intervalo-gravacao:PT10S}")
+    public void executar() {
+        try {
+            clientesDistintosService.gravarPendentes();
+        } catch (RuntimeException e) {
+            logger.warn("message=Falha ao gravar os sketches de clientes distintos, erro={}", e.getMessage());
+        }
+    }
+
+    // Clientes marcados desde a última execução seriam perdidos no desligamento
+    @PreDestroy
+    public void encerrar() {
+        executar();
+    }
+}
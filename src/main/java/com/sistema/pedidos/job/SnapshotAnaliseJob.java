@@ -0,0 +1,34 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.service.AnaliseColunarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "pedidos.analise.habilitada", havingValue = "true")
+public class SnapshotAnaliseJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotAnaliseJob.class);
+
+    private final AnaliseColunarService analiseColunarService;
+
+    @Autowired
+    public SnapshotAnaliseJob(AnaliseColunarService analiseColunarService) {
+        this.analiseColunarService = analiseColunarService;
+    }
+
+    // Falha em uma atualização mantém o snapshot anterior; a próxima execução tenta de novo a partir da mesma fronteira
+    @Scheduled(initialDelayString = "${pedidos.analise.atraso-inicial:PT10S}",
+            fixedDelayString = "${pedidos.analise.intervalo:PT1M}")
+    public void executar() {
+        try {
+            analiseColunarService.atualizar();
+        } catch (RuntimeException e) {
+            logger.warn("message=Falha ao atualizar o snapshot de análise, erro={}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sistema.pedidos.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR com a duração de uma fase da criação ou da atualização de um pedido. Sem gravação ativa,
+ * begin/commit não fazem nada; fases interrompidas por exceção não são registradas.
+ */
+@Name("com.sistema.pedidos.FasePedido")
+@Label("Fase do Pedido")
+@Category({"Sistema de Pedidos", "Pedidos"})
+@Description("Duração de cada fase de PedidoService.salvar e PedidoService.atualizar")
+@StackTrace(false)
+public class FasePedidoEvent extends Event {
+
+    public static final String SALVAR = "salvar";
+    public static final String ATUALIZAR = "atualizar";
+
+    public enum Fase {
+        BUSCA_PEDIDO,
+        BUSCA_PRODUTO,
+        VALIDACAO_ESTOQUE,
+        DEVOLUCAO_ESTOQUE,
+        INSERCAO_PEDIDO,
+        INSERCAO_ITEM,
+        BAIXA_ESTOQUE,
+        GRAVACAO_PEDIDO,
+        RELEITURA_PEDIDO
+    }
+
+    @Label("Operação")
+    private String operacao;
+
+    @Label("Fase")
+    private String fase;
+
+    // 0 enquanto o pedido ainda não foi inserido
+    @Label("ID do Pedido")
+    private long pedidoId;
+
+    @Label("Quantidade de Itens")
+    private int quantidadeItens;
+
+    public static FasePedidoEvent iniciar(String operacao, Fase fase, Long pedidoId, int quantidadeItens) {
+        FasePedidoEvent evento = new FasePedidoEvent();
+        if (evento.isEnabled()) {
+            evento.operacao = operacao;
+            evento.fase = fase.name();
+            evento.pedidoId = pedidoId != null ? pedidoId : 0L;
+            evento.quantidadeItens = quantidadeItens;
+            evento.begin();
+        }
+        return evento;
+    }
+
+    public FasePedidoEvent comPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId != null ? pedidoId : 0L;
+        return this;
+    }
+}
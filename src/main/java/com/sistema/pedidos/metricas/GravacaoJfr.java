@@ -0,0 +1,141 @@
+package com.sistema.pedidos.metricas;
+
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.model.GravacaoJfrResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gravação JFR sob demanda, limitada em duração e tamanho. Uma única gravação por vez; a última fica
+ * disponível para download até a próxima ser iniciada.
+ */
+@Component
+public class GravacaoJfr {
+
+    private static final Logger logger = LoggerFactory.getLogger(GravacaoJfr.class);
+
+    private final Duration duracaoMaxima;
+    private final DataSize tamanhoMaximo;
+    private final String configuracao;
+
+    // ReentrantLock em vez de synchronized: o dump faz I/O e não deve fixar (pin) uma thread virtual
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Recording gravacao;
+
+    public GravacaoJfr(
+            @Value("${pedidos.jfr.duracao-maxima:PT10M}") Duration duracaoMaxima,
+            @Value("${pedidos.jfr.tamanho-maximo:100MB}") DataSize tamanhoMaximo,
+            @Value("${pedidos.jfr.configuracao:default}") String configuracao) {
+        this.duracaoMaxima = duracaoMaxima;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.configuracao = configuracao;
+    }
+
+    public GravacaoJfrResponse iniciar(Duration duracao) {
+        lock.lock();
+        try {
+            return iniciarGravacao(duracao);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public GravacaoJfrResponse consultar() {
+        lock.lock();
+        try {
+            return descrever(gravacaoExistente());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Copia o conteúdo gravado até agora para um arquivo temporário, que deve ser removido por quem o consumir
+    public Path despejar() {
+        lock.lock();
+        try {
+            Recording existente = gravacaoExistente();
+            Path arquivo = Files.createTempFile("pedidos-" + existente.getId() + "-", ".jfr");
+            existente.dump(arquivo);
+            return arquivo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o arquivo JFR", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        lock.lock();
+        try {
+            if (gravacao != null) {
+                gravacao.close();
+                gravacao = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private GravacaoJfrResponse iniciarGravacao(Duration duracao) {
+        if (duracao.isNegative() || duracao.isZero() || duracao.compareTo(duracaoMaxima) > 0) {
+            throw new BadRequestException("A duração da gravação deve estar entre 1s e " + duracaoMaxima);
+        }
+        if (gravacao != null && gravacao.getState() == RecordingState.RUNNING) {
+            throw new BadRequestException("Já existe uma gravação JFR em andamento: " + gravacao.getId());
+        }
+        if (gravacao != null) {
+            gravacao.close();
+        }
+
+        try {
+            gravacao = new Recording(Configuration.getConfiguration(configuracao));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Configuração JFR inválida: " + configuracao, e);
+        }
+        gravacao.setName("sistema-pedidos-admin");
+        gravacao.enable(FasePedidoEvent.class).withThreshold(Duration.ZERO);
+        gravacao.setDuration(duracao);
+        gravacao.setMaxSize(tamanhoMaximo.toBytes());
+        gravacao.setToDisk(true);
+        gravacao.start();
+
+        logger.info("message=Gravação JFR iniciada, id={}, duracao={}, tamanhoMaximo={}", gravacao.getId(), duracao, tamanhoMaximo);
+        return descrever(gravacao);
+    }
+
+    private Recording gravacaoExistente() {
+        if (gravacao == null) {
+            throw new ResourceNotFoundException("Nenhuma gravação JFR foi iniciada");
+        }
+        return gravacao;
+    }
+
+    private static GravacaoJfrResponse descrever(Recording gravacao) {
+        LocalDateTime inicio = gravacao.getStartTime() != null
+                ? LocalDateTime.ofInstant(gravacao.getStartTime(), ZoneId.systemDefault())
+                : null;
+        long duracao = gravacao.getDuration() != null ? gravacao.getDuration().toSeconds() : 0;
+        return new GravacaoJfrResponse(gravacao.getId(), gravacao.getState().name(), inicio, duracao,
+                gravacao.getMaxSize(), gravacao.getSize());
+    }
+}
@@ -0,0 +1,41 @@
+package com.sistema.pedidos.metricas;
+
+import com.sistema.pedidos.job.CancelamentoAutomaticoJob;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfig {
+
+    // Limita as séries de estoque insuficiente por produto; acima do limite novas séries são descartadas
+    @Bean
+    public MeterFilter limiteProdutosEstoqueInsuficiente(
+            @Value("${pedidos.metricas.maximo-produtos-estoque-insuficiente:1000}") int maximoProdutos) {
+        return MeterFilter.maximumAllowableTags(MetricasPedidos.ESTOQUE_INSUFICIENTE, "produto", maximoProdutos,
+                MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterBinder metricasCancelamentoAutomatico(CancelamentoAutomaticoJob job) {
+        return registry -> {
+            FunctionCounter.builder("pedidos.cancelamento.automatico.execucoes", job, j -> j.getMetricas().getExecucoes())
+                    .register(registry);
+            FunctionCounter.builder("pedidos.cancelamento.automatico.lotes", job, j -> j.getMetricas().getLotesProcessados())
+                    .register(registry);
+            FunctionCounter.builder("pedidos.cancelamento.automatico.cancelados", job, j -> j.getMetricas().getPedidosCancelados())
+                    .register(registry);
+            Gauge.builder("pedidos.cancelamento.automatico.atraso", job, j -> j.getMetricas().getAtrasoSegundos())
+                    .baseUnit("seconds")
+                    .description("Idade além do limite do pedido PENDENTE mais antigo ainda não cancelado")
+                    .register(registry);
+            Gauge.builder("pedidos.cancelamento.automatico.vazao", job, j -> j.getMetricas().getPedidosPorSegundo())
+                    .description("Pedidos cancelados por segundo na última execução")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.sistema.pedidos.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cronometra todos os métodos públicos de controllers e services no timer "pedidos.metodo",
+ * com as tags camada, classe, metodo e excecao.
+ */
+@Aspect
+@Component
+public class MetricasMetodosAspect {
+
+    static final String METODO = "pedidos.metodo";
+
+    private final MeterRegistry registry;
+
+    // Timer do caminho sem exceção por método, para não montar tags a cada chamada
+    private final Map<Method, Timer> timersSucesso = new ConcurrentHashMap<>();
+
+    public MetricasMetodosAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.sistema.pedidos.service..*(..)) || execution(public * com.sistema.pedidos.controller..*(..))")
+    public Object cronometrar(ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicio = System.nanoTime();
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        try {
+            Object resultado = joinPoint.proceed();
+            timersSucesso.computeIfAbsent(metodo, m -> timer(joinPoint, "none"))
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            timer(joinPoint, e.getClass().getSimpleName()).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String excecao) {
+        Class<?> classe = joinPoint.getSignature().getDeclaringType();
+        return Timer.builder(METODO)
+                .description("Tempo de execução dos métodos de controllers e services")
+                .tag("camada", classe.getPackageName().endsWith(".controller") ? "controller" : "service")
+                .tag("classe", classe.getSimpleName())
+                .tag("metodo", joinPoint.getSignature().getName())
+                .tag("excecao", excecao)
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sistema.pedidos.metricas;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de domínio dos pedidos e do estoque. Os contadores por status são registrados uma única vez;
+ * o incremento é lock-free (Counter/Timer do Micrometer usam adders e buckets atômicos).
+ */
+@Component
+public class MetricasPedidos {
+
+    static final String PEDIDOS_CRIADOS = "pedidos.criados";
+    static final String STATUS_ALTERADOS = "pedidos.status.alterados";
+    static final String ESTOQUE_INSUFICIENTE = "pedidos.estoque.insuficiente";
+    static final String ESPERA_LOCK_ESTOQUE = "pedidos.estoque.espera.lock";
+
+    private final MeterRegistry registry;
+    private final Map<PedidoEntity.StatusPedido, Counter> pedidosCriados = new EnumMap<>(PedidoEntity.StatusPedido.class);
+    private final Map<PedidoEntity.StatusPedido, Counter> statusAlterados = new EnumMap<>(PedidoEntity.StatusPedido.class);
+    private final Timer esperaLockEstoque;
+
+    public MetricasPedidos(MeterRegistry registry) {
+        this.registry = registry;
+        for (PedidoEntity.StatusPedido status : PedidoEntity.StatusPedido.values()) {
+            pedidosCriados.put(status, Counter.builder(PEDIDOS_CRIADOS)
+                    .description("Pedidos criados, pelo status inicial")
+                    .tag("status", status.name())
+                    .register(registry));
+            statusAlterados.put(status, Counter.builder(STATUS_ALTERADOS)
+                    .description("Pedidos que passaram para o status, individualmente ou em lote")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+        esperaLockEstoque = Timer.builder(ESPERA_LOCK_ESTOQUE)
+                .description("Tempo de espera pelo lock da linha do produto na baixa de estoque")
+                .register(registry);
+    }
+
+    public void pedidoCriado(PedidoEntity.StatusPedido status) {
+        pedidosCriados.get(status).increment();
+    }
+
+    public void statusAlterado(PedidoEntity.StatusPedido status, long quantidade) {
+        if (quantidade > 0) {
+            statusAlterados.get(status).increment(quantidade);
+        }
+    }
+
+    // Uma série por produto; a quantidade de produtos distintos é limitada em MetricasConfig
+    public void estoqueInsuficiente(Long produtoId) {
+        registry.counter(ESTOQUE_INSUFICIENTE, "produto", String.valueOf(produtoId)).increment();
+    }
+
+    public <T> T medirEsperaLockEstoque(Supplier<T> aquisicaoLock) {
+        long inicio = System.nanoTime();
+        try {
+            return aquisicaoLock.get();
+        } finally {
+            esperaLockEstoque.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+}
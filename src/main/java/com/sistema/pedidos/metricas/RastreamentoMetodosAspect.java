@@ -0,0 +1,78 @@
+package com.sistema.pedidos.metricas;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Abre um span filho para cada método público de controllers, services e repositórios. A amostragem é
+ * decidida na origem (span HTTP); fora de um trace amostrado o método é chamado direto, sem criar span.
+ */
+@Aspect
+@Component
+public class RastreamentoMetodosAspect {
+
+    private static final String PACOTE_APLICACAO = "com.sistema.pedidos.";
+
+    private final Tracer tracer;
+
+    // Nome simples da classe da aplicação por classe de proxy (CGLIB ou repositório JDK)
+    private final Map<Class<?>, String> nomesClasses = new ConcurrentHashMap<>();
+
+    public RastreamentoMetodosAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * com.sistema.pedidos.controller..*(..))"
+            + " || execution(public * com.sistema.pedidos.service..*(..))"
+            + " || execution(public * com.sistema.pedidos.repository..*+.*(..))")
+    public Object rastrear(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span atual = tracer.currentSpan();
+        if (atual == null || !Boolean.TRUE.equals(atual.context().sampled())) {
+            return joinPoint.proceed();
+        }
+
+        Class<?> classe = joinPoint.getThis().getClass();
+        String nomeClasse = nomesClasses.computeIfAbsent(classe, RastreamentoMetodosAspect::nomeClasse);
+        Span span = tracer.nextSpan()
+                .name(nomeClasse + "." + joinPoint.getSignature().getName())
+                .tag("camada", camada(joinPoint.getSignature().getDeclaringType()))
+                .start();
+        try (Tracer.SpanInScope escopo = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // Repositórios são proxies JDK de interfaces; o nome vem da interface declarada na aplicação
+    private static String nomeClasse(Class<?> classe) {
+        if (Proxy.isProxyClass(classe)) {
+            for (Class<?> interfaceProxy : classe.getInterfaces()) {
+                if (interfaceProxy.getName().startsWith(PACOTE_APLICACAO)) {
+                    return interfaceProxy.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(classe).getSimpleName();
+    }
+
+    private static String camada(Class<?> classe) {
+        String pacote = classe.getPackageName();
+        if (pacote.endsWith(".controller")) {
+            return "controller";
+        }
+        return pacote.endsWith(".service") ? "service" : "repository";
+    }
+}
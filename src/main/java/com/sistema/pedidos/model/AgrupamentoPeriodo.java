@@ -0,0 +1,20 @@
+package com.sistema.pedidos.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum AgrupamentoPeriodo {
+    DIA,
+    // Semanas começam na segunda-feira
+    SEMANA,
+    MES;
+
+    public LocalDate inicioDoPeriodo(LocalDate dia) {
+        return switch (this) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+        };
+    }
+}
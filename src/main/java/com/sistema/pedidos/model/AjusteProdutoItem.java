@@ -0,0 +1,45 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+
+public class AjusteProdutoItem {
+
+    private Long id;
+
+    private BigDecimal preco;
+
+    private Integer quantidadeEstoque;
+
+    public AjusteProdutoItem() {
+    }
+
+    public AjusteProdutoItem(Long id, BigDecimal preco, Integer quantidadeEstoque) {
+        this.id = id;
+        this.preco = preco;
+        this.quantidadeEstoque = quantidadeEstoque;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getPreco() {
+        return preco;
+    }
+
+    public void setPreco(BigDecimal preco) {
+        this.preco = preco;
+    }
+
+    public Integer getQuantidadeEstoque() {
+        return quantidadeEstoque;
+    }
+
+    public void setQuantidadeEstoque(Integer quantidadeEstoque) {
+        this.quantidadeEstoque = quantidadeEstoque;
+    }
+}
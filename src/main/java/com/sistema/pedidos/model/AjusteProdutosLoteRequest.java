@@ -0,0 +1,81 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+public class AjusteProdutosLoteRequest {
+
+    public enum TipoAjustePreco {
+        ABSOLUTO, PERCENTUAL
+    }
+
+    public enum TipoAjusteEstoque {
+        DEFINIR, DELTA
+    }
+
+    // Produtos que recebem o mesmo ajuste de preço e/ou estoque
+    private Set<Long> ids;
+
+    private TipoAjustePreco tipoAjustePreco;
+
+    private BigDecimal valorPreco;
+
+    private TipoAjusteEstoque tipoAjusteEstoque;
+
+    private Integer valorEstoque;
+
+    // Valores individuais por produto
+    private List<AjusteProdutoItem> itens;
+
+    public AjusteProdutosLoteRequest() {
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Set<Long> ids) {
+        this.ids = ids;
+    }
+
+    public TipoAjustePreco getTipoAjustePreco() {
+        return tipoAjustePreco;
+    }
+
+    public void setTipoAjustePreco(TipoAjustePreco tipoAjustePreco) {
+        this.tipoAjustePreco = tipoAjustePreco;
+    }
+
+    public BigDecimal getValorPreco() {
+        return valorPreco;
+    }
+
+    public void setValorPreco(BigDecimal valorPreco) {
+        this.valorPreco = valorPreco;
+    }
+
+    public TipoAjusteEstoque getTipoAjusteEstoque() {
+        return tipoAjusteEstoque;
+    }
+
+    public void setTipoAjusteEstoque(TipoAjusteEstoque tipoAjusteEstoque) {
+        this.tipoAjusteEstoque = tipoAjusteEstoque;
+    }
+
+    public Integer getValorEstoque() {
+        return valorEstoque;
+    }
+
+    public void setValorEstoque(Integer valorEstoque) {
+        this.valorEstoque = valorEstoque;
+    }
+
+    public List<AjusteProdutoItem> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<AjusteProdutoItem> itens) {
+        this.itens = itens;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sistema.pedidos.model;
+
+import java.util.List;
+
+public class AjusteProdutosLoteResponse {
+
+    private final List<Long> atualizados;
+
+    private final List<Long> rejeitados;
+
+    public AjusteProdutosLoteResponse(List<Long> atualizados, List<Long> rejeitados) {
+        this.atualizados = atualizados;
+        this.rejeitados = rejeitados;
+    }
+
+    public List<Long> getAtualizados() {
+        return atualizados;
+    }
+
+    public List<Long> getRejeitados() {
+        return rejeitados;
+    }
+}
@@ -0,0 +1,32 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AnaliseResponse {
+
+    // Momento da última atualização do snapshot; pedidos gravados depois ainda não aparecem
+    private final LocalDateTime snapshotEm;
+
+    private final int linhasNoSnapshot;
+
+    private final List<GrupoAnalise> grupos;
+
+    public AnaliseResponse(LocalDateTime snapshotEm, int linhasNoSnapshot, List<GrupoAnalise> grupos) {
+        this.snapshotEm = snapshotEm;
+        this.linhasNoSnapshot = linhasNoSnapshot;
+        this.grupos = grupos;
+    }
+
+    public LocalDateTime getSnapshotEm() {
+        return snapshotEm;
+    }
+
+    public int getLinhasNoSnapshot() {
+        return linhasNoSnapshot;
+    }
+
+    public List<GrupoAnalise> getGrupos() {
+        return grupos;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDateTime;
+
+public class ArquivamentoMetricas {
+
+    private final boolean habilitado;
+
+    private final long execucoes;
+
+    private final long lotesProcessados;
+
+    private final long pedidosArquivados;
+
+    private final LocalDateTime ultimaExecucao;
+
+    private final long duracaoUltimaExecucaoMs;
+
+    private final double pedidosPorSegundo;
+
+    public ArquivamentoMetricas(boolean habilitado, long execucoes, long lotesProcessados, long pedidosArquivados,
+                                LocalDateTime ultimaExecucao, long duracaoUltimaExecucaoMs, double pedidosPorSegundo) {
+        this.habilitado = habilitado;
+        this.execucoes = execucoes;
+        this.lotesProcessados = lotesProcessados;
+        this.pedidosArquivados = pedidosArquivados;
+        this.ultimaExecucao = ultimaExecucao;
+        this.duracaoUltimaExecucaoMs = duracaoUltimaExecucaoMs;
+        this.pedidosPorSegundo = pedidosPorSegundo;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public long getExecucoes() {
+        return execucoes;
+    }
+
+    public long getLotesProcessados() {
+        return lotesProcessados;
+    }
+
+    public long getPedidosArquivados() {
+        return pedidosArquivados;
+    }
+
+    public LocalDateTime getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    public long getDuracaoUltimaExecucaoMs() {
+        return duracaoUltimaExecucaoMs;
+    }
+
+    public double getPedidosPorSegundo() {
+        return pedidosPorSegundo;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sistema.pedidos.model;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Set;
+
+public class AtualizacaoStatusLoteRequest {
+
+    @NotEmpty(message = "Informe ao menos um pedido")
+    private Set<Long> ids;
+
+    @NotNull(message = "O status é obrigatório")
+    private PedidoEntity.StatusPedido status;
+
+    public AtualizacaoStatusLoteRequest() {
+    }
+
+    public AtualizacaoStatusLoteRequest(Set<Long> ids, PedidoEntity.StatusPedido status) {
+        this.ids = ids;
+        this.status = status;
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Set<Long> ids) {
+        this.ids = ids;
+    }
+
+    public PedidoEntity.StatusPedido getStatus() {
+        return status;
+    }
+
+    public void setStatus(PedidoEntity.StatusPedido status) {
+        this.status = status;
+    }
+}
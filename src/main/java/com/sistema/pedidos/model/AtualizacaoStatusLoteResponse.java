@@ -0,0 +1,32 @@
+package com.sistema.pedidos.model;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+
+import java.util.List;
+
+public class AtualizacaoStatusLoteResponse {
+
+    private final PedidoEntity.StatusPedido status;
+
+    private final List<Long> atualizados;
+
+    private final List<Long> rejeitados;
+
+    public AtualizacaoStatusLoteResponse(PedidoEntity.StatusPedido status, List<Long> atualizados, List<Long> rejeitados) {
+        this.status = status;
+        this.atualizados = atualizados;
+        this.rejeitados = rejeitados;
+    }
+
+    public PedidoEntity.StatusPedido getStatus() {
+        return status;
+    }
+
+    public List<Long> getAtualizados() {
+        return atualizados;
+    }
+
+    public List<Long> getRejeitados() {
+        return rejeitados;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDateTime;
+
+public class CancelamentoAutomaticoMetricas {
+
+    private final boolean habilitado;
+
+    private final long execucoes;
+
+    private final long lotesProcessados;
+
+    private final long pedidosCancelados;
+
+    private final LocalDateTime ultimaExecucao;
+
+    private final long duracaoUltimaExecucaoMs;
+
+    private final double pedidosPorSegundo;
+
+    private final long atrasoSegundos;
+
+    public CancelamentoAutomaticoMetricas(boolean habilitado, long execucoes, long lotesProcessados, long pedidosCancelados,
+                                          LocalDateTime ultimaExecucao, long duracaoUltimaExecucaoMs,
+                                          double pedidosPorSegundo, long atrasoSegundos) {
+        this.habilitado = habilitado;
+        this.execucoes = execucoes;
+        this.lotesProcessados = lotesProcessados;
+        this.pedidosCancelados = pedidosCancelados;
+        this.ultimaExecucao = ultimaExecucao;
+        this.duracaoUltimaExecucaoMs = duracaoUltimaExecucaoMs;
+        this.pedidosPorSegundo = pedidosPorSegundo;
+        this.atrasoSegundos = atrasoSegundos;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public long getExecucoes() {
+        return execucoes;
+    }
+
+    public long getLotesProcessados() {
+        return lotesProcessados;
+    }
+
+    public long getPedidosCancelados() {
+        return pedidosCancelados;
+    }
+
+    public LocalDateTime getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    public long getDuracaoUltimaExecucaoMs() {
+        return duracaoUltimaExecucaoMs;
+    }
+
+    public double getPedidosPorSegundo() {
+        return pedidosPorSegundo;
+    }
+
+    // Quanto tempo o pedido PENDENTE mais antigo já passou do prazo de cancelamento
+    public long getAtrasoSegundos() {
+        return atrasoSegundos;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDate;
+
+public class ClientesDistintos {
+
+    private final LocalDate inicio;
+
+    private final LocalDate fim;
+
+    // Nulo quando a estimativa considera todos os produtos
+    private final Long produtoId;
+
+    private final long estimativa;
+
+    private final int precisao;
+
+    // Erro relativo padrão da estimativa (1,04/sqrt(2^precisao)); em ~95% dos casos o erro fica abaixo do dobro
+    private final double erroPadrao;
+
+    public ClientesDistintos(LocalDate inicio, LocalDate fim, Long produtoId, long estimativa, int precisao, double erroPadrao) {
+        this.inicio = inicio;
+        this.fim = fim;
+        this.produtoId = produtoId;
+        this.estimativa = estimativa;
+        this.precisao = precisao;
+        this.erroPadrao = erroPadrao;
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public long getEstimativa() {
+        return estimativa;
+    }
+
+    public int getPrecisao() {
+        return precisao;
+    }
+
+    public double getErroPadrao() {
+        return erroPadrao;
+    }
+}
@@ -0,0 +1,54 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ConsultaLenta {
+
+    private final LocalDateTime dataHora;
+
+    private final long duracaoMs;
+
+    private final String sql;
+
+    // Tipo de cada parâmetro ligado (ex.: "Long", "String(12)", "null"), nunca o valor
+    private final List<String> parametros;
+
+    // Primeiro método da aplicação na pilha de chamadas, ex.: "PedidoService.salvar:115"
+    private final String origem;
+
+    private final String thread;
+
+    public ConsultaLenta(LocalDateTime dataHora, long duracaoMs, String sql, List<String> parametros, String origem, String thread) {
+        this.dataHora = dataHora;
+        this.duracaoMs = duracaoMs;
+        this.sql = sql;
+        this.parametros = parametros;
+        this.origem = origem;
+        this.thread = thread;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getParametros() {
+        return parametros;
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+}
@@ -0,0 +1,38 @@
+package com.sistema.pedidos.model;
+
+import java.util.List;
+
+public class ConsultasLentasResponse {
+
+    private final long limiteMs;
+
+    private final long totalRegistradas;
+
+    private final long logsSuprimidos;
+
+    // Mais recentes primeiro, limitadas à capacidade do buffer
+    private final List<ConsultaLenta> consultas;
+
+    public ConsultasLentasResponse(long limiteMs, long totalRegistradas, long logsSuprimidos, List<ConsultaLenta> consultas) {
+        this.limiteMs = limiteMs;
+        this.totalRegistradas = totalRegistradas;
+        this.logsSuprimidos = logsSuprimidos;
+        this.consultas = consultas;
+    }
+
+    public long getLimiteMs() {
+        return limiteMs;
+    }
+
+    public long getTotalRegistradas() {
+        return totalRegistradas;
+    }
+
+    public long getLogsSuprimidos() {
+        return logsSuprimidos;
+    }
+
+    public List<ConsultaLenta> getConsultas() {
+        return consultas;
+    }
+}
@@ -0,0 +1,6 @@
+package com.sistema.pedidos.model;
+
+public enum CriterioRanking {
+    QUANTIDADE,
+    RECEITA
+}
@@ -0,0 +1,10 @@
+package com.sistema.pedidos.model;
+
+public enum DimensaoAnalise {
+    PRODUTO,
+    STATUS,
+    DIA,
+    // Semanas começam na segunda-feira, como em AgrupamentoPeriodo
+    SEMANA,
+    MES
+}
@@ -0,0 +1,21 @@
+package com.sistema.pedidos.model;
+
+public class ErroImportacao {
+
+    private final int linha;
+
+    private final String mensagem;
+
+    public ErroImportacao(int linha, String mensagem) {
+        this.linha = linha;
+        this.mensagem = mensagem;
+    }
+
+    public int getLinha() {
+        return linha;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sistema.pedidos.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Corpo das respostas de erro; campos nulos não são serializados
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErroResponse {
+
+    private final LocalDateTime timestamp;
+
+    private final String message;
+
+    private final int status;
+
+    // Mensagem de validação por campo
+    private final Map<String, String> errors;
+
+    // Mensagem da exceção inesperada (500)
+    private final String error;
+
+    public ErroResponse(LocalDateTime timestamp, String message, int status, Map<String, String> errors, String error) {
+        this.timestamp = timestamp;
+        this.message = message;
+        this.status = status;
+        this.errors = errors;
+        this.error = error;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sistema.pedidos.model;
+
+import java.time.LocalDateTime;
+
+public class GravacaoJfrResponse {
+
+    private final long id;
+
+    // NEW, RUNNING, STOPPED ou CLOSED, conforme jdk.jfr.RecordingState
+    private final String estado;
+
+    private final LocalDateTime inicio;
+
+    private final long duracaoSegundos;
+
+    private final long tamanhoMaximoBytes;
+
+    private final long tamanhoBytes;
+
+    public GravacaoJfrResponse(long id, String estado, LocalDateTime inicio, long duracaoSegundos,
+                               long tamanhoMaximoBytes, long tamanhoBytes) {
+        this.id = id;
+        this.estado = estado;
+        this.inicio = inicio;
+        this.duracaoSegundos = duracaoSegundos;
+        this.tamanhoMaximoBytes = tamanhoMaximoBytes;
+        this.tamanhoBytes = tamanhoBytes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public long getDuracaoSegundos() {
+        return duracaoSegundos;
+    }
+
+    public long getTamanhoMaximoBytes() {
+        return tamanhoMaximoBytes;
+    }
+
+    public long getTamanhoBytes() {
+        return tamanhoBytes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+
+public class GrupoAnalise {
+
+    // ID do produto, status ou data de início do período, conforme a dimensão consultada
+    private final String chave;
+
+    private final long linhas;
+
+    private final long quantidadePedidos;
+
+    private final long quantidadeVendida;
+
+    private final BigDecimal valorTotal;
+
+    public GrupoAnalise(String chave, long linhas, long quantidadePedidos, long quantidadeVendida, BigDecimal valorTotal) {
+        this.chave = chave;
+        this.linhas = linhas;
+        this.quantidadePedidos = quantidadePedidos;
+        this.quantidadeVendida = quantidadeVendida;
+        this.valorTotal = valorTotal;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public long getQuantidadeVendida() {
+        return quantidadeVendida;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sistema.pedidos.model;
+
+import java.util.List;
+
+public class ImportacaoProdutosResponse {
+
+    private final long linhasProcessadas;
+
+    private final long inseridos;
+
+    private final long atualizados;
+
+    private final long totalErros;
+
+    // Apenas os primeiros erros são detalhados, para manter a resposta limitada em arquivos grandes
+    private final List<ErroImportacao> erros;
+
+    private final long duracaoMs;
+
+    public ImportacaoProdutosResponse(long linhasProcessadas, long inseridos, long atualizados, long totalErros,
+                                      List<ErroImportacao> erros, long duracaoMs) {
+        this.linhasProcessadas = linhasProcessadas;
+        this.inseridos = inseridos;
+        this.atualizados = atualizados;
+        this.totalErros = totalErros;
+        this.erros = erros;
+        this.duracaoMs = duracaoMs;
+    }
+
+    public long getLinhasProcessadas() {
+        return linhasProcessadas;
+    }
+
+    public long getInseridos() {
+        return inseridos;
+    }
+
+    public long getAtualizados() {
+        return atualizados;
+    }
+
+    public long getTotalErros() {
+        return totalErros;
+    }
+
+    public List<ErroImportacao> getErros() {
+        return erros;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public double getLinhasPorSegundo() {
+        return duracaoMs > 0 ? linhasProcessadas * 1000d / duracaoMs : linhasProcessadas;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class ReceitaPeriodo {
+
+    // Primeiro dia do dia, semana ou mês agrupado
+    private final LocalDate inicio;
+
+    private final long quantidadeVendida;
+
+    private final BigDecimal valorTotal;
+
+    public ReceitaPeriodo(LocalDate inicio, long quantidadeVendida, BigDecimal valorTotal) {
+        this.inicio = inicio;
+        this.quantidadeVendida = quantidadeVendida;
+        this.valorTotal = valorTotal;
+    }
+
+    public ReceitaPeriodo somar(ReceitaPeriodo outro) {
+        return new ReceitaPeriodo(inicio, quantidadeVendida + outro.quantidadeVendida, valorTotal.add(outro.valorTotal));
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public long getQuantidadeVendida() {
+        return quantidadeVendida;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
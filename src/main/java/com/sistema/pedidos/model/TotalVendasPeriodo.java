@@ -0,0 +1,36 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TotalVendasPeriodo {
+
+    // Primeiro dia do dia, semana ou mês agrupado
+    private final LocalDate inicio;
+
+    private final long quantidadePedidos;
+
+    private final BigDecimal valorTotal;
+
+    public TotalVendasPeriodo(LocalDate inicio, long quantidadePedidos, BigDecimal valorTotal) {
+        this.inicio = inicio;
+        this.quantidadePedidos = quantidadePedidos;
+        this.valorTotal = valorTotal;
+    }
+
+    public TotalVendasPeriodo somar(TotalVendasPeriodo outro) {
+        return new TotalVendasPeriodo(inicio, quantidadePedidos + outro.quantidadePedidos, valorTotal.add(outro.valorTotal));
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
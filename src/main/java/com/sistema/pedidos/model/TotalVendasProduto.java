@@ -0,0 +1,50 @@
+package com.sistema.pedidos.model;
+
+import java.math.BigDecimal;
+
+public class TotalVendasProduto {
+
+    private final Long produtoId;
+
+    private final String nome;
+
+    private final long quantidadeVendida;
+
+    private final long quantidadePedidos;
+
+    private final BigDecimal valorTotal;
+
+    public TotalVendasProduto(Long produtoId, String nome, long quantidadeVendida, long quantidadePedidos,
+                              BigDecimal valorTotal) {
+        this.produtoId = produtoId;
+        this.nome = nome;
+        this.quantidadeVendida = quantidadeVendida;
+        this.quantidadePedidos = quantidadePedidos;
+        this.valorTotal = valorTotal;
+    }
+
+    public TotalVendasProduto somar(TotalVendasProduto outro) {
+        return new TotalVendasProduto(produtoId, nome, quantidadeVendida + outro.quantidadeVendida,
+                quantidadePedidos + outro.quantidadePedidos, valorTotal.add(outro.valorTotal));
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getQuantidadeVendida() {
+        return quantidadeVendida;
+    }
+
+    public long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sistema.pedidos.model;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+
+import java.math.BigDecimal;
+
+public class TotalVendasStatus {
+
+    private final PedidoEntity.StatusPedido status;
+
+    private final long quantidadePedidos;
+
+    private final BigDecimal valorTotal;
+
+    public TotalVendasStatus(PedidoEntity.StatusPedido status, long quantidadePedidos, BigDecimal valorTotal) {
+        this.status = status;
+        this.quantidadePedidos = quantidadePedidos;
+        this.valorTotal = valorTotal;
+    }
+
+    public TotalVendasStatus somar(TotalVendasStatus outro) {
+        return new TotalVendasStatus(status, quantidadePedidos + outro.quantidadePedidos, valorTotal.add(outro.valorTotal));
+    }
+
+    public PedidoEntity.StatusPedido getStatus() {
+        return status;
+    }
+
+    public long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
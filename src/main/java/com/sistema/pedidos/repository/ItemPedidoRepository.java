@@ -1,13 +1,34 @@
 package com.sistema.pedidos.repository;
 
 import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.TotalVendasProduto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemPedidoRepository extends JpaRepository<ItemPedidoEntity, Long> {
     List<ItemPedidoEntity> findByPedidoId(Long pedidoId);
     List<ItemPedidoEntity> findByProdutoId(Long produtoId);
+
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasProduto(pr.id, pr.nome, SUM(i.quantidade), COUNT(DISTINCT p.id), SUM(i.valorTotal)) " +
+            "FROM ItemPedidoEntity i JOIN i.produto pr JOIN PedidoEntity p ON p.id = i.pedidoId " +
+            "WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status <> :statusExcluido GROUP BY pr.id, pr.nome")
+    List<TotalVendasProduto> totalizarPorProduto(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                                 @Param("statusExcluido") PedidoEntity.StatusPedido statusExcluido);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemPedidoEntity i WHERE i.pedidoId = :pedidoId")
+    int excluirPorPedidoId(@Param("pedidoId") Long pedidoId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemPedidoEntity i WHERE i.pedidoId IN :pedidoIds")
+    int excluirPorPedidoIds(@Param("pedidoIds") Collection<Long> pedidoIds);
 }
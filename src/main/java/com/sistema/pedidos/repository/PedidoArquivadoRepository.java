@@ -0,0 +1,64 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.PedidoArquivadoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.TotalVendasPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.model.TotalVendasStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PedidoArquivadoRepository extends JpaRepository<PedidoArquivadoEntity, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "itens")
+    Optional<PedidoArquivadoEntity> findById(Long id);
+
+    @EntityGraph(attributePaths = "itens")
+    List<PedidoArquivadoEntity> findByClienteContainingIgnoreCase(String cliente);
+
+    @EntityGraph(attributePaths = {"itens", "itens.produto"})
+    List<PedidoArquivadoEntity> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    // Mesmos totais de PedidoRepository e ItemPedidoRepository, sobre o arquivo
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasPeriodo(CAST(p.dataPedido AS LocalDate), COUNT(p), SUM(p.valorTotal)) " +
+            "FROM PedidoArquivadoEntity p WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status <> :statusExcluido " +
+            "GROUP BY CAST(p.dataPedido AS LocalDate)")
+    List<TotalVendasPeriodo> totalizarPorDia(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                             @Param("statusExcluido") PedidoEntity.StatusPedido statusExcluido);
+
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasStatus(p.status, COUNT(p), SUM(p.valorTotal)) " +
+            "FROM PedidoArquivadoEntity p WHERE p.dataPedido BETWEEN :inicio AND :fim GROUP BY p.status")
+    List<TotalVendasStatus> totalizarPorStatus(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasProduto(pr.id, pr.nome, SUM(i.quantidade), COUNT(DISTINCT p.id), SUM(i.valorTotal)) " +
+            "FROM PedidoArquivadoEntity p JOIN p.itens i JOIN i.produto pr " +
+            "WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status <> :statusExcluido GROUP BY pr.id, pr.nome")
+    List<TotalVendasProduto> totalizarPorProduto(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                                 @Param("statusExcluido") PedidoEntity.StatusPedido statusExcluido);
+
+    // Copia os pedidos ainda não arquivados, para que repetir um lote não duplique linhas
+    @Modifying
+    @Query(value = "INSERT INTO pedidos_arquivo (id, cliente, data_pedido, observacao, valor_total, status, data_arquivamento) " +
+            "SELECT p.id, p.cliente, p.data_pedido, p.observacao, p.valor_total, p.status, :dataArquivamento " +
+            "FROM pedidos p WHERE p.id IN (:ids) " +
+            "AND NOT EXISTS (SELECT 1 FROM pedidos_arquivo a WHERE a.id = p.id)", nativeQuery = true)
+    int copiarPedidos(@Param("ids") Collection<Long> ids, @Param("dataArquivamento") LocalDateTime dataArquivamento);
+
+    @Modifying
+    @Query(value = "INSERT INTO itens_pedido_arquivo (id, pedido_id, produto_id, quantidade, preco_unitario, valor_total) " +
+            "SELECT i.id, i.pedido_id, i.produto_id, i.quantidade, i.preco_unitario, i.valor_total " +
+            "FROM itens_pedido i WHERE i.pedido_id IN (:ids) " +
+            "AND NOT EXISTS (SELECT 1 FROM itens_pedido_arquivo a WHERE a.id = i.id)", nativeQuery = true)
+    int copiarItens(@Param("ids") Collection<Long> pedidoIds);
+}
@@ -0,0 +1,17 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.PedidoReativoEntity;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+// Mesmas consultas de PedidoRepository, em R2DBC e sem materializar a lista
+@Repository
+public interface PedidoReativoRepository extends R2dbcRepository<PedidoReativoEntity, Long> {
+    Flux<PedidoReativoEntity> findByClienteContainingIgnoreCase(String cliente);
+    Flux<PedidoReativoEntity> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
+    Flux<PedidoReativoEntity> findByStatus(PedidoEntity.StatusPedido status);
+}
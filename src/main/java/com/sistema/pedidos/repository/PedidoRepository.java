@@ -1,15 +1,77 @@
 package com.sistema.pedidos.repository;
 
 import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.TotalVendasPeriodo;
+import com.sistema.pedidos.model.TotalVendasStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<PedidoEntity, Long> {
     List<PedidoEntity> findByClienteContainingIgnoreCase(String cliente);
     List<PedidoEntity> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
     List<PedidoEntity> findByStatus(PedidoEntity.StatusPedido status);
+
+    // Itens e produtos na mesma consulta, para que os pedidos possam ser serializados fora da transação
+    @Query("SELECT p FROM PedidoEntity p LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto " +
+            "WHERE p.dataPedido BETWEEN :inicio AND :fim ORDER BY p.dataPedido, p.id")
+    List<PedidoEntity> buscarComItensPorPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("SELECT p FROM PedidoEntity p LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto WHERE p.id = :id")
+    Optional<PedidoEntity> buscarComItensPorId(@Param("id") Long id);
+
+    // Relatórios: a agregação fica no banco e só as linhas de total trafegam
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasPeriodo(CAST(p.dataPedido AS LocalDate), COUNT(p), SUM(p.valorTotal)) " +
+            "FROM PedidoEntity p WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status <> :statusExcluido " +
+            "GROUP BY CAST(p.dataPedido AS LocalDate)")
+    List<TotalVendasPeriodo> totalizarPorDia(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                             @Param("statusExcluido") PedidoEntity.StatusPedido statusExcluido);
+
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasStatus(p.status, COUNT(p), SUM(p.valorTotal)) " +
+            "FROM PedidoEntity p WHERE p.dataPedido BETWEEN :inicio AND :fim GROUP BY p.status")
+    List<TotalVendasStatus> totalizarPorStatus(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PedidoEntity p WHERE p.id = :id")
+    Optional<PedidoEntity> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM PedidoEntity p WHERE p.id IN :ids AND p.status IN :statusPermitidos")
+    List<Long> lockIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                        @Param("statusPermitidos") Collection<PedidoEntity.StatusPedido> statusPermitidos);
+
+    @Query("SELECT p.id FROM PedidoEntity p WHERE p.status = :status AND p.dataPedido < :limite ORDER BY p.dataPedido, p.id")
+    List<Long> findIdsByStatusAndDataPedidoBefore(@Param("status") PedidoEntity.StatusPedido status,
+                                                  @Param("limite") LocalDateTime limite,
+                                                  Pageable pageable);
+
+    @Query("SELECT p.id FROM PedidoEntity p WHERE p.status IN :status AND p.dataPedido < :limite ORDER BY p.dataPedido, p.id")
+    List<Long> findIdsByStatusInAndDataPedidoBefore(@Param("status") Collection<PedidoEntity.StatusPedido> status,
+                                                    @Param("limite") LocalDateTime limite,
+                                                    Pageable pageable);
+
+    @Query("SELECT MIN(p.dataPedido) FROM PedidoEntity p WHERE p.status = :status AND p.dataPedido < :limite")
+    LocalDateTime findMenorDataPedidoByStatusAndDataPedidoBefore(@Param("status") PedidoEntity.StatusPedido status,
+                                                                 @Param("limite") LocalDateTime limite);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PedidoEntity p SET p.status = :novoStatus WHERE p.id IN :ids AND p.status IN :statusPermitidos")
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids,
+                              @Param("statusPermitidos") Collection<PedidoEntity.StatusPedido> statusPermitidos,
+                              @Param("novoStatus") PedidoEntity.StatusPedido novoStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PedidoEntity p WHERE p.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
 }
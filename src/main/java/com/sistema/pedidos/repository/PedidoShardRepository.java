@@ -0,0 +1,600 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pedidos e itens distribuídos em N bancos (shards) pelo hash do ID do pedido; os produtos continuam no banco
+ * do catálogo. Os IDs são reservados em blocos numa sequência do catálogo, para que o shard seja conhecido antes
+ * da inserção e a busca por ID vá direto a um único shard. Consultas por outros campos são enviadas a todos os
+ * shards em paralelo, e os resultados, já ordenados por data em cada shard, são intercalados.
+ */
+public class PedidoShardRepository implements AutoCloseable {
+
+    private static final String COLUNAS_PEDIDO = "id, cliente, data_pedido, observacao, valor_total, status";
+    private static final String COLUNAS_ITEM = "id, pedido_id, produto_id, quantidade, preco_unitario, valor_total";
+    private static final Comparator<PedidoEntity> ORDEM = Comparator.comparing(PedidoEntity::getDataPedido)
+            .thenComparing(PedidoEntity::getId);
+
+    private final List<Shard> shards;
+    private final NamedParameterJdbcTemplate jdbcCatalogo;
+    private final ProdutoRepository produtoRepository;
+    private final SequenciaIds sequenciaPedidos;
+    private final SequenciaIds sequenciaItens;
+    private final ExecutorService executor;
+    private final ExecutorService executorSequencias;
+
+    public PedidoShardRepository(List<DataSource> shards, DataSource catalogo, ProdutoRepository produtoRepository,
+                                 int blocoIds) {
+        this.shards = shards.stream().map(Shard::new).toList();
+        this.jdbcCatalogo = new NamedParameterJdbcTemplate(catalogo);
+        this.produtoRepository = produtoRepository;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size(), tarefa -> {
+            Thread thread = new Thread(tarefa, "pedidos-shard-" + contador.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Pool próprio das reservas de IDs: na fila das consultas aos shards, quem espera um bloco novo ficaria atrás
+        // delas. Cada sequência tem no máximo uma reserva em andamento, então uma thread por sequência basta
+        AtomicInteger contadorSequencias = new AtomicInteger();
+        this.executorSequencias = Executors.newFixedThreadPool(2, tarefa -> {
+            Thread thread = new Thread(tarefa, "pedidos-shard-sequencia-" + contadorSequencias.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sequenciaPedidos = new SequenciaIds(catalogo, "pedidos", blocoIds, executorSequencias);
+        this.sequenciaItens = new SequenciaIds(catalogo, "itens_pedido", blocoIds, executorSequencias);
+    }
+
+    public void criarTabelas() {
+        for (Shard shard : shards) {
+            shard.jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS pedidos (" +
+                    "id BIGINT NOT NULL PRIMARY KEY, cliente VARCHAR(255) NOT NULL, data_pedido DATETIME(6) NOT NULL, " +
+                    "observacao VARCHAR(255), valor_total DECIMAL(38,2) NOT NULL, status VARCHAR(20) NOT NULL, " +
+                    "INDEX idx_pedidos_status_data_pedido (status, data_pedido), INDEX idx_pedidos_data_pedido (data_pedido))");
+            shard.jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS itens_pedido (" +
+                    "id BIGINT NOT NULL PRIMARY KEY, pedido_id BIGINT NOT NULL, produto_id BIGINT NOT NULL, " +
+                    "quantidade INT NOT NULL, preco_unitario DECIMAL(38,2) NOT NULL, valor_total DECIMAL(38,2) NOT NULL, " +
+                    "INDEX idx_itens_pedido_pedido_id (pedido_id))");
+            shard.jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS estornos_pendentes (" +
+                    "pedido_id BIGINT NOT NULL PRIMARY KEY, criado_em DATETIME(6) NOT NULL)");
+            // Pedidos excluídos ficam aqui até o estorno ser confirmado no catálogo, para que possa ser reaplicado
+            shard.jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS pedidos_excluidos (" +
+                    "id BIGINT NOT NULL PRIMARY KEY, cliente VARCHAR(255) NOT NULL, data_pedido DATETIME(6) NOT NULL, " +
+                    "observacao VARCHAR(255), valor_total DECIMAL(38,2) NOT NULL, status VARCHAR(20) NOT NULL)");
+            shard.jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS itens_pedido_excluidos (" +
+                    "id BIGINT NOT NULL PRIMARY KEY, pedido_id BIGINT NOT NULL, produto_id BIGINT NOT NULL, " +
+                    "quantidade INT NOT NULL, preco_unitario DECIMAL(38,2) NOT NULL, valor_total DECIMAL(38,2) NOT NULL, " +
+                    "INDEX idx_itens_pedido_excluidos_pedido_id (pedido_id))");
+        }
+        jdbcCatalogo.getJdbcTemplate().execute(
+                "CREATE TABLE IF NOT EXISTS sequencias_shard (nome VARCHAR(50) NOT NULL PRIMARY KEY, proximo BIGINT NOT NULL)");
+        jdbcCatalogo.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS estornos_shard (" +
+                "pedido_id BIGINT NOT NULL PRIMARY KEY, aplicado_em DATETIME(6) NOT NULL, INDEX idx_estornos_shard_aplicado_em (aplicado_em))");
+        sequenciaPedidos.criarLinha();
+        sequenciaItens.criarLinha();
+    }
+
+    public int getQuantidadeShards() {
+        return shards.size();
+    }
+
+    // Mistura os bits do ID (finalizador do MurmurHash3) para que IDs sequenciais se espalhem por todos os shards
+    public static int shardDoPedido(long id, int quantidadeShards) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) quantidadeShards);
+    }
+
+    // Pedido e itens no mesmo shard e na mesma transação
+    public PedidoEntity inserir(PedidoEntity pedido) {
+        long id = sequenciaPedidos.proximo();
+        pedido.setId(id);
+        for (ItemPedidoEntity item : pedido.getItens()) {
+            item.setId(sequenciaItens.proximo());
+            item.setPedidoId(id);
+        }
+
+        Shard shard = shardDe(id);
+        shard.transacao.executeWithoutResult(status -> {
+            shard.jdbc.update("INSERT INTO pedidos (" + COLUNAS_PEDIDO + ") " +
+                    "VALUES (:id, :cliente, :dataPedido, :observacao, :valorTotal, :status)", parametros(pedido));
+            inserirItens(shard, pedido.getItens());
+        });
+        return pedido;
+    }
+
+    public Optional<PedidoEntity> buscarPorId(Long id) {
+        Shard shard = shardDe(id);
+        List<PedidoLido> lidos = shard.consultar("id = :id", new MapSqlParameterSource("id", id));
+        return montar(lidos).stream().findFirst();
+    }
+
+    public List<PedidoEntity> buscarTodos() {
+        return consultarTodos("1 = 1", new MapSqlParameterSource());
+    }
+
+    public List<PedidoEntity> buscarPorCliente(String cliente) {
+        return consultarTodos("LOWER(cliente) LIKE :cliente",
+                new MapSqlParameterSource("cliente", "%" + cliente.toLowerCase() + "%"));
+    }
+
+    public List<PedidoEntity> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        return consultarTodos("data_pedido BETWEEN :inicio AND :fim",
+                new MapSqlParameterSource("inicio", Timestamp.valueOf(inicio)).addValue("fim", Timestamp.valueOf(fim)));
+    }
+
+    public List<PedidoEntity> buscarPorStatus(PedidoEntity.StatusPedido status) {
+        return consultarTodos("status = :status", new MapSqlParameterSource("status", status.name()));
+    }
+
+    // Os mais antigos de cada shard, sem itens; intercalados, os primeiros são os mais antigos de todos
+    public List<Long> buscarIdsPorStatusAntesDe(PedidoEntity.StatusPedido status, LocalDateTime limite, int quantidade) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("status", status.name())
+                .addValue("limite", Timestamp.valueOf(limite))
+                .addValue("quantidade", quantidade);
+        List<PedidoEntity> candidatos = new ArrayList<>();
+        for (Shard shard : shards) {
+            candidatos.addAll(shard.jdbc.query("SELECT id, data_pedido FROM pedidos WHERE status = :status " +
+                    "AND data_pedido < :limite ORDER BY data_pedido, id LIMIT :quantidade", parametros, (rs, linha) ->
+                    new PedidoEntity(rs.getLong("id"), null, rs.getTimestamp("data_pedido").toLocalDateTime(), null, null, status)));
+        }
+        return candidatos.stream().sorted(ORDEM).limit(quantidade).map(PedidoEntity::getId).toList();
+    }
+
+    public LocalDateTime buscarMenorDataPedido(PedidoEntity.StatusPedido status, LocalDateTime limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("status", status.name())
+                .addValue("limite", Timestamp.valueOf(limite));
+        LocalDateTime menor = null;
+        for (Shard shard : shards) {
+            Timestamp noShard = shard.jdbc.queryForObject(
+                    "SELECT MIN(data_pedido) FROM pedidos WHERE status = :status AND data_pedido < :limite", parametros, Timestamp.class);
+            if (noShard != null && (menor == null || noShard.toLocalDateTime().isBefore(menor))) {
+                menor = noShard.toLocalDateTime();
+            }
+        }
+        return menor;
+    }
+
+    // Pedidos informados, com itens, consultando só os shards que os contêm
+    public List<PedidoEntity> buscarPorIds(Collection<Long> ids) {
+        List<PedidoLido> lidos = new ArrayList<>();
+        porShard(ids).forEach((shard, idsDoShard) ->
+                lidos.addAll(shard.consultar("id IN (:ids)", new MapSqlParameterSource("ids", idsDoShard))));
+        return montar(lidos);
+    }
+
+    // Pedidos excluídos com estorno ainda não concluído, com itens
+    public List<PedidoEntity> buscarExcluidosPorIds(Collection<Long> ids) {
+        List<PedidoLido> lidos = new ArrayList<>();
+        porShard(ids).forEach((shard, idsDoShard) -> lidos.addAll(shard.consultar("pedidos_excluidos", "itens_pedido_excluidos",
+                "id IN (:ids)", new MapSqlParameterSource("ids", idsDoShard))));
+        return montar(lidos);
+    }
+
+    /**
+     * Grava cliente, observação, status e valor total, e substitui os itens, se o pedido ainda estiver PENDENTE no
+     * shard; retorna false, sem alterar nada, se outra operação já o cancelou, aprovou ou excluiu.
+     */
+    public boolean atualizar(PedidoEntity pedido) {
+        Shard shard = shardDe(pedido.getId());
+        for (ItemPedidoEntity item : pedido.getItens()) {
+            if (item.getId() == null) {
+                item.setId(sequenciaItens.proximo());
+            }
+            item.setPedidoId(pedido.getId());
+        }
+        return shard.transacao.execute(status -> {
+            if (shard.jdbc.update("UPDATE pedidos SET cliente = :cliente, observacao = :observacao, valor_total = :valorTotal, " +
+                    "status = :status WHERE id = :id AND status = 'PENDENTE'", parametros(pedido)) == 0) {
+                return false;
+            }
+            shard.jdbc.update("DELETE FROM itens_pedido WHERE pedido_id = :id", new MapSqlParameterSource("id", pedido.getId()));
+            inserirItens(shard, pedido.getItens());
+            return true;
+        });
+    }
+
+    /**
+     * Trava e atualiza, em cada shard, os pedidos que estão em um dos status permitidos; retorna os IDs atualizados.
+     * Pedidos cancelados ganham, no mesmo commit do shard, um estorno pendente: a devolução do estoque acontece
+     * depois, no catálogo, e o pendente só é apagado com {@link #concluirEstornos} quando ela foi confirmada.
+     */
+    public List<Long> atualizarStatusEmLote(Collection<Long> ids, Collection<PedidoEntity.StatusPedido> statusPermitidos,
+                                            PedidoEntity.StatusPedido novoStatus) {
+        List<String> permitidos = statusPermitidos.stream().map(Enum::name).toList();
+        List<Long> atualizados = new ArrayList<>();
+        porShard(ids).forEach((shard, idsDoShard) -> atualizados.addAll(shard.transacao.execute(status -> {
+            MapSqlParameterSource parametros = new MapSqlParameterSource("ids", idsDoShard)
+                    .addValue("permitidos", permitidos)
+                    .addValue("novoStatus", novoStatus.name());
+            List<Long> elegiveis = shard.jdbc.queryForList(
+                    "SELECT id FROM pedidos WHERE id IN (:ids) AND status IN (:permitidos) FOR UPDATE", parametros, Long.class);
+            if (!elegiveis.isEmpty()) {
+                shard.jdbc.update("UPDATE pedidos SET status = :novoStatus WHERE id IN (:ids)",
+                        parametros.addValue("ids", elegiveis));
+            }
+            if (!elegiveis.isEmpty() && novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+                Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+                shard.jdbc.batchUpdate("INSERT INTO estornos_pendentes (pedido_id, criado_em) VALUES (:pedidoId, :criadoEm)",
+                        elegiveis.stream().map(id -> new MapSqlParameterSource("pedidoId", id).addValue("criadoEm", agora))
+                                .toArray(MapSqlParameterSource[]::new));
+            }
+            return elegiveis;
+        })));
+        return atualizados;
+    }
+
+    // Cancelamentos cujo estorno ainda não foi confirmado no catálogo, criados até o limite
+    public List<Long> buscarEstornosPendentes(LocalDateTime criadosAte) {
+        List<Long> pendentes = new ArrayList<>();
+        MapSqlParameterSource parametros = new MapSqlParameterSource("limite", Timestamp.valueOf(criadosAte));
+        for (Shard shard : shards) {
+            pendentes.addAll(shard.jdbc.queryForList(
+                    "SELECT pedido_id FROM estornos_pendentes WHERE criado_em <= :limite", parametros, Long.class));
+        }
+        return pendentes;
+    }
+
+    /**
+     * Marca os estornos como aplicados na tabela estornos_shard do catálogo, na transação de quem chama, e retorna os
+     * que ainda não estavam marcados. Se outra transação marcar o mesmo pedido ao mesmo tempo, a chave primária faz
+     * uma das duas falhar e ser desfeita.
+     */
+    public List<Long> marcarEstornados(Collection<Long> pedidoIds) {
+        Set<Long> marcados = new HashSet<>(jdbcCatalogo.queryForList("SELECT pedido_id FROM estornos_shard WHERE pedido_id IN (:ids)",
+                new MapSqlParameterSource("ids", pedidoIds), Long.class));
+        List<Long> novos = pedidoIds.stream().distinct().filter(id -> !marcados.contains(id)).toList();
+        if (!novos.isEmpty()) {
+            Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+            jdbcCatalogo.getJdbcTemplate().batchUpdate("INSERT INTO estornos_shard (pedido_id, aplicado_em) VALUES (?, ?)",
+                    novos.stream().map(id -> new Object[]{id, agora}).toList());
+        }
+        return novos;
+    }
+
+    // Depois do commit do catálogo; se falhar, o pendente é encontrado de novo e só é apagado, pois já está marcado
+    public void concluirEstornos(Collection<Long> pedidoIds) {
+        porShard(pedidoIds).forEach((shard, idsDoShard) -> shard.transacao.executeWithoutResult(status -> {
+            MapSqlParameterSource parametros = new MapSqlParameterSource("ids", idsDoShard);
+            shard.jdbc.update("DELETE FROM itens_pedido_excluidos WHERE pedido_id IN (:ids)", parametros);
+            shard.jdbc.update("DELETE FROM pedidos_excluidos WHERE id IN (:ids)", parametros);
+            shard.jdbc.update("DELETE FROM estornos_pendentes WHERE pedido_id IN (:ids)", parametros);
+        }));
+    }
+
+    // Marcas antigas não têm mais pendente correspondente: pendentes são reaplicados e apagados bem antes disso
+    public int excluirMarcasEstorno(LocalDateTime aplicadasAte) {
+        return jdbcCatalogo.update("DELETE FROM estornos_shard WHERE aplicado_em < :limite",
+                new MapSqlParameterSource("limite", Timestamp.valueOf(aplicadasAte)));
+    }
+
+    /**
+     * Exclui o pedido se ainda estiver PENDENTE; retorna false, sem alterar nada, caso contrário. Como no cancelamento,
+     * o mesmo commit grava um estorno pendente, e o pedido e seus itens passam para as tabelas de excluídos até
+     * {@link #concluirEstornos}, para que o estorno possa ser reaplicado se o catálogo não fizer o commit.
+     */
+    public boolean excluir(Long id) {
+        Shard shard = shardDe(id);
+        MapSqlParameterSource parametros = new MapSqlParameterSource("id", id)
+                .addValue("criadoEm", Timestamp.valueOf(LocalDateTime.now()));
+        return shard.transacao.execute(status -> {
+            if (shard.jdbc.queryForList("SELECT id FROM pedidos WHERE id = :id AND status = 'PENDENTE' FOR UPDATE",
+                    parametros, Long.class).isEmpty()) {
+                return false;
+            }
+            shard.jdbc.update("INSERT INTO pedidos_excluidos (" + COLUNAS_PEDIDO + ") " +
+                    "SELECT " + COLUNAS_PEDIDO + " FROM pedidos WHERE id = :id", parametros);
+            shard.jdbc.update("INSERT INTO itens_pedido_excluidos (" + COLUNAS_ITEM + ") " +
+                    "SELECT " + COLUNAS_ITEM + " FROM itens_pedido WHERE pedido_id = :id", parametros);
+            shard.jdbc.update("DELETE FROM itens_pedido WHERE pedido_id = :id", parametros);
+            shard.jdbc.update("DELETE FROM pedidos WHERE id = :id", parametros);
+            shard.jdbc.update("INSERT INTO estornos_pendentes (pedido_id, criado_em) VALUES (:id, :criadoEm)", parametros);
+            return true;
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        executorSequencias.shutdownNow();
+        for (Shard shard : shards) {
+            if (shard.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private Shard shardDe(long id) {
+        return shards.get(shardDoPedido(id, shards.size()));
+    }
+
+    private Map<Shard, List<Long>> porShard(Collection<Long> ids) {
+        return ids.stream().distinct().collect(Collectors.groupingBy(this::shardDe));
+    }
+
+    // Scatter-gather: a mesma consulta em todos os shards em paralelo, intercalando os resultados ordenados
+    private List<PedidoEntity> consultarTodos(String condicao, MapSqlParameterSource parametros) {
+        List<CompletableFuture<List<PedidoLido>>> consultas = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> shard.consultar(condicao, parametros), executor))
+                .toList();
+
+        List<List<PedidoLido>> resultados = new ArrayList<>(consultas.size());
+        try {
+            for (CompletableFuture<List<PedidoLido>> consulta : consultas) {
+                resultados.add(consulta.join());
+            }
+        } catch (CompletionException e) {
+            consultas.forEach(consulta -> consulta.cancel(true));
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return montar(intercalar(resultados));
+    }
+
+    private static List<PedidoLido> intercalar(List<List<PedidoLido>> ordenados) {
+        Comparator<PedidoLido> ordem = Comparator.comparing(PedidoLido::pedido, ORDEM);
+        PriorityQueue<Cabeca> fila = new PriorityQueue<>(Math.max(ordenados.size(), 1),
+                Comparator.comparing(Cabeca::atual, ordem));
+        int total = 0;
+        for (List<PedidoLido> lista : ordenados) {
+            total += lista.size();
+            Iterator<PedidoLido> iterador = lista.iterator();
+            if (iterador.hasNext()) {
+                fila.add(new Cabeca(iterador.next(), iterador));
+            }
+        }
+
+        List<PedidoLido> intercalados = new ArrayList<>(total);
+        while (!fila.isEmpty()) {
+            Cabeca cabeca = fila.poll();
+            intercalados.add(cabeca.atual());
+            if (cabeca.restantes().hasNext()) {
+                fila.add(new Cabeca(cabeca.restantes().next(), cabeca.restantes()));
+            }
+        }
+        return intercalados;
+    }
+
+    // Os produtos vêm do catálogo, na thread que chamou (e na sua transação), com uma consulta para todos os itens
+    private List<PedidoEntity> montar(List<PedidoLido> lidos) {
+        List<ItemPedidoEntity> itens = montarItens(lidos.stream().flatMap(lido -> lido.itens().stream()).toList());
+        Map<Long, List<ItemPedidoEntity>> itensPorPedido = itens.stream()
+                .collect(Collectors.groupingBy(ItemPedidoEntity::getPedidoId));
+
+        List<PedidoEntity> pedidos = new ArrayList<>(lidos.size());
+        for (PedidoLido lido : lidos) {
+            PedidoEntity pedido = lido.pedido();
+            BigDecimal valorTotal = pedido.getValorTotal();
+            pedido.setItens(new ArrayList<>(itensPorPedido.getOrDefault(pedido.getId(), List.of())));
+            pedido.setValorTotal(valorTotal);
+            pedidos.add(pedido);
+        }
+        return pedidos;
+    }
+
+    private List<ItemPedidoEntity> montarItens(List<ItemLido> lidos) {
+        if (lidos.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> produtoIds = new HashSet<>();
+        lidos.forEach(item -> produtoIds.add(item.produtoId()));
+        Map<Long, ProdutoEntity> produtos = produtoRepository.findAllById(produtoIds).stream()
+                .collect(Collectors.toMap(ProdutoEntity::getId, Function.identity()));
+
+        List<ItemPedidoEntity> itens = new ArrayList<>(lidos.size());
+        for (ItemLido lido : lidos) {
+            ItemPedidoEntity item = new ItemPedidoEntity();
+            item.setId(lido.id());
+            item.setPedidoId(lido.pedidoId());
+            item.setProduto(produtos.get(lido.produtoId()));
+            item.setQuantidade(lido.quantidade());
+            // Preço do momento da compra, não o atual do produto
+            item.setPrecoUnitario(lido.precoUnitario());
+            itens.add(item);
+        }
+        return itens;
+    }
+
+    private static void inserirItens(Shard shard, List<ItemPedidoEntity> itens) {
+        if (itens.isEmpty()) {
+            return;
+        }
+        shard.jdbc.batchUpdate("INSERT INTO itens_pedido (" + COLUNAS_ITEM + ") " +
+                        "VALUES (:id, :pedidoId, :produtoId, :quantidade, :precoUnitario, :valorTotal)",
+                itens.stream().map(item -> new MapSqlParameterSource("id", item.getId())
+                        .addValue("pedidoId", item.getPedidoId())
+                        .addValue("produtoId", item.getProduto().getId())
+                        .addValue("quantidade", item.getQuantidade())
+                        .addValue("precoUnitario", item.getPrecoUnitario())
+                        .addValue("valorTotal", item.getValorTotal())).toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static MapSqlParameterSource parametros(PedidoEntity pedido) {
+        return new MapSqlParameterSource("id", pedido.getId())
+                .addValue("cliente", pedido.getCliente())
+                .addValue("dataPedido", Timestamp.valueOf(pedido.getDataPedido()))
+                .addValue("observacao", pedido.getObservacao())
+                .addValue("valorTotal", pedido.getValorTotal())
+                .addValue("status", pedido.getStatus().name());
+    }
+
+    private record PedidoLido(PedidoEntity pedido, List<ItemLido> itens) {
+    }
+
+    private record ItemLido(Long id, Long pedidoId, Long produtoId, Integer quantidade, BigDecimal precoUnitario) {
+    }
+
+    private record Cabeca(PedidoLido atual, Iterator<PedidoLido> restantes) {
+    }
+
+    private static final class Shard {
+
+        private static final RowMapper<PedidoEntity> PEDIDO = (rs, linha) -> new PedidoEntity(rs.getLong("id"),
+                rs.getString("cliente"), rs.getTimestamp("data_pedido").toLocalDateTime(), rs.getString("observacao"),
+                rs.getBigDecimal("valor_total"), PedidoEntity.StatusPedido.valueOf(rs.getString("status")));
+        private static final RowMapper<ItemLido> ITEM = (rs, linha) -> new ItemLido(rs.getLong("id"),
+                rs.getLong("pedido_id"), rs.getLong("produto_id"), rs.getInt("quantidade"), rs.getBigDecimal("preco_unitario"));
+
+        private final DataSource dataSource;
+        private final NamedParameterJdbcTemplate jdbc;
+        private final TransactionTemplate transacao;
+
+        private Shard(DataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+            this.transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        // Pedidos ordenados por data e ID, com seus itens, lidos no próprio shard
+        private List<PedidoLido> consultar(String condicao, MapSqlParameterSource parametros) {
+            return consultar("pedidos", "itens_pedido", condicao, parametros);
+        }
+
+        private List<PedidoLido> consultar(String tabelaPedidos, String tabelaItens, String condicao,
+                                           MapSqlParameterSource parametros) {
+            List<PedidoEntity> pedidos = jdbc.query("SELECT " + COLUNAS_PEDIDO + " FROM " + tabelaPedidos + " WHERE " + condicao +
+                    " ORDER BY data_pedido, id", parametros, PEDIDO);
+            if (pedidos.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, List<ItemLido>> itensPorPedido = new HashMap<>();
+            for (ItemLido item : buscarItens(tabelaItens, pedidos.stream().map(PedidoEntity::getId).toList())) {
+                itensPorPedido.computeIfAbsent(item.pedidoId(), id -> new ArrayList<>()).add(item);
+            }
+            return pedidos.stream()
+                    .map(pedido -> new PedidoLido(pedido, itensPorPedido.getOrDefault(pedido.getId(), List.of())))
+                    .toList();
+        }
+
+        private List<ItemLido> buscarItens(String tabelaItens, List<Long> pedidoIds) {
+            List<ItemLido> itens = new ArrayList<>();
+            // Limita o tamanho do IN em consultas que trazem muitos pedidos
+            for (int inicio = 0; inicio < pedidoIds.size(); inicio += 1000) {
+                List<Long> lote = pedidoIds.subList(inicio, Math.min(inicio + 1000, pedidoIds.size()));
+                itens.addAll(jdbc.query("SELECT " + COLUNAS_ITEM + " FROM " + tabelaItens + " WHERE pedido_id IN (:ids) ORDER BY id",
+                        new MapSqlParameterSource("ids", lote), ITEM));
+            }
+            return itens;
+        }
+    }
+
+    // IDs globais reservados em blocos na tabela sequencias_shard do catálogo, para não ir ao banco a cada inserção.
+    // O bloco seguinte é reservado em segundo plano assim que o atual passa a ser usado: a thread do pedido, que já
+    // segura uma conexão do catálogo, não abre outra, e a trava não é segurada durante o acesso ao banco
+    private static final class SequenciaIds {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate transacao;
+        private final String nome;
+        private final int bloco;
+        private final Executor executor;
+        private final ReentrantLock trava = new ReentrantLock();
+        private long proximo;
+        private long limite;
+        private CompletableFuture<Long> reserva;
+
+        private SequenciaIds(DataSource catalogo, String nome, int bloco, Executor executor) {
+            this.jdbc = new JdbcTemplate(catalogo);
+            this.transacao = new TransactionTemplate(new DataSourceTransactionManager(catalogo));
+            this.nome = nome;
+            this.bloco = bloco;
+            this.executor = executor;
+        }
+
+        // Na inicialização, para que a reserva só precise travar e avançar a linha
+        private void criarLinha() {
+            Integer existentes = jdbc.queryForObject("SELECT COUNT(*) FROM sequencias_shard WHERE nome = ?", Integer.class, nome);
+            if (existentes != null && existentes > 0) {
+                return;
+            }
+            try {
+                jdbc.update("INSERT INTO sequencias_shard (nome, proximo) VALUES (?, 1)", nome);
+            } catch (DuplicateKeyException e) {
+                // Criada ao mesmo tempo por outra instância; a reserva usa a linha dela
+            }
+        }
+
+        private long proximo() {
+            trava.lock();
+            try {
+                if (proximo >= limite) {
+                    CompletableFuture<Long> atual = reserva != null ? reserva : reservarEmSegundoPlano();
+                    // Se a reserva falhou, a próxima chamada tenta de novo
+                    reserva = null;
+                    long inicio = aguardar(atual);
+                    proximo = inicio;
+                    limite = inicio + bloco;
+                    reserva = reservarEmSegundoPlano();
+                }
+                return proximo++;
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        private CompletableFuture<Long> reservarEmSegundoPlano() {
+            return CompletableFuture.supplyAsync(this::reservar, executor);
+        }
+
+        // Transação própria, fora da transação de quem pediu o ID: o bloco fica reservado mesmo se ela for desfeita
+        private long reservar() {
+            return transacao.execute(status -> {
+                Long inicio = jdbc.queryForObject("SELECT proximo FROM sequencias_shard WHERE nome = ? FOR UPDATE", Long.class, nome);
+                jdbc.update("UPDATE sequencias_shard SET proximo = ? WHERE nome = ?", inicio + bloco, nome);
+                return inicio;
+            });
+        }
+
+        private long aguardar(CompletableFuture<Long> reserva) {
+            try {
+                return reserva.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw new IllegalStateException("Falha ao reservar IDs da sequência " + nome, causa);
+                }
+                throw e;
+            }
+        }
+    }
+}
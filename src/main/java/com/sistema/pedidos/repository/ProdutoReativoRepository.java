@@ -0,0 +1,12 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.ProdutoReativoEntity;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Mesmas consultas de ProdutoRepository, em R2DBC e sem materializar a lista
+@Repository
+public interface ProdutoReativoRepository extends R2dbcRepository<ProdutoReativoEntity, Long> {
+    Flux<ProdutoReativoEntity> findByNomeContainingIgnoreCase(String nome);
+}
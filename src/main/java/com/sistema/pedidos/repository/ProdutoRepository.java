@@ -1,12 +1,67 @@
 package com.sistema.pedidos.repository;
 
 import com.sistema.pedidos.entity.ProdutoEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<ProdutoEntity, Long> {
     List<ProdutoEntity> findByNomeContainingIgnoreCase(String nome);
+
+    // Baixa condicional: só altera a linha com estoque suficiente, e baixas concorrentes esperam o lock da linha em vez
+    // de se sobrescreverem. Limpa o contexto para que os produtos carregados na validação não sejam devolvidos com o
+    // estoque de antes da baixa; quem grava o pedido o relê no fim
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.quantidadeEstoque = p.quantidadeEstoque - :quantidade " +
+            "WHERE p.id = :id AND p.quantidadeEstoque >= :quantidade")
+    int baixarEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    // Devolve ao estoque, em um único UPDATE, a soma das quantidades dos itens dos pedidos informados
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.quantidadeEstoque = p.quantidadeEstoque + " +
+            "CAST((SELECT SUM(i.quantidade) FROM ItemPedidoEntity i WHERE i.produto = p AND i.pedidoId IN :pedidoIds) AS Integer) " +
+            "WHERE p.id IN (SELECT i.produto.id FROM ItemPedidoEntity i WHERE i.pedidoId IN :pedidoIds)")
+    int devolverEstoqueDosPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.quantidadeEstoque = p.quantidadeEstoque + :quantidade WHERE p.id = :id")
+    int devolverEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM ProdutoEntity p WHERE p.id IN :ids AND p.quantidadeEstoque >= :estoqueMinimo")
+    List<Long> lockIdsByIdInAndQuantidadeEstoqueAtLeast(@Param("ids") Collection<Long> ids,
+                                                         @Param("estoqueMinimo") int estoqueMinimo);
+
+    // Reajuste percentual: também deixa de fora os produtos cujo preço arredondado ficaria zerado
+    @Query(value = "SELECT id FROM produtos WHERE id IN (:ids) AND quantidade_estoque >= :estoqueMinimo " +
+            "AND ROUND(preco * :fator, 2) > 0 FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsParaReajustePercentual(@Param("ids") Collection<Long> ids,
+                                             @Param("estoqueMinimo") int estoqueMinimo,
+                                             @Param("fator") BigDecimal fator);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.preco = :preco WHERE p.id IN :ids")
+    int definirPrecoEmLote(@Param("ids") Collection<Long> ids, @Param("preco") BigDecimal preco);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE produtos SET preco = ROUND(preco * :fator, 2) WHERE id IN (:ids)", nativeQuery = true)
+    int reajustarPrecoEmLote(@Param("ids") Collection<Long> ids, @Param("fator") BigDecimal fator);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.quantidadeEstoque = :quantidade WHERE p.id IN :ids")
+    int definirEstoqueEmLote(@Param("ids") Collection<Long> ids, @Param("quantidade") int quantidade);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProdutoEntity p SET p.quantidadeEstoque = p.quantidadeEstoque + :delta " +
+            "WHERE p.id IN :ids AND p.quantidadeEstoque + :delta >= 0")
+    int ajustarEstoqueEmLote(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
@@ -0,0 +1,24 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.ResumoClienteEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResumoClienteRepository extends JpaRepository<ResumoClienteEntity, String> {
+
+    // Quantidade e valor dos pedidos informados por cliente como gravado (a normalização é feita no serviço)
+    @Query("SELECT new com.sistema.pedidos.entity.ResumoClienteEntity(p.cliente, COUNT(p), SUM(p.valorTotal), COUNT(p), MAX(p.dataPedido)) " +
+            "FROM PedidoEntity p WHERE p.id IN :pedidoIds GROUP BY p.cliente")
+    List<ResumoClienteEntity> totalizarPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM resumos_clientes", nativeQuery = true)
+    int excluirTodos();
+}
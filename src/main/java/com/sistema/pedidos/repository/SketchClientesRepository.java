@@ -0,0 +1,28 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.SketchClientesEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SketchClientesRepository extends JpaRepository<SketchClientesEntity, SketchClientesEntity.Chave> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SketchClientesEntity s WHERE s.dia = :dia AND s.produtoId = :produtoId")
+    Optional<SketchClientesEntity> lockByDiaAndProdutoId(@Param("dia") LocalDate dia, @Param("produtoId") Long produtoId);
+
+    List<SketchClientesEntity> findByProdutoIdAndDiaBetween(Long produtoId, LocalDate inicio, LocalDate fim);
+
+    @Modifying
+    @Query(value = "DELETE FROM sketches_clientes", nativeQuery = true)
+    int excluirTodos();
+}
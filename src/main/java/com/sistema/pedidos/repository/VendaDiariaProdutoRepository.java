@@ -0,0 +1,55 @@
+package com.sistema.pedidos.repository;
+
+import com.sistema.pedidos.entity.VendaDiariaProdutoEntity;
+import com.sistema.pedidos.model.ReceitaPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VendaDiariaProdutoRepository extends JpaRepository<VendaDiariaProdutoEntity, VendaDiariaProdutoEntity.Chave> {
+
+    // Contribuição dos pedidos informados, já agrupada por dia e produto, para o estorno em lote
+    @Query("SELECT new com.sistema.pedidos.entity.VendaDiariaProdutoEntity(CAST(p.dataPedido AS LocalDate), i.produto.id, " +
+            "SUM(i.quantidade), SUM(i.valorTotal), COUNT(DISTINCT p.id)) " +
+            "FROM ItemPedidoEntity i JOIN PedidoEntity p ON p.id = i.pedidoId WHERE p.id IN :pedidoIds " +
+            "GROUP BY CAST(p.dataPedido AS LocalDate), i.produto.id")
+    List<VendaDiariaProdutoEntity> totalizarPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Query("SELECT new com.sistema.pedidos.model.ReceitaPeriodo(v.dia, SUM(v.quantidade), SUM(v.receita)) " +
+            "FROM VendaDiariaProdutoEntity v WHERE v.dia BETWEEN :inicio AND :fim " +
+            "GROUP BY v.dia HAVING SUM(v.quantidadePedidos) > 0")
+    List<ReceitaPeriodo> totalizarPorDia(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    @Query("SELECT new com.sistema.pedidos.model.TotalVendasProduto(v.produtoId, pr.nome, SUM(v.quantidade), " +
+            "SUM(v.quantidadePedidos), SUM(v.receita)) " +
+            "FROM VendaDiariaProdutoEntity v JOIN ProdutoEntity pr ON pr.id = v.produtoId WHERE v.dia BETWEEN :inicio AND :fim " +
+            "GROUP BY v.produtoId, pr.nome HAVING SUM(v.quantidadePedidos) > 0")
+    List<TotalVendasProduto> totalizarPorProduto(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    @Modifying
+    @Query(value = "DELETE FROM vendas_diarias_produto", nativeQuery = true)
+    int excluirTodas();
+
+    // Recalcula tudo a partir dos pedidos ativos e arquivados que não foram cancelados
+    @Modifying
+    @Query(value = "INSERT INTO vendas_diarias_produto (dia, produto_id, quantidade, receita, quantidade_pedidos) " +
+            "SELECT t.dia, t.produto_id, SUM(t.quantidade), SUM(t.receita), SUM(t.pedidos) FROM (" +
+            "SELECT CAST(p.data_pedido AS DATE) AS dia, i.produto_id, SUM(i.quantidade) AS quantidade, " +
+            "SUM(i.valor_total) AS receita, COUNT(DISTINCT p.id) AS pedidos " +
+            "FROM itens_pedido i JOIN pedidos p ON p.id = i.pedido_id WHERE p.status <> 'CANCELADO' " +
+            "GROUP BY CAST(p.data_pedido AS DATE), i.produto_id " +
+            "UNION ALL " +
+            "SELECT CAST(p.data_pedido AS DATE), i.produto_id, SUM(i.quantidade), SUM(i.valor_total), COUNT(DISTINCT p.id) " +
+            "FROM itens_pedido_arquivo i JOIN pedidos_arquivo p ON p.id = i.pedido_id WHERE p.status <> 'CANCELADO' " +
+            "GROUP BY CAST(p.data_pedido AS DATE), i.produto_id" +
+            ") t GROUP BY t.dia, t.produto_id", nativeQuery = true)
+    int reconstruir();
+}
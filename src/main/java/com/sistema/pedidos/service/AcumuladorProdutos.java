@@ -0,0 +1,148 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.model.CriterioRanking;
+import com.sistema.pedidos.model.TotalVendasProduto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Totais por produto em arrays de long com endereçamento aberto, sem objetos por produto nem por linha lida.
+ * A memória cresce com a quantidade de produtos distintos; a receita é somada em centavos.
+ * Não é thread-safe: cada partição usa o seu e os acumuladores são somados depois.
+ */
+final class AcumuladorProdutos {
+
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    // IDs de produto são positivos; 0 marca posição livre
+    private long[] produtos;
+    private long[] quantidades;
+    private long[] receitas;
+    private long[] pedidos;
+    private long[] ultimoPedido;
+    private int tamanho;
+
+    AcumuladorProdutos() {
+        alocar(CAPACIDADE_INICIAL);
+    }
+
+    // Itens do mesmo pedido devem chegar em sequência, para que o pedido conte uma vez por produto
+    void adicionar(long produtoId, long pedidoId, long quantidade, long receitaCentavos) {
+        int posicao = posicao(produtoId);
+        quantidades[posicao] += quantidade;
+        receitas[posicao] += receitaCentavos;
+        if (ultimoPedido[posicao] != pedidoId) {
+            pedidos[posicao]++;
+            ultimoPedido[posicao] = pedidoId;
+        }
+    }
+
+    // Partições cobrem pedidos diferentes, então os pedidos de cada uma se somam
+    void somar(AcumuladorProdutos outro) {
+        for (int i = 0; i < outro.produtos.length; i++) {
+            if (outro.produtos[i] != 0) {
+                int posicao = posicao(outro.produtos[i]);
+                quantidades[posicao] += outro.quantidades[i];
+                receitas[posicao] += outro.receitas[i];
+                pedidos[posicao] += outro.pedidos[i];
+            }
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    // Heap limitado a `limite` posições, com o pior dos selecionados no topo; devolve do maior para o menor, sem o nome
+    List<TotalVendasProduto> maiores(int limite, CriterioRanking criterio) {
+        Comparator<Integer> ordem = ordem(criterio);
+        PriorityQueue<Integer> selecionados = new PriorityQueue<>(limite + 1, ordem.reversed());
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] == 0) {
+                continue;
+            }
+            if (selecionados.size() < limite) {
+                selecionados.add(i);
+            } else if (ordem.compare(i, selecionados.peek()) < 0) {
+                selecionados.poll();
+                selecionados.add(i);
+            }
+        }
+
+        List<Integer> posicoes = new ArrayList<>(selecionados);
+        posicoes.sort(ordem);
+        List<TotalVendasProduto> totais = new ArrayList<>(posicoes.size());
+        for (int posicao : posicoes) {
+            totais.add(new TotalVendasProduto(produtos[posicao], null, quantidades[posicao], pedidos[posicao],
+                    BigDecimal.valueOf(receitas[posicao], 2)));
+        }
+        return totais;
+    }
+
+    // Maior valor primeiro; empate pelo menor ID de produto
+    private Comparator<Integer> ordem(CriterioRanking criterio) {
+        long[] valores = criterio == CriterioRanking.QUANTIDADE ? quantidades : receitas;
+        return (a, b) -> {
+            int comparacao = Long.compare(valores[b], valores[a]);
+            return comparacao != 0 ? comparacao : Long.compare(produtos[a], produtos[b]);
+        };
+    }
+
+    private int posicao(long produtoId) {
+        int mascara = produtos.length - 1;
+        int posicao = espalhar(produtoId) & mascara;
+        while (produtos[posicao] != 0) {
+            if (produtos[posicao] == produtoId) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+
+        // Mantém no máximo metade das posições ocupadas, para sondagens curtas
+        if ((tamanho + 1) * 2 > produtos.length) {
+            crescer();
+            return posicao(produtoId);
+        }
+        produtos[posicao] = produtoId;
+        tamanho++;
+        return posicao;
+    }
+
+    private void crescer() {
+        long[] produtosAntigos = produtos;
+        long[] quantidadesAntigas = quantidades;
+        long[] receitasAntigas = receitas;
+        long[] pedidosAntigos = pedidos;
+        long[] ultimoPedidoAntigo = ultimoPedido;
+        alocar(produtosAntigos.length * 2);
+        tamanho = 0;
+
+        for (int i = 0; i < produtosAntigos.length; i++) {
+            if (produtosAntigos[i] != 0) {
+                int posicao = posicao(produtosAntigos[i]);
+                quantidades[posicao] = quantidadesAntigas[i];
+                receitas[posicao] = receitasAntigas[i];
+                pedidos[posicao] = pedidosAntigos[i];
+                ultimoPedido[posicao] = ultimoPedidoAntigo[i];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        produtos = new long[capacidade];
+        quantidades = new long[capacidade];
+        receitas = new long[capacidade];
+        pedidos = new long[capacidade];
+        ultimoPedido = new long[capacidade];
+    }
+
+    // IDs sequenciais caem em posições vizinhas sem a mistura dos bits
+    private static int espalhar(long produtoId) {
+        long h = produtoId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,190 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AjusteProdutoItem;
+import com.sistema.pedidos.model.AjusteProdutosLoteRequest;
+import com.sistema.pedidos.model.AjusteProdutosLoteResponse;
+import com.sistema.pedidos.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class AjusteProdutoLoteService {
+
+    // Quantidade máxima de IDs por UPDATE ... WHERE id IN (...)
+    static final int TAMANHO_LOTE = 500;
+
+    private static final String SQL_AJUSTAR_ITEM =
+            "UPDATE produtos SET preco = COALESCE(?, preco), quantidade_estoque = COALESCE(?, quantidade_estoque) WHERE id = ?";
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    private final ProdutoRepository produtoRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AjusteProdutoLoteService(ProdutoRepository produtoRepository, JdbcTemplate jdbcTemplate) {
+        this.produtoRepository = produtoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public AjusteProdutosLoteResponse ajustar(AjusteProdutosLoteRequest request) {
+        boolean possuiIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean possuiItens = request.getItens() != null && !request.getItens().isEmpty();
+
+        if (!possuiIds && !possuiItens) {
+            throw new BadRequestException("Informe os ids dos produtos ou a lista de itens a ajustar");
+        }
+
+        List<Long> atualizados = new ArrayList<>();
+        List<Long> rejeitados = new ArrayList<>();
+
+        if (possuiIds) {
+            ajustarPorIds(request, atualizados, rejeitados);
+        }
+
+        if (possuiItens) {
+            ajustarPorLista(request.getItens(), atualizados, rejeitados);
+        }
+
+        return new AjusteProdutosLoteResponse(atualizados, rejeitados);
+    }
+
+    // Mesmo ajuste para todos os ids: um UPDATE por lote para o preço e outro para o estoque
+    private void ajustarPorIds(AjusteProdutosLoteRequest request, List<Long> atualizados, List<Long> rejeitados) {
+        if (request.getTipoAjustePreco() == null && request.getTipoAjusteEstoque() == null) {
+            throw new BadRequestException("Informe o ajuste de preço e/ou de estoque a aplicar");
+        }
+
+        BigDecimal fatorPreco = validarAjustePreco(request);
+        validarAjusteEstoque(request);
+
+        // Um delta negativo só pode ser aplicado a produtos com estoque suficiente
+        int estoqueMinimo = request.getTipoAjusteEstoque() == AjusteProdutosLoteRequest.TipoAjusteEstoque.DELTA
+                ? Math.max(0, -request.getValorEstoque()) : 0;
+
+        if (request.getIds().contains(null)) {
+            throw new BadRequestException("Os ids dos produtos não podem ser nulos");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size()));
+
+            List<Long> elegiveis = fatorPreco != null
+                    ? produtoRepository.lockIdsParaReajustePercentual(lote, estoqueMinimo, fatorPreco)
+                    : produtoRepository.lockIdsByIdInAndQuantidadeEstoqueAtLeast(lote, estoqueMinimo);
+            if (!elegiveis.isEmpty()) {
+                if (request.getTipoAjustePreco() == AjusteProdutosLoteRequest.TipoAjustePreco.ABSOLUTO) {
+                    produtoRepository.definirPrecoEmLote(elegiveis, request.getValorPreco());
+                } else if (request.getTipoAjustePreco() == AjusteProdutosLoteRequest.TipoAjustePreco.PERCENTUAL) {
+                    produtoRepository.reajustarPrecoEmLote(elegiveis, fatorPreco);
+                }
+
+                if (request.getTipoAjusteEstoque() == AjusteProdutosLoteRequest.TipoAjusteEstoque.DEFINIR) {
+                    produtoRepository.definirEstoqueEmLote(elegiveis, request.getValorEstoque());
+                } else if (request.getTipoAjusteEstoque() == AjusteProdutosLoteRequest.TipoAjusteEstoque.DELTA) {
+                    produtoRepository.ajustarEstoqueEmLote(elegiveis, request.getValorEstoque());
+                }
+            }
+
+            Set<Long> alteradosNoLote = new HashSet<>(elegiveis);
+            for (Long id : lote) {
+                if (alteradosNoLote.contains(id)) {
+                    atualizados.add(id);
+                } else {
+                    rejeitados.add(id);
+                }
+            }
+        }
+    }
+
+    // Valores individuais por produto, enviados em batch JDBC
+    private void ajustarPorLista(List<AjusteProdutoItem> itens, List<Long> atualizados, List<Long> rejeitados) {
+        for (int i = 0; i < itens.size(); i++) {
+            if (itens.get(i).getId() == null) {
+                throw new BadRequestException("O id do produto é obrigatório (item " + (i + 1) + ")");
+            }
+        }
+
+        List<Object[]> parametros = new ArrayList<>();
+        List<Long> idsEnviados = new ArrayList<>();
+
+        for (AjusteProdutoItem item : itens) {
+
+            boolean precoValido = item.getPreco() == null || item.getPreco().signum() > 0;
+            boolean estoqueValido = item.getQuantidadeEstoque() == null || item.getQuantidadeEstoque() >= 0;
+            boolean possuiAjuste = item.getPreco() != null || item.getQuantidadeEstoque() != null;
+
+            if (!precoValido || !estoqueValido || !possuiAjuste) {
+                rejeitados.add(item.getId());
+                continue;
+            }
+
+            parametros.add(new Object[]{item.getPreco(), item.getQuantidadeEstoque(), item.getId()});
+            idsEnviados.add(item.getId());
+        }
+
+        for (int inicio = 0; inicio < parametros.size(); inicio += TAMANHO_LOTE) {
+            int fim = Math.min(inicio + TAMANHO_LOTE, parametros.size());
+            int[] alterados = jdbcTemplate.batchUpdate(SQL_AJUSTAR_ITEM, parametros.subList(inicio, fim));
+
+            for (int i = 0; i < alterados.length; i++) {
+                if (alterados[i] == 0) {
+                    rejeitados.add(idsEnviados.get(inicio + i));
+                } else {
+                    atualizados.add(idsEnviados.get(inicio + i));
+                }
+            }
+        }
+    }
+
+    private BigDecimal validarAjustePreco(AjusteProdutosLoteRequest request) {
+        if (request.getTipoAjustePreco() == null) {
+            return null;
+        }
+
+        if (request.getValorPreco() == null) {
+            throw new BadRequestException("O valor do ajuste de preço é obrigatório");
+        }
+
+        if (request.getTipoAjustePreco() == AjusteProdutosLoteRequest.TipoAjustePreco.ABSOLUTO) {
+            if (request.getValorPreco().signum() <= 0) {
+                throw new BadRequestException("O preço deve ser maior que zero");
+            }
+            return null;
+        }
+
+        // Percentual: 10 aumenta 10%, -10 reduz 10%
+        BigDecimal fator = BigDecimal.ONE.add(request.getValorPreco().divide(CEM));
+        if (fator.signum() <= 0) {
+            throw new BadRequestException("O reajuste percentual deve ser maior que -100%");
+        }
+        return fator;
+    }
+
+    private void validarAjusteEstoque(AjusteProdutosLoteRequest request) {
+        if (request.getTipoAjusteEstoque() == null) {
+            return;
+        }
+
+        if (request.getValorEstoque() == null) {
+            throw new BadRequestException("O valor do ajuste de estoque é obrigatório");
+        }
+
+        if (request.getTipoAjusteEstoque() == AjusteProdutosLoteRequest.TipoAjusteEstoque.DEFINIR
+                && request.getValorEstoque() < 0) {
+            throw new BadRequestException("A quantidade em estoque não pode ser negativa");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.AnaliseResponse;
+import com.sistema.pedidos.model.DimensaoAnalise;
+import com.sistema.pedidos.model.GrupoAnalise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Análises ad hoc sobre um snapshot colunar em memória das linhas de itens de pedido (ativos e arquivados), para
+ * que filtros e agrupamentos não consultem o banco transacional. O snapshot é atualizado de forma incremental pela
+ * fronteira de pedidos finalizados; as consultas filtram coluna a coluna em blocos e agregam as partes em paralelo.
+ */
+@Service
+@ConditionalOnProperty(name = "pedidos.analise.habilitada", havingValue = "true")
+public class AnaliseColunarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliseColunarService.class);
+
+    // Ordenado por pedido, como as colunas do snapshot; um pedido fica só em uma das tabelas
+    private static final String SQL_LINHAS =
+            "SELECT i.pedido_id, i.id, i.produto_id, p.data_pedido, p.status, i.quantidade, i.valor_total " +
+            "FROM itens_pedido i JOIN pedidos p ON p.id = i.pedido_id WHERE i.pedido_id >= ? " +
+            "UNION ALL " +
+            "SELECT i.pedido_id, i.id, i.produto_id, p.data_pedido, p.status, i.quantidade, i.valor_total " +
+            "FROM itens_pedido_arquivo i JOIN pedidos_arquivo p ON p.id = i.pedido_id WHERE i.pedido_id >= ? " +
+            "ORDER BY 1, 2";
+
+    // Linhas por bloco de filtragem: o vetor de seleção e as chaves do bloco cabem no cache L1
+    private static final int TAMANHO_BLOCO = 1024;
+    // Abaixo disso a divisão entre threads custa mais do que a varredura
+    private static final int MINIMO_LINHAS_POR_PARTE = 65_536;
+    private static final int TODOS_OS_STATUS = (1 << PedidoEntity.StatusPedido.values().length) - 1;
+
+    private final JdbcTemplate jdbcStreaming;
+    private final TransactionTemplate transacaoLeitura;
+    private final Duration margem;
+    private final int paralelismo;
+
+    // Dicionário de produtos compartilhado entre os snapshots; só a atualização, sob a trava, o altera
+    private final Map<Long, Integer> codigoPorProduto = new HashMap<>();
+    // ReentrantLock e não synchronized: a leitura em streaming bloqueia no JDBC, o que prenderia a virtual thread
+    private final ReentrantLock travaAtualizacao = new ReentrantLock();
+    private volatile SnapshotColunar snapshot;
+
+    @Autowired
+    public AnaliseColunarService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${pedidos.analise.margem:PT5M}") Duration margem,
+            @Value("${pedidos.analise.fetch-size:-2147483648}") int fetchSize) {
+        // Template próprio: o fetch size de streaming não deve valer para as demais consultas
+        this.jdbcStreaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcStreaming.setFetchSize(fetchSize);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.margem = margem;
+        this.paralelismo = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Mantém as linhas dos pedidos abaixo da fronteira e relê as demais. A nova fronteira é o menor pedido ainda
+     * PENDENTE ou APROVADO, ou criado dentro da margem (uma transação em andamento pode gravar um pedido de ID menor
+     * que os já visíveis). Assim mudanças de status, troca de itens, exclusões e arquivamento entram sem reler o histórico.
+     */
+    public void atualizar() {
+        travaAtualizacao.lock();
+        try {
+            atualizarSnapshot();
+        } finally {
+            travaAtualizacao.unlock();
+        }
+    }
+
+    private void atualizarSnapshot() {
+        long inicio = System.nanoTime();
+        SnapshotColunar anterior = snapshot != null ? snapshot : SnapshotColunar.VAZIO;
+        long fronteira = anterior.fronteira;
+        int mantidas = anterior.primeiraLinhaAPartirDe(fronteira);
+
+        SnapshotColunar.Construtor construtor = new SnapshotColunar.Construtor(anterior, mantidas, codigoPorProduto);
+        LocalDateTime atualizadoEm = LocalDateTime.now();
+        LocalDateTime limiteMargem = atualizadoEm.minus(margem);
+        long[] menorAberto = {Long.MAX_VALUE};
+        long[] maiorLido = {fronteira - 1};
+
+        RowCallbackHandler adicionarLinha = linha -> {
+            long pedidoId = linha.getLong(1);
+            LocalDateTime dataPedido = linha.getObject(4, LocalDateTime.class);
+            PedidoEntity.StatusPedido status = PedidoEntity.StatusPedido.valueOf(linha.getString(5));
+            // valor_total tem duas casas decimais, então vira centavos sem arredondamento
+            construtor.adicionar(pedidoId, linha.getLong(3), (int) dataPedido.toLocalDate().toEpochDay(),
+                    (byte) status.ordinal(), linha.getInt(6), linha.getBigDecimal(7).movePointRight(2).longValueExact());
+
+            boolean emAberto = status == PedidoEntity.StatusPedido.PENDENTE || status == PedidoEntity.StatusPedido.APROVADO;
+            if (emAberto || dataPedido.isAfter(limiteMargem)) {
+                menorAberto[0] = Math.min(menorAberto[0], pedidoId);
+            }
+            maiorLido[0] = Math.max(maiorLido[0], pedidoId);
+        };
+        transacaoLeitura.executeWithoutResult(status -> jdbcStreaming.query(SQL_LINHAS, adicionarLinha, fronteira, fronteira));
+
+        long novaFronteira = menorAberto[0] != Long.MAX_VALUE ? menorAberto[0] : maiorLido[0] + 1;
+        SnapshotColunar novo = construtor.construir(novaFronteira, atualizadoEm);
+        snapshot = novo;
+        logger.info("message=Snapshot de análise atualizado. linhas={} linhasMantidas={} produtos={} fronteira={} duracaoMs={}",
+                novo.tamanho, mantidas, novo.produtoPorCodigo.length, novaFronteira,
+                Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+    }
+
+    public AnaliseResponse consultar(@Nullable LocalDate inicio, @Nullable LocalDate fim,
+                                     @Nullable Collection<PedidoEntity.StatusPedido> status, @Nullable Long produtoId,
+                                     DimensaoAnalise dimensao) {
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            throw new BadRequestException("A data de início deve ser anterior à data de fim");
+        }
+        if (snapshot == null) {
+            atualizar();
+        }
+        SnapshotColunar atual = snapshot;
+
+        int mascaraStatus = TODOS_OS_STATUS;
+        if (status != null && !status.isEmpty()) {
+            mascaraStatus = 0;
+            for (PedidoEntity.StatusPedido umStatus : status) {
+                mascaraStatus |= 1 << umStatus.ordinal();
+            }
+        }
+        int codigoProduto = produtoId != null ? atual.codigoDoProduto(produtoId) : -1;
+        if (produtoId != null && codigoProduto < 0) {
+            return new AnaliseResponse(atual.atualizadoEm, atual.tamanho, List.of());
+        }
+
+        Filtro filtro = new Filtro(
+                Math.max(atual.diaMinimo, inicio != null ? (int) inicio.toEpochDay() : Integer.MIN_VALUE),
+                Math.min(atual.diaMaximo, fim != null ? (int) fim.toEpochDay() : Integer.MAX_VALUE),
+                mascaraStatus, codigoProduto, dimensao);
+        if (filtro.diaInicio > filtro.diaFim) {
+            return new AnaliseResponse(atual.atualizadoEm, atual.tamanho, List.of());
+        }
+
+        Parcial total = agregarEmParalelo(atual, filtro);
+        return new AnaliseResponse(atual.atualizadoEm, atual.tamanho, agrupar(atual, filtro, total));
+    }
+
+    // Partes contíguas que não cortam um pedido ao meio, para a contagem de pedidos por grupo não repetir pedidos
+    private Parcial agregarEmParalelo(SnapshotColunar atual, Filtro filtro) {
+        int partes = Math.max(1, Math.min(paralelismo, atual.tamanho / MINIMO_LINHAS_POR_PARTE));
+        int[] limites = new int[partes + 1];
+        limites[partes] = atual.tamanho;
+        for (int parte = 1; parte < partes; parte++) {
+            int limite = Math.max(limites[parte - 1], (int) ((long) atual.tamanho * parte / partes));
+            while (limite > 0 && limite < atual.tamanho && atual.pedidos[limite] == atual.pedidos[limite - 1]) {
+                limite++;
+            }
+            limites[parte] = limite;
+        }
+
+        return IntStream.range(0, partes).parallel()
+                .mapToObj(parte -> agregar(atual, filtro, limites[parte], limites[parte + 1]))
+                .reduce(Parcial::somar)
+                .orElseThrow();
+    }
+
+    private static Parcial agregar(SnapshotColunar atual, Filtro filtro, int de, int ate) {
+        Parcial parcial = new Parcial(filtro.cardinalidade(atual));
+        int[] selecao = new int[TAMANHO_BLOCO];
+        int[] chaves = new int[TAMANHO_BLOCO];
+        int[] dias = atual.dias;
+        byte[] status = atual.status;
+        int[] produtos = atual.produtos;
+
+        for (int bloco = de; bloco < ate; bloco += TAMANHO_BLOCO) {
+            int fimBloco = Math.min(bloco + TAMANHO_BLOCO, ate);
+
+            // Filtros coluna a coluna, sem desvios: a linha sempre é escrita e o contador só avança se ela passa
+            int selecionadas = 0;
+            for (int i = bloco; i < fimBloco; i++) {
+                selecao[selecionadas] = i;
+                selecionadas += (dias[i] >= filtro.diaInicio & dias[i] <= filtro.diaFim) ? 1 : 0;
+            }
+            if (filtro.mascaraStatus != TODOS_OS_STATUS) {
+                int mantidas = 0;
+                for (int j = 0; j < selecionadas; j++) {
+                    selecao[mantidas] = selecao[j];
+                    mantidas += (filtro.mascaraStatus >>> status[selecao[j]]) & 1;
+                }
+                selecionadas = mantidas;
+            }
+            if (filtro.codigoProduto >= 0) {
+                int mantidas = 0;
+                for (int j = 0; j < selecionadas; j++) {
+                    selecao[mantidas] = selecao[j];
+                    mantidas += produtos[selecao[j]] == filtro.codigoProduto ? 1 : 0;
+                }
+                selecionadas = mantidas;
+            }
+
+            switch (filtro.dimensao) {
+                case PRODUTO -> {
+                    for (int j = 0; j < selecionadas; j++) {
+                        chaves[j] = produtos[selecao[j]];
+                    }
+                }
+                case STATUS -> {
+                    for (int j = 0; j < selecionadas; j++) {
+                        chaves[j] = status[selecao[j]];
+                    }
+                }
+                default -> {
+                    for (int j = 0; j < selecionadas; j++) {
+                        chaves[j] = dias[selecao[j]] - filtro.diaInicio;
+                    }
+                }
+            }
+            parcial.acumular(atual, selecao, chaves, selecionadas);
+        }
+        return parcial;
+    }
+
+    private static List<GrupoAnalise> agrupar(SnapshotColunar atual, Filtro filtro, Parcial total) {
+        List<GrupoAnalise> grupos = new ArrayList<>();
+        switch (filtro.dimensao) {
+            case PRODUTO -> {
+                for (int codigo = 0; codigo < total.linhas.length; codigo++) {
+                    if (total.linhas[codigo] > 0) {
+                        grupos.add(total.grupo(codigo, String.valueOf(atual.produtoPorCodigo[codigo])));
+                    }
+                }
+                grupos.sort(Comparator.comparing(GrupoAnalise::getValorTotal).reversed()
+                        .thenComparing(grupo -> Long.parseLong(grupo.getChave())));
+            }
+            case STATUS -> {
+                for (PedidoEntity.StatusPedido status : PedidoEntity.StatusPedido.values()) {
+                    if (total.linhas[status.ordinal()] > 0) {
+                        grupos.add(total.grupo(status.ordinal(), status.name()));
+                    }
+                }
+            }
+            default -> {
+                // Dias somados em semanas ou meses; pedidos não se repetem entre dias, então as contagens se somam
+                AgrupamentoPeriodo agrupamento = AgrupamentoPeriodo.valueOf(filtro.dimensao.name());
+                Map<LocalDate, GrupoAnalise> periodos = new TreeMap<>();
+                for (int dia = 0; dia < total.linhas.length; dia++) {
+                    if (total.linhas[dia] > 0) {
+                        LocalDate periodo = agrupamento.inicioDoPeriodo(LocalDate.ofEpochDay(filtro.diaInicio + dia));
+                        periodos.merge(periodo, total.grupo(dia, periodo.toString()), AnaliseColunarService::somar);
+                    }
+                }
+                grupos.addAll(periodos.values());
+            }
+        }
+        return grupos;
+    }
+
+    private static GrupoAnalise somar(GrupoAnalise a, GrupoAnalise b) {
+        return new GrupoAnalise(a.getChave(), a.getLinhas() + b.getLinhas(), a.getQuantidadePedidos() + b.getQuantidadePedidos(),
+                a.getQuantidadeVendida() + b.getQuantidadeVendida(), a.getValorTotal().add(b.getValorTotal()));
+    }
+
+    private record Filtro(int diaInicio, int diaFim, int mascaraStatus, int codigoProduto, DimensaoAnalise dimensao) {
+
+        // Tamanho dos arrays de agregação: as chaves já são densas (código do produto, ordinal ou dia desde o início)
+        int cardinalidade(SnapshotColunar atual) {
+            return switch (dimensao) {
+                case PRODUTO -> atual.produtoPorCodigo.length;
+                case STATUS -> PedidoEntity.StatusPedido.values().length;
+                default -> diaFim - diaInicio + 1;
+            };
+        }
+    }
+
+    // Totais por chave densa de uma parte do snapshot
+    private static final class Parcial {
+
+        private final long[] linhas;
+        private final long[] pedidos;
+        private final long[] quantidades;
+        private final long[] valoresCentavos;
+        private final long[] ultimoPedido;
+
+        Parcial(int cardinalidade) {
+            linhas = new long[cardinalidade];
+            pedidos = new long[cardinalidade];
+            quantidades = new long[cardinalidade];
+            valoresCentavos = new long[cardinalidade];
+            ultimoPedido = new long[cardinalidade];
+        }
+
+        // As linhas chegam em ordem de pedido, então um pedido conta uma vez por chave
+        void acumular(SnapshotColunar atual, int[] selecao, int[] chaves, int selecionadas) {
+            for (int j = 0; j < selecionadas; j++) {
+                int linha = selecao[j];
+                int chave = chaves[j];
+                linhas[chave]++;
+                quantidades[chave] += atual.quantidades[linha];
+                valoresCentavos[chave] += atual.valoresCentavos[linha];
+                long pedido = atual.pedidos[linha];
+                if (ultimoPedido[chave] != pedido) {
+                    pedidos[chave]++;
+                    ultimoPedido[chave] = pedido;
+                }
+            }
+        }
+
+        Parcial somar(Parcial outra) {
+            for (int chave = 0; chave < linhas.length; chave++) {
+                linhas[chave] += outra.linhas[chave];
+                pedidos[chave] += outra.pedidos[chave];
+                quantidades[chave] += outra.quantidades[chave];
+                valoresCentavos[chave] += outra.valoresCentavos[chave];
+            }
+            return this;
+        }
+
+        GrupoAnalise grupo(int chave, String nome) {
+            return new GrupoAnalise(nome, linhas[chave], pedidos[chave], quantidades[chave],
+                    BigDecimal.valueOf(valoresCentavos[chave], 2));
+        }
+    }
+}
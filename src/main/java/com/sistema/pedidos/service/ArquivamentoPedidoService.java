@@ -0,0 +1,51 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.repository.ItemPedidoRepository;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ArquivamentoPedidoService {
+
+    // Status finais de validarAlteracaoStatus: pedidos nesses status não mudam mais e podem sair da tabela ativa
+    public static final Set<PedidoEntity.StatusPedido> STATUS_FINAIS =
+            EnumSet.of(PedidoEntity.StatusPedido.ENTREGUE, PedidoEntity.StatusPedido.CANCELADO);
+
+    private final PedidoRepository pedidoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @Autowired
+    public ArquivamentoPedidoService(
+            PedidoRepository pedidoRepository,
+            ItemPedidoRepository itemPedidoRepository,
+            PedidoArquivadoRepository pedidoArquivadoRepository) {
+        this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+    }
+
+    // Cópia e exclusão na mesma transação; a cópia ignora pedidos já arquivados, então repetir um lote é seguro
+    @Transactional
+    public int arquivarLote(Collection<Long> ids) {
+        List<Long> finalizados = pedidoRepository.lockIdsByIdInAndStatusIn(ids, STATUS_FINAIS);
+        if (finalizados.isEmpty()) {
+            return 0;
+        }
+
+        pedidoArquivadoRepository.copiarPedidos(finalizados, LocalDateTime.now());
+        pedidoArquivadoRepository.copiarItens(finalizados);
+        itemPedidoRepository.excluirPorPedidoIds(finalizados);
+        return pedidoRepository.excluirPorIds(finalizados);
+    }
+}
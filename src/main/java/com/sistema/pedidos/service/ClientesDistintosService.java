@@ -0,0 +1,325 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.SketchClientesEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.ClientesDistintos;
+import com.sistema.pedidos.repository.SketchClientesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clientes distintos por período e produto, estimados com sketches {@link HyperLogLog} por dia e produto. A criação
+ * de pedidos só marca o cliente em sketches pendentes em memória, depois do commit; o job grava os pendentes unindo-os
+ * aos sketches do banco. Como a união é idempotente, gravar o mesmo cliente duas vezes não altera a estimativa.
+ */
+@Service
+public class ClientesDistintosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientesDistintosService.class);
+
+    private static final String SQL_INSERIR = "INSERT INTO sketches_clientes (dia, produto_id, registros) VALUES (?, ?, ?)";
+
+    // Um mês de pedidos por vez na reconstrução; o pedido sem itens conta só no sketch do dia
+    private static final String SQL_CLIENTES =
+            "SELECT CAST(p.data_pedido AS DATE), p.cliente, i.produto_id FROM pedidos p " +
+            "LEFT JOIN itens_pedido i ON i.pedido_id = p.id WHERE p.data_pedido >= ? AND p.data_pedido < ? " +
+            "UNION ALL " +
+            "SELECT CAST(p.data_pedido AS DATE), p.cliente, i.produto_id FROM pedidos_arquivo p " +
+            "LEFT JOIN itens_pedido_arquivo i ON i.pedido_id = p.id WHERE p.data_pedido >= ? AND p.data_pedido < ?";
+    private static final String SQL_PERIODO_PEDIDOS =
+            "SELECT MIN(d), MAX(d) FROM (" +
+            "SELECT MIN(data_pedido) AS d FROM pedidos UNION ALL SELECT MAX(data_pedido) FROM pedidos " +
+            "UNION ALL SELECT MIN(data_pedido) FROM pedidos_arquivo UNION ALL SELECT MAX(data_pedido) FROM pedidos_arquivo) t";
+
+    // Marca, no cache, dia e produto sem sketch no banco
+    private static final HyperLogLog SEM_SKETCH = new HyperLogLog(HyperLogLog.PRECISAO_MINIMA);
+
+    private final SketchClientesRepository sketchClientesRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final int precisao;
+    private final boolean pedidosEmShards;
+
+    private final ReentrantLock travaGravacao = new ReentrantLock();
+    private final Object travaPendentes = new Object();
+    private Map<SketchClientesEntity.Chave, HyperLogLog> pendentes = new HashMap<>();
+    // Lote sendo gravado, ainda somado nas estimativas até o commit
+    private Map<SketchClientesEntity.Chave, HyperLogLog> emGravacao = Map.of();
+
+    // Só dias anteriores a ontem: pedidos são criados com a data atual, então esses sketches só mudam na reconstrução.
+    // Ontem ainda pode receber pendentes gravados depois da meia-noite
+    private final Map<SketchClientesEntity.Chave, HyperLogLog> cacheDiasFechados;
+
+    @Autowired
+    public ClientesDistintosService(
+            SketchClientesRepository sketchClientesRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${pedidos.clientes-distintos.erro-padrao:0.02}") double erroPadrao,
+            @Value("${pedidos.clientes-distintos.cache-maximo:50000}") int cacheMaximo,
+            @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        if (erroPadrao <= 0 || erroPadrao >= 1) {
+            throw new IllegalArgumentException("pedidos.clientes-distintos.erro-padrao deve estar entre 0 e 1");
+        }
+        this.sketchClientesRepository = sketchClientesRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.precisao = HyperLogLog.precisaoPara(erroPadrao);
+        this.pedidosEmShards = pedidosEmShards;
+        this.cacheDiasFechados = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SketchClientesEntity.Chave, HyperLogLog> maisAntigo) {
+                return size() > cacheMaximo;
+            }
+        });
+        logger.info("message=Sketches de clientes distintos configurados. precisao={} erroPadrao={}",
+                precisao, HyperLogLog.erroPadrao(precisao));
+    }
+
+    // Pedido desfeito por rollback não é contado; sem transação ativa, o cliente é marcado na hora
+    public void registrar(PedidoEntity pedido) {
+        if (pedido.getCliente() == null) {
+            return;
+        }
+        LocalDate dia = pedido.getDataPedido().toLocalDate();
+        long hash = HyperLogLog.hash(normalizarCliente(pedido.getCliente()));
+        Set<Long> produtos = new TreeSet<>();
+        produtos.add(SketchClientesEntity.TODOS_OS_PRODUTOS);
+        for (ItemPedidoEntity item : pedido.getItens()) {
+            produtos.add(item.getProduto().getId());
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            marcarPendente(dia, produtos, hash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                marcarPendente(dia, produtos, hash);
+            }
+        });
+    }
+
+    // Chamado pelo job. Em caso de falha os pendentes voltam para a fila e são unidos aos que chegaram nesse meio tempo
+    public int gravarPendentes() {
+        // Uma gravação por vez: o job e o desligamento podem chamar ao mesmo tempo
+        travaGravacao.lock();
+        try {
+            Map<SketchClientesEntity.Chave, HyperLogLog> lote;
+            synchronized (travaPendentes) {
+                if (pendentes.isEmpty()) {
+                    return 0;
+                }
+                lote = pendentes;
+                pendentes = new HashMap<>();
+                emGravacao = lote;
+            }
+
+            try {
+                // Ordem fixa de dia e produto, para que instâncias gravando ao mesmo tempo travem as linhas na mesma ordem
+                Map<SketchClientesEntity.Chave, HyperLogLog> ordenado = new TreeMap<>(lote);
+                transacao.executeWithoutResult(status -> ordenado.forEach(this::unirNoBanco));
+            } catch (RuntimeException e) {
+                synchronized (travaPendentes) {
+                    lote.forEach(this::unirPendente);
+                    emGravacao = Map.of();
+                }
+                throw e;
+            }
+            synchronized (travaPendentes) {
+                emGravacao = Map.of();
+            }
+            lote.keySet().forEach(cacheDiasFechados::remove);
+            logger.info("message=Sketches de clientes distintos gravados. sketches={}", lote.size());
+            return lote.size();
+        } finally {
+            travaGravacao.unlock();
+        }
+    }
+
+    // Une os sketches de cada dia do período, do banco e pendentes; sem produto, considera todos os produtos
+    public ClientesDistintos estimar(LocalDate inicio, LocalDate fim, Long produtoId) {
+        if (inicio.isAfter(fim)) {
+            throw new BadRequestException("A data de início deve ser anterior à data de fim");
+        }
+        long produto = produtoId != null ? produtoId : SketchClientesEntity.TODOS_OS_PRODUTOS;
+        LocalDate inicioAbertos = LocalDate.now().minusDays(1);
+
+        List<HyperLogLog> sketches = new ArrayList<>();
+        if (inicio.isBefore(inicioAbertos)) {
+            LocalDate fimFechados = fim.isBefore(inicioAbertos) ? fim : inicioAbertos.minusDays(1);
+            sketches.addAll(buscarDiasFechados(inicio, fimFechados, produto));
+        }
+        if (!fim.isBefore(inicioAbertos)) {
+            LocalDate inicioConsulta = inicio.isAfter(inicioAbertos) ? inicio : inicioAbertos;
+            for (SketchClientesEntity sketch : sketchClientesRepository.findByProdutoIdAndDiaBetween(produto, inicioConsulta, fim)) {
+                sketches.add(HyperLogLog.desserializar(sketch.getRegistros()));
+            }
+        }
+        synchronized (travaPendentes) {
+            for (Map<SketchClientesEntity.Chave, HyperLogLog> memoria : List.of(pendentes, emGravacao)) {
+                memoria.forEach((chave, sketch) -> {
+                    if (chave.getProdutoId() == produto && !chave.getDia().isBefore(inicio) && !chave.getDia().isAfter(fim)) {
+                        sketches.add(sketch.copiar());
+                    }
+                });
+            }
+        }
+
+        // Sketches gravados com outra configuração de erro são reduzidos à menor precisão entre eles
+        int precisaoUniao = precisao;
+        for (HyperLogLog sketch : sketches) {
+            precisaoUniao = Math.min(precisaoUniao, sketch.getPrecisao());
+        }
+        HyperLogLog uniao = new HyperLogLog(precisaoUniao);
+        for (HyperLogLog sketch : sketches) {
+            uniao.unir(sketch);
+        }
+        return new ClientesDistintos(inicio, fim, produtoId, uniao.estimar(), precisaoUniao, HyperLogLog.erroPadrao(precisaoUniao));
+    }
+
+    // Para popular os sketches a partir dos pedidos ativos e arquivados já existentes
+    @Transactional
+    public int reconstruir() {
+        if (pedidosEmShards) {
+            throw new BadRequestException("A reconstrução dos sketches de clientes não está disponível com pedidos em shards");
+        }
+        sketchClientesRepository.excluirTodos();
+        cacheDiasFechados.clear();
+
+        int sketches = 0;
+        List<Timestamp> periodo = jdbcTemplate.queryForObject(SQL_PERIODO_PEDIDOS,
+                (linha, numero) -> Arrays.asList(linha.getTimestamp(1), linha.getTimestamp(2)));
+        if (periodo != null && periodo.get(0) != null) {
+            LocalDate mes = periodo.get(0).toLocalDateTime().toLocalDate().withDayOfMonth(1);
+            LocalDate ultimoDia = periodo.get(1).toLocalDateTime().toLocalDate();
+            while (!mes.isAfter(ultimoDia)) {
+                sketches += reconstruirMes(mes);
+                mes = mes.plusMonths(1);
+            }
+        }
+        logger.info("message=Sketches de clientes distintos reconstruídos. sketches={}", sketches);
+        return sketches;
+    }
+
+    // Mesma normalização para todo cliente contado: "Maria " e "maria" são o mesmo cliente
+    static String normalizarCliente(String cliente) {
+        return cliente.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private int reconstruirMes(LocalDate mes) {
+        Timestamp de = Timestamp.valueOf(mes.atStartOfDay());
+        Timestamp ate = Timestamp.valueOf(mes.plusMonths(1).atStartOfDay());
+        Map<SketchClientesEntity.Chave, HyperLogLog> sketches = new TreeMap<>();
+        RowCallbackHandler marcarCliente = linha -> {
+            LocalDate dia = linha.getDate(1).toLocalDate();
+            long hash = HyperLogLog.hash(normalizarCliente(linha.getString(2)));
+            marcar(sketches, new SketchClientesEntity.Chave(dia, SketchClientesEntity.TODOS_OS_PRODUTOS), hash);
+            long produtoId = linha.getLong(3);
+            if (!linha.wasNull()) {
+                marcar(sketches, new SketchClientesEntity.Chave(dia, produtoId), hash);
+            }
+        };
+        jdbcTemplate.query(SQL_CLIENTES, marcarCliente, de, ate, de, ate);
+
+        List<Object[]> parametros = new ArrayList<>(sketches.size());
+        sketches.forEach((chave, sketch) -> parametros.add(new Object[]{chave.getDia(), chave.getProdutoId(), sketch.serializar()}));
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERIR, parametros);
+        }
+        return parametros.size();
+    }
+
+    private List<HyperLogLog> buscarDiasFechados(LocalDate inicio, LocalDate fim, long produtoId) {
+        List<HyperLogLog> sketches = new ArrayList<>();
+        List<LocalDate> semCache = new ArrayList<>();
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            HyperLogLog sketch = cacheDiasFechados.get(new SketchClientesEntity.Chave(dia, produtoId));
+            if (sketch == null) {
+                semCache.add(dia);
+            } else if (sketch != SEM_SKETCH) {
+                sketches.add(sketch);
+            }
+        }
+        if (semCache.isEmpty()) {
+            return sketches;
+        }
+
+        // Uma consulta para os dias fora do cache; dias sem linha também são guardados, para não consultar de novo
+        Map<LocalDate, HyperLogLog> doBanco = new HashMap<>();
+        for (SketchClientesEntity sketch : sketchClientesRepository.findByProdutoIdAndDiaBetween(
+                produtoId, semCache.get(0), semCache.get(semCache.size() - 1))) {
+            doBanco.put(sketch.getDia(), HyperLogLog.desserializar(sketch.getRegistros()));
+        }
+        for (LocalDate dia : semCache) {
+            HyperLogLog sketch = doBanco.getOrDefault(dia, SEM_SKETCH);
+            cacheDiasFechados.put(new SketchClientesEntity.Chave(dia, produtoId), sketch);
+            if (sketch != SEM_SKETCH) {
+                sketches.add(sketch);
+            }
+        }
+        return sketches;
+    }
+
+    private void unirNoBanco(SketchClientesEntity.Chave chave, HyperLogLog pendente) {
+        SketchClientesEntity existente = sketchClientesRepository.lockByDiaAndProdutoId(chave.getDia(), chave.getProdutoId())
+                .orElse(null);
+        if (existente == null) {
+            jdbcTemplate.update(SQL_INSERIR, chave.getDia(), chave.getProdutoId(), pendente.serializar());
+            return;
+        }
+
+        HyperLogLog gravado = HyperLogLog.desserializar(existente.getRegistros());
+        HyperLogLog uniao = new HyperLogLog(Math.min(gravado.getPrecisao(), pendente.getPrecisao()));
+        uniao.unir(gravado);
+        uniao.unir(pendente);
+        existente.setRegistros(uniao.serializar());
+    }
+
+    private void marcarPendente(LocalDate dia, Set<Long> produtos, long hash) {
+        synchronized (travaPendentes) {
+            for (Long produtoId : produtos) {
+                marcar(pendentes, new SketchClientesEntity.Chave(dia, produtoId), hash);
+            }
+        }
+    }
+
+    private void unirPendente(SketchClientesEntity.Chave chave, HyperLogLog sketch) {
+        HyperLogLog atual = pendentes.putIfAbsent(chave, sketch);
+        if (atual != null) {
+            atual.unir(sketch);
+        }
+    }
+
+    private void marcar(Map<SketchClientesEntity.Chave, HyperLogLog> sketches, SketchClientesEntity.Chave chave, long hash) {
+        sketches.computeIfAbsent(chave, c -> new HyperLogLog(precisao)).adicionarHash(hash);
+    }
+}
@@ -0,0 +1,152 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoArquivadoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Busca de pedidos por período dividida em faixas consecutivas, consultadas em paralelo, cada uma na sua
+ * transação e conexão. As faixas são entregues ao destino na ordem do período, com os pedidos de cada faixa
+ * (ativos e arquivados) ordenados por data e ID.
+ */
+@Service
+public class ConsultaPeriodoParalelaService {
+
+    private static final Comparator<PedidoEntity> ORDEM_DATA =
+            Comparator.comparing(PedidoEntity::getDataPedido).thenComparing(PedidoEntity::getId);
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+    @Nullable
+    private final PedidoShardRepository pedidoShardRepository;
+    private final TransactionTemplate transacaoLeitura;
+
+    private final boolean habilitado;
+    private final Duration janelaMinima;
+    private final Duration tamanhoFaixa;
+    private final int paralelismo;
+    private final ExecutorService executor;
+
+    @Autowired
+    public ConsultaPeriodoParalelaService(
+            PedidoRepository pedidoRepository,
+            PedidoArquivadoRepository pedidoArquivadoRepository,
+            @Nullable PedidoShardRepository pedidoShardRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${pedidos.periodo-paralelo.habilitado:true}") boolean habilitado,
+            @Value("${pedidos.periodo-paralelo.janela-minima:P7D}") Duration janelaMinima,
+            @Value("${pedidos.periodo-paralelo.tamanho-faixa:P1D}") Duration tamanhoFaixa,
+            @Value("${pedidos.periodo-paralelo.paralelismo:4}") int paralelismo) {
+        // Faixa zero ou negativa nunca chegaria ao fim do período em dividir
+        if (tamanhoFaixa.isZero() || tamanhoFaixa.isNegative()) {
+            throw new IllegalArgumentException("pedidos.periodo-paralelo.tamanho-faixa deve ser positivo");
+        }
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+        this.pedidoShardRepository = pedidoShardRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.janelaMinima = janelaMinima;
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.paralelismo = paralelismo;
+
+        // Pool compartilhado entre as requisições: limita as conexões ocupadas pelas faixas ao paralelismo
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(paralelismo, tarefa -> {
+            Thread thread = new Thread(tarefa, "pedidos-periodo-" + contador.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Deve ser chamado fora de transação, para não segurar uma conexão enquanto as faixas esperam pelo pool
+    public void buscar(LocalDateTime inicio, LocalDateTime fim, Consumer<List<PedidoEntity>> destino) {
+        List<Faixa> faixas = habilitado && Duration.between(inicio, fim).compareTo(janelaMinima) >= 0
+                ? dividir(inicio, fim, tamanhoFaixa)
+                : List.of(new Faixa(inicio, fim));
+        if (faixas.size() == 1) {
+            destino.accept(buscarFaixa(faixas.get(0)));
+            return;
+        }
+
+        // No máximo `paralelismo` faixas em andamento por consulta; a próxima só é disparada quando a mais antiga é
+        // entregue, o que mantém a ordem e limita a memória a poucas faixas
+        Deque<CompletableFuture<List<PedidoEntity>>> emAndamento = new ArrayDeque<>();
+        int proxima = 0;
+        try {
+            while (proxima < faixas.size() || !emAndamento.isEmpty()) {
+                while (proxima < faixas.size() && emAndamento.size() < paralelismo) {
+                    Faixa faixa = faixas.get(proxima++);
+                    emAndamento.add(CompletableFuture.supplyAsync(() -> buscarFaixa(faixa), executor));
+                }
+                destino.accept(emAndamento.poll().join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        } finally {
+            emAndamento.forEach(consulta -> consulta.cancel(true));
+        }
+    }
+
+    // Faixas consecutivas com fim inclusivo, para usar o mesmo BETWEEN da busca sem divisão
+    static List<Faixa> dividir(LocalDateTime inicio, LocalDateTime fim, Duration tamanhoFaixa) {
+        List<Faixa> faixas = new ArrayList<>();
+        for (LocalDateTime atual = inicio; !atual.isAfter(fim); atual = atual.plus(tamanhoFaixa)) {
+            LocalDateTime fimFaixa = atual.plus(tamanhoFaixa).minusNanos(1);
+            faixas.add(new Faixa(atual, fimFaixa.isAfter(fim) ? fim : fimFaixa));
+        }
+        return faixas;
+    }
+
+    private List<PedidoEntity> buscarFaixa(Faixa faixa) {
+        return transacaoLeitura.execute(status -> {
+            List<PedidoEntity> ativos = pedidoShardRepository != null
+                    ? pedidoShardRepository.buscarPorPeriodo(faixa.inicio(), faixa.fim())
+                    : pedidoRepository.buscarComItensPorPeriodo(faixa.inicio(), faixa.fim());
+            List<PedidoArquivadoEntity> arquivados = pedidoArquivadoRepository.findByDataPedidoBetween(faixa.inicio(), faixa.fim());
+            if (arquivados.isEmpty()) {
+                return ativos;
+            }
+
+            List<PedidoEntity> pedidos = new ArrayList<>(ativos.size() + arquivados.size());
+            pedidos.addAll(ativos);
+            for (PedidoArquivadoEntity arquivado : arquivados) {
+                pedidos.add(arquivado.paraPedido());
+            }
+            pedidos.sort(ORDEM_DATA);
+            return pedidos;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    record Faixa(LocalDateTime inicio, LocalDateTime fim) {
+    }
+}
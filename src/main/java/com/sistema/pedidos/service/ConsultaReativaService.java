@@ -0,0 +1,91 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.PedidoReativoEntity;
+import com.sistema.pedidos.entity.ProdutoReativoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.repository.PedidoReativoRepository;
+import com.sistema.pedidos.repository.ProdutoReativoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Leitura não bloqueante de pedidos e produtos; as linhas são emitidas conforme a demanda de quem consome
+@Service
+public class ConsultaReativaService {
+
+    private final PedidoReativoRepository pedidoReativoRepository;
+    private final ProdutoReativoRepository produtoReativoRepository;
+    private final boolean pedidosEmShards;
+
+    @Autowired
+    public ConsultaReativaService(PedidoReativoRepository pedidoReativoRepository,
+                                  ProdutoReativoRepository produtoReativoRepository,
+                                  @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        this.pedidoReativoRepository = pedidoReativoRepository;
+        this.produtoReativoRepository = produtoReativoRepository;
+        this.pedidosEmShards = pedidosEmShards;
+    }
+
+    public Flux<PedidoReativoEntity> buscarPedidos() {
+        if (pedidosEmShards) {
+            return Flux.error(ConsultaReativaService::pedidosEmShardsIndisponiveis);
+        }
+        return pedidoReativoRepository.findAll();
+    }
+
+    public Mono<PedidoReativoEntity> buscarPedidoPorId(Long id) {
+        if (pedidosEmShards) {
+            return Mono.error(ConsultaReativaService::pedidosEmShardsIndisponiveis);
+        }
+        return pedidoReativoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Pedido", "id", id)));
+    }
+
+    public Flux<PedidoReativoEntity> buscarPedidosPorCliente(String cliente) {
+        if (pedidosEmShards) {
+            return Flux.error(ConsultaReativaService::pedidosEmShardsIndisponiveis);
+        }
+        return pedidoReativoRepository.findByClienteContainingIgnoreCase(cliente);
+    }
+
+    public Flux<PedidoReativoEntity> buscarPedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (pedidosEmShards) {
+            return Flux.error(ConsultaReativaService::pedidosEmShardsIndisponiveis);
+        }
+        if (inicio.isAfter(fim)) {
+            return Flux.error(new BadRequestException("O início do período deve ser anterior ao fim"));
+        }
+        return pedidoReativoRepository.findByDataPedidoBetween(inicio, fim);
+    }
+
+    public Flux<PedidoReativoEntity> buscarPedidosPorStatus(PedidoEntity.StatusPedido status) {
+        if (pedidosEmShards) {
+            return Flux.error(ConsultaReativaService::pedidosEmShardsIndisponiveis);
+        }
+        return pedidoReativoRepository.findByStatus(status);
+    }
+
+    public Flux<ProdutoReativoEntity> buscarProdutos() {
+        return produtoReativoRepository.findAll();
+    }
+
+    public Mono<ProdutoReativoEntity> buscarProdutoPorId(Long id) {
+        return produtoReativoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Produto", "id", id)));
+    }
+
+    public Flux<ProdutoReativoEntity> buscarProdutosPorNome(String nome) {
+        return produtoReativoRepository.findByNomeContainingIgnoreCase(nome);
+    }
+
+    // As consultas reativas leem a tabela de pedidos do catálogo, que fica vazia com os pedidos em shards
+    private static BadRequestException pedidosEmShardsIndisponiveis() {
+        return new BadRequestException("As consultas reativas de pedidos não estão disponíveis com pedidos em shards");
+    }
+}
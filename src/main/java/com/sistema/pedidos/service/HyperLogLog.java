@@ -0,0 +1,175 @@
+package com.sistema.pedidos.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sketch HyperLogLog: estima a quantidade de valores distintos com 2^precisao registradores de um byte e erro padrão
+ * de 1,04/sqrt(2^precisao), qualquer que seja a quantidade de valores. Sketches se unem pelo máximo de cada
+ * registrador, então a união de dias ou produtos custa o mesmo que um sketch e não depende dos valores originais.
+ * Não é thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISAO_MINIMA = 4;
+    public static final int PRECISAO_MAXIMA = 16;
+
+    private static final byte FORMATO_ESPARSO = 0;
+    private static final byte FORMATO_DENSO = 1;
+
+    private final int precisao;
+    private final byte[] registradores;
+
+    public HyperLogLog(int precisao) {
+        if (precisao < PRECISAO_MINIMA || precisao > PRECISAO_MAXIMA) {
+            throw new IllegalArgumentException("Precisão fora do intervalo suportado: " + precisao);
+        }
+        this.precisao = precisao;
+        this.registradores = new byte[1 << precisao];
+    }
+
+    public HyperLogLog copiar() {
+        HyperLogLog copia = new HyperLogLog(precisao);
+        System.arraycopy(registradores, 0, copia.registradores, 0, registradores.length);
+        return copia;
+    }
+
+    // Menor precisão com erro padrão até o informado
+    public static int precisaoPara(double erroPadrao) {
+        int precisao = (int) Math.ceil(2 * Math.log(1.04 / erroPadrao) / Math.log(2));
+        return Math.max(PRECISAO_MINIMA, Math.min(PRECISAO_MAXIMA, precisao));
+    }
+
+    public static double erroPadrao(int precisao) {
+        return 1.04 / Math.sqrt(1 << precisao);
+    }
+
+    public int getPrecisao() {
+        return precisao;
+    }
+
+    public void adicionar(String valor) {
+        adicionarHash(hash(valor));
+    }
+
+    public void adicionarHash(long hash) {
+        int indice = (int) (hash >>> (64 - precisao));
+        // Posição do primeiro bit 1 depois dos bits do índice; o bit sentinela limita o valor a 64 - precisao + 1
+        int posicao = Long.numberOfLeadingZeros((hash << precisao) | (1L << (precisao - 1))) + 1;
+        if (posicao > registradores[indice]) {
+            registradores[indice] = (byte) posicao;
+        }
+    }
+
+    // O outro sketch precisa ter precisão igual ou maior; com precisão maior ele é reduzido durante a união
+    public void unir(HyperLogLog outro) {
+        if (outro.precisao < precisao) {
+            throw new IllegalArgumentException("Não é possível unir um sketch de precisão " + outro.precisao + " em um de " + precisao);
+        }
+        if (outro.precisao == precisao) {
+            for (int i = 0; i < registradores.length; i++) {
+                registradores[i] = (byte) Math.max(registradores[i], outro.registradores[i]);
+            }
+            return;
+        }
+
+        // Os bits do índice que sobram na precisão menor passam a ser os primeiros bits do valor do registrador
+        int bitsSobrando = outro.precisao - precisao;
+        int mascara = (1 << bitsSobrando) - 1;
+        for (int i = 0; i < outro.registradores.length; i++) {
+            if (outro.registradores[i] == 0) {
+                continue;
+            }
+            int sobra = i & mascara;
+            int posicao = sobra != 0
+                    ? bitsSobrando - (32 - Integer.numberOfLeadingZeros(sobra)) + 1
+                    : bitsSobrando + outro.registradores[i];
+            int indice = i >>> bitsSobrando;
+            if (posicao > registradores[indice]) {
+                registradores[indice] = (byte) posicao;
+            }
+        }
+    }
+
+    public long estimar() {
+        int m = registradores.length;
+        double soma = 0;
+        int zerados = 0;
+        for (byte registrador : registradores) {
+            soma += Math.scalb(1.0, -registrador);
+            if (registrador == 0) {
+                zerados++;
+            }
+        }
+
+        double alfa = switch (precisao) {
+            case 4 -> 0.673;
+            case 5 -> 0.697;
+            case 6 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        double estimativa = alfa * m * m / soma;
+        // Poucos valores: a contagem linear pelos registradores vazios é mais precisa
+        if (estimativa <= 2.5 * m && zerados > 0) {
+            estimativa = m * Math.log((double) m / zerados);
+        }
+        return Math.round(estimativa);
+    }
+
+    /**
+     * Formato esparso (pares índice/valor, 3 bytes por registrador ocupado) enquanto ocupar menos que o denso
+     * (1 byte por registrador); dias e produtos com poucos clientes ficam com poucos bytes.
+     */
+    public byte[] serializar() {
+        int ocupados = 0;
+        for (byte registrador : registradores) {
+            if (registrador != 0) {
+                ocupados++;
+            }
+        }
+
+        if (ocupados * 3 < registradores.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + ocupados * 3);
+            buffer.put((byte) precisao).put(FORMATO_ESPARSO).putShort((short) ocupados);
+            for (int i = 0; i < registradores.length; i++) {
+                if (registradores[i] != 0) {
+                    buffer.putShort((short) i).put(registradores[i]);
+                }
+            }
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 + registradores.length);
+        buffer.put((byte) precisao).put(FORMATO_DENSO).put(registradores);
+        return buffer.array();
+    }
+
+    public static HyperLogLog desserializar(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        if (buffer.get() == FORMATO_DENSO) {
+            buffer.get(sketch.registradores);
+            return sketch;
+        }
+
+        int ocupados = Short.toUnsignedInt(buffer.getShort());
+        for (int i = 0; i < ocupados; i++) {
+            sketch.registradores[Short.toUnsignedInt(buffer.getShort())] = buffer.get();
+        }
+        return sketch;
+    }
+
+    // FNV-1a sobre os caracteres, finalizado com o fmix64 do MurmurHash3 para espalhar os bits altos, que escolhem o registrador
+    static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
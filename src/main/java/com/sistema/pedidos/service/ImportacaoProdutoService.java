@@ -0,0 +1,343 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.ErroImportacao;
+import com.sistema.pedidos.model.ImportacaoProdutosResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ImportacaoProdutoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoProdutoService.class);
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO produtos (nome, descricao, preco, quantidade_estoque) VALUES (?, ?, ?, ?)";
+    private static final String SQL_ATUALIZAR =
+            "UPDATE produtos SET nome = ?, descricao = ?, preco = ?, quantidade_estoque = ? WHERE id = ?";
+
+    static final int MAXIMO_ERROS_DETALHADOS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int tamanhoLote;
+
+    @Autowired
+    public ImportacaoProdutoService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            @Value("${pedidos.importacao-produtos.tamanho-lote:1000}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Importa o CSV linha a linha: linhas com id atualizam o produto existente, linhas sem id inserem um novo produto
+    public ImportacaoProdutosResponse importar(InputStream csv) {
+        long inicio = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 64 * 1024);
+        Resultado resultado = new Resultado();
+
+        try {
+            String primeiraLinha = lerCabecalho(reader);
+            char separador = primeiraLinha.indexOf(';') >= 0 && primeiraLinha.indexOf(',') < 0 ? ';' : ',';
+            LeitorCsv leitor = new LeitorCsv(reader, separador);
+            Colunas colunas = new Colunas(lerColunas(primeiraLinha, separador));
+
+            Lote lote = new Lote(tamanhoLote);
+            while (true) {
+                List<String> campos;
+                try {
+                    campos = leitor.proximoRegistro();
+                } catch (LeitorCsv.RegistroInvalidoException e) {
+                    // Registro malformado vira erro da linha; o leitor já está no registro seguinte
+                    resultado.linhasProcessadas++;
+                    resultado.erro(leitor.getLinhaInicioRegistro() + 1, e.getMessage());
+                    continue;
+                }
+                if (campos == null) {
+                    break;
+                }
+
+                // A linha 1 é o cabeçalho
+                int linha = leitor.getLinhaInicioRegistro() + 1;
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+
+                resultado.linhasProcessadas++;
+                try {
+                    Long id = colunas.id(campos);
+                    ProdutoEntity produto = colunas.produto(campos);
+                    validar(produto);
+                    lote.adicionar(linha, id, produto);
+                } catch (BadRequestException e) {
+                    resultado.erro(linha, e.getMessage());
+                    continue;
+                }
+
+                if (lote.cheio()) {
+                    gravar(lote, resultado);
+                }
+            }
+            gravar(lote, resultado);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo CSV", e);
+        }
+
+        long duracaoMs = System.currentTimeMillis() - inicio;
+        logger.info("message=Importacao de produtos finalizada. linhas={} inseridos={} atualizados={} erros={} duracaoMs={}",
+                resultado.linhasProcessadas, resultado.inseridos, resultado.atualizados, resultado.totalErros, duracaoMs);
+
+        return new ImportacaoProdutosResponse(resultado.linhasProcessadas, resultado.inseridos, resultado.atualizados,
+                resultado.totalErros, resultado.erros, duracaoMs);
+    }
+
+    private String lerCabecalho(BufferedReader reader) throws IOException {
+        String cabecalho = reader.readLine();
+        if (cabecalho == null || cabecalho.isBlank()) {
+            throw new BadRequestException("O arquivo CSV deve ter um cabeçalho");
+        }
+        // Remove o BOM gerado por planilhas
+        return cabecalho.startsWith("\uFEFF") ? cabecalho.substring(1) : cabecalho;
+    }
+
+    private List<String> lerColunas(String cabecalho, char separador) throws IOException {
+        try {
+            return new LeitorCsv(new StringReader(cabecalho), separador).proximoRegistro();
+        } catch (LeitorCsv.RegistroInvalidoException e) {
+            throw new BadRequestException("Cabeçalho do CSV inválido: " + e.getMessage());
+        }
+    }
+
+    private void validar(ProdutoEntity produto) {
+        Set<ConstraintViolation<ProdutoEntity>> violacoes = validator.validate(produto);
+        if (!violacoes.isEmpty()) {
+            throw new BadRequestException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private void gravar(Lote lote, Resultado resultado) {
+        if (lote.vazio()) {
+            return;
+        }
+
+        try {
+            int[] alterados = transactionTemplate.execute(status -> {
+                if (!lote.insercoes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(SQL_INSERIR, lote.insercoes);
+                }
+                return lote.atualizacoes.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(SQL_ATUALIZAR, lote.atualizacoes);
+            });
+
+            resultado.inseridos += lote.insercoes.size();
+            for (int i = 0; i < alterados.length; i++) {
+                if (alterados[i] == 0) {
+                    Object id = lote.atualizacoes.get(i)[4];
+                    resultado.erro(lote.linhasAtualizacoes.get(i), "Produto não encontrado com id: '" + id + "'");
+                } else {
+                    resultado.atualizados++;
+                }
+            }
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("message=Falha ao gravar lote da importacao de produtos, gravando linha a linha. linhas={} erro={}",
+                    lote.insercoes.size() + lote.atualizacoes.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            gravarLinhaALinha(lote, resultado);
+        }
+
+        lote.limpar();
+    }
+
+    // O batch é desfeito inteiro; cada linha é gravada na própria transação para reportar só as que falham
+    private void gravarLinhaALinha(Lote lote, Resultado resultado) {
+        for (int i = 0; i < lote.insercoes.size(); i++) {
+            if (gravarLinha(SQL_INSERIR, lote.insercoes.get(i), lote.linhasInsercoes.get(i), resultado) != null) {
+                resultado.inseridos++;
+            }
+        }
+        for (int i = 0; i < lote.atualizacoes.size(); i++) {
+            Object[] parametros = lote.atualizacoes.get(i);
+            int linha = lote.linhasAtualizacoes.get(i);
+            Integer alterados = gravarLinha(SQL_ATUALIZAR, parametros, linha, resultado);
+            if (alterados == null) {
+                continue;
+            }
+            if (alterados == 0) {
+                resultado.erro(linha, "Produto não encontrado com id: '" + parametros[4] + "'");
+            } else {
+                resultado.atualizados++;
+            }
+        }
+    }
+
+    // Retorna as linhas alteradas, ou null se a gravação falhou (erro já registrado)
+    private Integer gravarLinha(String sql, Object[] parametros, int linha, Resultado resultado) {
+        try {
+            return transactionTemplate.execute(status -> jdbcTemplate.update(sql, parametros));
+        } catch (DataAccessException | TransactionException e) {
+            resultado.erro(linha, "Erro ao gravar a linha: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return null;
+        }
+    }
+
+    private static class Colunas {
+
+        private int id = -1;
+        private int nome = -1;
+        private int descricao = -1;
+        private int preco = -1;
+        private int quantidadeEstoque = -1;
+
+        Colunas(List<String> cabecalho) {
+            for (int i = 0; i < cabecalho.size(); i++) {
+                switch (cabecalho.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "")) {
+                    case "id" -> id = i;
+                    case "nome" -> nome = i;
+                    case "descricao" -> descricao = i;
+                    case "preco" -> preco = i;
+                    case "quantidadeestoque" -> quantidadeEstoque = i;
+                    default -> {
+                    }
+                }
+            }
+
+            if (nome < 0 || preco < 0 || quantidadeEstoque < 0) {
+                throw new BadRequestException("O cabeçalho do CSV deve conter as colunas nome, preco e quantidadeEstoque");
+            }
+        }
+
+        Long id(List<String> campos) {
+            String valor = valor(campos, id);
+            if (valor == null) {
+                return null;
+            }
+            try {
+                return Long.valueOf(valor);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Id inválido: '" + valor + "'");
+            }
+        }
+
+        ProdutoEntity produto(List<String> campos) {
+            ProdutoEntity produto = new ProdutoEntity();
+            produto.setNome(valor(campos, nome));
+            produto.setDescricao(valor(campos, descricao));
+
+            String valorPreco = valor(campos, preco);
+            if (valorPreco != null) {
+                try {
+                    produto.setPreco(new BigDecimal(valorPreco));
+                } catch (NumberFormatException e) {
+                    throw new BadRequestException("Preço inválido: '" + valorPreco + "'");
+                }
+            }
+
+            String valorQuantidade = valor(campos, quantidadeEstoque);
+            if (valorQuantidade != null) {
+                try {
+                    produto.setQuantidadeEstoque(Integer.valueOf(valorQuantidade));
+                } catch (NumberFormatException e) {
+                    throw new BadRequestException("Quantidade em estoque inválida: '" + valorQuantidade + "'");
+                }
+            }
+
+            return produto;
+        }
+
+        private String valor(List<String> campos, int indice) {
+            if (indice < 0 || indice >= campos.size()) {
+                return null;
+            }
+            String valor = campos.get(indice).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    private static class Lote {
+
+        private final int tamanho;
+        private List<Object[]> insercoes;
+        private List<Integer> linhasInsercoes;
+        private List<Object[]> atualizacoes;
+        private List<Integer> linhasAtualizacoes;
+
+        Lote(int tamanho) {
+            this.tamanho = tamanho;
+            limpar();
+        }
+
+        void adicionar(int linha, Long id, ProdutoEntity produto) {
+            if (id == null) {
+                insercoes.add(new Object[]{produto.getNome(), produto.getDescricao(), produto.getPreco(), produto.getQuantidadeEstoque()});
+                linhasInsercoes.add(linha);
+            } else {
+                atualizacoes.add(new Object[]{produto.getNome(), produto.getDescricao(), produto.getPreco(), produto.getQuantidadeEstoque(), id});
+                linhasAtualizacoes.add(linha);
+            }
+        }
+
+        boolean cheio() {
+            return insercoes.size() + atualizacoes.size() >= tamanho;
+        }
+
+        boolean vazio() {
+            return insercoes.isEmpty() && atualizacoes.isEmpty();
+        }
+
+        // Novas listas a cada lote: as anteriores podem continuar referenciadas pelo driver até o fim do batch
+        void limpar() {
+            insercoes = new ArrayList<>(tamanho);
+            linhasInsercoes = new ArrayList<>(tamanho);
+            atualizacoes = new ArrayList<>();
+            linhasAtualizacoes = new ArrayList<>();
+        }
+    }
+
+    private static class Resultado {
+
+        private long linhasProcessadas;
+        private long inseridos;
+        private long atualizados;
+        private long totalErros;
+        private final List<ErroImportacao> erros = new ArrayList<>();
+
+        void erro(int linha, String mensagem) {
+            totalErros++;
+            if (erros.size() < MAXIMO_ERROS_DETALHADOS) {
+                erros.add(new ErroImportacao(linha, mensagem));
+            }
+        }
+    }
+}
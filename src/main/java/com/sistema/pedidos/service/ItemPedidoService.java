@@ -66,6 +66,17 @@ public class ItemPedidoService {
         return itemPedidoRepository.save(itemPedidoEntity);
     }
 
+    // Remove itens já carregados sem limpar o contexto de persistência, para o pedido continuar gerenciado
+    @Transactional
+    public void excluir(List<ItemPedidoEntity> itens) {
+        itemPedidoRepository.deleteAll(itens);
+    }
+
+    @Transactional
+    public void excluirPorPedido(Long pedidoId) {
+        itemPedidoRepository.excluirPorPedidoId(pedidoId);
+    }
+
 //    @Transactional //TODO:Remover codigo posteriormente caso não utilize
 //    public ItemPedidoEntity atualizar(Long id, ItemPedidoEntity itemPedidoEntityAtualizado) {
 //        ItemPedidoEntity itemExistente = buscarPorId(id);
@@ -0,0 +1,119 @@
+package com.sistema.pedidos.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitor de CSV incremental: lê um registro por vez do Reader, sem carregar o arquivo inteiro em memória
+class LeitorCsv {
+
+    private final Reader reader;
+    private final char separador;
+
+    private int linhaAtual = 1;
+    private int linhaInicioRegistro;
+    private int proximoCaractere = -2;
+
+    LeitorCsv(Reader reader, char separador) {
+        this.reader = reader;
+        this.separador = separador;
+    }
+
+    /**
+     * Retorna os campos do próximo registro ou null no fim do arquivo; suporta campos entre aspas com separadores e
+     * quebras de linha. Registro malformado lança {@link RegistroInvalidoException} com o leitor já posicionado no
+     * registro seguinte (para aspas não fechadas, o fim do arquivo).
+     */
+    List<String> proximoRegistro() throws IOException {
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+
+        linhaInicioRegistro = linhaAtual;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new RegistroInvalidoException("Aspas não fechadas no registro");
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else if (seguinte == separador || seguinte == '\r' || seguinte == '\n' || seguinte == -1) {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    } else {
+                        pularRestoDaLinha(seguinte);
+                        throw new RegistroInvalidoException("Caractere inesperado depois das aspas de fechamento");
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte != '\n') {
+                        devolver(seguinte);
+                    }
+                }
+                if (c != -1) {
+                    linhaAtual++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    int getLinhaInicioRegistro() {
+        return linhaInicioRegistro;
+    }
+
+    // Descarta até o fim da linha física, para que a leitura continue no registro seguinte
+    private void pularRestoDaLinha(int c) throws IOException {
+        while (c != '\n' && c != -1) {
+            c = ler();
+        }
+        if (c == '\n') {
+            linhaAtual++;
+        }
+    }
+
+    private int ler() throws IOException {
+        if (proximoCaractere != -2) {
+            int c = proximoCaractere;
+            proximoCaractere = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        proximoCaractere = c;
+    }
+
+    static class RegistroInvalidoException extends IOException {
+
+        RegistroInvalidoException(String mensagem) {
+            super(mensagem);
+        }
+    }
+}
@@ -1,41 +1,101 @@
 package com.sistema.pedidos.service;
 
 import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoArquivadoEntity;
 import com.sistema.pedidos.entity.PedidoEntity;
 import com.sistema.pedidos.exception.BadRequestException;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
 import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.metricas.FasePedidoEvent;
+import com.sistema.pedidos.metricas.FasePedidoEvent.Fase;
+import com.sistema.pedidos.metricas.MetricasPedidos;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteResponse;
 import com.sistema.pedidos.model.ItemPedidoRequest;
 import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
 import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PedidoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PedidoService.class);
+
+    // Quantidade máxima de IDs por UPDATE ... WHERE id IN (...) nas operações em lote
+    static final int TAMANHO_LOTE_STATUS = 500;
+
+    // Mesma tabela de transições de validarAlteracaoStatus, indexada pelo status de destino
+    private static final Map<PedidoEntity.StatusPedido, Set<PedidoEntity.StatusPedido>> STATUS_ANTERIORES_PERMITIDOS =
+            new EnumMap<>(PedidoEntity.StatusPedido.class);
+
+    static {
+        STATUS_ANTERIORES_PERMITIDOS.put(PedidoEntity.StatusPedido.PENDENTE, EnumSet.noneOf(PedidoEntity.StatusPedido.class));
+        STATUS_ANTERIORES_PERMITIDOS.put(PedidoEntity.StatusPedido.APROVADO, EnumSet.of(PedidoEntity.StatusPedido.PENDENTE));
+        STATUS_ANTERIORES_PERMITIDOS.put(PedidoEntity.StatusPedido.CANCELADO,
+                EnumSet.of(PedidoEntity.StatusPedido.PENDENTE, PedidoEntity.StatusPedido.APROVADO));
+        STATUS_ANTERIORES_PERMITIDOS.put(PedidoEntity.StatusPedido.ENTREGUE, EnumSet.of(PedidoEntity.StatusPedido.APROVADO));
+    }
+
     private final PedidoRepository pedidoRepository;
     private final ProdutoService produtoService;
     private final ItemPedidoService itemPedidoService;
+    private final MetricasPedidos metricasPedidos;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+    private final VendasDiariasService vendasDiariasService;
+    private final ClientesDistintosService clientesDistintosService;
+    private final ResumoClientesService resumoClientesService;
+    // Presente apenas com pedidos.sharding.habilitado=true; os pedidos passam a ser lidos e gravados nos shards
+    private final PedidoShardRepository pedidoShardRepository;
 
     @Autowired
     public PedidoService(
             PedidoRepository pedidoRepository,
             ProdutoService produtoService,
-            ItemPedidoService itemPedidoService) {
+            ItemPedidoService itemPedidoService,
+            MetricasPedidos metricasPedidos,
+            PedidoArquivadoRepository pedidoArquivadoRepository,
+            VendasDiariasService vendasDiariasService,
+            ClientesDistintosService clientesDistintosService,
+            ResumoClientesService resumoClientesService,
+            @Nullable PedidoShardRepository pedidoShardRepository) {
         this.pedidoRepository = pedidoRepository;
         this.produtoService = produtoService;
         this.itemPedidoService = itemPedidoService;
+        this.metricasPedidos = metricasPedidos;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+        this.vendasDiariasService = vendasDiariasService;
+        this.clientesDistintosService = clientesDistintosService;
+        this.resumoClientesService = resumoClientesService;
+        this.pedidoShardRepository = pedidoShardRepository;
     }
 
     @Transactional(readOnly = true)
     public List<PedidoEntity> buscarTodos() {
+        if (pedidoShardRepository != null) {
+            return pedidoShardRepository.buscarTodos();
+        }
         List<PedidoEntity> all = pedidoRepository.findAll();
         //alterar o retorno para uma nova entidade chamada PedidoResponse com uma lista de ItemResponse
         return all;
@@ -43,23 +103,50 @@ public class PedidoService {
 
     @Transactional(readOnly = true)
     public PedidoEntity buscarPorId(Long id) {
-        Optional<PedidoEntity> byId = pedidoRepository.findById(id);
+        Optional<PedidoEntity> byId = pedidoShardRepository != null
+                ? pedidoShardRepository.buscarPorId(id)
+                : pedidoRepository.findById(id);
+        // Pedidos finalizados antigos saem da tabela ativa para o arquivo
+        if (byId.isEmpty()) {
+            byId = pedidoArquivadoRepository.findById(id).map(PedidoArquivadoEntity::paraPedido);
+        }
 
         return byId.orElseThrow(() -> new ResourceNotFoundException("Pedido", "id", id));
     }
 
     @Transactional(readOnly = true)
     public List<PedidoEntity> buscarPorCliente(String cliente) {
-        return pedidoRepository.findByClienteContainingIgnoreCase(cliente);
+        List<PedidoEntity> ativos = pedidoShardRepository != null
+                ? pedidoShardRepository.buscarPorCliente(cliente)
+                : pedidoRepository.findByClienteContainingIgnoreCase(cliente);
+        return incluirArquivados(ativos, pedidoArquivadoRepository.findByClienteContainingIgnoreCase(cliente));
     }
 
     @Transactional(readOnly = true)
     public List<PedidoEntity> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return pedidoRepository.findByDataPedidoBetween(inicio, fim);
+        List<PedidoEntity> ativos = pedidoShardRepository != null
+                ? pedidoShardRepository.buscarPorPeriodo(inicio, fim)
+                : pedidoRepository.findByDataPedidoBetween(inicio, fim);
+        return incluirArquivados(ativos, pedidoArquivadoRepository.findByDataPedidoBetween(inicio, fim));
+    }
+
+    private static List<PedidoEntity> incluirArquivados(List<PedidoEntity> ativos, List<PedidoArquivadoEntity> arquivados) {
+        if (arquivados.isEmpty()) {
+            return ativos;
+        }
+        List<PedidoEntity> pedidos = new ArrayList<>(ativos.size() + arquivados.size());
+        pedidos.addAll(ativos);
+        for (PedidoArquivadoEntity arquivado : arquivados) {
+            pedidos.add(arquivado.paraPedido());
+        }
+        return pedidos;
     }
 
     @Transactional(readOnly = true)
     public List<PedidoEntity> buscarPorStatus(PedidoEntity.StatusPedido status) {
+        if (pedidoShardRepository != null) {
+            return pedidoShardRepository.buscarPorStatus(status);
+        }
         return pedidoRepository.findByStatus(status);
     }
 
@@ -82,31 +169,90 @@ public class PedidoService {
             pedidoEntity.setStatus(PedidoEntity.StatusPedido.PENDENTE);
         }
 
+        int quantidadeItens = pedidoEntity.getItens().size();
+
+        if (pedidoShardRepository != null) {
+            return salvarEmShard(pedidoEntity, quantidadeItens);
+        }
+
         // Salva o pedido com seus itens
+        FasePedidoEvent fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.INSERCAO_PEDIDO, null, quantidadeItens);
         PedidoEntity pedidoSalvo = pedidoRepository.save(pedidoEntity);
+        fase.comPedidoId(pedidoSalvo.getId()).commit();
 
-        // Atualiza o estoque dos produtos
         for (ItemPedidoEntity item : pedidoEntity.getItens()) {
             item.setPedidoId(pedidoSalvo.getId());
 
+            fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.INSERCAO_ITEM, pedidoSalvo.getId(), quantidadeItens);
             itemPedidoService.salvar(item);
+            fase.commit();
+        }
 
+        // Atualiza o estoque dos produtos depois de gravar os itens: cada baixa limpa o contexto, e os itens ainda
+        // encontram os produtos já carregados
+        for (ItemPedidoEntity item : pedidoEntity.getItens()) {
+            fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.BAIXA_ESTOQUE, pedidoSalvo.getId(), quantidadeItens);
             produtoService.atualizarEstoque(item.getProduto().getId(), item.getQuantidade());
+            fase.commit();
         }
+        vendasDiariasService.registrar(pedidoEntity);
+        clientesDistintosService.registrar(pedidoEntity);
+        resumoClientesService.registrar(pedidoEntity);
 
-        return pedidoRepository.findById(pedidoSalvo.getId())
+        metricasPedidos.pedidoCriado(pedidoSalvo.getStatus());
+
+        // A baixa do estoque limpa o contexto; a releitura traz os produtos já com o estoque baixado
+        fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.RELEITURA_PEDIDO, pedidoSalvo.getId(), quantidadeItens);
+        PedidoEntity pedidoRelido = pedidoRepository.buscarComItensPorId(pedidoSalvo.getId())
                 .orElseThrow();
+        fase.commit();
+        return pedidoRelido;
+    }
+
+    // O shard não participa da transação do catálogo: o pedido só é gravado depois de o estoque ser baixado,
+    // para que uma falta de estoque desfaça tudo; uma falha no commit do catálogo ainda deixa o pedido no shard
+    private PedidoEntity salvarEmShard(PedidoEntity pedidoEntity, int quantidadeItens) {
+        for (ItemPedidoEntity item : pedidoEntity.getItens()) {
+            FasePedidoEvent fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.BAIXA_ESTOQUE, null, quantidadeItens);
+            produtoService.atualizarEstoque(item.getProduto().getId(), item.getQuantidade());
+            fase.commit();
+        }
+
+        FasePedidoEvent fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.INSERCAO_PEDIDO, null, quantidadeItens);
+        PedidoEntity pedidoSalvo = pedidoShardRepository.inserir(pedidoEntity);
+        fase.comPedidoId(pedidoSalvo.getId()).commit();
+        vendasDiariasService.registrar(pedidoSalvo);
+        clientesDistintosService.registrar(pedidoSalvo);
+        resumoClientesService.registrar(pedidoSalvo);
+
+        metricasPedidos.pedidoCriado(pedidoSalvo.getStatus());
+
+        // Os produtos dos itens foram carregados antes da baixa; relidos, vêm com o estoque atual
+        fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.RELEITURA_PEDIDO, pedidoSalvo.getId(), quantidadeItens);
+        PedidoEntity pedidoRelido = pedidoShardRepository.buscarPorId(pedidoSalvo.getId()).orElseThrow();
+        fase.commit();
+        return pedidoRelido;
     }
 
     @Transactional
     public PedidoEntity atualizar(Long id, PedidoEntity pedidoEntityAtualizado) {
-        PedidoEntity pedidoEntityExistente = buscarPorId(id);
+        int quantidadeItens = pedidoEntityAtualizado.getItens() != null ? pedidoEntityAtualizado.getItens().size() : 0;
+
+        FasePedidoEvent fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.BUSCA_PEDIDO, id, quantidadeItens);
+        PedidoEntity pedidoEntityExistente = buscarParaAlteracao(id);
+        fase.commit();
 
         // Só permite atualizar pedidos com status PENDENTE
         if (pedidoEntityExistente.getStatus() != PedidoEntity.StatusPedido.PENDENTE) {
             throw new BadRequestException("Não é possível atualizar um pedido que não esteja com status PENDENTE");
         }
 
+        // Contribuição atual do pedido nas vendas diárias, antes de os itens serem substituídos
+        List<ItemPedidoEntity> itensAntigos = new ArrayList<>(pedidoEntityExistente.getItens());
+        // E no resumo do cliente, que pode ser trocado
+        String clienteAnterior = pedidoEntityExistente.getCliente();
+        BigDecimal valorAnterior = pedidoEntityExistente.getValorTotal();
+
         // Atualiza apenas os campos permitidos
         pedidoEntityExistente.setCliente(pedidoEntityAtualizado.getCliente());
         pedidoEntityExistente.setObservacao(pedidoEntityAtualizado.getObservacao());
@@ -116,31 +262,39 @@ public class PedidoService {
                 pedidoEntityExistente.getStatus() != pedidoEntityAtualizado.getStatus()) {
             validarAlteracaoStatus(pedidoEntityExistente.getStatus(), pedidoEntityAtualizado.getStatus());
             pedidoEntityExistente.setStatus(pedidoEntityAtualizado.getStatus());
+            metricasPedidos.statusAlterado(pedidoEntityAtualizado.getStatus(), 1);
         }
 
         // Se houver novos itens, validar e atualizar
         if (pedidoEntityAtualizado.getItens() != null && !pedidoEntityAtualizado.getItens().isEmpty()) {
-            // Remove os itens antigos e restaura o estoque
-            for (ItemPedidoEntity itemAntigo : pedidoEntityExistente.getItens()) {
-                ProdutoEntity produtoEntity = itemAntigo.getProduto();
-                produtoEntity.setQuantidadeEstoque(produtoEntity.getQuantidadeEstoque() + itemAntigo.getQuantidade());
-                produtoService.salvar(produtoEntity);
+            // Limpa todos os itens atuais; no catálogo as linhas também saem do banco
+            if (pedidoShardRepository == null) {
+                itemPedidoService.excluir(itensAntigos);
             }
-
-            // Limpa todos os itens atuais
             pedidoEntityExistente.getItens().clear();
 
+            // Restaura o estoque com UPDATE relativo, sem sobrescrever baixas concorrentes; o UPDATE limpa o contexto
+            // de persistência, então os itens antigos já precisam ter saído e os produtos abaixo são relidos
+            fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.DEVOLUCAO_ESTOQUE, id, quantidadeItens);
+            produtoService.devolverEstoque(itensAntigos);
+            fase.commit();
+
             // Adiciona os novos itens
             for (ItemPedidoEntity novoItem : pedidoEntityAtualizado.getItens()) {
+                fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.BUSCA_PRODUTO, id, quantidadeItens);
                 ProdutoEntity produtoEntity = produtoService.buscarPorId(novoItem.getProduto().getId());
+                fase.commit();
 
+                fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.VALIDACAO_ESTOQUE, id, quantidadeItens);
                 if (novoItem.getQuantidade() <= 0) {
                     throw new BadRequestException("A quantidade deve ser maior que zero");
                 }
 
                 if (novoItem.getQuantidade() > produtoEntity.getQuantidadeEstoque()) {
+                    metricasPedidos.estoqueInsuficiente(produtoEntity.getId());
                     throw new BadRequestException("Quantidade insuficiente em estoque para o produto: " + produtoEntity.getNome());
                 }
+                fase.commit();
 
                 // Configura o novo item
                 ItemPedidoEntity item = new ItemPedidoEntity();
@@ -151,59 +305,288 @@ public class PedidoService {
                 item.calcularValorTotal();
 
                 // Adiciona o item ao pedido
+                if (pedidoShardRepository == null) {
+                    itemPedidoService.salvar(item);
+                }
                 pedidoEntityExistente.getItens().add(item);
 
                 // Atualiza o estoque
+                fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.BAIXA_ESTOQUE, id, quantidadeItens);
                 produtoService.atualizarEstoque(produtoEntity.getId(), novoItem.getQuantidade());
+                fase.commit();
             }
         }
 
         // Recalcula o valor total
         pedidoEntityExistente.recalcularValorTotal();
 
-        return pedidoRepository.save(pedidoEntityExistente);
+        vendasDiariasService.substituir(pedidoEntityExistente.getDataPedido(), itensAntigos,
+                pedidoEntityExistente.getStatus() == PedidoEntity.StatusPedido.CANCELADO ? List.of() : pedidoEntityExistente.getItens());
+        resumoClientesService.substituir(clienteAnterior, valorAnterior, pedidoEntityExistente);
+
+        fase = FasePedidoEvent.iniciar(FasePedidoEvent.ATUALIZAR, Fase.GRAVACAO_PEDIDO, id, quantidadeItens);
+        PedidoEntity pedidoGravado;
+        if (pedidoShardRepository == null) {
+            pedidoGravado = pedidoRepository.save(pedidoEntityExistente);
+        } else if (pedidoShardRepository.atualizar(pedidoEntityExistente)) {
+            pedidoGravado = pedidoEntityExistente;
+        } else {
+            throw new BadRequestException("O pedido foi alterado por outra operação");
+        }
+        fase.commit();
+        return pedidoGravado;
     }
 
     @Transactional
     public PedidoEntity atualizarStatus(Long id, PedidoEntity.StatusPedido novoStatus) {
-        PedidoEntity pedidoEntity = buscarPorId(id);
+        PedidoEntity pedidoEntity = buscarParaAlteracao(id);
+        PedidoEntity.StatusPedido statusAtual = pedidoEntity.getStatus();
 
-        validarAlteracaoStatus(pedidoEntity.getStatus(), novoStatus);
+        validarAlteracaoStatus(statusAtual, novoStatus);
+
+        if (pedidoShardRepository == null) {
+            // Mesmo caminho do lote, com a linha já travada: estorno totalizado no banco e UPDATE condicionado ao status
+            aplicarStatusNoCatalogo(List.of(id), EnumSet.of(statusAtual), novoStatus);
+            metricasPedidos.statusAlterado(novoStatus, 1);
+            return buscarPorId(id);
+        }
+
+        resumoClientesService.alterarStatus(pedidoEntity, novoStatus);
+
+        // Pedido cancelado devolve seus itens ao estoque e sai das vendas diárias
+        if (novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+            estornarVendas(pedidoEntity);
+            devolverEstoque(pedidoEntity);
+        }
 
         pedidoEntity.setStatus(novoStatus);
-        return pedidoRepository.save(pedidoEntity);
+        // Só grava se o status no shard ainda é o que foi lido
+        if (pedidoShardRepository.atualizarStatusEmLote(List.of(id), EnumSet.of(statusAtual), novoStatus).isEmpty()) {
+            throw new BadRequestException("O status do pedido foi alterado por outra operação");
+        }
+        if (novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+            confirmarEstornos(List.of(id));
+        }
+        metricasPedidos.statusAlterado(novoStatus, 1);
+        return pedidoEntity;
+    }
+
+    @Transactional
+    public AtualizacaoStatusLoteResponse atualizarStatusEmLote(Collection<Long> ids, PedidoEntity.StatusPedido novoStatus) {
+        Set<PedidoEntity.StatusPedido> statusPermitidos = STATUS_ANTERIORES_PERMITIDOS.get(novoStatus);
+
+        List<Long> idsDistintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        idsDistintos.removeIf(Objects::isNull);
+
+        List<Long> atualizados = new ArrayList<>();
+        List<Long> rejeitados = new ArrayList<>();
+
+        if (statusPermitidos.isEmpty()) {
+            rejeitados.addAll(idsDistintos);
+            return new AtualizacaoStatusLoteResponse(novoStatus, atualizados, rejeitados);
+        }
+
+        for (int inicio = 0; inicio < idsDistintos.size(); inicio += TAMANHO_LOTE_STATUS) {
+            List<Long> lote = idsDistintos.subList(inicio, Math.min(inicio + TAMANHO_LOTE_STATUS, idsDistintos.size()));
+
+            List<Long> elegiveis = pedidoShardRepository != null
+                    ? atualizarStatusEmShards(lote, statusPermitidos, novoStatus)
+                    : atualizarStatusNoCatalogo(lote, statusPermitidos, novoStatus);
+            if (!elegiveis.isEmpty()) {
+                metricasPedidos.statusAlterado(novoStatus, elegiveis.size());
+            }
+
+            Set<Long> alteradosNoLote = new HashSet<>(elegiveis);
+            for (Long id : lote) {
+                if (alteradosNoLote.contains(id)) {
+                    atualizados.add(id);
+                } else {
+                    rejeitados.add(id);
+                }
+            }
+        }
+
+        return new AtualizacaoStatusLoteResponse(novoStatus, atualizados, rejeitados);
+    }
+
+    @Transactional
+    public int cancelarPendentesEmLote(Collection<Long> ids) {
+        // PENDENTE -> CANCELADO é permitido por validarAlteracaoStatus; o lock impede que outro fluxo altere os pedidos no meio do lote
+        Set<PedidoEntity.StatusPedido> pendente = EnumSet.of(PedidoEntity.StatusPedido.PENDENTE);
+        List<Long> cancelados = pedidoShardRepository != null
+                ? atualizarStatusEmShards(ids, pendente, PedidoEntity.StatusPedido.CANCELADO)
+                : atualizarStatusNoCatalogo(ids, pendente, PedidoEntity.StatusPedido.CANCELADO);
+        if (!cancelados.isEmpty()) {
+            metricasPedidos.statusAlterado(PedidoEntity.StatusPedido.CANCELADO, cancelados.size());
+        }
+        return cancelados.size();
+    }
+
+    // O lock garante que os pedidos elegíveis não mudem de status até o UPDATE
+    private List<Long> atualizarStatusNoCatalogo(Collection<Long> ids, Set<PedidoEntity.StatusPedido> statusPermitidos,
+                                                 PedidoEntity.StatusPedido novoStatus) {
+        List<Long> elegiveis = pedidoRepository.lockIdsByIdInAndStatusIn(ids, statusPermitidos);
+        if (!elegiveis.isEmpty()) {
+            aplicarStatusNoCatalogo(elegiveis, statusPermitidos, novoStatus);
+        }
+        return elegiveis;
+    }
+
+    // Pedidos já travados e com status entre os permitidos
+    private void aplicarStatusNoCatalogo(List<Long> elegiveis, Set<PedidoEntity.StatusPedido> statusPermitidos,
+                                         PedidoEntity.StatusPedido novoStatus) {
+        if (novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+            produtoService.devolverEstoqueDosPedidos(elegiveis);
+            vendasDiariasService.estornarPedidos(elegiveis);
+        }
+        resumoClientesService.alterarStatusPedidos(elegiveis, novoStatus);
+
+        pedidoRepository.atualizarStatusEmLote(elegiveis, statusPermitidos, novoStatus);
+    }
+
+    // Nos shards o status é gravado antes; pedido cancelado não muda mais, então os itens podem ser lidos depois
+    private List<Long> atualizarStatusEmShards(Collection<Long> ids, Set<PedidoEntity.StatusPedido> statusPermitidos,
+                                               PedidoEntity.StatusPedido novoStatus) {
+        List<Long> elegiveis = pedidoShardRepository.atualizarStatusEmLote(ids, statusPermitidos, novoStatus);
+        if (!ResumoClientesService.alteraResumo(novoStatus) || elegiveis.isEmpty()) {
+            return elegiveis;
+        }
+
+        List<PedidoEntity> alterados = pedidoShardRepository.buscarPorIds(elegiveis);
+        resumoClientesService.alterarStatusPedidosCarregados(alterados, novoStatus);
+        if (novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+            estornarEmShards(alterados);
+            confirmarEstornos(elegiveis);
+        }
+        return elegiveis;
+    }
+
+    /**
+     * Cancelamentos e exclusões em shards cuja transação do catálogo falhou depois do commit do shard: estoque, vendas
+     * diárias e resumo do cliente são estornados agora. Pendentes já estornados (o commit do catálogo aconteceu, mas a limpeza
+     * no shard não) são só apagados. Retorna a quantidade de pedidos estornados.
+     */
+    @Transactional
+    public int reaplicarEstornosPendentes(LocalDateTime criadosAte) {
+        if (pedidoShardRepository == null) {
+            return 0;
+        }
+        List<Long> pendentes = pedidoShardRepository.buscarEstornosPendentes(criadosAte);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> naoEstornados = pedidoShardRepository.marcarEstornados(pendentes);
+        if (!naoEstornados.isEmpty()) {
+            List<PedidoEntity> cancelados = pedidoShardRepository.buscarPorIds(naoEstornados);
+            resumoClientesService.alterarStatusPedidosCarregados(cancelados, PedidoEntity.StatusPedido.CANCELADO);
+            estornarEmShards(cancelados);
+
+            List<PedidoEntity> excluidos = pedidoShardRepository.buscarExcluidosPorIds(naoEstornados);
+            excluidos.forEach(resumoClientesService::remover);
+            estornarEmShards(excluidos);
+        }
+        concluirEstornosAposCommit(pendentes);
+        return naoEstornados.size();
+    }
+
+    // Pedidos já gravados como CANCELADOS ou excluídos no shard; o estorno das vendas usa os itens lidos de lá
+    private void estornarEmShards(List<PedidoEntity> pedidos) {
+        produtoService.devolverEstoque(pedidos.stream().flatMap(pedido -> pedido.getItens().stream()).toList());
+        for (PedidoEntity pedido : pedidos) {
+            vendasDiariasService.substituir(pedido.getDataPedido(), pedido.getItens(), List.of());
+        }
+    }
+
+    // O shard grava o cancelamento ou a exclusão com um estorno pendente; a marca no catálogo, no mesmo commit da
+    // devolução do estoque, impede que reaplicarEstornosPendentes devolva de novo
+    private void confirmarEstornos(List<Long> cancelados) {
+        if (pedidoShardRepository.marcarEstornados(cancelados).size() != cancelados.size()) {
+            throw new IllegalStateException("Estorno de pedido cancelado já aplicado por outra transação");
+        }
+        concluirEstornosAposCommit(cancelados);
+    }
+
+    private void concluirEstornosAposCommit(List<Long> pedidoIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Se falhar, o pendente continua no shard e é só apagado na próxima reaplicação
+                try {
+                    pedidoShardRepository.concluirEstornos(pedidoIds);
+                } catch (RuntimeException e) {
+                    logger.warn("message=Falha ao concluir estornos nos shards. pedidos={} erro={}", pedidoIds.size(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void devolverEstoque(PedidoEntity pedidoEntity) {
+        if (pedidoShardRepository != null) {
+            produtoService.devolverEstoque(pedidoEntity.getItens());
+        } else {
+            produtoService.devolverEstoqueDosPedidos(List.of(pedidoEntity.getId()));
+        }
+    }
+
+    // No catálogo o estorno é totalizado no banco, sem carregar os itens do pedido
+    private void estornarVendas(PedidoEntity pedidoEntity) {
+        if (pedidoShardRepository != null) {
+            vendasDiariasService.estornar(pedidoEntity);
+        } else {
+            vendasDiariasService.estornarPedidos(List.of(pedidoEntity.getId()));
+        }
     }
 
     @Transactional
     public void excluir(Long id) {
-        PedidoEntity pedidoEntity = buscarPorId(id);
+        PedidoEntity pedidoEntity = buscarParaAlteracao(id);
 
         // Só permite excluir pedidos com status PENDENTE
         if (pedidoEntity.getStatus() != PedidoEntity.StatusPedido.PENDENTE) {
             throw new BadRequestException("Não é possível excluir um pedido que não esteja com status PENDENTE");
         }
 
-        // Devolve os itens ao estoque
-        for (ItemPedidoEntity item : pedidoEntity.getItens()) {
-            ProdutoEntity produtoEntity = item.getProduto();
-            produtoEntity.setQuantidadeEstoque(produtoEntity.getQuantidadeEstoque() + item.getQuantidade());
-            produtoService.salvar(produtoEntity);
-        }
+        resumoClientesService.remover(pedidoEntity);
+        estornarVendas(pedidoEntity);
+        // Devolve os itens ao estoque em um único UPDATE agrupado por produto
+        devolverEstoque(pedidoEntity);
 
+        if (pedidoShardRepository != null) {
+            if (!pedidoShardRepository.excluir(pedidoEntity.getId())) {
+                throw new BadRequestException("O pedido foi alterado por outra operação");
+            }
+            confirmarEstornos(List.of(pedidoEntity.getId()));
+            return;
+        }
+        itemPedidoService.excluirPorPedido(pedidoEntity.getId());
         pedidoRepository.delete(pedidoEntity);
     }
 
+    // No catálogo a linha do pedido fica travada até o commit: cancelamentos, exclusões e alterações concorrentes do
+    // mesmo pedido esperam e validam o status gravado pelo anterior, sem estornar estoque e agregados duas vezes
+    private PedidoEntity buscarParaAlteracao(Long id) {
+        if (pedidoShardRepository != null) {
+            return buscarPorId(id);
+        }
+        return pedidoRepository.lockById(id).orElseGet(() -> buscarPorId(id));
+    }
+
     // Métodos de validação
-    private PedidoEntity validarItensPedido(PedidoRequest request, PedidoEntity pedidoEntity) {
+    PedidoEntity validarItensPedido(PedidoRequest request, PedidoEntity pedidoEntity) {
         if (request.getItens() == null || request.getItens().isEmpty()) {
             throw new BadRequestException("O pedido deve ter pelo menos um item");
         }
 
         List <ItemPedidoEntity> itens = new ArrayList<>();
-
+        int quantidadeItens = request.getItens().size();
 
         for (ItemPedidoRequest item : request.getItens()) {
+            FasePedidoEvent fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.BUSCA_PRODUTO, null, quantidadeItens);
             ProdutoEntity produtoEntity = produtoService.buscarPorId(item.getProdutoId());
+            fase.commit();
+
+            fase = FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, Fase.VALIDACAO_ESTOQUE, null, quantidadeItens);
             ItemPedidoEntity itemPedido = new ItemPedidoEntity();
 
             itemPedido.setProduto(produtoEntity);
@@ -214,12 +597,14 @@ public class PedidoService {
             }
 
             if (item.getQuantidade() > produtoEntity.getQuantidadeEstoque()) {
+                metricasPedidos.estoqueInsuficiente(produtoEntity.getId());
                 throw new BadRequestException("Quantidade insuficiente em estoque para o produto: " + produtoEntity.getNome());
             }
 
             // Define o preço unitário com base no preço atual do produto
             itemPedido.setPrecoUnitario(produtoEntity.getPreco());
             itemPedido.calcularValorTotal();
+            fase.commit();
 
             itens.add(itemPedido);
         }
@@ -231,7 +616,7 @@ public class PedidoService {
         return pedidoEntity;
     }
 
-    private void validarAlteracaoStatus(PedidoEntity.StatusPedido statusAtual, PedidoEntity.StatusPedido novoStatus) {
+    void validarAlteracaoStatus(PedidoEntity.StatusPedido statusAtual, PedidoEntity.StatusPedido novoStatus) {
         // Regras de transição de status
         switch (statusAtual) {
             case PENDENTE:
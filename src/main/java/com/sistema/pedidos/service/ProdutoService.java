@@ -1,22 +1,30 @@
 package com.sistema.pedidos.service;
 
+import com.sistema.pedidos.entity.ItemPedidoEntity;
 import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.metricas.MetricasPedidos;
 import com.sistema.pedidos.repository.ProdutoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class ProdutoService {
 
     private final ProdutoRepository produtoRepository;
+    private final MetricasPedidos metricasPedidos;
 
     @Autowired
-    public ProdutoService(ProdutoRepository produtoRepository) {
+    public ProdutoService(ProdutoRepository produtoRepository, MetricasPedidos metricasPedidos) {
         this.produtoRepository = produtoRepository;
+        this.metricasPedidos = metricasPedidos;
     }
 
     @Transactional(readOnly = true)
@@ -54,15 +62,35 @@ public class ProdutoService {
 
     @Transactional
     public void atualizarEstoque(Long id, int quantidade) {
-        ProdutoEntity produtoEntity = buscarPorId(id);
-        int novoEstoque = produtoEntity.getQuantidadeEstoque() - quantidade;
+        // Um único UPDATE condicional; o tempo medido inclui a espera pelo lock da linha do produto
+        int alterados = metricasPedidos.medirEsperaLockEstoque(() -> produtoRepository.baixarEstoque(id, quantidade));
+
+        if (alterados == 0) {
+            // Só na falha: distingue produto inexistente de estoque insuficiente
+            ProdutoEntity produtoEntity = buscarPorId(id);
+            metricasPedidos.estoqueInsuficiente(id);
+            throw new BadRequestException("Quantidade insuficiente em estoque para o produto: " + produtoEntity.getNome());
+        }
+    }
 
-        if (novoEstoque < 0) {
-            throw new RuntimeException("Quantidade insuficiente em estoque para o produto: " + produtoEntity.getNome());
+    @Transactional
+    public void devolverEstoqueDosPedidos(Collection<Long> pedidoIds) {
+        if (pedidoIds.isEmpty()) {
+            return;
         }
 
-        produtoEntity.setQuantidadeEstoque(novoEstoque);
-        produtoRepository.save(produtoEntity);
+        produtoRepository.devolverEstoqueDosPedidos(pedidoIds);
+    }
+
+    // Com pedidos em shards os itens não estão no catálogo; a devolução parte dos itens já lidos do shard
+    @Transactional
+    public void devolverEstoque(Collection<ItemPedidoEntity> itens) {
+        Map<Long, Integer> quantidadePorProduto = new TreeMap<>();
+        for (ItemPedidoEntity item : itens) {
+            quantidadePorProduto.merge(item.getProduto().getId(), item.getQuantidade(), Integer::sum);
+        }
+        // Em ordem de ID, para que devoluções concorrentes travem as linhas na mesma ordem
+        quantidadePorProduto.forEach(produtoRepository::devolverEstoque);
     }
 
     @Transactional
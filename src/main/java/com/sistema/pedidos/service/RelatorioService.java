@@ -0,0 +1,106 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.TotalVendasPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.model.TotalVendasStatus;
+import com.sistema.pedidos.repository.ItemPedidoRepository;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class RelatorioService {
+
+    // Pedidos cancelados não entram na receita por período nem por produto
+    private static final PedidoEntity.StatusPedido STATUS_FORA_DA_RECEITA = PedidoEntity.StatusPedido.CANCELADO;
+
+    private final PedidoRepository pedidoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+    // Com pedidos em shards as tabelas de pedidos do catálogo só têm os arquivados
+    private final boolean pedidosEmShards;
+
+    @Autowired
+    public RelatorioService(
+            PedidoRepository pedidoRepository,
+            ItemPedidoRepository itemPedidoRepository,
+            PedidoArquivadoRepository pedidoArquivadoRepository,
+            @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+        this.pedidosEmShards = pedidosEmShards;
+    }
+
+    // O banco agrupa por dia; semanas e meses são somados aqui a partir das poucas linhas diárias
+    @Transactional(readOnly = true)
+    public List<TotalVendasPeriodo> vendasPorPeriodo(LocalDateTime inicio, LocalDateTime fim, AgrupamentoPeriodo agrupamento) {
+        validarPeriodo(inicio, fim);
+
+        Map<LocalDate, TotalVendasPeriodo> totais = new TreeMap<>();
+        List<TotalVendasPeriodo> porDia = new ArrayList<>(pedidoRepository.totalizarPorDia(inicio, fim, STATUS_FORA_DA_RECEITA));
+        porDia.addAll(pedidoArquivadoRepository.totalizarPorDia(inicio, fim, STATUS_FORA_DA_RECEITA));
+        for (TotalVendasPeriodo dia : porDia) {
+            TotalVendasPeriodo noPeriodo = new TotalVendasPeriodo(agrupamento.inicioDoPeriodo(dia.getInicio()),
+                    dia.getQuantidadePedidos(), dia.getValorTotal());
+            totais.merge(noPeriodo.getInicio(), noPeriodo, TotalVendasPeriodo::somar);
+        }
+        return new ArrayList<>(totais.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TotalVendasStatus> vendasPorStatus(LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+
+        Map<PedidoEntity.StatusPedido, TotalVendasStatus> totais = new EnumMap<>(PedidoEntity.StatusPedido.class);
+        List<TotalVendasStatus> porStatus = new ArrayList<>(pedidoRepository.totalizarPorStatus(inicio, fim));
+        porStatus.addAll(pedidoArquivadoRepository.totalizarPorStatus(inicio, fim));
+        for (TotalVendasStatus total : porStatus) {
+            totais.merge(total.getStatus(), total, TotalVendasStatus::somar);
+        }
+        return new ArrayList<>(totais.values());
+    }
+
+    // Produtos em ordem decrescente de receita
+    @Transactional(readOnly = true)
+    public List<TotalVendasProduto> vendasPorProduto(LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+
+        Map<Long, TotalVendasProduto> totais = new HashMap<>();
+        List<TotalVendasProduto> porProduto = new ArrayList<>(itemPedidoRepository.totalizarPorProduto(inicio, fim, STATUS_FORA_DA_RECEITA));
+        porProduto.addAll(pedidoArquivadoRepository.totalizarPorProduto(inicio, fim, STATUS_FORA_DA_RECEITA));
+        for (TotalVendasProduto total : porProduto) {
+            totais.merge(total.getProdutoId(), total, TotalVendasProduto::somar);
+        }
+
+        List<TotalVendasProduto> produtos = new ArrayList<>(totais.values());
+        produtos.sort(Comparator.comparing(TotalVendasProduto::getValorTotal).reversed()
+                .thenComparing(TotalVendasProduto::getProdutoId));
+        return produtos;
+    }
+
+    private void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (pedidosEmShards) {
+            throw new BadRequestException("Relatórios de vendas não estão disponíveis com pedidos em shards");
+        }
+        if (inicio.isAfter(fim)) {
+            throw new BadRequestException("A data de início deve ser anterior à data de fim");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ResumoClienteEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.repository.ResumoClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo por cliente (pedidos, valor total, pedidos em aberto e último pedido), atualizado por diferença na mesma
+ * transação de cada gravação de pedido, para que a consulta seja a leitura de uma linha pela chave. O cliente é
+ * normalizado como em {@link ClientesDistintosService}. O último pedido é a data do pedido mais recente já feito pelo
+ * cliente: exclusões e trocas de cliente não a diminuem, só {@link #reconstruir()} a recalcula dos pedidos existentes.
+ */
+@Service
+public class ResumoClientesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoClientesService.class);
+
+    // Soma a variação na linha do cliente, criando-a se ainda não existir; o incremento é feito pelo banco,
+    // então pedidos concorrentes do mesmo cliente não se sobrescrevem
+    private static final String SQL_ACUMULAR =
+            "INSERT INTO resumos_clientes (cliente, quantidade_pedidos, valor_total, pedidos_abertos, ultimo_pedido) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantidade_pedidos = quantidade_pedidos + VALUES(quantidade_pedidos), " +
+            "valor_total = valor_total + VALUES(valor_total), pedidos_abertos = pedidos_abertos + VALUES(pedidos_abertos), " +
+            "ultimo_pedido = CASE WHEN ultimo_pedido IS NULL OR ultimo_pedido < VALUES(ultimo_pedido) " +
+            "THEN VALUES(ultimo_pedido) ELSE ultimo_pedido END";
+    private static final String SQL_TOTAIS =
+            "SELECT cliente, SUM(CASE WHEN status <> 'CANCELADO' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status <> 'CANCELADO' THEN valor_total ELSE 0 END), " +
+            "SUM(CASE WHEN status IN ('PENDENTE', 'APROVADO') THEN 1 ELSE 0 END), MAX(data_pedido) FROM pedidos GROUP BY cliente " +
+            "UNION ALL " +
+            "SELECT cliente, SUM(CASE WHEN status <> 'CANCELADO' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status <> 'CANCELADO' THEN valor_total ELSE 0 END), " +
+            "SUM(CASE WHEN status IN ('PENDENTE', 'APROVADO') THEN 1 ELSE 0 END), MAX(data_pedido) FROM pedidos_arquivo GROUP BY cliente";
+
+    private final ResumoClienteRepository resumoClienteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean pedidosEmShards;
+
+    @Autowired
+    public ResumoClientesService(ResumoClienteRepository resumoClienteRepository, JdbcTemplate jdbcTemplate,
+                                 @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        this.resumoClienteRepository = resumoClienteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pedidosEmShards = pedidosEmShards;
+    }
+
+    @Transactional(readOnly = true)
+    public ResumoClienteEntity buscar(String cliente) {
+        return resumoClienteRepository.findById(ClientesDistintosService.normalizarCliente(cliente))
+                .orElseThrow(() -> new ResourceNotFoundException("Nenhum pedido encontrado para o cliente: " + cliente));
+    }
+
+    @Transactional
+    public void registrar(PedidoEntity pedido) {
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        variacao(variacoes, pedido.getCliente()).adicionar(pedido.getStatus(), pedido.getValorTotal(), pedido.getDataPedido());
+        acumular(variacoes);
+    }
+
+    // Pedido PENDENTE alterado: cliente, valor e status podem ter mudado
+    @Transactional
+    public void substituir(String clienteAnterior, BigDecimal valorAnterior, PedidoEntity pedido) {
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        variacao(variacoes, clienteAnterior).remover(PedidoEntity.StatusPedido.PENDENTE, valorAnterior);
+        variacao(variacoes, pedido.getCliente()).adicionar(pedido.getStatus(), pedido.getValorTotal(), pedido.getDataPedido());
+        acumular(variacoes);
+    }
+
+    // Chamado antes de o status do pedido ser alterado
+    @Transactional
+    public void alterarStatus(PedidoEntity pedido, PedidoEntity.StatusPedido novoStatus) {
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        Variacao variacao = variacao(variacoes, pedido.getCliente());
+        variacao.remover(pedido.getStatus(), pedido.getValorTotal());
+        variacao.adicionar(novoStatus, pedido.getValorTotal(), null);
+        acumular(variacoes);
+    }
+
+    /**
+     * Alteração de status em lote de pedidos em aberto: validarAlteracaoStatus só permite sair de PENDENTE ou APROVADO,
+     * que contam igual no resumo. Pedidos das tabelas do catálogo; o banco já devolve os valores agrupados por cliente.
+     */
+    @Transactional
+    public void alterarStatusPedidos(Collection<Long> pedidoIds, PedidoEntity.StatusPedido novoStatus) {
+        if (!alteraResumo(novoStatus)) {
+            return;
+        }
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        for (ResumoClienteEntity totais : resumoClienteRepository.totalizarPedidos(pedidoIds)) {
+            Variacao variacao = variacao(variacoes, totais.getCliente());
+            variacao.pedidosAbertos -= totais.getQuantidadePedidos();
+            if (novoStatus == PedidoEntity.StatusPedido.CANCELADO) {
+                variacao.quantidadePedidos -= totais.getQuantidadePedidos();
+                variacao.valorTotal = variacao.valorTotal.subtract(totais.getValorTotal());
+            }
+        }
+        acumular(variacoes);
+    }
+
+    // Mesmo caso de alterarStatusPedidos, com os pedidos já carregados (shards)
+    @Transactional
+    public void alterarStatusPedidosCarregados(Collection<PedidoEntity> pedidos, PedidoEntity.StatusPedido novoStatus) {
+        if (!alteraResumo(novoStatus)) {
+            return;
+        }
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        for (PedidoEntity pedido : pedidos) {
+            Variacao variacao = variacao(variacoes, pedido.getCliente());
+            variacao.remover(PedidoEntity.StatusPedido.PENDENTE, pedido.getValorTotal());
+            variacao.adicionar(novoStatus, pedido.getValorTotal(), null);
+        }
+        acumular(variacoes);
+    }
+
+    // Pedido excluído; o último pedido do cliente é mantido
+    @Transactional
+    public void remover(PedidoEntity pedido) {
+        Map<String, Variacao> variacoes = new TreeMap<>();
+        variacao(variacoes, pedido.getCliente()).remover(pedido.getStatus(), pedido.getValorTotal());
+        acumular(variacoes);
+    }
+
+    // Só PENDENTE -> APROVADO não muda nenhum total
+    public static boolean alteraResumo(PedidoEntity.StatusPedido novoStatus) {
+        return novoStatus == PedidoEntity.StatusPedido.CANCELADO || novoStatus == PedidoEntity.StatusPedido.ENTREGUE;
+    }
+
+    // Para popular a tabela a partir dos pedidos ativos e arquivados já existentes ou corrigir divergências
+    @Transactional
+    public int reconstruir() {
+        if (pedidosEmShards) {
+            throw new BadRequestException("A reconstrução dos resumos de clientes não está disponível com pedidos em shards");
+        }
+        resumoClienteRepository.excluirTodos();
+
+        // Agrupado pelo cliente como gravado; clientes que só diferem na normalização são somados aqui
+        Map<String, Variacao> totais = new TreeMap<>();
+        RowCallbackHandler somarCliente = linha -> {
+            Variacao variacao = variacao(totais, linha.getString(1));
+            variacao.quantidadePedidos += linha.getLong(2);
+            variacao.valorTotal = variacao.valorTotal.add(linha.getBigDecimal(3));
+            variacao.pedidosAbertos += linha.getLong(4);
+            variacao.ultimoPedido = maisRecente(variacao.ultimoPedido, linha.getTimestamp(5).toLocalDateTime());
+        };
+        jdbcTemplate.query(SQL_TOTAIS, somarCliente);
+        acumular(totais);
+
+        logger.info("message=Resumos de clientes reconstruídos. clientes={}", totais.size());
+        return totais.size();
+    }
+
+    private static Variacao variacao(Map<String, Variacao> variacoes, String cliente) {
+        return variacoes.computeIfAbsent(ClientesDistintosService.normalizarCliente(cliente), c -> new Variacao());
+    }
+
+    // Um único batch por gravação; a ordem do TreeMap faz gravações concorrentes travarem as linhas na mesma ordem
+    private void acumular(Map<String, Variacao> variacoes) {
+        List<Object[]> parametros = new ArrayList<>();
+        variacoes.forEach((cliente, variacao) -> {
+            if (!variacao.nula()) {
+                parametros.add(new Object[]{cliente, variacao.quantidadePedidos, variacao.valorTotal, variacao.pedidosAbertos,
+                        variacao.ultimoPedido != null ? Timestamp.valueOf(variacao.ultimoPedido) : null});
+            }
+        });
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_ACUMULAR, parametros);
+        }
+    }
+
+    private static LocalDateTime maisRecente(LocalDateTime atual, LocalDateTime outro) {
+        return atual == null || outro.isAfter(atual) ? outro : atual;
+    }
+
+    private static final class Variacao {
+
+        private long quantidadePedidos;
+        private BigDecimal valorTotal = BigDecimal.ZERO;
+        private long pedidosAbertos;
+        private LocalDateTime ultimoPedido;
+
+        // Pedido cancelado não conta nos pedidos nem no valor, mas conta como último pedido
+        void adicionar(PedidoEntity.StatusPedido status, BigDecimal valor, LocalDateTime dataPedido) {
+            if (status != PedidoEntity.StatusPedido.CANCELADO) {
+                quantidadePedidos++;
+                valorTotal = valorTotal.add(valor);
+            }
+            if (aberto(status)) {
+                pedidosAbertos++;
+            }
+            if (dataPedido != null) {
+                ultimoPedido = maisRecente(ultimoPedido, dataPedido);
+            }
+        }
+
+        void remover(PedidoEntity.StatusPedido status, BigDecimal valor) {
+            if (status != PedidoEntity.StatusPedido.CANCELADO) {
+                quantidadePedidos--;
+                valorTotal = valorTotal.subtract(valor);
+            }
+            if (aberto(status)) {
+                pedidosAbertos--;
+            }
+        }
+
+        boolean nula() {
+            return quantidadePedidos == 0 && valorTotal.signum() == 0 && pedidosAbertos == 0 && ultimoPedido == null;
+        }
+
+        private static boolean aberto(PedidoEntity.StatusPedido status) {
+            return status == PedidoEntity.StatusPedido.PENDENTE || status == PedidoEntity.StatusPedido.APROVADO;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sistema.pedidos.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Linhas de itens de pedido em colunas de tipos primitivos, ordenadas por pedido. Imutável depois de construído:
+ * consultas leem o snapshot atual enquanto o próximo é montado. O produto é guardado como código de dicionário
+ * (0..N-1), para que os agrupamentos usem arrays indexados pelo código em vez de mapas.
+ */
+final class SnapshotColunar {
+
+    static final SnapshotColunar VAZIO = new Construtor(null, 0, new HashMap<>()).construir(0, null);
+
+    final int tamanho;
+    final long[] pedidos;
+    final int[] produtos;
+    final int[] dias;
+    final byte[] status;
+    final int[] quantidades;
+    final long[] valoresCentavos;
+
+    // Código do dicionário -> ID do produto; só cresce, então códigos de snapshots anteriores continuam válidos
+    final long[] produtoPorCodigo;
+    // Intervalo de epoch-days presente nas colunas (pode ser mais largo que o real, nunca mais estreito)
+    final int diaMinimo;
+    final int diaMaximo;
+    // Pedidos abaixo da fronteira estão em status final e não mudam mais; a partir dela tudo é relido
+    final long fronteira;
+    final LocalDateTime atualizadoEm;
+
+    private SnapshotColunar(Construtor construtor, long fronteira, LocalDateTime atualizadoEm) {
+        this.tamanho = construtor.tamanho;
+        this.pedidos = construtor.pedidos;
+        this.produtos = construtor.produtos;
+        this.dias = construtor.dias;
+        this.status = construtor.status;
+        this.quantidades = construtor.quantidades;
+        this.valoresCentavos = construtor.valoresCentavos;
+        this.produtoPorCodigo = Arrays.copyOf(construtor.produtoPorCodigo, construtor.codigoPorProduto.size());
+        this.diaMinimo = construtor.diaMinimo;
+        this.diaMaximo = construtor.diaMaximo;
+        this.fronteira = fronteira;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // Primeira linha com pedido >= pedidoId
+    int primeiraLinhaAPartirDe(long pedidoId) {
+        int de = 0;
+        int ate = tamanho;
+        while (de < ate) {
+            int meio = (de + ate) >>> 1;
+            if (pedidos[meio] < pedidoId) {
+                de = meio + 1;
+            } else {
+                ate = meio;
+            }
+        }
+        return de;
+    }
+
+    // -1 quando o produto não tem nenhuma linha no snapshot
+    int codigoDoProduto(long produtoId) {
+        for (int codigo = 0; codigo < produtoPorCodigo.length; codigo++) {
+            if (produtoPorCodigo[codigo] == produtoId) {
+                return codigo;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Monta o próximo snapshot a partir das primeiras linhas do anterior (os pedidos já finalizados), acrescentando
+     * as linhas relidas em ordem de pedido. Usado por uma thread de cada vez.
+     */
+    static final class Construtor {
+
+        private final Map<Long, Integer> codigoPorProduto;
+        private long[] produtoPorCodigo;
+
+        private int tamanho;
+        private long[] pedidos;
+        private int[] produtos;
+        private int[] dias;
+        private byte[] status;
+        private int[] quantidades;
+        private long[] valoresCentavos;
+        private int diaMinimo = Integer.MAX_VALUE;
+        private int diaMaximo = Integer.MIN_VALUE;
+
+        Construtor(SnapshotColunar anterior, int linhasMantidas, Map<Long, Integer> codigoPorProduto) {
+            // O array é refeito a partir do mapa, que pode ter códigos de uma atualização interrompida
+            this.codigoPorProduto = codigoPorProduto;
+            this.produtoPorCodigo = new long[Math.max(16, codigoPorProduto.size() * 2)];
+            codigoPorProduto.forEach((produtoId, codigo) -> produtoPorCodigo[codigo] = produtoId);
+
+            int capacidade = Math.max(1024, anterior != null ? anterior.tamanho : 0);
+            this.pedidos = new long[capacidade];
+            this.produtos = new int[capacidade];
+            this.dias = new int[capacidade];
+            this.status = new byte[capacidade];
+            this.quantidades = new int[capacidade];
+            this.valoresCentavos = new long[capacidade];
+            if (anterior != null && linhasMantidas > 0) {
+                System.arraycopy(anterior.pedidos, 0, pedidos, 0, linhasMantidas);
+                System.arraycopy(anterior.produtos, 0, produtos, 0, linhasMantidas);
+                System.arraycopy(anterior.dias, 0, dias, 0, linhasMantidas);
+                System.arraycopy(anterior.status, 0, status, 0, linhasMantidas);
+                System.arraycopy(anterior.quantidades, 0, quantidades, 0, linhasMantidas);
+                System.arraycopy(anterior.valoresCentavos, 0, valoresCentavos, 0, linhasMantidas);
+                tamanho = linhasMantidas;
+                diaMinimo = anterior.diaMinimo;
+                diaMaximo = anterior.diaMaximo;
+            }
+        }
+
+        void adicionar(long pedidoId, long produtoId, int dia, byte statusOrdinal, int quantidade, long valorCentavos) {
+            if (tamanho == pedidos.length) {
+                crescer();
+            }
+            pedidos[tamanho] = pedidoId;
+            produtos[tamanho] = codificar(produtoId);
+            dias[tamanho] = dia;
+            status[tamanho] = statusOrdinal;
+            quantidades[tamanho] = quantidade;
+            valoresCentavos[tamanho] = valorCentavos;
+            tamanho++;
+            diaMinimo = Math.min(diaMinimo, dia);
+            diaMaximo = Math.max(diaMaximo, dia);
+        }
+
+        SnapshotColunar construir(long fronteira, LocalDateTime atualizadoEm) {
+            if (tamanho == 0) {
+                diaMinimo = 0;
+                diaMaximo = -1;
+            }
+            return new SnapshotColunar(this, fronteira, atualizadoEm);
+        }
+
+        private int codificar(long produtoId) {
+            Integer codigo = codigoPorProduto.get(produtoId);
+            if (codigo == null) {
+                codigo = codigoPorProduto.size();
+                codigoPorProduto.put(produtoId, codigo);
+                if (codigo == produtoPorCodigo.length) {
+                    produtoPorCodigo = Arrays.copyOf(produtoPorCodigo, produtoPorCodigo.length * 2);
+                }
+                produtoPorCodigo[codigo] = produtoId;
+            }
+            return codigo;
+        }
+
+        private void crescer() {
+            int capacidade = pedidos.length + (pedidos.length >> 1);
+            pedidos = Arrays.copyOf(pedidos, capacidade);
+            produtos = Arrays.copyOf(produtos, capacidade);
+            dias = Arrays.copyOf(dias, capacidade);
+            status = Arrays.copyOf(status, capacidade);
+            quantidades = Arrays.copyOf(quantidades, capacidade);
+            valoresCentavos = Arrays.copyOf(valoresCentavos, capacidade);
+        }
+    }
+}
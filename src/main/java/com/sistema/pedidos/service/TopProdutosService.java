@@ -0,0 +1,171 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.CriterioRanking;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.repository.ProdutoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ranking dos produtos mais vendidos no período. As linhas de itens (ativos e arquivados) são lidas em streaming,
+ * em faixas de data processadas em paralelo por fork/join, e somadas em um {@link AcumuladorProdutos} por faixa;
+ * só os K maiores são selecionados ao final. A memória depende dos produtos distintos, não das linhas lidas.
+ */
+@Service
+public class TopProdutosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopProdutosService.class);
+
+    // Itens do mesmo pedido em sequência, para o acumulador contar o pedido uma vez por produto
+    private static final String SQL_ITENS =
+            "SELECT i.pedido_id, i.produto_id, i.quantidade, i.valor_total FROM itens_pedido i " +
+            "JOIN pedidos p ON p.id = i.pedido_id WHERE p.data_pedido BETWEEN ? AND ? AND p.status <> ? ORDER BY i.pedido_id";
+    private static final String SQL_ITENS_ARQUIVADOS =
+            "SELECT i.pedido_id, i.produto_id, i.quantidade, i.valor_total FROM itens_pedido_arquivo i " +
+            "JOIN pedidos_arquivo p ON p.id = i.pedido_id WHERE p.data_pedido BETWEEN ? AND ? AND p.status <> ? ORDER BY i.pedido_id";
+
+    // Pedidos cancelados não entram no ranking, como nos demais relatórios de vendas
+    private static final String STATUS_FORA_DO_RANKING = PedidoEntity.StatusPedido.CANCELADO.name();
+
+    private final ProdutoRepository produtoRepository;
+    private final JdbcTemplate jdbcStreaming;
+    private final TransactionTemplate transacaoLeitura;
+    private final Duration tamanhoFaixa;
+    private final int limiteMaximo;
+    // Os itens são lidos das tabelas do catálogo, que com shards só têm os arquivados
+    private final boolean pedidosEmShards;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public TopProdutosService(
+            ProdutoRepository produtoRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${pedidos.top-produtos.tamanho-faixa:P1D}") Duration tamanhoFaixa,
+            @Value("${pedidos.top-produtos.paralelismo:4}") int paralelismo,
+            @Value("${pedidos.top-produtos.limite-maximo:1000}") int limiteMaximo,
+            @Value("${pedidos.top-produtos.fetch-size:-2147483648}") int fetchSize,
+            @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        if (tamanhoFaixa.isZero() || tamanhoFaixa.isNegative()) {
+            throw new IllegalArgumentException("pedidos.top-produtos.tamanho-faixa deve ser positivo");
+        }
+        this.produtoRepository = produtoRepository;
+        // Template próprio: o fetch size de streaming não deve valer para as demais consultas
+        this.jdbcStreaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcStreaming.setFetchSize(fetchSize);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.limiteMaximo = limiteMaximo;
+        this.pedidosEmShards = pedidosEmShards;
+
+        // Pool próprio, e não o comum da JVM: as folhas bloqueiam em I/O e cada uma ocupa uma conexão. O tamanho máximo
+        // igual ao paralelismo impede threads de compensação durante os join, que abririam conexões além do limite
+        AtomicInteger contador = new AtomicInteger();
+        this.pool = new ForkJoinPool(paralelismo, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("pedidos-top-produtos-" + contador.getAndIncrement());
+            return thread;
+        }, null, false, 0, paralelismo, 1, forkJoinPool -> true, 60, TimeUnit.SECONDS);
+    }
+
+    // Deve ser chamado fora de transação: cada faixa abre a sua, em uma thread do pool
+    public List<TotalVendasProduto> maisVendidos(LocalDateTime inicio, LocalDateTime fim, CriterioRanking criterio, int limite) {
+        if (pedidosEmShards) {
+            throw new BadRequestException("O ranking de produtos não está disponível com pedidos em shards");
+        }
+        if (inicio.isAfter(fim)) {
+            throw new BadRequestException("A data de início deve ser anterior à data de fim");
+        }
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + limiteMaximo);
+        }
+
+        List<ConsultaPeriodoParalelaService.Faixa> faixas = ConsultaPeriodoParalelaService.dividir(inicio, fim, tamanhoFaixa);
+        AcumuladorProdutos total = pool.invoke(new SomaFaixas(faixas, 0, faixas.size()));
+        logger.info("message=Ranking de produtos calculado. faixas={} produtosDistintos={}", faixas.size(), total.tamanho());
+
+        List<TotalVendasProduto> maiores = total.maiores(limite, criterio);
+        Map<Long, String> nomes = new HashMap<>();
+        for (ProdutoEntity produto : produtoRepository.findAllById(maiores.stream().map(TotalVendasProduto::getProdutoId).toList())) {
+            nomes.put(produto.getId(), produto.getNome());
+        }
+
+        List<TotalVendasProduto> ranking = new ArrayList<>(maiores.size());
+        for (TotalVendasProduto produto : maiores) {
+            ranking.add(new TotalVendasProduto(produto.getProdutoId(), nomes.get(produto.getProdutoId()),
+                    produto.getQuantidadeVendida(), produto.getQuantidadePedidos(), produto.getValorTotal()));
+        }
+        return ranking;
+    }
+
+    private AcumuladorProdutos somarFaixa(ConsultaPeriodoParalelaService.Faixa faixa) {
+        AcumuladorProdutos acumulador = new AcumuladorProdutos();
+        // valor_total tem duas casas decimais, então vira centavos sem arredondamento
+        RowCallbackHandler somarLinha = linha -> acumulador.adicionar(linha.getLong(2), linha.getLong(1), linha.getLong(3),
+                linha.getBigDecimal(4).movePointRight(2).longValueExact());
+        transacaoLeitura.executeWithoutResult(status -> {
+            Object[] parametros = {Timestamp.valueOf(faixa.inicio()), Timestamp.valueOf(faixa.fim()), STATUS_FORA_DO_RANKING};
+            jdbcStreaming.query(SQL_ITENS, somarLinha, parametros);
+            jdbcStreaming.query(SQL_ITENS_ARQUIVADOS, somarLinha, parametros);
+        });
+        return acumulador;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    // Divide a lista de faixas ao meio até sobrar uma; cada metade devolve seu acumulador, somado ao da outra
+    private class SomaFaixas extends RecursiveTask<AcumuladorProdutos> {
+
+        private final List<ConsultaPeriodoParalelaService.Faixa> faixas;
+        private final int de;
+        private final int ate;
+
+        SomaFaixas(List<ConsultaPeriodoParalelaService.Faixa> faixas, int de, int ate) {
+            this.faixas = faixas;
+            this.de = de;
+            this.ate = ate;
+        }
+
+        @Override
+        protected AcumuladorProdutos compute() {
+            if (ate - de == 1) {
+                return somarFaixa(faixas.get(de));
+            }
+            int meio = (de + ate) >>> 1;
+            SomaFaixas esquerda = new SomaFaixas(faixas, de, meio);
+            esquerda.fork();
+            AcumuladorProdutos direita = new SomaFaixas(faixas, meio, ate).compute();
+            AcumuladorProdutos total = esquerda.join();
+            total.somar(direita);
+            return total;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.VendaDiariaProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.ReceitaPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.repository.VendaDiariaProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class VendasDiariasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendasDiariasService.class);
+
+    // Soma a variação na linha do dia e produto, criando-a se ainda não existir; o incremento é feito pelo banco,
+    // então gravações concorrentes do mesmo produto no mesmo dia não se sobrescrevem
+    private static final String SQL_ACUMULAR =
+            "INSERT INTO vendas_diarias_produto (dia, produto_id, quantidade, receita, quantidade_pedidos) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade), receita = receita + VALUES(receita), " +
+            "quantidade_pedidos = quantidade_pedidos + VALUES(quantidade_pedidos)";
+
+    private final VendaDiariaProdutoRepository vendaDiariaProdutoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean pedidosEmShards;
+
+    @Autowired
+    public VendasDiariasService(VendaDiariaProdutoRepository vendaDiariaProdutoRepository, JdbcTemplate jdbcTemplate,
+                                @Value("${pedidos.sharding.habilitado:false}") boolean pedidosEmShards) {
+        this.vendaDiariaProdutoRepository = vendaDiariaProdutoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pedidosEmShards = pedidosEmShards;
+    }
+
+    // Pedido cancelado não entra nos totais, como nos relatórios de RelatorioService
+    @Transactional
+    public void registrar(PedidoEntity pedido) {
+        if (pedido.getStatus() != PedidoEntity.StatusPedido.CANCELADO) {
+            substituir(pedido.getDataPedido(), List.of(), pedido.getItens());
+        }
+    }
+
+    @Transactional
+    public void estornar(PedidoEntity pedido) {
+        if (pedido.getStatus() != PedidoEntity.StatusPedido.CANCELADO) {
+            substituir(pedido.getDataPedido(), pedido.getItens(), List.of());
+        }
+    }
+
+    // Estorno em lote de pedidos das tabelas do catálogo; o banco já devolve a contribuição agrupada por dia e produto
+    @Transactional
+    public void estornarPedidos(Collection<Long> pedidoIds) {
+        List<VendaDiariaProdutoEntity> contribuicoes = new ArrayList<>(vendaDiariaProdutoRepository.totalizarPedidos(pedidoIds));
+        contribuicoes.sort(Comparator.comparing(VendaDiariaProdutoEntity::getDia).thenComparing(VendaDiariaProdutoEntity::getProdutoId));
+
+        List<Object[]> parametros = new ArrayList<>();
+        for (VendaDiariaProdutoEntity contribuicao : contribuicoes) {
+            parametros.add(new Object[]{contribuicao.getDia(), contribuicao.getProdutoId(), -contribuicao.getQuantidade(),
+                    contribuicao.getReceita().negate(), -contribuicao.getQuantidadePedidos()});
+        }
+        acumular(parametros);
+    }
+
+    // Aplica só a diferença entre os itens antigos e os novos do pedido; produtos sem diferença não geram UPDATE
+    @Transactional
+    public void substituir(LocalDateTime dataPedido, Collection<ItemPedidoEntity> antigos, Collection<ItemPedidoEntity> novos) {
+        // Ordem fixa de produto, para que pedidos concorrentes travem as linhas na mesma ordem
+        Map<Long, Variacao> variacoes = new TreeMap<>();
+        for (ItemPedidoEntity item : antigos) {
+            variacoes.computeIfAbsent(item.getProduto().getId(), id -> new Variacao()).remover(item);
+        }
+        for (ItemPedidoEntity item : novos) {
+            variacoes.computeIfAbsent(item.getProduto().getId(), id -> new Variacao()).adicionar(item);
+        }
+
+        LocalDate dia = dataPedido.toLocalDate();
+        List<Object[]> parametros = new ArrayList<>();
+        variacoes.forEach((produtoId, variacao) -> {
+            if (!variacao.nula()) {
+                parametros.add(new Object[]{dia, produtoId, variacao.quantidade, variacao.receita, variacao.pedidos()});
+            }
+        });
+        acumular(parametros);
+    }
+
+    // Um único batch por gravação de pedido, qualquer que seja a quantidade de produtos
+    private void acumular(List<Object[]> parametros) {
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_ACUMULAR, parametros);
+        }
+    }
+
+    // Dashboards: o custo depende de dias x produtos no período, não da quantidade de pedidos
+    @Transactional(readOnly = true)
+    public List<ReceitaPeriodo> receitaPorPeriodo(LocalDate inicio, LocalDate fim, AgrupamentoPeriodo agrupamento) {
+        validarPeriodo(inicio, fim);
+
+        Map<LocalDate, ReceitaPeriodo> totais = new TreeMap<>();
+        for (ReceitaPeriodo dia : vendaDiariaProdutoRepository.totalizarPorDia(inicio, fim)) {
+            ReceitaPeriodo noPeriodo = new ReceitaPeriodo(agrupamento.inicioDoPeriodo(dia.getInicio()),
+                    dia.getQuantidadeVendida(), dia.getValorTotal());
+            totais.merge(noPeriodo.getInicio(), noPeriodo, ReceitaPeriodo::somar);
+        }
+        return new ArrayList<>(totais.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TotalVendasProduto> vendasPorProduto(LocalDate inicio, LocalDate fim) {
+        validarPeriodo(inicio, fim);
+
+        List<TotalVendasProduto> produtos = new ArrayList<>(vendaDiariaProdutoRepository.totalizarPorProduto(inicio, fim));
+        produtos.sort(Comparator.comparing(TotalVendasProduto::getValorTotal).reversed()
+                .thenComparing(TotalVendasProduto::getProdutoId));
+        return produtos;
+    }
+
+    // Para popular a tabela a partir dos pedidos já existentes ou corrigir divergências
+    @Transactional
+    public int reconstruir() {
+        // Os pedidos ativos estariam fora da reconstrução, que apagaria os seus totais
+        if (pedidosEmShards) {
+            throw new BadRequestException("A reconstrução das vendas diárias não está disponível com pedidos em shards");
+        }
+        vendaDiariaProdutoRepository.excluirTodas();
+        int linhas = vendaDiariaProdutoRepository.reconstruir();
+        logger.info("message=Vendas diárias por produto reconstruídas. linhas={}", linhas);
+        return linhas;
+    }
+
+    private static void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio.isAfter(fim)) {
+            throw new BadRequestException("A data de início deve ser anterior à data de fim");
+        }
+    }
+
+    private static final class Variacao {
+
+        private long quantidade;
+        private BigDecimal receita = BigDecimal.ZERO;
+        private boolean nosItensAntigos;
+        private boolean nosItensNovos;
+
+        void remover(ItemPedidoEntity item) {
+            quantidade -= item.getQuantidade();
+            receita = receita.subtract(item.getValorTotal());
+            nosItensAntigos = true;
+        }
+
+        void adicionar(ItemPedidoEntity item) {
+            quantidade += item.getQuantidade();
+            receita = receita.add(item.getValorTotal());
+            nosItensNovos = true;
+        }
+
+        // O pedido conta uma vez por produto, mesmo com vários itens do mesmo produto
+        long pedidos() {
+            return (nosItensNovos ? 1 : 0) - (nosItensAntigos ? 1 : 0);
+        }
+
+        boolean nula() {
+            return quantidade == 0 && receita.signum() == 0 && pedidos() == 0;
+        }
+    }
+}
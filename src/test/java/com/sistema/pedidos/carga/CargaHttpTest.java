@@ -0,0 +1,236 @@
+package com.sistema.pedidos.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicação em H2 (modo MySQL), importa um catálogo
+ * e executa o mix de operações configurado em {@link ConfiguracaoCarga} pela pilha HTTP real.
+ * O relatório com vazão e percentis de latência por endpoint é gravado em JSON.
+ */
+@Tag("carga")
+// Threads de plataforma mesmo no perfil java21, para servir de base de comparação com CargaHttpThreadsVirtuaisTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "pedidos.threads-virtuais.habilitadas=false")
+@ActiveProfiles("h2")
+class CargaHttpTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaHttpTest.class);
+
+    private static final long ESTOQUE_INICIAL = 100_000_000L;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final ConfiguracaoCarga configuracao = ConfiguracaoCarga.carregar();
+    private final MedicoesCarga medicoes = new MedicoesCarga();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private volatile boolean executando;
+
+    @Test
+    void executarMixDeCarga() throws Exception {
+        importarCatalogo();
+
+        ExecutorService executor = Executors.newFixedThreadPool(configuracao.getClientes());
+        List<Future<?>> clientes = new ArrayList<>();
+        executando = true;
+        for (int i = 0; i < configuracao.getClientes(); i++) {
+            clientes.add(executor.submit(this::executarCliente));
+        }
+
+        Thread.sleep(configuracao.getAquecimento().toMillis());
+        medicoes.iniciarMedicao();
+        long inicio = System.nanoTime();
+        Thread.sleep(configuracao.getDuracao().toMillis());
+        medicoes.encerrarMedicao();
+        double segundosMedidos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        executando = false;
+        for (Future<?> cliente : clientes) {
+            cliente.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("geradoEm", LocalDateTime.now().toString());
+        relatorio.put("javaVersion", System.getProperty("java.version"));
+        relatorio.put("threadsVirtuais", environment.getProperty("pedidos.threads-virtuais.habilitadas", Boolean.class, false));
+        relatorio.putAll(medicoes.gerarRelatorio(configuracao, segundosMedidos));
+        gravarRelatorio(relatorio);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> total = (Map<String, Object>) relatorio.get("total");
+        assertTrue(((Number) total.get("requisicoes")).longValue() > 0, "Nenhuma requisição concluída");
+        assertEquals(0L, ((Number) total.get("erros")).longValue(), "Requisições com erro: " + relatorio.get("endpoints"));
+    }
+
+    private void importarCatalogo() throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder("nome,descricao,preco,quantidadeEstoque\n");
+        for (int i = 1; i <= configuracao.getProdutos(); i++) {
+            csv.append("Produto ").append(i).append(",Produto de carga ").append(i).append(',')
+                    .append(1 + i % 500).append(".90,").append(ESTOQUE_INICIAL).append('\n');
+        }
+
+        HttpResponse<String> resposta = httpClient.send(HttpRequest.newBuilder(uri("/api/produtos/importacao"))
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resposta.statusCode(), resposta.body());
+        logger.info("message=Catálogo de carga importado, resposta={}", resposta.body());
+    }
+
+    // Cada cliente mantém os seus pedidos PENDENTE para alimentar as operações de status e exclusão
+    private void executarCliente() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Deque<Long> pendentes = new ArrayDeque<>();
+        int pesoTotal = configuracao.getMix().values().stream().mapToInt(Integer::intValue).sum();
+
+        while (executando) {
+            Operacao operacao = sortearOperacao(aleatorio.nextInt(pesoTotal));
+            if ((operacao == Operacao.STATUS || operacao == Operacao.EXCLUIR) && pendentes.isEmpty()) {
+                operacao = Operacao.CRIAR;
+            }
+            try {
+                executar(operacao, aleatorio, pendentes);
+            } catch (IOException e) {
+                medicoes.registrarErro(operacao, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Operacao sortearOperacao(int sorteio) {
+        int acumulado = 0;
+        for (Map.Entry<Operacao, Integer> entrada : configuracao.getMix().entrySet()) {
+            acumulado += entrada.getValue();
+            if (sorteio < acumulado) {
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Sorteio fora do intervalo do mix: " + sorteio);
+    }
+
+    private void executar(Operacao operacao, ThreadLocalRandom aleatorio, Deque<Long> pendentes)
+            throws IOException, InterruptedException {
+        switch (operacao) {
+            case CRIAR -> {
+                HttpResponse<String> resposta = enviar(operacao, HttpRequest.newBuilder(uri("/api/pedidos"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(novoPedido(aleatorio))));
+                if (resposta.statusCode() == 201) {
+                    JsonNode pedido = objectMapper.readTree(resposta.body());
+                    pendentes.push(pedido.get("id").asLong());
+                }
+            }
+            case LISTAR -> enviar(operacao, HttpRequest.newBuilder(uri("/api/pedidos")).GET());
+            case BUSCAR_CLIENTE -> enviar(operacao, HttpRequest.newBuilder(
+                    uri("/api/pedidos/cliente?cliente=" + codificar(cliente(aleatorio)))).GET());
+            case BUSCAR_PRODUTO -> enviar(operacao, HttpRequest.newBuilder(
+                    uri("/api/produtos/buscar?nome=" + codificar("Produto " + (1 + aleatorio.nextInt(configuracao.getProdutos()))))).GET());
+            case STATUS -> {
+                String novoStatus = aleatorio.nextBoolean() ? "APROVADO" : "CANCELADO";
+                enviar(operacao, HttpRequest.newBuilder(uri("/api/pedidos/" + pendentes.pop() + "/status?status=" + novoStatus))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+            }
+            case EXCLUIR -> enviar(operacao, HttpRequest.newBuilder(uri("/api/pedidos/" + pendentes.pop())).DELETE());
+        }
+    }
+
+    private HttpResponse<String> enviar(Operacao operacao, HttpRequest.Builder requisicao)
+            throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = httpClient.send(requisicao.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        long duracao = System.nanoTime() - inicio;
+
+        if (resposta.statusCode() >= 200 && resposta.statusCode() < 300) {
+            medicoes.registrarSucesso(operacao, duracao);
+        } else {
+            medicoes.registrarErro(operacao, resposta.statusCode());
+        }
+        return resposta;
+    }
+
+    private String novoPedido(ThreadLocalRandom aleatorio) throws IOException {
+        int quantidadeItens = 1 + aleatorio.nextInt(configuracao.getMaximoItensPorPedido());
+        List<Map<String, Object>> itens = new ArrayList<>(quantidadeItens);
+        for (int i = 0; i < quantidadeItens; i++) {
+            itens.add(Map.of(
+                    "produtoId", 1 + aleatorio.nextInt(configuracao.getProdutos()),
+                    "quantidade", 1 + aleatorio.nextInt(3)));
+        }
+        return objectMapper.writeValueAsString(Map.of("cliente", cliente(aleatorio), "itens", itens));
+    }
+
+    private String cliente(ThreadLocalRandom aleatorio) {
+        return "Cliente " + (1 + aleatorio.nextInt(configuracao.getClientesPedido()));
+    }
+
+    Path arquivoRelatorio() {
+        return configuracao.getRelatorio();
+    }
+
+    private void gravarRelatorio(Map<String, Object> relatorio) throws IOException {
+        Path arquivo = arquivoRelatorio().toAbsolutePath();
+        Files.createDirectories(arquivo.getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+        logger.info("message=Relatório de carga gravado em {}: {}", arquivo, objectMapper.writeValueAsString(relatorio.get("total")));
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
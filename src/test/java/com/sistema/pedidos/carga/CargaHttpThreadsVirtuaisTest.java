@@ -0,0 +1,34 @@
+package com.sistema.pedidos.carga;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+
+/**
+ * Mesmo mix de {@link CargaHttpTest} com requisições do Tomcat em threads virtuais, em um banco H2 separado.
+ * O relatório vai para o mesmo diretório com o sufixo "-threads-virtuais", para comparar vazão e latência por
+ * endpoint com a execução em threads de plataforma. Só roda em Java 21+.
+ */
+@Tag("carga")
+@EnabledIf("javaComThreadsVirtuais")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "pedidos.threads-virtuais.habilitadas=true",
+        "spring.datasource.url=jdbc:h2:mem:pedidos-threads-virtuais;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.r2dbc.url=r2dbc:h2:mem:///pedidos-threads-virtuais?options=MODE=MySQL;LOCK_TIMEOUT=10000"})
+@ActiveProfiles("h2")
+class CargaHttpThreadsVirtuaisTest extends CargaHttpTest {
+
+    static boolean javaComThreadsVirtuais() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Override
+    Path arquivoRelatorio() {
+        Path relatorio = super.arquivoRelatorio();
+        String nome = relatorio.getFileName().toString().replaceFirst("(\\.json)?$", "-threads-virtuais$1");
+        return relatorio.resolveSibling(nome);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sistema.pedidos.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema "carga.*"
+ * (repassadas pelo Maven, ex.: -Dcarga.clientes=32).
+ */
+final class ConfiguracaoCarga {
+
+    private final int clientes;
+    private final Duration aquecimento;
+    private final Duration duracao;
+    private final int produtos;
+    private final int clientesPedido;
+    private final int maximoItensPorPedido;
+    private final Map<Operacao, Integer> mix;
+    private final Path relatorio;
+
+    private ConfiguracaoCarga(int clientes, Duration aquecimento, Duration duracao, int produtos, int clientesPedido,
+                              int maximoItensPorPedido, Map<Operacao, Integer> mix, Path relatorio) {
+        this.clientes = clientes;
+        this.aquecimento = aquecimento;
+        this.duracao = duracao;
+        this.produtos = produtos;
+        this.clientesPedido = clientesPedido;
+        this.maximoItensPorPedido = maximoItensPorPedido;
+        this.mix = mix;
+        this.relatorio = relatorio;
+    }
+
+    static ConfiguracaoCarga carregar() {
+        return new ConfiguracaoCarga(
+                Integer.getInteger("carga.clientes", 8),
+                Duration.parse(System.getProperty("carga.aquecimento", "PT5S")),
+                Duration.parse(System.getProperty("carga.duracao", "PT30S")),
+                Integer.getInteger("carga.produtos", 1000),
+                Integer.getInteger("carga.clientes-pedido", 200),
+                Integer.getInteger("carga.maximo-itens-por-pedido", 5),
+                lerMix(System.getProperty("carga.mix",
+                        "criar:35,listar:5,buscarCliente:15,buscarProduto:15,status:20,excluir:10")),
+                Path.of(System.getProperty("carga.relatorio", "target/carga/relatorio-carga.json")));
+    }
+
+    // Formato "operacao:peso,operacao:peso"; operações omitidas ficam com peso zero
+    private static Map<Operacao, Integer> lerMix(String valor) {
+        Map<Operacao, Integer> mix = new LinkedHashMap<>();
+        for (String parte : valor.split(",")) {
+            String[] chaveValor = parte.trim().split(":");
+            if (chaveValor.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida em carga.mix: " + parte);
+            }
+            mix.put(Operacao.porNome(chaveValor[0].trim()), Integer.parseInt(chaveValor[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("carga.mix deve ter ao menos uma operação com peso positivo");
+        }
+        return mix;
+    }
+
+    Map<String, Object> comoMapa() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("clientes", clientes);
+        mapa.put("aquecimento", aquecimento.toString());
+        mapa.put("duracao", duracao.toString());
+        mapa.put("produtos", produtos);
+        mapa.put("clientesPedido", clientesPedido);
+        mapa.put("maximoItensPorPedido", maximoItensPorPedido);
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        mix.forEach((operacao, peso) -> pesos.put(operacao.getNome(), peso));
+        mapa.put("mix", pesos);
+        return mapa;
+    }
+
+    int getClientes() {
+        return clientes;
+    }
+
+    Duration getAquecimento() {
+        return aquecimento;
+    }
+
+    Duration getDuracao() {
+        return duracao;
+    }
+
+    int getProdutos() {
+        return produtos;
+    }
+
+    int getClientesPedido() {
+        return clientesPedido;
+    }
+
+    int getMaximoItensPorPedido() {
+        return maximoItensPorPedido;
+    }
+
+    Map<Operacao, Integer> getMix() {
+        return mix;
+    }
+
+    Path getRelatorio() {
+        return relatorio;
+    }
+}
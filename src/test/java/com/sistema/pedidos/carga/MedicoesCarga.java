@@ -0,0 +1,116 @@
+package com.sistema.pedidos.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (HdrHistogram, em microssegundos) e contagem de erros por operação.
+ * Só registra enquanto a medição estiver ativa, para descartar o aquecimento.
+ */
+final class MedicoesCarga {
+
+    // Latência máxima registrável: 1 minuto, com 3 dígitos significativos
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operacao, Recorder> latencias = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, Map<Integer, LongAdder>> errosPorStatus = new EnumMap<>(Operacao.class);
+
+    private volatile boolean medindo;
+
+    MedicoesCarga() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Recorder(LATENCIA_MAXIMA_MICROS, 3));
+            erros.put(operacao, new LongAdder());
+            errosPorStatus.put(operacao, new ConcurrentHashMap<>());
+        }
+    }
+
+    void iniciarMedicao() {
+        // Descarta o que foi registrado durante o aquecimento
+        latencias.values().forEach(Recorder::reset);
+        erros.values().forEach(LongAdder::reset);
+        errosPorStatus.values().forEach(Map::clear);
+        medindo = true;
+    }
+
+    void encerrarMedicao() {
+        medindo = false;
+    }
+
+    void registrarSucesso(Operacao operacao, long duracaoNanos) {
+        if (medindo) {
+            latencias.get(operacao).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(duracaoNanos), LATENCIA_MAXIMA_MICROS));
+        }
+    }
+
+    void registrarErro(Operacao operacao, int statusHttp) {
+        if (medindo) {
+            erros.get(operacao).increment();
+            errosPorStatus.get(operacao).computeIfAbsent(statusHttp, s -> new LongAdder()).increment();
+        }
+    }
+
+    Map<String, Object> gerarRelatorio(ConfiguracaoCarga configuracao, double segundosMedidos) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(LATENCIA_MAXIMA_MICROS, 3);
+        long totalErros = 0;
+
+        for (Operacao operacao : Operacao.values()) {
+            Histogram histograma = latencias.get(operacao).getIntervalHistogram();
+            long errosOperacao = erros.get(operacao).sum();
+            if (histograma.getTotalCount() == 0 && errosOperacao == 0) {
+                continue;
+            }
+            total.add(histograma);
+            totalErros += errosOperacao;
+
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("endpoint", operacao.getEndpoint());
+            endpoint.putAll(resumir(histograma, errosOperacao, segundosMedidos));
+            Map<String, Long> porStatus = new LinkedHashMap<>();
+            errosPorStatus.get(operacao).forEach((status, contador) -> porStatus.put(String.valueOf(status), contador.sum()));
+            endpoint.put("errosPorStatus", porStatus);
+            endpoints.put(operacao.getNome(), endpoint);
+        }
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("configuracao", configuracao.comoMapa());
+        relatorio.put("segundosMedidos", arredondar(segundosMedidos));
+        relatorio.put("total", resumir(total, totalErros, segundosMedidos));
+        relatorio.put("endpoints", endpoints);
+        return relatorio;
+    }
+
+    private static Map<String, Object> resumir(Histogram histograma, long errosOperacao, double segundosMedidos) {
+        Map<String, Object> latenciaMs = new LinkedHashMap<>();
+        latenciaMs.put("media", emMilissegundos(histograma.getMean()));
+        latenciaMs.put("p50", emMilissegundos(histograma.getValueAtPercentile(50)));
+        latenciaMs.put("p90", emMilissegundos(histograma.getValueAtPercentile(90)));
+        latenciaMs.put("p99", emMilissegundos(histograma.getValueAtPercentile(99)));
+        latenciaMs.put("p999", emMilissegundos(histograma.getValueAtPercentile(99.9)));
+        latenciaMs.put("max", emMilissegundos(histograma.getMaxValue()));
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("requisicoes", histograma.getTotalCount());
+        resumo.put("erros", errosOperacao);
+        resumo.put("vazaoPorSegundo", arredondar(histograma.getTotalCount() / segundosMedidos));
+        resumo.put("latenciaMs", latenciaMs);
+        return resumo;
+    }
+
+    private static double emMilissegundos(double micros) {
+        return arredondar(micros / 1000.0);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.sistema.pedidos.carga;
+
+/**
+ * Operações do mix de carga, cada uma associada a um endpoint da API.
+ */
+enum Operacao {
+    CRIAR("criar", "POST /api/pedidos"),
+    LISTAR("listar", "GET /api/pedidos"),
+    BUSCAR_CLIENTE("buscarCliente", "GET /api/pedidos/cliente"),
+    BUSCAR_PRODUTO("buscarProduto", "GET /api/produtos/buscar"),
+    STATUS("status", "PATCH /api/pedidos/{id}/status"),
+    EXCLUIR("excluir", "DELETE /api/pedidos/{id}");
+
+    private final String nome;
+    private final String endpoint;
+
+    Operacao(String nome, String endpoint) {
+        this.nome = nome;
+        this.endpoint = endpoint;
+    }
+
+    static Operacao porNome(String nome) {
+        for (Operacao operacao : values()) {
+            if (operacao.nome.equals(nome)) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação de carga desconhecida: " + nome);
+    }
+
+    String getNome() {
+        return nome;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sistema.pedidos.config;
+
+import com.sistema.pedidos.model.ConsultaLenta;
+import com.sistema.pedidos.model.ConsultasLentasResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsultasLentasTest {
+
+    @Test
+    @DisplayName("Deve manter apenas as últimas consultas, da mais recente para a mais antiga")
+    void testBufferCircular() {
+        ConsultasLentas consultasLentas = new ConsultasLentas(true, Duration.ofMillis(100), 3, 1, 100);
+
+        for (int i = 1; i <= 5; i++) {
+            consultasLentas.registrar("SELECT " + i, TimeUnit.MILLISECONDS.toNanos(150), List.of());
+        }
+
+        ConsultasLentasResponse resposta = consultasLentas.listar();
+        assertEquals(5, resposta.getTotalRegistradas());
+        assertEquals(List.of("SELECT 5", "SELECT 4", "SELECT 3"),
+                resposta.getConsultas().stream().map(ConsultaLenta::getSql).toList());
+        assertEquals(150, resposta.getConsultas().get(0).getDuracaoMs());
+    }
+
+    @Test
+    @DisplayName("Deve limitar os logs por segundo e contar os suprimidos")
+    void testLimiteDeLogs() {
+        ConsultasLentas consultasLentas = new ConsultasLentas(true, Duration.ofMillis(100), 10, 1, 2);
+
+        for (int i = 0; i < 5; i++) {
+            consultasLentas.registrar("SELECT 1", TimeUnit.MILLISECONDS.toNanos(150), List.of());
+        }
+
+        // Sem virada de segundo no meio do laço, 2 são logadas e 3 suprimidas; com virada, no máximo 4 logadas
+        long suprimidos = consultasLentas.listar().getLogsSuprimidos();
+        assertTrue(suprimidos >= 1 && suprimidos <= 3, "suprimidos=" + suprimidos);
+    }
+
+    @Test
+    @DisplayName("Deve registrar via DataSource o SQL, o tipo dos parâmetros e o método de origem")
+    void testRegistroPeloDataSource() throws Exception {
+        ConsultasLentas consultasLentas = new ConsultasLentas(true, Duration.ZERO, 10, 1, 100);
+        MedicaoSqlDataSource dataSource = new MedicaoSqlDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:consultas-lentas;MODE=MySQL", "sa", ""), consultasLentas);
+
+        try (Connection conexao = dataSource.getConnection()) {
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("CREATE TABLE teste (id BIGINT, nome VARCHAR(50))");
+            }
+            try (PreparedStatement statement = conexao.prepareStatement("SELECT * FROM teste WHERE id = ? AND nome = ?")) {
+                statement.setLong(1, 42L);
+                statement.setString(2, "abc");
+                statement.executeQuery().close();
+            }
+        }
+
+        ConsultaLenta consulta = consultasLentas.listar().getConsultas().get(0);
+        assertEquals("SELECT * FROM teste WHERE id = ? AND nome = ?", consulta.getSql());
+        assertEquals(List.of("Long", "String(3)"), consulta.getParametros());
+        assertTrue(consulta.getOrigem().startsWith("ConsultasLentasTest.testRegistroPeloDataSource:"), consulta.getOrigem());
+        assertEquals("CREATE TABLE teste (id BIGINT, nome VARCHAR(50))", consultasLentas.listar().getConsultas().get(1).getSql());
+    }
+
+    @Test
+    @DisplayName("Deve envolver o DataSource para as consultas lentas mesmo com a medição por requisição desligada")
+    void testConsultasLentasSemMedicaoSql() {
+        ApplicationContextRunner contexto = new ApplicationContextRunner()
+                .withUserConfiguration(MedicaoSqlConfig.class)
+                .withBean(ConsultasLentas.class, () -> new ConsultasLentas(true, Duration.ZERO, 10, 1, 100))
+                .withBean(DataSource.class, () -> new DriverManagerDataSource("jdbc:h2:mem:consultas-lentas-config;MODE=MySQL", "sa", ""));
+
+        contexto.withPropertyValues("pedidos.medicao-sql.habilitada=false")
+                .run(aplicacao -> assertInstanceOf(MedicaoSqlDataSource.class, aplicacao.getBean(DataSource.class)));
+        contexto.withPropertyValues("pedidos.medicao-sql.habilitada=false", "pedidos.consultas-lentas.habilitada=false")
+                .run(aplicacao -> assertFalse(aplicacao.getBean(DataSource.class) instanceof MedicaoSqlDataSource));
+    }
+
+    @Test
+    @DisplayName("Não deve registrar consultas com o registro desligado")
+    void testConsultasLentasDesligadas() {
+        ConsultasLentas consultasLentas = new ConsultasLentas(false, Duration.ZERO, 10, 1, 100);
+
+        assertFalse(consultasLentas.acimaDoLimite(TimeUnit.SECONDS.toNanos(10)));
+    }
+}
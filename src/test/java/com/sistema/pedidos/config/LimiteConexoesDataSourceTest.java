@@ -0,0 +1,73 @@
+package com.sistema.pedidos.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+public class LimiteConexoesDataSourceTest {
+
+    @Test
+    @DisplayName("Deve limitar as conexões abertas e devolver a permissão uma única vez no close")
+    void testLimiteDeConexoes() throws Exception {
+        DataSource alvo = mock(DataSource.class);
+        when(alvo.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+        LimiteConexoesDataSource dataSource = new LimiteConexoesDataSource(alvo, 2, Duration.ofMillis(50));
+
+        Connection primeira = dataSource.getConnection();
+        Connection segunda = dataSource.getConnection();
+        assertEquals(0, dataSource.getPermissoesDisponiveis());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        primeira.close();
+        primeira.close();
+        assertEquals(1, dataSource.getPermissoesDisponiveis());
+
+        dataSource.getConnection();
+        assertEquals(0, dataSource.getPermissoesDisponiveis());
+        segunda.close();
+        assertEquals(1, dataSource.getPermissoesDisponiveis());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a permissão quando o pool falhar ao entregar a conexão")
+    void testFalhaDoPool() throws Exception {
+        DataSource alvo = mock(DataSource.class);
+        when(alvo.getConnection()).thenThrow(new SQLException("pool esgotado"));
+        LimiteConexoesDataSource dataSource = new LimiteConexoesDataSource(alvo, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getPermissoesDisponiveis());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o modo de threads virtuais antes do Java 21")
+    void testThreadsVirtuaisExigemJava21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThrows(IllegalStateException.class, () -> ThreadsVirtuaisConfig.criarExecutor("teste-"));
+    }
+
+    @Test
+    @DisplayName("Deve executar as tarefas em threads virtuais nomeadas")
+    void testExecutorDeThreadsVirtuais() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+
+        ExecutorService executor = ThreadsVirtuaisConfig.criarExecutor("teste-");
+        try {
+            String nome = executor.submit(() -> Thread.currentThread().toString()).get();
+            assertTrue(nome.startsWith("VirtualThread") && nome.contains("teste-0"), nome);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sistema.pedidos.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DSL de testes para orçamentos de SQL por endpoint. Cada medição é comparada com a baseline
+ * (chaves "&lt;id&gt;.statements" e "&lt;id&gt;.linhas") e pode receber limites explícitos:
+ *
+ * <pre>
+ * orcamento.medir("pedidos.criar-10-itens", () -&gt; mockMvc.perform(...))
+ *         .dentroDaBaseline()
+ *         .statementsNoMaximo(40);
+ * </pre>
+ *
+ * Os valores medidos são acumulados e podem ser gravados para atualizar a baseline.
+ */
+public final class OrcamentoSql {
+
+    @FunctionalInterface
+    public interface Acao {
+        void executar() throws Exception;
+    }
+
+    private final String recursoBaseline;
+    private final Properties baseline = new Properties();
+    private final Map<String, Long> medidos = new TreeMap<>();
+
+    private OrcamentoSql(String recursoBaseline) {
+        this.recursoBaseline = recursoBaseline;
+    }
+
+    public static OrcamentoSql carregar(String recursoBaseline) {
+        OrcamentoSql orcamento = new OrcamentoSql(recursoBaseline);
+        try (InputStream entrada = OrcamentoSql.class.getClassLoader().getResourceAsStream(recursoBaseline)) {
+            if (entrada != null) {
+                orcamento.baseline.load(entrada);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return orcamento;
+    }
+
+    public Resultado medir(String id, Acao acao) throws Exception {
+        MedicaoSql medicao = MedicaoSql.iniciar();
+        try {
+            acao.executar();
+        } finally {
+            medicao.close();
+        }
+        medidos.put(id + ".statements", (long) medicao.getStatements());
+        medidos.put(id + ".linhas", medicao.getLinhas());
+        return new Resultado(id, medicao);
+    }
+
+    // Grava as medições no formato da baseline, para revisão e cópia quando uma mudança for intencional
+    public void gravarMedicoes(Path arquivo) throws IOException {
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        try (Writer saida = Files.newBufferedWriter(arquivo)) {
+            for (Map.Entry<String, Long> entrada : medidos.entrySet()) {
+                saida.write(entrada.getKey() + "=" + entrada.getValue() + System.lineSeparator());
+            }
+        }
+    }
+
+    public final class Resultado {
+
+        private final String id;
+        private final MedicaoSql medicao;
+
+        private Resultado(String id, MedicaoSql medicao) {
+            this.id = id;
+            this.medicao = medicao;
+        }
+
+        public Resultado dentroDaBaseline() {
+            statementsNoMaximo(Math.toIntExact(valorBaseline(".statements")));
+            return linhasNoMaximo(valorBaseline(".linhas"));
+        }
+
+        public Resultado statementsNoMaximo(int limite) {
+            assertTrue(medicao.getStatements() <= limite,
+                    () -> id + ": " + medicao.getStatements() + " statements SQL, orçamento de " + limite + " (" + medicao + ")");
+            return this;
+        }
+
+        public Resultado linhasNoMaximo(long limite) {
+            assertTrue(medicao.getLinhas() <= limite,
+                    () -> id + ": " + medicao.getLinhas() + " linhas lidas, orçamento de " + limite + " (" + medicao + ")");
+            return this;
+        }
+
+        public MedicaoSql getMedicao() {
+            return medicao;
+        }
+
+        private long valorBaseline(String sufixo) {
+            String valor = baseline.getProperty(id + sufixo);
+            assertNotNull(valor, () -> id + sufixo + " não está em " + recursoBaseline + "; medido: " + medicao);
+            return Long.parseLong(valor.trim());
+        }
+    }
+}
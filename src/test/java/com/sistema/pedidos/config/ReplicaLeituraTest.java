@@ -0,0 +1,138 @@
+package com.sistema.pedidos.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dois bancos H2 fazem o papel de primário e réplica; a replicação é simulada copiando o primário com SCRIPT/RUNSCRIPT
+@SpringBootTest(properties = {
+        "pedidos.replica.habilitada=true",
+        "pedidos.replica.intervalo-batimento=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:pedidos-primario;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "pedidos.replica.datasource.url=jdbc:h2:mem:pedidos-replica;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "pedidos.replica.datasource.username=sa",
+        "pedidos.replica.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///pedidos-primario?options=MODE=MySQL;LOCK_TIMEOUT=10000"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class ReplicaLeituraTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLeitura replicaLeitura;
+
+    @TempDir
+    Path diretorio;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replicar();
+    }
+
+    @Test
+    @DisplayName("Deve ler da réplica e, com o token da escrita, do primário até a réplica alcançar a escrita")
+    void testLeituraComTokenDeConsistencia() throws Exception {
+        MvcResult criacao = mockMvc.perform(post("/api/produtos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProdutoEntity("Produto Replicado", null, new BigDecimal("10.00"), 5))))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ConsistenciaLeitura.CABECALHO))
+                .andReturn();
+        String token = criacao.getResponse().getHeader(ConsistenciaLeitura.CABECALHO);
+        long id = objectMapper.readTree(criacao.getResponse().getContentAsString()).get("id").asLong();
+
+        // A réplica ainda não recebeu o produto
+        mockMvc.perform(get("/api/produtos/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/produtos/{id}", id).header(ConsistenciaLeitura.CABECALHO, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Produto Replicado"));
+
+        replicar();
+        marcarNaReplica(id);
+
+        // Com a réplica atualizada, a mesma leitura com token volta para a réplica
+        mockMvc.perform(get("/api/produtos/{id}", id).header(ConsistenciaLeitura.CABECALHO, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Lido da réplica"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver token que cresce a cada escrita e não devolver token em leituras")
+    void testTokenSomenteEmEscritas() throws Exception {
+        MvcResult criacao = mockMvc.perform(post("/api/produtos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProdutoEntity("Produto Token", null, new BigDecimal("10.00"), 5))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long primeiroToken = Long.parseLong(criacao.getResponse().getHeader(ConsistenciaLeitura.CABECALHO));
+        long id = objectMapper.readTree(criacao.getResponse().getContentAsString()).get("id").asLong();
+        Thread.sleep(2);
+
+        MvcResult atualizacao = mockMvc.perform(put("/api/produtos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProdutoEntity("Produto Token 2", null, new BigDecimal("11.00"), 5))))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue(Long.parseLong(atualizacao.getResponse().getHeader(ConsistenciaLeitura.CABECALHO)) > primeiroToken);
+
+        mockMvc.perform(get("/api/produtos"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ConsistenciaLeitura.CABECALHO));
+    }
+
+    // Faz o papel do job de batimento e da replicação: o batimento gravado depois das escritas chega à réplica junto com elas
+    private void replicar() throws Exception {
+        Thread.sleep(2);
+        replicaLeitura.registrarBatimento();
+        String arquivo = diretorio.resolve("primario.sql").toString();
+        try (Connection conexao = replicaLeitura.getPrimario().getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("SCRIPT TO '" + arquivo + "'");
+        }
+        try (Connection conexao = replicaLeitura.getReplica().getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + arquivo + "'");
+        }
+        replicaLeitura.atualizarPosicao();
+    }
+
+    private void marcarNaReplica(long id) throws Exception {
+        try (Connection conexao = replicaLeitura.getReplica().getConnection();
+             PreparedStatement update = conexao.prepareStatement("UPDATE produtos SET nome = 'Lido da réplica' WHERE id = ?")) {
+            update.setLong(1, id);
+            assertEquals(1, update.executeUpdate());
+        }
+    }
+}
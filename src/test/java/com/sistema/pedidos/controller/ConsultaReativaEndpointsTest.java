@@ -0,0 +1,110 @@
+package com.sistema.pedidos.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.service.PedidoService;
+import com.sistema.pedidos.service.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class ConsultaReativaEndpointsTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    private String cliente;
+    private Long produtoId;
+    private Long pedidoId;
+
+    @BeforeEach
+    void setUp() {
+        cliente = "Cliente Reativo " + UUID.randomUUID();
+        produtoId = produtoService.salvar(new ProdutoEntity("Produto Reativo " + cliente, null, new BigDecimal("12.50"), 100)).getId();
+        pedidoId = pedidoService.salvar(new PedidoRequest(cliente, null, null, null, null,
+                List.of(new ItemPedidoRequest(produtoId, 2)))).getId();
+        pedidoService.salvar(new PedidoRequest(cliente, null, null, null, null,
+                List.of(new ItemPedidoRequest(produtoId, 1))));
+    }
+
+    @Test
+    @DisplayName("Deve emitir em NDJSON os pedidos gravados via JPA, um por linha")
+    void testBuscarPorClienteNdjson() throws Exception {
+        HttpResponse<String> resposta = get("/api/reactive/pedidos/cliente?cliente=" + cliente.replace(" ", "%20"),
+                MediaType.APPLICATION_NDJSON_VALUE);
+
+        assertEquals(200, resposta.statusCode());
+        assertTrue(resposta.headers().firstValue("Content-Type").orElseThrow().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+        List<String> linhas = resposta.body().lines().filter(linha -> !linha.isBlank()).toList();
+        assertEquals(2, linhas.size());
+        JsonNode primeiro = objectMapper.readTree(linhas.get(0));
+        assertEquals(cliente, primeiro.get("cliente").asText());
+        assertEquals("PENDENTE", primeiro.get("status").asText());
+        assertEquals(0, new BigDecimal("25.00").compareTo(primeiro.get("valorTotal").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("Deve emitir os produtos como eventos SSE quando o cliente pede text/event-stream")
+    void testBuscarProdutosPorNomeSse() throws Exception {
+        HttpResponse<String> resposta = get("/api/reactive/produtos/buscar?nome=" + cliente.replace(" ", "%20"),
+                MediaType.TEXT_EVENT_STREAM_VALUE);
+
+        assertEquals(200, resposta.statusCode());
+        List<String> eventos = resposta.body().lines().filter(linha -> linha.startsWith("data:")).toList();
+        assertEquals(1, eventos.size());
+        JsonNode produto = objectMapper.readTree(eventos.get(0).substring("data:".length()));
+        assertEquals(produtoId, produto.get("id").asLong());
+        // Estoque já baixado pelos dois pedidos
+        assertEquals(97, produto.get("quantidadeEstoque").asInt());
+    }
+
+    @Test
+    @DisplayName("Deve retornar o pedido por ID e 404 para ID inexistente")
+    void testBuscarPorId() throws Exception {
+        HttpResponse<String> encontrado = get("/api/reactive/pedidos/" + pedidoId, MediaType.APPLICATION_JSON_VALUE);
+        assertEquals(200, encontrado.statusCode());
+        assertEquals(cliente, objectMapper.readTree(encontrado.body()).get("cliente").asText());
+
+        HttpResponse<String> inexistente = get("/api/reactive/pedidos/999999", MediaType.APPLICATION_JSON_VALUE);
+        assertEquals(404, inexistente.statusCode());
+    }
+
+    private HttpResponse<String> get(String caminho, String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Accept", accept)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,303 @@
+package com.sistema.pedidos.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.config.OrcamentoSql;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.service.PedidoService;
+import com.sistema.pedidos.service.ProdutoService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de statements SQL e linhas lidas por endpoint, comparado com
+ * src/test/resources/orcamento-sql-baseline.properties. As medições da execução são gravadas em
+ * target/orcamento-sql-medido.properties; quando uma mudança reduzir (ou justificadamente aumentar)
+ * os números, copie-as para a baseline.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class OrcamentoSqlEndpointsTest {
+
+    private static final OrcamentoSql orcamento = OrcamentoSql.carregar("orcamento-sql-baseline.properties");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    private final List<Long> produtos = new ArrayList<>();
+    private Long produtoSemPedidos;
+    private Long pedidoPendente;
+    private Long outroPedidoPendente;
+    private Long pedidoAprovado;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM itens_pedido");
+        jdbcTemplate.update("DELETE FROM pedidos");
+        jdbcTemplate.update("DELETE FROM produtos");
+
+        // Massa fixa: 10 produtos, 3 pedidos de 2 itens (2 do mesmo cliente) e um produto sem pedidos
+        produtos.clear();
+        for (int i = 1; i <= 10; i++) {
+            produtos.add(produtoService.salvar(
+                    new ProdutoEntity("Produto " + i, "Descrição " + i, new BigDecimal("10.00"), 1000)).getId());
+        }
+        produtoSemPedidos = produtoService.salvar(
+                new ProdutoEntity("Avulso", null, new BigDecimal("5.00"), 10)).getId();
+
+        pedidoPendente = criarPedido("Ana", produtos.get(0), produtos.get(1));
+        outroPedidoPendente = criarPedido("Ana", produtos.get(2), produtos.get(3));
+        pedidoAprovado = criarPedido("Bruno", produtos.get(4), produtos.get(5));
+        pedidoService.atualizarStatus(pedidoAprovado, PedidoEntity.StatusPedido.APROVADO);
+    }
+
+    @AfterAll
+    static void gravarMedicoes() throws Exception {
+        orcamento.gravarMedicoes(Path.of("target/orcamento-sql-medido.properties"));
+    }
+
+    // PedidoController
+
+    @Test
+    @DisplayName("GET /api/pedidos")
+    void listarPedidos() throws Exception {
+        orcamento.medir("pedidos.listar", () -> mockMvc.perform(get("/api/pedidos"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("GET /api/pedidos/{id}")
+    void buscarPedidoPorId() throws Exception {
+        orcamento.medir("pedidos.buscar-por-id", () -> mockMvc.perform(get("/api/pedidos/{id}", pedidoPendente))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("GET /api/pedidos/cliente")
+    void buscarPedidosPorCliente() throws Exception {
+        orcamento.medir("pedidos.buscar-por-cliente", () -> mockMvc.perform(get("/api/pedidos/cliente").param("cliente", "Ana"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("GET /api/pedidos/periodo")
+    void buscarPedidosPorPeriodo() throws Exception {
+        orcamento.medir("pedidos.buscar-por-periodo", () -> mockMvc.perform(get("/api/pedidos/periodo")
+                        .param("inicio", "2000-01-01T00:00:00")
+                        .param("fim", "2100-01-01T00:00:00"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("GET /api/pedidos/status/{status}")
+    void buscarPedidosPorStatus() throws Exception {
+        orcamento.medir("pedidos.buscar-por-status", () -> mockMvc.perform(get("/api/pedidos/status/PENDENTE"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("POST /api/pedidos com 1 item")
+    void criarPedidoComUmItem() throws Exception {
+        PedidoRequest request = pedidoRequest("Carla", produtos.subList(0, 1));
+        orcamento.medir("pedidos.criar-1-item", () -> mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("POST /api/pedidos com 10 itens")
+    void criarPedidoComDezItens() throws Exception {
+        PedidoRequest request = pedidoRequest("Carla", produtos);
+        orcamento.medir("pedidos.criar-10-itens", () -> mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PUT /api/pedidos/{id}")
+    void atualizarPedido() throws Exception {
+        Map<String, Object> corpo = Map.of("cliente", "Ana Maria", "observacao", "Entregar pela manhã");
+        orcamento.medir("pedidos.atualizar", () -> mockMvc.perform(put("/api/pedidos/{id}", pedidoPendente)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(corpo)))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PATCH /api/pedidos/{id}/status para APROVADO")
+    void aprovarPedido() throws Exception {
+        orcamento.medir("pedidos.atualizar-status", () -> mockMvc.perform(patch("/api/pedidos/{id}/status", pedidoPendente)
+                        .param("status", "APROVADO"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PATCH /api/pedidos/{id}/status para CANCELADO")
+    void cancelarPedido() throws Exception {
+        orcamento.medir("pedidos.cancelar", () -> mockMvc.perform(patch("/api/pedidos/{id}/status", pedidoPendente)
+                        .param("status", "CANCELADO"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PATCH /api/pedidos/status com 3 pedidos")
+    void cancelarPedidosEmLote() throws Exception {
+        Map<String, Object> corpo = Map.of(
+                "ids", List.of(pedidoPendente, outroPedidoPendente, pedidoAprovado),
+                "status", "CANCELADO");
+        orcamento.medir("pedidos.atualizar-status-lote", () -> mockMvc.perform(patch("/api/pedidos/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(corpo)))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("DELETE /api/pedidos/{id}")
+    void excluirPedido() throws Exception {
+        orcamento.medir("pedidos.excluir", () -> mockMvc.perform(delete("/api/pedidos/{id}", pedidoPendente))
+                .andExpect(status().isNoContent())).dentroDaBaseline();
+    }
+
+    // ProdutoController
+
+    @Test
+    @DisplayName("GET /api/produtos")
+    void listarProdutos() throws Exception {
+        orcamento.medir("produtos.listar", () -> mockMvc.perform(get("/api/produtos"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("GET /api/produtos/{id}")
+    void buscarProdutoPorId() throws Exception {
+        orcamento.medir("produtos.buscar-por-id", () -> mockMvc.perform(get("/api/produtos/{id}", produtos.get(0)))
+                .andExpect(status().isOk()))
+                .dentroDaBaseline()
+                .statementsNoMaximo(1);
+    }
+
+    @Test
+    @DisplayName("GET /api/produtos/buscar")
+    void buscarProdutosPorNome() throws Exception {
+        orcamento.medir("produtos.buscar-por-nome", () -> mockMvc.perform(get("/api/produtos/buscar").param("nome", "produto"))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("POST /api/produtos")
+    void criarProduto() throws Exception {
+        ProdutoEntity produto = new ProdutoEntity("Novo", "Novo produto", new BigDecimal("12.50"), 5);
+        orcamento.medir("produtos.criar", () -> mockMvc.perform(post("/api/produtos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(produto)))
+                .andExpect(status().isCreated())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("POST /api/produtos/importacao com 10 linhas")
+    void importarProdutos() throws Exception {
+        StringBuilder csv = new StringBuilder("id,nome,descricao,preco,quantidadeEstoque\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append(produtos.get(i)).append(",Produto ").append(i).append(",,11.00,100\n");
+        }
+        for (int i = 0; i < 5; i++) {
+            csv.append(",Importado ").append(i).append(",,7.00,20\n");
+        }
+        orcamento.medir("produtos.importar-10-linhas", () -> mockMvc.perform(post("/api/produtos/importacao")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PATCH /api/produtos/lote com ajuste comum a 10 produtos")
+    void ajustarProdutosEmLote() throws Exception {
+        Map<String, Object> corpo = Map.of(
+                "ids", produtos,
+                "tipoAjustePreco", "PERCENTUAL",
+                "valorPreco", 5,
+                "tipoAjusteEstoque", "DELTA",
+                "valorEstoque", -1);
+        orcamento.medir("produtos.ajustar-lote", () -> mockMvc.perform(patch("/api/produtos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(corpo)))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PATCH /api/produtos/lote com valores individuais para 10 produtos")
+    void ajustarProdutosIndividualmente() throws Exception {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (Long id : produtos) {
+            itens.add(Map.of("id", id, "preco", new BigDecimal("15.00"), "quantidadeEstoque", 50));
+        }
+        orcamento.medir("produtos.ajustar-lote-itens", () -> mockMvc.perform(patch("/api/produtos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("itens", itens))))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("PUT /api/produtos/{id}")
+    void atualizarProduto() throws Exception {
+        ProdutoEntity produto = new ProdutoEntity("Produto 1", "Atualizado", new BigDecimal("10.50"), 900);
+        orcamento.medir("produtos.atualizar", () -> mockMvc.perform(put("/api/produtos/{id}", produtos.get(0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(produto)))
+                .andExpect(status().isOk())).dentroDaBaseline();
+    }
+
+    @Test
+    @DisplayName("DELETE /api/produtos/{id}")
+    void excluirProduto() throws Exception {
+        orcamento.medir("produtos.excluir", () -> mockMvc.perform(delete("/api/produtos/{id}", produtoSemPedidos))
+                .andExpect(status().isNoContent())).dentroDaBaseline();
+    }
+
+    private Long criarPedido(String cliente, Long... produtoIds) {
+        return pedidoService.salvar(pedidoRequest(cliente, List.of(produtoIds))).getId();
+    }
+
+    private static PedidoRequest pedidoRequest(String cliente, List<Long> produtoIds) {
+        List<ItemPedidoRequest> itens = new ArrayList<>();
+        for (Long produtoId : produtoIds) {
+            itens.add(new ItemPedidoRequest(produtoId, 1));
+        }
+        return new PedidoRequest(cliente, null, null, null, null, itens);
+    }
+}
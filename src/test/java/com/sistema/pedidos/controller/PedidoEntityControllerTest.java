@@ -5,6 +5,11 @@ import com.sistema.pedidos.entity.ItemPedidoEntity;
 import com.sistema.pedidos.entity.PedidoEntity;
 import com.sistema.pedidos.entity.ProdutoEntity;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteRequest;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteResponse;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.service.ConsultaPeriodoParalelaService;
 import com.sistema.pedidos.service.PedidoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,13 +19,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -39,6 +49,9 @@ public class PedidoEntityControllerTest {
     @MockBean
     private PedidoService pedidoService;
 
+    @MockBean
+    private ConsultaPeriodoParalelaService consultaPeriodoParalelaService;
+
     private PedidoEntity pedidoEntity;
     private LocalDateTime dataPedido;
 
@@ -116,6 +129,41 @@ public class PedidoEntityControllerTest {
         verify(pedidoService, times(1)).buscarPorId(99L);
     }
 
+    @Test
+    @DisplayName("Deve transmitir os pedidos do período em NDJSON, uma linha por pedido")
+    @SuppressWarnings("unchecked")
+    void testTransmitirPorPeriodo() throws Exception {
+        // Arrange
+        PedidoEntity outroPedido = new PedidoEntity(2L, "Outro Cliente", dataPedido.plusDays(1), null,
+                new BigDecimal("10.00"), PedidoEntity.StatusPedido.ENTREGUE);
+        doAnswer(invocacao -> {
+            Consumer<List<PedidoEntity>> destino = invocacao.getArgument(2);
+            destino.accept(List.of(pedidoEntity));
+            destino.accept(List.of(outroPedido));
+            return null;
+        }).when(consultaPeriodoParalelaService).buscar(any(), any(), any(Consumer.class));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/periodo/stream")
+                        .param("inicio", "2024-01-01T00:00:00")
+                        .param("fim", "2024-03-31T23:59:59"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(1L, objectMapper.readTree(linhas[0]).get("id").asLong());
+        assertEquals(1, objectMapper.readTree(linhas[0]).get("itens").size());
+        assertEquals(2L, objectMapper.readTree(linhas[1]).get("id").asLong());
+        verify(consultaPeriodoParalelaService).buscar(eq(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 3, 31, 23, 59, 59)), any(Consumer.class));
+    }
+
     @Test
     @DisplayName("Deve retornar pedidos por cliente")
     void testBuscarPorCliente() throws Exception {
@@ -139,23 +187,15 @@ public class PedidoEntityControllerTest {
     @DisplayName("Deve criar um novo pedido com itens")
     void testCriar() throws Exception {
         // Arrange
-        PedidoEntity novoPedidoEntity = new PedidoEntity();
-        novoPedidoEntity.setCliente("Novo Cliente");
-        novoPedidoEntity.setObservacao("Nova observação");
-
-        ProdutoEntity produtoEntityExistente = new ProdutoEntity(1L, "Produto", "Descrição", new BigDecimal("10.00"), 20);
-        ItemPedidoEntity novoItem = new ItemPedidoEntity();
-        novoItem.setProduto(produtoEntityExistente);
-        novoItem.setQuantidade(2);
+        PedidoRequest novoPedido = new PedidoRequest("Novo Cliente", null, "Nova observação", null, null,
+                Collections.singletonList(new ItemPedidoRequest(1L, 2)));
 
-        novoPedidoEntity.getItens().add(novoItem);
-
-        when(pedidoService.salvar(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(pedidoService.salvar(any(PedidoRequest.class))).thenReturn(pedidoEntity);
 
         // Act & Assert
         mockMvc.perform(post("/api/pedidos")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(novoPedidoEntity)))
+                        .content(objectMapper.writeValueAsString(novoPedido)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.cliente", is("Cliente Teste")))
@@ -163,7 +203,7 @@ public class PedidoEntityControllerTest {
                 .andExpect(jsonPath("$.itens", hasSize(1)))
                 .andExpect(jsonPath("$.itens[0].quantidade", is(1)));
 
-        verify(pedidoService, times(1)).salvar(any(PedidoEntity.class));
+        verify(pedidoService, times(1)).salvar(any(PedidoRequest.class));
     }
 
     @Test
@@ -199,4 +239,27 @@ public class PedidoEntityControllerTest {
 
         verify(pedidoService, times(1)).excluir(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve atualizar o status de vários pedidos em lote")
+    void testAtualizarStatusEmLote() throws Exception {
+        // Arrange
+        AtualizacaoStatusLoteRequest request = new AtualizacaoStatusLoteRequest(
+                new LinkedHashSet<>(Arrays.asList(1L, 2L)), PedidoEntity.StatusPedido.APROVADO);
+
+        when(pedidoService.atualizarStatusEmLote(any(), eq(PedidoEntity.StatusPedido.APROVADO))).thenReturn(
+                new AtualizacaoStatusLoteResponse(PedidoEntity.StatusPedido.APROVADO,
+                        Collections.singletonList(1L), Collections.singletonList(2L)));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/pedidos/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("APROVADO")))
+                .andExpect(jsonPath("$.atualizados", contains(1)))
+                .andExpect(jsonPath("$.rejeitados", contains(2)));
+
+        verify(pedidoService, times(1)).atualizarStatusEmLote(any(), eq(PedidoEntity.StatusPedido.APROVADO));
+    }
+}
@@ -3,6 +3,12 @@ package com.sistema.pedidos.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sistema.pedidos.entity.ProdutoEntity;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.model.AjusteProdutosLoteRequest;
+import com.sistema.pedidos.model.AjusteProdutosLoteResponse;
+import com.sistema.pedidos.model.ErroImportacao;
+import com.sistema.pedidos.model.ImportacaoProdutosResponse;
+import com.sistema.pedidos.service.AjusteProdutoLoteService;
+import com.sistema.pedidos.service.ImportacaoProdutoService;
 import com.sistema.pedidos.service.ProdutoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -37,6 +44,12 @@ public class ProdutoEntityControllerTest {
     @MockBean
     private ProdutoService produtoService;
 
+    @MockBean
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    @MockBean
+    private AjusteProdutoLoteService ajusteProdutoLoteService;
+
     private ProdutoEntity produtoEntity;
 
     @BeforeEach
@@ -183,4 +196,46 @@ public class ProdutoEntityControllerTest {
 
         verify(produtoService, never()).salvar(any(ProdutoEntity.class));
     }
+
+    @Test
+    @DisplayName("Deve importar produtos a partir de um CSV")
+    void testImportar() throws Exception {
+        // Arrange
+        when(importacaoProdutoService.importar(any())).thenReturn(new ImportacaoProdutosResponse(2, 1, 0, 1,
+                Collections.singletonList(new ErroImportacao(3, "Preço inválido: 'abc'")), 5));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/produtos/importacao")
+                        .contentType("text/csv")
+                        .content("nome,preco,quantidadeEstoque\nProduto,10,1\nOutro,abc,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inseridos", is(1)))
+                .andExpect(jsonPath("$.totalErros", is(1)))
+                .andExpect(jsonPath("$.erros[0].linha", is(3)));
+
+        verify(importacaoProdutoService, times(1)).importar(any());
+    }
+
+    @Test
+    @DisplayName("Deve ajustar preço de vários produtos em lote")
+    void testAjustarEmLote() throws Exception {
+        // Arrange
+        AjusteProdutosLoteRequest request = new AjusteProdutosLoteRequest();
+        request.setIds(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+        request.setTipoAjustePreco(AjusteProdutosLoteRequest.TipoAjustePreco.PERCENTUAL);
+        request.setValorPreco(new BigDecimal("5"));
+
+        when(ajusteProdutoLoteService.ajustar(any(AjusteProdutosLoteRequest.class))).thenReturn(
+                new AjusteProdutosLoteResponse(Collections.singletonList(1L), Collections.singletonList(2L)));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/produtos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atualizados", contains(1)))
+                .andExpect(jsonPath("$.rejeitados", contains(2)));
+
+        verify(ajusteProdutoLoteService, times(1)).ajustar(any(AjusteProdutosLoteRequest.class));
+    }
 }
@@ -0,0 +1,117 @@
+package com.sistema.pedidos.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.service.ProdutoService;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("h2")
+public class RastreamentoEndpointsTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @TestConfiguration
+    static class ExportadorEmMemoria {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private InMemorySpanExporter exportador;
+
+    private Long produtoId;
+
+    @BeforeEach
+    void setUp() {
+        produtoId = produtoService.salvar(new ProdutoEntity("Produto Rastreado", null, new BigDecimal("10.00"), 100)).getId();
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        exportador.reset();
+    }
+
+    @Test
+    @DisplayName("Deve continuar o trace W3C recebido com spans de controller, service e repositório")
+    void testCriarPedidoContinuaTrace() throws Exception {
+        PedidoRequest request = new PedidoRequest("Cliente Rastreado", null, null, null, null,
+                List.of(new ItemPedidoRequest(produtoId, 1)));
+
+        mockMvc.perform(post("/api/pedidos")
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        List<SpanData> spans = spansExportados();
+        assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(TRACE_ID)));
+
+        Map<String, SpanData> porNome = spans.stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity(), (primeiro, segundo) -> primeiro));
+        SpanData controller = porNome.get("PedidoController.criar");
+        SpanData service = porNome.get("PedidoService.salvar");
+        assertNotNull(controller, "Spans exportados: " + porNome.keySet());
+        assertNotNull(service, "Spans exportados: " + porNome.keySet());
+        assertEquals(controller.getSpanId(), service.getParentSpanId());
+        assertEquals(service.getSpanId(), porNome.get("ProdutoService.buscarPorId").getParentSpanId());
+        assertEquals(service.getSpanId(), porNome.get("PedidoRepository.save").getParentSpanId());
+    }
+
+    @Test
+    @DisplayName("Não deve criar spans quando a origem decidiu não amostrar o trace")
+    void testTraceNaoAmostrado() throws Exception {
+        mockMvc.perform(get("/api/pedidos")
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-00"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of(), spansExportados());
+    }
+
+    private List<SpanData> spansExportados() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        return exportador.getFinishedSpanItems();
+    }
+}
@@ -0,0 +1,85 @@
+package com.sistema.pedidos.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sistema.pedidos.model.ErroResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(Duration.ofMinutes(1));
+
+    private final ch.qos.logback.classic.Logger logger =
+            (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private final ListAppender<ILoggingEvent> logs = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        logs.start();
+        logger.addAppender(logs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(logs);
+    }
+
+    @Test
+    @DisplayName("Exceções de domínio não devem capturar a pilha de chamadas")
+    void testExcecoesSemPilha() {
+        assertEquals(0, new BadRequestException("inválido").getStackTrace().length);
+        assertEquals(0, new ResourceNotFoundException("Pedido", "id", 1L).getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("Deve responder erros 4xx sem logar cada um e logar a contagem agregada por tipo")
+    void testErrosAgregados() {
+        ResponseEntity<?> resposta = handler.handleResourceNotFoundException(
+                new ResourceNotFoundException("Pedido", "id", 99L), null);
+        handler.handleResourceNotFoundException(new ResourceNotFoundException("Pedido", "id", 98L), null);
+        handler.handleBadRequestException(new BadRequestException("inválido"), null);
+
+        assertEquals(HttpStatus.NOT_FOUND, resposta.getStatusCode());
+        ErroResponse body = (ErroResponse) resposta.getBody();
+        assertEquals("Pedido não encontrado com id: '99'", body.getMessage());
+        assertEquals(404, body.getStatus());
+        assertTrue(logs.list.isEmpty());
+
+        handler.registrarErrosAgregados();
+
+        assertEquals(1, logs.list.size());
+        ILoggingEvent evento = logs.list.get(0);
+        assertEquals(Level.WARN, evento.getLevel());
+        assertEquals("message=Erros de requisição no intervalo, intervalo=PT1M, contagens={BadRequestException=1, ResourceNotFoundException=2}",
+                evento.getFormattedMessage());
+
+        // Intervalo sem erros não gera log
+        handler.registrarErrosAgregados();
+        assertEquals(1, logs.list.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter a pilha completa no log do erro interno")
+    void testErroInternoComPilha() {
+        ResponseEntity<?> resposta = handler.handleGlobalException(new IllegalStateException("falha"), null);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, resposta.getStatusCode());
+        assertEquals("falha", ((ErroResponse) resposta.getBody()).getError());
+        List<ILoggingEvent> erros = logs.list.stream().filter(evento -> evento.getLevel() == Level.ERROR).toList();
+        assertEquals(1, erros.size());
+        assertNotNull(erros.get(0).getThrowableProxy());
+        assertTrue(erros.get(0).getThrowableProxy().getStackTraceElementProxyArray().length > 0);
+    }
+}
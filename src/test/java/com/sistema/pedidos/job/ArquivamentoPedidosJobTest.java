@@ -0,0 +1,72 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.model.ArquivamentoMetricas;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.service.ArquivamentoPedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArquivamentoPedidosJobTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private ArquivamentoPedidoService arquivamentoPedidoService;
+
+    private ArquivamentoPedidosJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ArquivamentoPedidosJob(pedidoRepository, arquivamentoPedidoService, true, Duration.ofDays(90), 2, Duration.ZERO, 10);
+    }
+
+    @Test
+    @DisplayName("Deve arquivar pedidos finalizados antigos em lotes até esgotar")
+    void testExecutar() {
+        // Arrange
+        when(pedidoRepository.findIdsByStatusInAndDataPedidoBefore(eq(ArquivamentoPedidoService.STATUS_FINAIS), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(arquivamentoPedidoService.arquivarLote(List.of(1L, 2L))).thenReturn(2);
+        when(arquivamentoPedidoService.arquivarLote(List.of(3L))).thenReturn(1);
+
+        // Act
+        job.executar();
+
+        // Assert
+        ArquivamentoMetricas metricas = job.getMetricas();
+        assertEquals(1, metricas.getExecucoes());
+        assertEquals(2, metricas.getLotesProcessados());
+        assertEquals(3, metricas.getPedidosArquivados());
+        assertNotNull(metricas.getUltimaExecucao());
+        verify(pedidoRepository, times(2)).findIdsByStatusInAndDataPedidoBefore(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Não deve executar quando desabilitado")
+    void testExecutarDesabilitado() {
+        // Arrange
+        job = new ArquivamentoPedidosJob(pedidoRepository, arquivamentoPedidoService, false, Duration.ofDays(90), 2, Duration.ZERO, 10);
+
+        // Act
+        job.executar();
+
+        // Assert
+        assertEquals(0, job.getMetricas().getExecucoes());
+        verifyNoInteractions(pedidoRepository, arquivamentoPedidoService);
+    }
+}
@@ -0,0 +1,91 @@
+package com.sistema.pedidos.job;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.model.CancelamentoAutomaticoMetricas;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.service.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CancelamentoAutomaticoJobTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    private CancelamentoAutomaticoJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new CancelamentoAutomaticoJob(pedidoRepository, pedidoService, null, true, Duration.ofDays(3), 2, Duration.ZERO, 10);
+    }
+
+    @Test
+    @DisplayName("Deve cancelar pedidos pendentes antigos em lotes até esgotar")
+    void testExecutar() {
+        // Arrange
+        when(pedidoRepository.findIdsByStatusAndDataPedidoBefore(eq(PedidoEntity.StatusPedido.PENDENTE), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(pedidoService.cancelarPendentesEmLote(List.of(1L, 2L))).thenReturn(2);
+        when(pedidoService.cancelarPendentesEmLote(List.of(3L))).thenReturn(1);
+
+        // Act
+        job.executar();
+
+        // Assert
+        CancelamentoAutomaticoMetricas metricas = job.getMetricas();
+        assertEquals(1, metricas.getExecucoes());
+        assertEquals(2, metricas.getLotesProcessados());
+        assertEquals(3, metricas.getPedidosCancelados());
+        assertEquals(0, metricas.getAtrasoSegundos());
+        verify(pedidoRepository, times(2)).findIdsByStatusAndDataPedidoBefore(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de lotes por execução")
+    void testExecutarLimiteDeLotes() {
+        // Arrange
+        job = new CancelamentoAutomaticoJob(pedidoRepository, pedidoService, null, true, Duration.ofDays(3), 2, Duration.ZERO, 1);
+        when(pedidoRepository.findIdsByStatusAndDataPedidoBefore(eq(PedidoEntity.StatusPedido.PENDENTE), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(pedidoService.cancelarPendentesEmLote(List.of(1L, 2L))).thenReturn(2);
+
+        // Act
+        job.executar();
+
+        // Assert
+        assertEquals(1, job.getMetricas().getLotesProcessados());
+        verify(pedidoService, times(1)).cancelarPendentesEmLote(any());
+    }
+
+    @Test
+    @DisplayName("Não deve executar quando desabilitado")
+    void testExecutarDesabilitado() {
+        // Arrange
+        job = new CancelamentoAutomaticoJob(pedidoRepository, pedidoService, null, false, Duration.ofDays(3), 2, Duration.ZERO, 10);
+
+        // Act
+        job.executar();
+
+        // Assert
+        assertEquals(0, job.getMetricas().getExecucoes());
+        verifyNoInteractions(pedidoRepository, pedidoService);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sistema.pedidos.metricas;
+
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.model.GravacaoJfrResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GravacaoJfrTest {
+
+    private final GravacaoJfr gravacaoJfr = new GravacaoJfr(Duration.ofMinutes(5), DataSize.ofMegabytes(20), "default");
+
+    @AfterEach
+    void encerrar() {
+        gravacaoJfr.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve gravar os eventos de fase e entregá-los no arquivo despejado")
+    void testDespejarGravacao() throws Exception {
+        GravacaoJfrResponse iniciada = gravacaoJfr.iniciar(Duration.ofMinutes(1));
+        assertEquals("RUNNING", iniciada.getEstado());
+        assertEquals(60, iniciada.getDuracaoSegundos());
+        assertEquals(DataSize.ofMegabytes(20).toBytes(), iniciada.getTamanhoMaximoBytes());
+
+        FasePedidoEvent.iniciar(FasePedidoEvent.SALVAR, FasePedidoEvent.Fase.INSERCAO_PEDIDO, 42L, 3).commit();
+
+        Path arquivo = gravacaoJfr.despejar();
+        try {
+            List<RecordedEvent> fases = RecordingFile.readAllEvents(arquivo).stream()
+                    .filter(evento -> evento.getEventType().getName().equals("com.sistema.pedidos.FasePedido"))
+                    .toList();
+            assertEquals(1, fases.size());
+            assertEquals("INSERCAO_PEDIDO", fases.get(0).getString("fase"));
+            assertEquals(42L, fases.get(0).getLong("pedidoId"));
+            assertEquals(3, fases.get(0).getInt("quantidadeItens"));
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve permitir apenas uma gravação por vez, dentro da duração máxima")
+    void testLimitesDaGravacao() {
+        assertThrows(ResourceNotFoundException.class, gravacaoJfr::consultar);
+        assertThrows(BadRequestException.class, () -> gravacaoJfr.iniciar(Duration.ofMinutes(6)));
+        assertThrows(BadRequestException.class, () -> gravacaoJfr.iniciar(Duration.ZERO));
+
+        gravacaoJfr.iniciar(Duration.ofSeconds(30));
+
+        assertThrows(BadRequestException.class, () -> gravacaoJfr.iniciar(Duration.ofSeconds(30)));
+        assertEquals("RUNNING", gravacaoJfr.consultar().getEstado());
+    }
+}
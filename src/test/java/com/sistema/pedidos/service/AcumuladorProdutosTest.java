@@ -0,0 +1,52 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.model.CriterioRanking;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AcumuladorProdutosTest {
+
+    @Test
+    @DisplayName("Deve manter os totais ao crescer e selecionar os maiores pelo heap limitado")
+    void testCrescimentoESelecao() {
+        // Arrange: mais produtos que a capacidade inicial, em duas partições
+        AcumuladorProdutos primeira = new AcumuladorProdutos();
+        AcumuladorProdutos segunda = new AcumuladorProdutos();
+        for (long produtoId = 1; produtoId <= 1000; produtoId++) {
+            primeira.adicionar(produtoId, produtoId, produtoId, produtoId * 100);
+            segunda.adicionar(produtoId, 5000 + produtoId, 1, 50);
+        }
+
+        // Act
+        primeira.somar(segunda);
+        List<TotalVendasProduto> maiores = primeira.maiores(3, CriterioRanking.QUANTIDADE);
+
+        // Assert
+        assertEquals(1000, primeira.tamanho());
+        assertEquals(List.of(1000L, 999L, 998L), maiores.stream().map(TotalVendasProduto::getProdutoId).toList());
+        assertEquals(1001, maiores.get(0).getQuantidadeVendida());
+        assertEquals(2, maiores.get(0).getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("1000.50").compareTo(maiores.get(0).getValorTotal()));
+    }
+
+    @Test
+    @DisplayName("Deve contar o pedido uma vez por produto quando os itens chegam em sequência")
+    void testPedidoContadoUmaVez() {
+        AcumuladorProdutos acumulador = new AcumuladorProdutos();
+        acumulador.adicionar(7, 1, 2, 2000);
+        acumulador.adicionar(7, 1, 1, 1000);
+        acumulador.adicionar(7, 2, 1, 1000);
+
+        TotalVendasProduto total = acumulador.maiores(1, CriterioRanking.RECEITA).get(0);
+
+        assertEquals(4, total.getQuantidadeVendida());
+        assertEquals(2, total.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("40.00").compareTo(total.getValorTotal()));
+    }
+}
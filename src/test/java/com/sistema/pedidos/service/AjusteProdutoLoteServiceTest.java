@@ -0,0 +1,113 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AjusteProdutoItem;
+import com.sistema.pedidos.model.AjusteProdutosLoteRequest;
+import com.sistema.pedidos.model.AjusteProdutosLoteResponse;
+import com.sistema.pedidos.repository.ProdutoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AjusteProdutoLoteServiceTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AjusteProdutoLoteService ajusteProdutoLoteService;
+
+    @Test
+    @DisplayName("Deve reajustar preço percentual e reduzir estoque apenas dos produtos com saldo suficiente")
+    void testAjustarPorIds() {
+        // Arrange
+        AjusteProdutosLoteRequest request = new AjusteProdutosLoteRequest();
+        request.setIds(new LinkedHashSet<>(List.of(1L, 2L, 3L)));
+        request.setTipoAjustePreco(AjusteProdutosLoteRequest.TipoAjustePreco.PERCENTUAL);
+        request.setValorPreco(new BigDecimal("10"));
+        request.setTipoAjusteEstoque(AjusteProdutosLoteRequest.TipoAjusteEstoque.DELTA);
+        request.setValorEstoque(-5);
+
+        when(produtoRepository.lockIdsParaReajustePercentual(List.of(1L, 2L, 3L), 5, new BigDecimal("1.1"))).thenReturn(List.of(1L, 3L));
+
+        // Act
+        AjusteProdutosLoteResponse resultado = ajusteProdutoLoteService.ajustar(request);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), resultado.getAtualizados());
+        assertEquals(List.of(2L), resultado.getRejeitados());
+        verify(produtoRepository, times(1)).reajustarPrecoEmLote(List.of(1L, 3L), new BigDecimal("1.1"));
+        verify(produtoRepository, times(1)).ajustarEstoqueEmLote(List.of(1L, 3L), -5);
+        verify(produtoRepository, never()).definirPrecoEmLote(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar valores individuais por produto em batch")
+    void testAjustarPorLista() {
+        // Arrange
+        AjusteProdutosLoteRequest request = new AjusteProdutosLoteRequest();
+        request.setItens(List.of(
+                new AjusteProdutoItem(1L, new BigDecimal("19.90"), null),
+                new AjusteProdutoItem(2L, new BigDecimal("-1"), null),
+                new AjusteProdutoItem(3L, null, 7)));
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        // Act
+        AjusteProdutosLoteResponse resultado = ajusteProdutoLoteService.ajustar(request);
+
+        // Assert
+        assertEquals(List.of(1L), resultado.getAtualizados());
+        assertEquals(List.of(2L, 3L), resultado.getRejeitados());
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar itens sem id sem aplicar nenhum ajuste")
+    void testAjustarItemSemId() {
+        // Arrange
+        AjusteProdutosLoteRequest request = new AjusteProdutosLoteRequest();
+        request.setItens(List.of(
+                new AjusteProdutoItem(1L, new BigDecimal("19.90"), null),
+                new AjusteProdutoItem(null, null, 7)));
+
+        // Act & Assert
+        BadRequestException excecao = assertThrows(BadRequestException.class, () -> ajusteProdutoLoteService.ajustar(request));
+        assertEquals("O id do produto é obrigatório (item 2)", excecao.getMessage());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar reajuste percentual que zera o preço")
+    void testAjustarPercentualInvalido() {
+        // Arrange
+        AjusteProdutosLoteRequest request = new AjusteProdutosLoteRequest();
+        request.setIds(new LinkedHashSet<>(List.of(1L)));
+        request.setTipoAjustePreco(AjusteProdutosLoteRequest.TipoAjustePreco.PERCENTUAL);
+        request.setValorPreco(new BigDecimal("-100"));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> ajusteProdutoLoteService.ajustar(request));
+        verify(produtoRepository, never()).reajustarPrecoEmLote(any(), eq(BigDecimal.ZERO));
+        verifyNoInteractions(produtoRepository);
+    }
+}
@@ -0,0 +1,123 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AnaliseResponse;
+import com.sistema.pedidos.model.DimensaoAnalise;
+import com.sistema.pedidos.model.GrupoAnalise;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "pedidos.analise.habilitada=true",
+        "pedidos.analise.atraso-inicial=PT1H"})
+@ActiveProfiles("h2")
+public class AnaliseColunarServiceTest {
+
+    // Período distante dos demais testes, para que só os pedidos criados aqui entrem nos totais
+    private static final LocalDate INICIO = LocalDate.of(2044, 6, 1);
+    private static final LocalDate FIM = LocalDate.of(2044, 6, 30);
+    private static final List<PedidoEntity.StatusPedido> SEM_CANCELADOS = List.of(
+            PedidoEntity.StatusPedido.PENDENTE, PedidoEntity.StatusPedido.APROVADO, PedidoEntity.StatusPedido.ENTREGUE);
+
+    @Autowired
+    private AnaliseColunarService analiseColunarService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ArquivamentoPedidoService arquivamentoPedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Test
+    @DisplayName("Deve agrupar o snapshot e refletir na atualização incremental status, arquivamento e pedidos novos")
+    void testAgrupamentosEAtualizacaoIncremental() {
+        ProdutoEntity produtoA = criarProduto("10.00");
+        ProdutoEntity produtoB = criarProduto("25.00");
+        PedidoEntity entregue = criarPedido(LocalDateTime.of(2044, 6, 1, 10, 0), List.of(item(produtoA, 2), item(produtoB, 1)));
+        PedidoEntity cancelado = criarPedido(LocalDateTime.of(2044, 6, 2, 10, 0), List.of(item(produtoA, 1)));
+        criarPedido(LocalDateTime.of(2044, 6, 9, 10, 0), List.of(item(produtoB, 2)));
+
+        analiseColunarService.atualizar();
+        List<GrupoAnalise> porProduto = analiseColunarService.consultar(INICIO, FIM, null, null, DimensaoAnalise.PRODUTO).getGrupos();
+        assertEquals(2, porProduto.size());
+        assertGrupo(porProduto.get(0), produtoB.getId().toString(), 2, 2, 3, "75.00");
+        assertGrupo(porProduto.get(1), produtoA.getId().toString(), 2, 2, 3, "30.00");
+
+        // Mudanças que a atualização incremental precisa enxergar: status, pedido movido para o arquivo e pedido novo
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.APROVADO);
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.ENTREGUE);
+        assertEquals(1, arquivamentoPedidoService.arquivarLote(List.of(entregue.getId())));
+        criarPedido(LocalDateTime.of(2044, 6, 10, 10, 0), List.of(item(produtoA, 4)));
+        analiseColunarService.atualizar();
+
+        List<GrupoAnalise> porStatus = analiseColunarService.consultar(INICIO, FIM, null, null, DimensaoAnalise.STATUS).getGrupos();
+        assertEquals(List.of("PENDENTE", "CANCELADO", "ENTREGUE"), porStatus.stream().map(GrupoAnalise::getChave).toList());
+        assertGrupo(porStatus.get(0), "PENDENTE", 2, 2, 6, "90.00");
+        assertGrupo(porStatus.get(1), "CANCELADO", 1, 1, 1, "10.00");
+        assertGrupo(porStatus.get(2), "ENTREGUE", 2, 1, 3, "45.00");
+
+        List<GrupoAnalise> porSemana = analiseColunarService.consultar(INICIO, FIM, SEM_CANCELADOS, null, DimensaoAnalise.SEMANA).getGrupos();
+        assertEquals(2, porSemana.size());
+        assertGrupo(porSemana.get(0), "2044-05-30", 2, 1, 3, "45.00");
+        assertGrupo(porSemana.get(1), "2044-06-06", 2, 2, 6, "90.00");
+
+        AnaliseResponse produtoBPorDia = analiseColunarService.consultar(INICIO, FIM, null, produtoB.getId(), DimensaoAnalise.DIA);
+        assertEquals(2, produtoBPorDia.getGrupos().size());
+        assertGrupo(produtoBPorDia.getGrupos().get(0), "2044-06-01", 1, 1, 1, "25.00");
+        assertGrupo(produtoBPorDia.getGrupos().get(1), "2044-06-09", 1, 1, 2, "50.00");
+        assertTrue(produtoBPorDia.getLinhasNoSnapshot() >= 5);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período com início depois do fim")
+    void testPeriodoInvalido() {
+        assertThrows(BadRequestException.class,
+                () -> analiseColunarService.consultar(FIM, INICIO, null, null, DimensaoAnalise.DIA));
+    }
+
+    private static void assertGrupo(GrupoAnalise grupo, String chave, long linhas, long pedidos, long quantidade, String valor) {
+        assertEquals(chave, grupo.getChave());
+        assertEquals(linhas, grupo.getLinhas());
+        assertEquals(pedidos, grupo.getQuantidadePedidos());
+        assertEquals(quantidade, grupo.getQuantidadeVendida());
+        assertEquals(0, new BigDecimal(valor).compareTo(grupo.getValorTotal()));
+    }
+
+    private ProdutoEntity criarProduto(String preco) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal(preco), 100));
+    }
+
+    private PedidoEntity criarPedido(LocalDateTime data, List<ItemPedidoRequest> itens) {
+        PedidoEntity pedido = pedidoService.salvar(new PedidoRequest("Cliente " + UUID.randomUUID(), null, null, null, null, itens));
+        PedidoEntity gravado = pedidoRepository.findById(pedido.getId()).orElseThrow();
+        gravado.setDataPedido(data);
+        return pedidoRepository.save(gravado);
+    }
+
+    private static ItemPedidoRequest item(ProdutoEntity produto, int quantidade) {
+        return new ItemPedidoRequest(produto.getId(), quantidade);
+    }
+}
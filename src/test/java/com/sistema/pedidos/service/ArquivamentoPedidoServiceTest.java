@@ -0,0 +1,83 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ArquivamentoPedidoServiceTest {
+
+    @Autowired
+    private ArquivamentoPedidoService arquivamentoPedidoService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @Test
+    @DisplayName("Deve mover só pedidos finalizados para o arquivo e continuar encontrando-os pelas buscas")
+    void testArquivarLote() {
+        ProdutoEntity produto = produtoService.salvar(
+                new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), 100));
+        String cliente = "Cliente " + UUID.randomUUID();
+
+        PedidoEntity cancelado = pedidoService.salvar(pedido(cliente, produto, 2));
+        PedidoEntity entregue = pedidoService.salvar(pedido(cliente, produto, 3));
+        PedidoEntity pendente = pedidoService.salvar(pedido(cliente, produto, 1));
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.APROVADO);
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.ENTREGUE);
+
+        int arquivados = arquivamentoPedidoService.arquivarLote(List.of(cancelado.getId(), entregue.getId(), pendente.getId()));
+
+        assertEquals(2, arquivados);
+        assertTrue(pedidoRepository.findById(cancelado.getId()).isEmpty());
+        assertTrue(pedidoRepository.findById(entregue.getId()).isEmpty());
+        assertTrue(pedidoRepository.findById(pendente.getId()).isPresent());
+        assertTrue(pedidoArquivadoRepository.existsById(entregue.getId()));
+
+        PedidoEntity lido = pedidoService.buscarPorId(entregue.getId());
+        assertEquals(PedidoEntity.StatusPedido.ENTREGUE, lido.getStatus());
+        assertEquals(1, lido.getItens().size());
+        assertEquals(produto.getId(), lido.getItens().get(0).getProduto().getId());
+        assertEquals(3, lido.getItens().get(0).getQuantidade());
+        assertEquals(0, new BigDecimal("30.00").compareTo(lido.getValorTotal()));
+        assertEquals(3, pedidoService.buscarPorCliente(cliente).size());
+
+        // Pedido arquivado continua com status final e não pode ser alterado
+        assertThrows(BadRequestException.class,
+                () -> pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.APROVADO));
+
+        // Repetir o lote não duplica nem remove nada
+        assertEquals(0, arquivamentoPedidoService.arquivarLote(List.of(cancelado.getId(), entregue.getId())));
+        assertEquals(3, pedidoService.buscarPorCliente(cliente).size());
+    }
+
+    private static PedidoRequest pedido(String cliente, ProdutoEntity produto, int quantidade) {
+        return new PedidoRequest(cliente, null, null, null, null, List.of(new ItemPedidoRequest(produto.getId(), quantidade)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.ClientesDistintos;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ClientesDistintosServiceTest {
+
+    @Autowired
+    private ClientesDistintosService clientesDistintosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Test
+    @DisplayName("Deve contar cada cliente normalizado uma vez por produto, antes e depois de gravar, sem pedidos desfeitos")
+    void testClientesDistintosPorProduto() {
+        // Produtos novos, usados só aqui; os pedidos entram no dia de hoje
+        ProdutoEntity produtoA = criarProduto(100);
+        ProdutoEntity produtoB = criarProduto(1);
+        LocalDate hoje = LocalDate.now();
+        String ana = "Ana " + UUID.randomUUID();
+
+        criarPedido(ana, item(produtoA, 1));
+        criarPedido("  " + ana.toUpperCase() + " ", item(produtoA, 2), item(produtoB, 1));
+        criarPedido("Bruno " + UUID.randomUUID(), item(produtoA, 1));
+        // Sem estoque de B: o pedido é desfeito e o cliente não é contado
+        assertThrows(BadRequestException.class, () -> criarPedido("Carlos " + UUID.randomUUID(), item(produtoA, 1), item(produtoB, 5)));
+
+        assertEquals(2, clientesDistintosService.estimar(hoje, hoje, produtoA.getId()).getEstimativa());
+        clientesDistintosService.gravarPendentes();
+        ClientesDistintos gravado = clientesDistintosService.estimar(hoje.minusDays(30), hoje, produtoA.getId());
+        assertEquals(2, gravado.getEstimativa());
+        assertEquals(12, gravado.getPrecisao());
+        assertEquals(1, clientesDistintosService.estimar(hoje, hoje, produtoB.getId()).getEstimativa());
+
+        // A reconstrução a partir dos pedidos chega aos mesmos sketches
+        assertTrue(clientesDistintosService.reconstruir() > 0);
+        assertEquals(2, clientesDistintosService.estimar(hoje, hoje, produtoA.getId()).getEstimativa());
+        assertEquals(1, clientesDistintosService.estimar(hoje, hoje, produtoB.getId()).getEstimativa());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período com início depois do fim")
+    void testPeriodoInvalido() {
+        LocalDate hoje = LocalDate.now();
+        assertThrows(BadRequestException.class, () -> clientesDistintosService.estimar(hoje, hoje.minusDays(1), null));
+    }
+
+    private ProdutoEntity criarProduto(int estoque) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), estoque));
+    }
+
+    private void criarPedido(String cliente, ItemPedidoRequest... itens) {
+        pedidoService.salvar(new PedidoRequest(cliente, null, null, null, null, List.of(itens)));
+    }
+
+    private static ItemPedidoRequest item(ProdutoEntity produto, int quantidade) {
+        return new ItemPedidoRequest(produto.getId(), quantidade);
+    }
+}
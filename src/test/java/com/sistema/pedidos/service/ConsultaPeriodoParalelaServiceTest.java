@@ -0,0 +1,93 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "pedidos.periodo-paralelo.janela-minima=P2D",
+        "pedidos.periodo-paralelo.tamanho-faixa=P1D",
+        "pedidos.periodo-paralelo.paralelismo=3"})
+@ActiveProfiles("h2")
+public class ConsultaPeriodoParalelaServiceTest {
+
+    @Autowired
+    private ConsultaPeriodoParalelaService consultaPeriodoParalelaService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Test
+    @DisplayName("Deve dividir o período em faixas consecutivas sem sobreposição")
+    void testDividir() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 6, 0);
+        List<ConsultaPeriodoParalelaService.Faixa> faixas =
+                ConsultaPeriodoParalelaService.dividir(inicio, inicio.plusDays(2).plusHours(3), Duration.ofDays(1));
+
+        assertEquals(3, faixas.size());
+        assertEquals(inicio, faixas.get(0).inicio());
+        assertEquals(inicio.plusDays(1).minusNanos(1), faixas.get(0).fim());
+        assertEquals(inicio.plusDays(1), faixas.get(1).inicio());
+        assertEquals(inicio.plusDays(2).plusHours(3), faixas.get(2).fim());
+    }
+
+    @Test
+    @DisplayName("Deve recusar tamanho de faixa zero ou negativo na criação do serviço")
+    void testTamanhoFaixaInvalido() {
+        for (Duration tamanhoFaixa : List.of(Duration.ZERO, Duration.ofDays(-1))) {
+            assertThrows(IllegalArgumentException.class, () -> new ConsultaPeriodoParalelaService(
+                    pedidoRepository, null, null, null, true, Duration.ofDays(7), tamanhoFaixa, 2));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve entregar as faixas em ordem de data, com os itens carregados")
+    void testBuscarEmFaixasParalelas() {
+        ProdutoEntity produto = produtoService.salvar(
+                new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), 100));
+        // Período distante dos demais testes, para que só os pedidos criados aqui apareçam
+        LocalDateTime base = LocalDateTime.of(2040, 5, 1, 0, 0);
+
+        List<Long> esperados = new ArrayList<>();
+        for (int dia = 9; dia >= 0; dia--) {
+            PedidoEntity pedido = pedidoService.salvar(new PedidoRequest("Cliente " + UUID.randomUUID(), null, null,
+                    null, null, List.of(new ItemPedidoRequest(produto.getId(), 1))));
+            PedidoEntity gravado = pedidoRepository.findById(pedido.getId()).orElseThrow();
+            gravado.setDataPedido(base.plusDays(dia).plusHours(12));
+            pedidoRepository.save(gravado);
+            esperados.add(0, pedido.getId());
+        }
+
+        List<List<PedidoEntity>> faixas = new ArrayList<>();
+        consultaPeriodoParalelaService.buscar(base, base.plusDays(10).minusNanos(1), faixas::add);
+
+        assertEquals(10, faixas.size());
+        List<PedidoEntity> pedidos = faixas.stream().flatMap(List::stream).toList();
+        assertEquals(esperados, pedidos.stream().map(PedidoEntity::getId).toList());
+        // Fora de transação: itens e produtos já devem ter sido carregados pela faixa
+        assertTrue(pedidos.stream().allMatch(pedido -> pedido.getItens().size() == 1
+                && produto.getNome().equals(pedido.getItens().get(0).getProduto().getNome())));
+    }
+}
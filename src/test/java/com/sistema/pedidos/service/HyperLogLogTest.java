@@ -0,0 +1,80 @@
+package com.sistema.pedidos.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Deve estimar dentro do erro padrão e unir sketches sem contar duas vezes os valores em comum")
+    void testEstimativaEUniao() {
+        // Arrange: 60 mil valores, 20 mil deles presentes nos dois sketches
+        HyperLogLog primeiro = new HyperLogLog(12);
+        HyperLogLog segundo = new HyperLogLog(12);
+        for (int i = 0; i < 40_000; i++) {
+            primeiro.adicionar("cliente-" + i);
+        }
+        for (int i = 20_000; i < 60_000; i++) {
+            segundo.adicionar("cliente-" + i);
+        }
+
+        // Act
+        long estimativaPrimeiro = primeiro.estimar();
+        primeiro.unir(segundo);
+        long estimativaUniao = primeiro.estimar();
+
+        // Assert: até 4 erros padrão (1,6% com precisão 12)
+        double tolerancia = 4 * HyperLogLog.erroPadrao(12);
+        assertEquals(40_000, estimativaPrimeiro, 40_000 * tolerancia);
+        assertEquals(60_000, estimativaUniao, 60_000 * tolerancia);
+        assertEquals(12, HyperLogLog.precisaoPara(0.02));
+    }
+
+    @Test
+    @DisplayName("Deve contar poucos valores exatamente e manter os registradores nos formatos esparso e denso")
+    void testSerializacao() {
+        // Arrange
+        HyperLogLog poucos = new HyperLogLog(14);
+        HyperLogLog muitos = new HyperLogLog(14);
+        for (int i = 0; i < 10; i++) {
+            poucos.adicionar("cliente-" + i);
+            poucos.adicionar("cliente-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            muitos.adicionar("cliente-" + i);
+        }
+
+        // Act
+        byte[] esparso = poucos.serializar();
+        byte[] denso = muitos.serializar();
+
+        // Assert
+        assertEquals(10, poucos.estimar());
+        assertEquals(4 + 10 * 3, esparso.length);
+        assertEquals(2 + (1 << 14), denso.length);
+        assertEquals(10, HyperLogLog.desserializar(esparso).estimar());
+        assertEquals(muitos.estimar(), HyperLogLog.desserializar(denso).estimar());
+    }
+
+    @Test
+    @DisplayName("Deve reduzir a precisão na união com o mesmo resultado de contar direto na precisão menor")
+    void testUniaoComPrecisaoMaior() {
+        // Arrange
+        HyperLogLog preciso = new HyperLogLog(14);
+        HyperLogLog direto = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            preciso.adicionar("cliente-" + i);
+            direto.adicionar("cliente-" + i);
+        }
+
+        // Act
+        HyperLogLog reduzido = new HyperLogLog(10);
+        reduzido.unir(preciso);
+
+        // Assert
+        assertArrayEquals(direto.serializar(), reduzido.serializar());
+        assertThrows(IllegalArgumentException.class, () -> preciso.unir(direto));
+    }
+}
@@ -0,0 +1,161 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.ImportacaoProdutosResponse;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportacaoProdutoServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        importacaoProdutoService = new ImportacaoProdutoService(jdbcTemplate, transactionManager, validator, 2);
+    }
+
+    @Test
+    @DisplayName("Deve inserir e atualizar produtos em lotes, reportando as linhas inválidas")
+    @SuppressWarnings("unchecked")
+    void testImportar() {
+        // Arrange
+        String csv = "id,nome,descricao,preco,quantidadeEstoque\n"
+                + ",Produto A,\"Descrição, com vírgula\",10.50,5\n"
+                + ",Produto B,,abc,5\n"
+                + "7,Produto C,,20.00,3\n"
+                + ",,,-1,2\n"
+                + ",Produto D,\"Linha \"\"citada\"\"\",1.99,0\n";
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList())).thenReturn(new int[]{1});
+
+        // Act
+        ImportacaoProdutosResponse resultado = importacaoProdutoService.importar(csv(csv));
+
+        // Assert
+        assertEquals(5, resultado.getLinhasProcessadas());
+        assertEquals(2, resultado.getInseridos());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(2, resultado.getTotalErros());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Preço inválido: 'abc'", resultado.getErros().get(0).getMensagem());
+        assertEquals(5, resultado.getErros().get(1).getLinha());
+        assertEquals("O nome do produto é obrigatório; O preço deve ser maior que zero", resultado.getErros().get(1).getMensagem());
+
+        ArgumentCaptor<List<Object[]>> insercoes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT"), insercoes.capture());
+        assertArrayEquals(new Object[]{"Produto A", "Descrição, com vírgula", new BigDecimal("10.50"), 5}, insercoes.getAllValues().get(0).get(0));
+        assertArrayEquals(new Object[]{"Produto D", "Linha \"citada\"", new BigDecimal("1.99"), 0}, insercoes.getAllValues().get(1).get(0));
+    }
+
+    @Test
+    @DisplayName("Deve reportar como erro a atualização de produto inexistente")
+    void testImportarProdutoInexistente() {
+        // Arrange
+        String csv = "id;nome;preco;quantidadeEstoque\r\n99;Produto;10;1\r\n";
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList())).thenReturn(new int[]{0});
+
+        // Act
+        ImportacaoProdutosResponse resultado = importacaoProdutoService.importar(csv(csv));
+
+        // Assert
+        assertEquals(0, resultado.getAtualizados());
+        assertEquals(1, resultado.getTotalErros());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals("Produto não encontrado com id: '99'", resultado.getErros().get(0).getMensagem());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reportar registros malformados e continuar a importação nas linhas seguintes")
+    void testImportarRegistroMalformado() {
+        // Arrange
+        String csv = "nome,preco,quantidadeEstoque\n"
+                + "Produto A,10,1\n"
+                + "\"Produto \"B,10,1\n"
+                + "Produto C,10,1\n"
+                + "\"Sem fechar,10,1\n";
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenReturn(new int[]{1, 1});
+
+        // Act
+        ImportacaoProdutosResponse resultado = importacaoProdutoService.importar(csv(csv));
+
+        // Assert
+        assertEquals(4, resultado.getLinhasProcessadas());
+        assertEquals(2, resultado.getInseridos());
+        assertEquals(2, resultado.getTotalErros());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Caractere inesperado depois das aspas de fechamento", resultado.getErros().get(0).getMensagem());
+        assertEquals(5, resultado.getErros().get(1).getLinha());
+        assertEquals("Aspas não fechadas no registro", resultado.getErros().get(1).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve gravar linha a linha o lote que falhou, reportando só as linhas com erro")
+    void testImportarLoteComFalha() {
+        // Arrange
+        String csv = "id,nome,preco,quantidadeEstoque\n"
+                + ",Produto A,10,1\n"
+                + ",Produto B,10,1\n"
+                + "5,Produto C,10,1\n";
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'nome'"));
+        when(jdbcTemplate.update(startsWith("INSERT"), eq("Produto A"), any(), any(), any())).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("INSERT"), eq("Produto B"), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'nome'"));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList())).thenReturn(new int[]{1});
+
+        // Act
+        ImportacaoProdutosResponse resultado = importacaoProdutoService.importar(csv(csv));
+
+        // Assert
+        assertEquals(3, resultado.getLinhasProcessadas());
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(1, resultado.getTotalErros());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Erro ao gravar a linha: Data too long for column 'nome'", resultado.getErros().get(0).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CSV sem as colunas obrigatórias")
+    void testImportarCabecalhoInvalido() {
+        assertThrows(BadRequestException.class, () -> importacaoProdutoService.importar(csv("nome,descricao\nA,B\n")));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private InputStream csv(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,28 +1,46 @@
 package com.sistema.pedidos.service;
 
 import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoArquivadoEntity;
 import com.sistema.pedidos.entity.PedidoEntity;
 import com.sistema.pedidos.entity.ProdutoEntity;
 import com.sistema.pedidos.exception.BadRequestException;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.metricas.FasePedidoEvent;
+import com.sistema.pedidos.metricas.MetricasPedidos;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteResponse;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoArquivadoRepository;
 import com.sistema.pedidos.repository.PedidoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +55,23 @@ public class PedidoEntityServiceTest {
     @Mock
     private ItemPedidoService itemPedidoService;
 
+    @Mock
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @Mock
+    private VendasDiariasService vendasDiariasService;
+
+    @Mock
+    private ClientesDistintosService clientesDistintosService;
+
+    @Mock
+    private ResumoClientesService resumoClientesService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasPedidos metricasPedidos = new MetricasPedidos(meterRegistry);
+
     @InjectMocks
     private PedidoService pedidoService;
 
@@ -104,6 +139,24 @@ public class PedidoEntityServiceTest {
         verify(pedidoRepository, times(1)).findById(99L);
     }
 
+    @Test
+    @DisplayName("Deve buscar pedido no arquivo quando não estiver na tabela ativa")
+    void testBuscarPorIdArquivado() {
+        // Arrange
+        pedidoEntity.setStatus(PedidoEntity.StatusPedido.ENTREGUE);
+        PedidoArquivadoEntity pedidoArquivado = mock(PedidoArquivadoEntity.class);
+        when(pedidoArquivado.paraPedido()).thenReturn(pedidoEntity);
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(pedidoArquivadoRepository.findById(1L)).thenReturn(Optional.of(pedidoArquivado));
+
+        // Act
+        PedidoEntity pedidoEntityRetornado = pedidoService.buscarPorId(1L);
+
+        // Assert
+        assertSame(pedidoEntity, pedidoEntityRetornado);
+        verify(pedidoArquivadoRepository, times(1)).findById(1L);
+    }
+
     @Test
     @DisplayName("Deve retornar pedidos por cliente")
     void testBuscarPorCliente() {
@@ -124,41 +177,94 @@ public class PedidoEntityServiceTest {
     @DisplayName("Deve salvar um pedido")
     void testSalvar() {
         // Arrange
-        PedidoEntity novoPedidoEntity = new PedidoEntity();
-        novoPedidoEntity.setCliente("Novo Cliente");
-        novoPedidoEntity.setObservacao("Nova observação");
-
         ProdutoEntity produtoEntityExistente = new ProdutoEntity(1L, "Produto", "Descrição", new BigDecimal("10.00"), 20);
-        ItemPedidoEntity novoItem = new ItemPedidoEntity();
-        novoItem.setProduto(produtoEntityExistente);
-        novoItem.setQuantidade(2);
-
-        novoPedidoEntity.getItens().add(novoItem);
+        PedidoRequest novoPedido = new PedidoRequest("Novo Cliente", null, "Nova observação", null, null,
+                List.of(new ItemPedidoRequest(1L, 2)));
 
         when(produtoService.buscarPorId(1L)).thenReturn(produtoEntityExistente);
         when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(pedidoRepository.buscarComItensPorId(1L)).thenReturn(Optional.of(pedidoEntity));
 
         // Act
-        PedidoEntity pedidoEntitySalvo = pedidoService.salvar(novoPedidoEntity);
+        PedidoEntity pedidoEntitySalvo = pedidoService.salvar(novoPedido);
 
         // Assert
         assertNotNull(pedidoEntitySalvo);
         assertEquals(pedidoEntity.getId(), pedidoEntitySalvo.getId());
-        verify(pedidoRepository, times(1)).save(novoPedidoEntity);
+        verify(pedidoRepository, times(1)).save(any(PedidoEntity.class));
         verify(produtoService, times(1)).atualizarEstoque(eq(1L), eq(2));
+        verify(vendasDiariasService, times(1)).registrar(any(PedidoEntity.class));
+        verify(clientesDistintosService, times(1)).registrar(any(PedidoEntity.class));
+        verify(resumoClientesService, times(1)).registrar(any(PedidoEntity.class));
+        assertEquals(1.0, meterRegistry.get("pedidos.criados").tag("status", "PENDENTE").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve emitir um evento JFR para cada fase da criação do pedido")
+    void testSalvarEmiteEventosDeFase() throws Exception {
+        // Arrange
+        ProdutoEntity produtoEntityExistente = new ProdutoEntity(1L, "Produto", "Descrição", new BigDecimal("10.00"), 20);
+        PedidoRequest novoPedido = new PedidoRequest("Novo Cliente", null, null, null, null,
+                List.of(new ItemPedidoRequest(1L, 2)));
+
+        when(produtoService.buscarPorId(1L)).thenReturn(produtoEntityExistente);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(pedidoRepository.buscarComItensPorId(1L)).thenReturn(Optional.of(pedidoEntity));
+
+        Path arquivo = Files.createTempFile("fases-pedido-", ".jfr");
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(FasePedidoEvent.class).withThreshold(Duration.ZERO);
+            gravacao.start();
+
+            // Act
+            pedidoService.salvar(novoPedido);
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+
+            // Assert
+            List<RecordedEvent> eventos = RecordingFile.readAllEvents(arquivo).stream()
+                    .filter(evento -> evento.getEventType().getName().equals("com.sistema.pedidos.FasePedido"))
+                    .toList();
+            assertEquals(List.of("BUSCA_PRODUTO", "VALIDACAO_ESTOQUE", "INSERCAO_PEDIDO", "INSERCAO_ITEM", "BAIXA_ESTOQUE", "RELEITURA_PEDIDO"),
+                    eventos.stream()
+                            .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                            .map(evento -> evento.getString("fase"))
+                            .toList());
+            assertTrue(eventos.stream().allMatch(evento -> "salvar".equals(evento.getString("operacao"))
+                    && evento.getInt("quantidadeItens") == 1));
+            assertEquals(1L, eventos.stream()
+                    .filter(evento -> evento.getString("fase").equals("BAIXA_ESTOQUE"))
+                    .findFirst().orElseThrow().getLong("pedidoId"));
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve contar a rejeição por estoque insuficiente no produto")
+    void testSalvarEstoqueInsuficiente() {
+        // Arrange
+        ProdutoEntity produtoEntityExistente = new ProdutoEntity(7L, "Produto", "Descrição", new BigDecimal("10.00"), 1);
+        PedidoRequest novoPedido = new PedidoRequest("Novo Cliente", null, null, null, null,
+                List.of(new ItemPedidoRequest(7L, 2)));
+        when(produtoService.buscarPorId(7L)).thenReturn(produtoEntityExistente);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> pedidoService.salvar(novoPedido));
+        assertEquals(1.0, meterRegistry.get("pedidos.estoque.insuficiente").tag("produto", "7").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.criados").tag("status", "PENDENTE").counter().count());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao salvar pedido sem itens")
     void testSalvarPedidoSemItens() {
         // Arrange
-        PedidoEntity novoPedidoEntity = new PedidoEntity();
-        novoPedidoEntity.setCliente("Novo Cliente");
-        novoPedidoEntity.setObservacao("Nova observação");
-        novoPedidoEntity.setItens(new ArrayList<>());
+        PedidoRequest novoPedido = new PedidoRequest("Novo Cliente", null, "Nova observação", null, null,
+                new ArrayList<>());
 
         // Act & Assert
-        assertThrows(BadRequestException.class, () -> pedidoService.salvar(novoPedidoEntity));
+        assertThrows(BadRequestException.class, () -> pedidoService.salvar(novoPedido));
         verify(pedidoRepository, never()).save(any(PedidoEntity.class));
     }
 
@@ -166,8 +272,8 @@ public class PedidoEntityServiceTest {
     @DisplayName("Deve atualizar o status de um pedido")
     void testAtualizarStatus() {
         // Arrange
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoEntity));
-        when(pedidoRepository.save(any(PedidoEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(pedidoRepository.lockById(1L)).thenReturn(Optional.of(pedidoEntity));
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoRelido(PedidoEntity.StatusPedido.APROVADO)));
 
         // Act
         PedidoEntity resultado = pedidoService.atualizarStatus(1L, PedidoEntity.StatusPedido.APROVADO);
@@ -175,8 +281,31 @@ public class PedidoEntityServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(PedidoEntity.StatusPedido.APROVADO, resultado.getStatus());
-        verify(pedidoRepository, times(1)).findById(1L);
-        verify(pedidoRepository, times(1)).save(pedidoEntity);
+        verify(pedidoRepository, times(1)).lockById(1L);
+        verify(pedidoRepository, times(1)).atualizarStatusEmLote(List.of(1L),
+                EnumSet.of(PedidoEntity.StatusPedido.PENDENTE), PedidoEntity.StatusPedido.APROVADO);
+        verify(pedidoRepository, never()).save(any(PedidoEntity.class));
+        verify(produtoService, never()).devolverEstoqueDosPedidos(any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o estoque ao cancelar um pedido")
+    void testAtualizarStatusCancelado() {
+        // Arrange
+        when(pedidoRepository.lockById(1L)).thenReturn(Optional.of(pedidoEntity));
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoRelido(PedidoEntity.StatusPedido.CANCELADO)));
+
+        // Act
+        PedidoEntity resultado = pedidoService.atualizarStatus(1L, PedidoEntity.StatusPedido.CANCELADO);
+
+        // Assert
+        assertEquals(PedidoEntity.StatusPedido.CANCELADO, resultado.getStatus());
+        verify(produtoService, times(1)).devolverEstoqueDosPedidos(List.of(1L));
+        verify(produtoService, never()).salvar(any(ProdutoEntity.class));
+        verify(vendasDiariasService, times(1)).estornarPedidos(List.of(1L));
+        verify(resumoClientesService, times(1)).alterarStatusPedidos(List.of(1L), PedidoEntity.StatusPedido.CANCELADO);
+        verify(pedidoRepository, times(1)).atualizarStatusEmLote(List.of(1L),
+                EnumSet.of(PedidoEntity.StatusPedido.PENDENTE), PedidoEntity.StatusPedido.CANCELADO);
     }
 
     @Test
@@ -184,30 +313,32 @@ public class PedidoEntityServiceTest {
     void testAtualizarStatusInvalido() {
         // Arrange
         pedidoEntity.setStatus(PedidoEntity.StatusPedido.ENTREGUE);
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoEntity));
+        when(pedidoRepository.lockById(1L)).thenReturn(Optional.of(pedidoEntity));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () ->
                 pedidoService.atualizarStatus(1L, PedidoEntity.StatusPedido.PENDENTE));
-        verify(pedidoRepository, times(1)).findById(1L);
-        verify(pedidoRepository, never()).save(any(PedidoEntity.class));
+        verify(pedidoRepository, times(1)).lockById(1L);
+        verify(pedidoRepository, never()).atualizarStatusEmLote(any(), any(), any());
     }
 
     @Test
     @DisplayName("Deve excluir um pedido pendente")
     void testExcluir() {
         // Arrange
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoEntity));
+        when(pedidoRepository.lockById(1L)).thenReturn(Optional.of(pedidoEntity));
         doNothing().when(pedidoRepository).delete(pedidoEntity);
 
         // Act
         pedidoService.excluir(1L);
 
         // Assert
-        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, times(1)).lockById(1L);
         verify(pedidoRepository, times(1)).delete(pedidoEntity);
-        // Verificar se o estoque foi restaurado
-        verify(produtoService, times(1)).salvar(produtoEntity);
+        verify(itemPedidoService, times(1)).excluirPorPedido(1L);
+        // Verificar se o estoque foi restaurado em uma única operação
+        verify(produtoService, times(1)).devolverEstoqueDosPedidos(List.of(1L));
+        verify(produtoService, never()).salvar(any(ProdutoEntity.class));
     }
 
     @Test
@@ -215,12 +346,92 @@ public class PedidoEntityServiceTest {
     void testExcluirPedidoNaoPendente() {
         // Arrange
         pedidoEntity.setStatus(PedidoEntity.StatusPedido.APROVADO);
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoEntity));
+        when(pedidoRepository.lockById(1L)).thenReturn(Optional.of(pedidoEntity));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> pedidoService.excluir(1L));
-        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, times(1)).lockById(1L);
         verify(pedidoRepository, never()).delete(any(PedidoEntity.class));
     }
-}
 
+    @Test
+    @DisplayName("Deve atualizar status em lote e informar os pedidos rejeitados")
+    void testAtualizarStatusEmLote() {
+        // Arrange
+        when(pedidoRepository.lockIdsByIdInAndStatusIn(eq(List.of(1L, 2L, 3L)), eq(EnumSet.of(PedidoEntity.StatusPedido.PENDENTE))))
+                .thenReturn(List.of(1L, 3L));
+
+        // Act
+        AtualizacaoStatusLoteResponse resultado = pedidoService.atualizarStatusEmLote(
+                List.of(1L, 2L, 3L, 2L), PedidoEntity.StatusPedido.APROVADO);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), resultado.getAtualizados());
+        assertEquals(List.of(2L), resultado.getRejeitados());
+        verify(pedidoRepository, times(1)).atualizarStatusEmLote(List.of(1L, 3L),
+                EnumSet.of(PedidoEntity.StatusPedido.PENDENTE), PedidoEntity.StatusPedido.APROVADO);
+        verify(pedidoRepository, never()).findById(any());
+        verify(pedidoRepository, never()).save(any(PedidoEntity.class));
+        verify(produtoService, never()).devolverEstoqueDosPedidos(any());
+        assertEquals(2.0, meterRegistry.get("pedidos.status.alterados").tag("status", "APROVADO").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o estoque dos pedidos cancelados em lote")
+    void testAtualizarStatusEmLoteCancelado() {
+        // Arrange
+        EnumSet<PedidoEntity.StatusPedido> statusPermitidos =
+                EnumSet.of(PedidoEntity.StatusPedido.PENDENTE, PedidoEntity.StatusPedido.APROVADO);
+        when(pedidoRepository.lockIdsByIdInAndStatusIn(List.of(1L, 2L), statusPermitidos)).thenReturn(List.of(2L));
+
+        // Act
+        AtualizacaoStatusLoteResponse resultado = pedidoService.atualizarStatusEmLote(
+                List.of(1L, 2L), PedidoEntity.StatusPedido.CANCELADO);
+
+        // Assert
+        assertEquals(List.of(2L), resultado.getAtualizados());
+        assertEquals(List.of(1L), resultado.getRejeitados());
+        verify(produtoService, times(1)).devolverEstoqueDosPedidos(List.of(2L));
+        verify(vendasDiariasService, times(1)).estornarPedidos(List.of(2L));
+        verify(pedidoRepository, times(1)).atualizarStatusEmLote(List.of(2L), statusPermitidos,
+                PedidoEntity.StatusPedido.CANCELADO);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar todos os pedidos ao tentar voltar para PENDENTE em lote")
+    void testAtualizarStatusEmLoteParaPendente() {
+        // Act
+        AtualizacaoStatusLoteResponse resultado = pedidoService.atualizarStatusEmLote(
+                List.of(1L, 2L), PedidoEntity.StatusPedido.PENDENTE);
+
+        // Assert
+        assertTrue(resultado.getAtualizados().isEmpty());
+        assertEquals(List.of(1L, 2L), resultado.getRejeitados());
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve cancelar em lote apenas os pedidos ainda pendentes, devolvendo o estoque")
+    void testCancelarPendentesEmLote() {
+        // Arrange
+        when(pedidoRepository.lockIdsByIdInAndStatusIn(eq(List.of(1L, 2L)), eq(EnumSet.of(PedidoEntity.StatusPedido.PENDENTE))))
+                .thenReturn(List.of(1L));
+        when(pedidoRepository.atualizarStatusEmLote(eq(List.of(1L)), eq(EnumSet.of(PedidoEntity.StatusPedido.PENDENTE)),
+                eq(PedidoEntity.StatusPedido.CANCELADO))).thenReturn(1);
+
+        // Act
+        int cancelados = pedidoService.cancelarPendentesEmLote(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(1, cancelados);
+        verify(produtoService, times(1)).devolverEstoqueDosPedidos(List.of(1L));
+    }
+
+    // O UPDATE em lote limpa o contexto de persistência, então o pedido devolvido é relido do banco
+    private PedidoEntity pedidoRelido(PedidoEntity.StatusPedido status) {
+        PedidoEntity relido = new PedidoEntity();
+        relido.setId(pedidoEntity.getId());
+        relido.setStatus(status);
+        return relido;
+    }
+}
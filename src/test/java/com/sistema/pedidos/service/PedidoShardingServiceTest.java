@@ -0,0 +1,305 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.job.CancelamentoAutomaticoJob;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.AtualizacaoStatusLoteResponse;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.repository.PedidoRepository;
+import com.sistema.pedidos.repository.PedidoShardRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Três bancos H2 como shards de pedidos; o H2 do perfil h2 é o catálogo de produtos
+@SpringBootTest(properties = {
+        "pedidos.sharding.habilitado=true",
+        "pedidos.sharding.bloco-ids=5",
+        "pedidos.cancelamento-automatico.habilitado=true",
+        "pedidos.cancelamento-automatico.intervalo=PT1H",
+        "pedidos.sharding.shards[0].url=" + PedidoShardingServiceTest.SHARD + "0;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "pedidos.sharding.shards[1].url=" + PedidoShardingServiceTest.SHARD + "1;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "pedidos.sharding.shards[2].url=" + PedidoShardingServiceTest.SHARD + "2;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.url=jdbc:h2:mem:pedidos-catalogo;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.r2dbc.url=r2dbc:h2:mem:///pedidos-catalogo?options=MODE=MySQL;LOCK_TIMEOUT=10000"})
+@ActiveProfiles("h2")
+public class PedidoShardingServiceTest {
+
+    static final String SHARD = "jdbc:h2:mem:pedidos-shard-";
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private CancelamentoAutomaticoJob cancelamentoAutomaticoJob;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ResumoClientesService resumoClientesService;
+
+    @Autowired
+    private PedidoShardRepository pedidoShardRepository;
+
+    @Autowired
+    private ConsultaReativaService consultaReativaService;
+
+    @Test
+    @DisplayName("Deve gravar cada pedido e seus itens em um único shard, escolhido pelo hash do ID")
+    void testSalvarDistribuiPorShard() throws Exception {
+        ProdutoEntity produto = criarProduto(100);
+        String cliente = "Cliente " + UUID.randomUUID();
+
+        Set<Integer> shardsUsados = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            PedidoEntity pedido = pedidoService.salvar(pedido(cliente, produto, 1));
+            // O pedido devolvido traz o estoque já baixado
+            assertEquals(99 - i, pedido.getItens().get(0).getProduto().getQuantidadeEstoque());
+            int shard = PedidoShardRepository.shardDoPedido(pedido.getId(), 3);
+            shardsUsados.add(shard);
+
+            for (int outro = 0; outro < 3; outro++) {
+                int esperado = outro == shard ? 1 : 0;
+                assertEquals(esperado, contar(outro, "SELECT COUNT(*) FROM pedidos WHERE id = ?", pedido.getId()));
+                assertEquals(esperado, contar(outro, "SELECT COUNT(*) FROM itens_pedido WHERE pedido_id = ?", pedido.getId()));
+            }
+
+            PedidoEntity lido = pedidoService.buscarPorId(pedido.getId());
+            assertEquals(cliente, lido.getCliente());
+            assertEquals(1, lido.getItens().size());
+            assertEquals(produto.getId(), lido.getItens().get(0).getProduto().getId());
+            assertEquals(0, new BigDecimal("10.00").compareTo(lido.getValorTotal()));
+        }
+
+        assertTrue(shardsUsados.size() > 1, "Todos os pedidos caíram no mesmo shard");
+        assertEquals(0, pedidoRepository.count(), "Pedidos não devem ser gravados no catálogo");
+        assertEquals(88, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve consultar todos os shards e intercalar os pedidos em ordem de data")
+    void testBuscarPorPeriodoIntercalaShards() {
+        ProdutoEntity produto = criarProduto(100);
+        String cliente = "Cliente " + UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.of(2031, 3, 1, 12, 0);
+
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            PedidoEntity pedido = pedidoService.salvar(pedido(cliente, produto, 1));
+            // Datas decrescentes em relação à ordem de criação, para que a ordem por ID não coincida com a ordem por data
+            atualizarData(pedido.getId(), base.minusHours(i));
+            esperados.add(0, pedido.getId());
+        }
+
+        List<PedidoEntity> noPeriodo = pedidoService.buscarPorPeriodo(base.minusDays(1), base);
+        assertEquals(esperados, noPeriodo.stream().map(PedidoEntity::getId).toList());
+        assertTrue(noPeriodo.stream().allMatch(pedido -> pedido.getItens().size() == 1));
+
+        List<PedidoEntity> pendentes = pedidoService.buscarPorStatus(PedidoEntity.StatusPedido.PENDENTE);
+        assertTrue(pendentes.stream().map(PedidoEntity::getId).toList().containsAll(esperados));
+        assertEquals(pendentes.stream().sorted(Comparator.comparing(PedidoEntity::getDataPedido)
+                .thenComparing(PedidoEntity::getId)).toList(), pendentes);
+
+        assertEquals(10, pedidoService.buscarPorCliente(cliente).size());
+    }
+
+    @Test
+    @DisplayName("Deve cancelar e excluir pedidos nos shards devolvendo o estoque no catálogo")
+    void testCancelarEExcluirDevolvemEstoque() {
+        ProdutoEntity produto = criarProduto(50);
+        String cliente = "Cliente " + UUID.randomUUID();
+        PedidoEntity cancelado = pedidoService.salvar(pedido(cliente, produto, 5));
+        PedidoEntity excluido = pedidoService.salvar(pedido(cliente, produto, 7));
+        List<Long> lote = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lote.add(pedidoService.salvar(pedido(cliente, produto, 2)).getId());
+        }
+        assertEquals(30, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        assertEquals(PedidoEntity.StatusPedido.CANCELADO, pedidoService.buscarPorId(cancelado.getId()).getStatus());
+        assertEquals(35, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        pedidoService.excluir(excluido.getId());
+        assertThrows(ResourceNotFoundException.class, () -> pedidoService.buscarPorId(excluido.getId()));
+        assertEquals(42, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        lote.add(cancelado.getId());
+        AtualizacaoStatusLoteResponse resposta = pedidoService.atualizarStatusEmLote(lote, PedidoEntity.StatusPedido.CANCELADO);
+        assertEquals(4, resposta.getAtualizados().size());
+        assertEquals(List.of(cancelado.getId()), resposta.getRejeitados());
+        assertEquals(50, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar uma única vez o estorno de cancelamento gravado no shard sem commit no catálogo")
+    void testReaplicarEstornoPendente() throws Exception {
+        ProdutoEntity produto = criarProduto(20);
+        String cliente = "Cliente " + UUID.randomUUID();
+        PedidoEntity cancelado = pedidoService.salvar(pedido(cliente, produto, 6));
+        PedidoEntity confirmado = pedidoService.salvar(pedido(cliente, produto, 4));
+
+        // Cancelamento normal: o estorno é confirmado e o pendente apagado depois do commit do catálogo
+        pedidoService.atualizarStatus(confirmado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        assertEquals(14, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        int shardConfirmado = PedidoShardRepository.shardDoPedido(confirmado.getId(), 3);
+        assertEquals(0, contar(shardConfirmado, "SELECT COUNT(*) FROM estornos_pendentes WHERE pedido_id = ?", confirmado.getId()));
+
+        // Commit do shard seguido de falha no catálogo: status gravado com o pendente, estoque ainda não devolvido
+        int shard = PedidoShardRepository.shardDoPedido(cancelado.getId(), 3);
+        executar(shard, "UPDATE pedidos SET status = 'CANCELADO' WHERE id = ?", cancelado.getId());
+        executar(shard, "INSERT INTO estornos_pendentes (pedido_id, criado_em) VALUES (?, CURRENT_TIMESTAMP)", cancelado.getId());
+        assertEquals(14, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        assertEquals(1, pedidoService.reaplicarEstornosPendentes(LocalDateTime.now().plusSeconds(1)));
+        assertEquals(20, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        assertEquals(0, contar(shard, "SELECT COUNT(*) FROM estornos_pendentes WHERE pedido_id = ?", cancelado.getId()));
+
+        // Pendente que sobrou de um estorno já confirmado é só apagado
+        executar(shard, "INSERT INTO estornos_pendentes (pedido_id, criado_em) VALUES (?, CURRENT_TIMESTAMP)", cancelado.getId());
+        assertEquals(0, pedidoService.reaplicarEstornosPendentes(LocalDateTime.now().plusSeconds(1)));
+        assertEquals(20, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        assertEquals(0, contar(shard, "SELECT COUNT(*) FROM estornos_pendentes WHERE pedido_id = ?", cancelado.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve excluir e alterar no shard só pedidos PENDENTES e reaplicar o estorno de exclusão sem commit no catálogo")
+    void testReaplicarEstornoDeExclusao() throws Exception {
+        ProdutoEntity produto = criarProduto(20);
+        String cliente = "Cliente " + UUID.randomUUID();
+        PedidoEntity excluido = pedidoService.salvar(pedido(cliente, produto, 6));
+        PedidoEntity confirmado = pedidoService.salvar(pedido(cliente, produto, 3));
+        PedidoEntity cancelado = pedidoService.salvar(pedido(cliente, produto, 4));
+        assertEquals(7, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        // Exclusão normal: estorno confirmado, sem pendente nem cópia do pedido no shard
+        pedidoService.excluir(confirmado.getId());
+        assertEquals(10, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        int shardConfirmado = PedidoShardRepository.shardDoPedido(confirmado.getId(), 3);
+        assertEquals(0, contar(shardConfirmado, "SELECT COUNT(*) FROM estornos_pendentes WHERE pedido_id = ?", confirmado.getId()));
+        assertEquals(0, contar(shardConfirmado, "SELECT COUNT(*) FROM pedidos_excluidos WHERE id = ?", confirmado.getId()));
+
+        // Pedido cancelado por outra operação depois de lido: nem a exclusão nem a alteração são gravadas
+        PedidoEntity lido = pedidoService.buscarPorId(cancelado.getId());
+        executar(PedidoShardRepository.shardDoPedido(cancelado.getId(), 3),
+                "UPDATE pedidos SET status = 'CANCELADO' WHERE id = ?", cancelado.getId());
+        assertFalse(pedidoShardRepository.atualizar(lido));
+        assertFalse(pedidoShardRepository.excluir(cancelado.getId()));
+        assertEquals(PedidoEntity.StatusPedido.CANCELADO, pedidoService.buscarPorId(cancelado.getId()).getStatus());
+
+        // Commit do shard seguido de falha no catálogo: pedido excluído com o pendente, estoque ainda não devolvido
+        assertTrue(pedidoShardRepository.excluir(excluido.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> pedidoService.buscarPorId(excluido.getId()));
+        assertEquals(10, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+
+        int shard = PedidoShardRepository.shardDoPedido(excluido.getId(), 3);
+        assertEquals(1, pedidoService.reaplicarEstornosPendentes(LocalDateTime.now().plusSeconds(1)));
+        assertEquals(16, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        assertEquals(0, contar(shard, "SELECT COUNT(*) FROM estornos_pendentes WHERE pedido_id = ?", excluido.getId()));
+        assertEquals(0, contar(shard, "SELECT COUNT(*) FROM itens_pedido_excluidos WHERE pedido_id = ?", excluido.getId()));
+
+        assertEquals(0, pedidoService.reaplicarEstornosPendentes(LocalDateTime.now().plusSeconds(1)));
+        assertEquals(16, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve cancelar automaticamente os pendentes antigos procurando-os nos shards")
+    void testCancelamentoAutomaticoNosShards() {
+        ProdutoEntity produto = criarProduto(10);
+        String cliente = "Cliente " + UUID.randomUUID();
+        List<Long> antigos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PedidoEntity pedido = pedidoService.salvar(pedido(cliente, produto, 2));
+            atualizarData(pedido.getId(), LocalDateTime.of(2020, 1, 1, 12, 0).plusHours(i));
+            antigos.add(pedido.getId());
+        }
+        PedidoEntity recente = pedidoService.salvar(pedido(cliente, produto, 1));
+
+        cancelamentoAutomaticoJob.executar();
+
+        for (Long id : antigos) {
+            assertEquals(PedidoEntity.StatusPedido.CANCELADO, pedidoService.buscarPorId(id).getStatus());
+        }
+        assertEquals(PedidoEntity.StatusPedido.PENDENTE, pedidoService.buscarPorId(recente.getId()).getStatus());
+        assertEquals(9, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve recusar relatórios, reconstruções e consultas reativas que leem só as tabelas de pedidos do catálogo")
+    void testRecusaOperacoesSoDoCatalogo() {
+        LocalDateTime agora = LocalDateTime.now();
+        assertThrows(BadRequestException.class,
+                () -> relatorioService.vendasPorPeriodo(agora.minusDays(1), agora, AgrupamentoPeriodo.DIA));
+        assertThrows(BadRequestException.class, () -> resumoClientesService.reconstruir());
+        assertThrows(BadRequestException.class, () -> consultaReativaService.buscarPedidos().blockFirst());
+        assertThrows(BadRequestException.class, () -> consultaReativaService.buscarPedidoPorId(1L).block());
+        assertNotNull(consultaReativaService.buscarProdutos().collectList().block());
+    }
+
+    private ProdutoEntity criarProduto(int estoque) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), estoque));
+    }
+
+    private static PedidoRequest pedido(String cliente, ProdutoEntity produto, int quantidade) {
+        return new PedidoRequest(cliente, null, null, null, null, List.of(new ItemPedidoRequest(produto.getId(), quantidade)));
+    }
+
+    private static long contar(int shard, String sql, long id) throws Exception {
+        try (Connection conexao = DriverManager.getConnection(SHARD + shard + ";MODE=MySQL;LOCK_TIMEOUT=10000", "sa", "");
+             PreparedStatement statement = conexao.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            try (ResultSet resultado = statement.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        }
+    }
+
+    private static void executar(int shard, String sql, long id) throws Exception {
+        try (Connection conexao = DriverManager.getConnection(SHARD + shard + ";MODE=MySQL;LOCK_TIMEOUT=10000", "sa", "");
+             PreparedStatement statement = conexao.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            assertEquals(1, statement.executeUpdate());
+        }
+    }
+
+    private static void atualizarData(long id, LocalDateTime data) {
+        int shard = PedidoShardRepository.shardDoPedido(id, 3);
+        try (Connection conexao = DriverManager.getConnection(SHARD + shard + ";MODE=MySQL;LOCK_TIMEOUT=10000", "sa", "");
+             PreparedStatement statement = conexao.prepareStatement("UPDATE pedidos SET data_pedido = ? WHERE id = ?")) {
+            statement.setObject(1, data);
+            statement.setLong(2, id);
+            assertEquals(1, statement.executeUpdate());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.sistema.pedidos.service;
 
 import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
 import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.metricas.MetricasPedidos;
 import com.sistema.pedidos.repository.ProdutoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -26,6 +30,11 @@ public class ProdutoEntityServiceTest {
     @Mock
     private ProdutoRepository produtoRepository;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasPedidos metricasPedidos = new MetricasPedidos(meterRegistry);
+
     @InjectMocks
     private ProdutoService produtoService;
 
@@ -161,30 +170,43 @@ public class ProdutoEntityServiceTest {
     }
 
     @Test
-    @DisplayName("Deve atualizar o estoque de um produto")
+    @DisplayName("Deve baixar o estoque de um produto com um único UPDATE condicional")
     void testAtualizarEstoque() {
         // Arrange
-        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produtoEntity));
-        when(produtoRepository.save(any(ProdutoEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(produtoRepository.baixarEstoque(1L, 3)).thenReturn(1);
 
         // Act
         produtoService.atualizarEstoque(1L, 3);
 
         // Assert
-        assertEquals(7, produtoEntity.getQuantidadeEstoque());
-        verify(produtoRepository, times(1)).findById(1L);
-        verify(produtoRepository, times(1)).save(produtoEntity);
+        verify(produtoRepository, times(1)).baixarEstoque(1L, 3);
+        verify(produtoRepository, never()).findById(any());
+        verify(produtoRepository, never()).save(any(ProdutoEntity.class));
+        assertEquals(1, meterRegistry.get("pedidos.estoque.espera.lock").timer().count());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar reduzir estoque para quantidade negativa")
     void testAtualizarEstoqueQuantidadeInsuficiente() {
         // Arrange
+        when(produtoRepository.baixarEstoque(1L, 15)).thenReturn(0);
         when(produtoRepository.findById(1L)).thenReturn(Optional.of(produtoEntity));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> produtoService.atualizarEstoque(1L, 15));
-        verify(produtoRepository, times(1)).findById(1L);
+        assertThrows(BadRequestException.class, () -> produtoService.atualizarEstoque(1L, 15));
         verify(produtoRepository, never()).save(any(ProdutoEntity.class));
+        assertEquals(1.0, meterRegistry.get("pedidos.estoque.insuficiente").tag("produto", "1").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao baixar o estoque de produto inexistente")
+    void testAtualizarEstoqueProdutoInexistente() {
+        // Arrange
+        when(produtoRepository.baixarEstoque(99L, 1)).thenReturn(0);
+        when(produtoRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarEstoque(99L, 1));
+        assertTrue(meterRegistry.find("pedidos.estoque.insuficiente").counters().isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.model.TotalVendasPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.model.TotalVendasStatus;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class RelatorioServiceTest {
+
+    // Período distante dos demais testes, para que só os pedidos criados aqui entrem nos totais
+    private static final LocalDateTime INICIO = LocalDateTime.of(2042, 3, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2042, 4, 30, 23, 59, 59);
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ArquivamentoPedidoService arquivamentoPedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private static boolean massaCriada;
+    private static ProdutoEntity produtoA;
+    private static ProdutoEntity produtoB;
+
+    @BeforeEach
+    void setUp() {
+        if (massaCriada) {
+            return;
+        }
+        produtoA = criarProduto("10.00");
+        produtoB = criarProduto("25.00");
+
+        criarPedido(LocalDateTime.of(2042, 3, 3, 10, 0), List.of(item(produtoA, 2)));
+        PedidoEntity entregue = criarPedido(LocalDateTime.of(2042, 3, 3, 15, 0), List.of(item(produtoB, 1)));
+        PedidoEntity cancelado = criarPedido(LocalDateTime.of(2042, 3, 5, 9, 0), List.of(item(produtoA, 1)));
+        PedidoEntity aprovado = criarPedido(LocalDateTime.of(2042, 4, 1, 12, 0), List.of(item(produtoA, 3), item(produtoB, 1)));
+
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.APROVADO);
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.ENTREGUE);
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.atualizarStatus(aprovado.getId(), PedidoEntity.StatusPedido.APROVADO);
+        // Um dos pedidos no arquivo, para que os totais somem as duas tabelas
+        assertEquals(1, arquivamentoPedidoService.arquivarLote(List.of(entregue.getId())));
+        massaCriada = true;
+    }
+
+    @Test
+    @DisplayName("Deve totalizar a receita por dia, semana e mês sem pedidos cancelados")
+    void testVendasPorPeriodo() {
+        List<TotalVendasPeriodo> porDia = relatorioService.vendasPorPeriodo(INICIO, FIM, AgrupamentoPeriodo.DIA);
+        assertEquals(2, porDia.size());
+        assertTotal(porDia.get(0), LocalDate.of(2042, 3, 3), 2, "45.00");
+        assertTotal(porDia.get(1), LocalDate.of(2042, 4, 1), 1, "55.00");
+
+        List<TotalVendasPeriodo> porSemana = relatorioService.vendasPorPeriodo(INICIO, FIM, AgrupamentoPeriodo.SEMANA);
+        assertEquals(LocalDate.of(2042, 3, 3), porSemana.get(0).getInicio());
+        assertEquals(LocalDate.of(2042, 3, 31), porSemana.get(1).getInicio());
+
+        List<TotalVendasPeriodo> porMes = relatorioService.vendasPorPeriodo(INICIO, FIM, AgrupamentoPeriodo.MES);
+        assertEquals(2, porMes.size());
+        assertTotal(porMes.get(0), LocalDate.of(2042, 3, 1), 2, "45.00");
+        assertTotal(porMes.get(1), LocalDate.of(2042, 4, 1), 1, "55.00");
+    }
+
+    @Test
+    @DisplayName("Deve totalizar pedidos por status, incluindo os arquivados")
+    void testVendasPorStatus() {
+        Map<PedidoEntity.StatusPedido, TotalVendasStatus> porStatus = relatorioService.vendasPorStatus(INICIO, FIM).stream()
+                .collect(Collectors.toMap(TotalVendasStatus::getStatus, total -> total));
+
+        assertEquals(4, porStatus.size());
+        assertEquals(0, new BigDecimal("20.00").compareTo(porStatus.get(PedidoEntity.StatusPedido.PENDENTE).getValorTotal()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(porStatus.get(PedidoEntity.StatusPedido.ENTREGUE).getValorTotal()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(porStatus.get(PedidoEntity.StatusPedido.CANCELADO).getValorTotal()));
+        assertEquals(1, porStatus.get(PedidoEntity.StatusPedido.APROVADO).getQuantidadePedidos());
+    }
+
+    @Test
+    @DisplayName("Deve totalizar quantidade e receita por produto, da maior para a menor receita")
+    void testVendasPorProduto() {
+        List<TotalVendasProduto> porProduto = relatorioService.vendasPorProduto(INICIO, FIM);
+
+        assertEquals(2, porProduto.size());
+        // Empate em receita: desempata pelo ID do produto
+        assertEquals(produtoA.getId(), porProduto.get(0).getProdutoId());
+        assertEquals(5, porProduto.get(0).getQuantidadeVendida());
+        assertEquals(2, porProduto.get(0).getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("50.00").compareTo(porProduto.get(0).getValorTotal()));
+        assertEquals(produtoB.getId(), porProduto.get(1).getProdutoId());
+        assertEquals(2, porProduto.get(1).getQuantidadeVendida());
+        assertEquals(0, new BigDecimal("50.00").compareTo(porProduto.get(1).getValorTotal()));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período com início depois do fim")
+    void testPeriodoInvalido() {
+        assertThrows(BadRequestException.class, () -> relatorioService.vendasPorStatus(FIM, INICIO));
+    }
+
+    private static void assertTotal(TotalVendasPeriodo total, LocalDate inicio, long pedidos, String valor) {
+        assertEquals(inicio, total.getInicio());
+        assertEquals(pedidos, total.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal(valor).compareTo(total.getValorTotal()));
+    }
+
+    private ProdutoEntity criarProduto(String preco) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal(preco), 100));
+    }
+
+    private PedidoEntity criarPedido(LocalDateTime data, List<ItemPedidoRequest> itens) {
+        PedidoEntity pedido = pedidoService.salvar(new PedidoRequest("Cliente " + UUID.randomUUID(), null, null, null, null, itens));
+        PedidoEntity gravado = pedidoRepository.findById(pedido.getId()).orElseThrow();
+        gravado.setDataPedido(data);
+        return pedidoRepository.save(gravado);
+    }
+
+    private static ItemPedidoRequest item(ProdutoEntity produto, int quantidade) {
+        return new ItemPedidoRequest(produto.getId(), quantidade);
+    }
+}
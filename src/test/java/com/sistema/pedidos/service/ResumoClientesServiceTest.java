@@ -0,0 +1,154 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.entity.ResumoClienteEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.exception.ResourceNotFoundException;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ResumoClientesServiceTest {
+
+    @Autowired
+    private ResumoClientesService resumoClientesService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Test
+    @DisplayName("Deve manter o resumo do cliente em criação, status, troca de cliente, exclusão e lote, igual ao da reconstrução")
+    void testResumoAcompanhaGravacoes() {
+        // Clientes novos, usados só aqui
+        ProdutoEntity produto = produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), 100));
+        String cliente = "Cliente " + UUID.randomUUID();
+        String outro = "Outro " + UUID.randomUUID();
+
+        PedidoEntity entregue = criarPedido(cliente, produto, 2);
+        PedidoEntity cancelado = criarPedido("  " + cliente.toUpperCase() + " ", produto, 1);
+        PedidoEntity transferido = criarPedido(cliente, produto, 3);
+        assertResumo(cliente, 3, "60.00", 3, transferido.getDataPedido());
+
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.APROVADO);
+        assertResumo(cliente, 3, "60.00", 3, transferido.getDataPedido());
+        pedidoService.atualizarStatus(entregue.getId(), PedidoEntity.StatusPedido.ENTREGUE);
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        assertResumo(cliente, 2, "50.00", 1, transferido.getDataPedido());
+
+        // O pedido mais recente passa para outro cliente: o último pedido já feito pelo cliente não muda
+        PedidoEntity alteracao = new PedidoEntity();
+        alteracao.setCliente(outro);
+        ItemPedidoEntity novoItem = new ItemPedidoEntity();
+        novoItem.setProduto(produto);
+        novoItem.setQuantidade(1);
+        alteracao.setItens(List.of(novoItem));
+        pedidoService.atualizar(transferido.getId(), alteracao);
+        assertResumo(cliente, 1, "20.00", 0, transferido.getDataPedido());
+        assertResumo(outro, 1, "10.00", 1, transferido.getDataPedido());
+
+        // Nem com a exclusão
+        pedidoService.excluir(transferido.getId());
+        assertResumo(outro, 0, "0.00", 0, transferido.getDataPedido());
+
+        PedidoEntity canceladoEmLote = criarPedido(cliente, produto, 4);
+        assertResumo(cliente, 2, "60.00", 1, canceladoEmLote.getDataPedido());
+        pedidoService.atualizarStatusEmLote(List.of(canceladoEmLote.getId()), PedidoEntity.StatusPedido.CANCELADO);
+        assertResumo(cliente, 1, "20.00", 0, canceladoEmLote.getDataPedido());
+
+        // A reconstrução a partir dos pedidos existentes chega ao mesmo resumo; o cliente sem pedidos deixa de existir
+        assertTrue(resumoClientesService.reconstruir() > 0);
+        assertResumo(cliente, 1, "20.00", 0, canceladoEmLote.getDataPedido());
+        assertThrows(ResourceNotFoundException.class, () -> resumoClientesService.buscar(outro));
+    }
+
+    @Test
+    @DisplayName("Deve devolver o estoque uma única vez com cancelamentos e exclusão concorrentes do mesmo pedido")
+    void testAlteracoesConcorrentesDoMesmoPedido() throws Exception {
+        ProdutoEntity produto = produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), 100));
+        String cliente = "Cliente " + UUID.randomUUID();
+
+        PedidoEntity cancelado = criarPedido(cliente, produto, 5);
+        assertEquals(1, executarJuntos(
+                () -> pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO),
+                () -> pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO)));
+        assertEquals(100, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        assertResumo(cliente, 0, "0.00", 0, cancelado.getDataPedido());
+
+        PedidoEntity excluido = criarPedido(cliente, produto, 5);
+        assertEquals(1, executarJuntos(
+                () -> pedidoService.atualizarStatus(excluido.getId(), PedidoEntity.StatusPedido.CANCELADO),
+                () -> pedidoService.excluir(excluido.getId())));
+        assertEquals(100, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+        assertResumo(cliente, 0, "0.00", 0, excluido.getDataPedido());
+    }
+
+    // Libera as duas operações ao mesmo tempo e retorna quantas terminaram sem erro; a outra deve ser recusada
+    private int executarJuntos(Runnable primeira, Runnable segunda) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (Runnable operacao : List.of(primeira, segunda)) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        operacao.run();
+                        return true;
+                    } catch (BadRequestException | ResourceNotFoundException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            int concluidas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(30, TimeUnit.SECONDS)) {
+                    concluidas++;
+                }
+            }
+            return concluidas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertResumo(String cliente, long pedidos, String valor, long abertos, LocalDateTime ultimoPedido) {
+        ResumoClienteEntity resumo = resumoClientesService.buscar(cliente);
+        assertEquals(pedidos, resumo.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal(valor).compareTo(resumo.getValorTotal()));
+        assertEquals(abertos, resumo.getPedidosAbertos());
+        assertEquals(ultimoPedido, resumo.getUltimoPedido());
+    }
+
+    // Relido em outra transação, com a data na precisão gravada no banco
+    private PedidoEntity criarPedido(String cliente, ProdutoEntity produto, int quantidade) {
+        PedidoEntity pedido = pedidoService.salvar(new PedidoRequest(cliente, null, null, null, null,
+                List.of(new ItemPedidoRequest(produto.getId(), quantidade))));
+        return pedidoService.buscarPorId(pedido.getId());
+    }
+}
@@ -0,0 +1,127 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.exception.BadRequestException;
+import com.sistema.pedidos.model.CriterioRanking;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import com.sistema.pedidos.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class TopProdutosServiceTest {
+
+    // Período distante dos demais testes; com faixas de um dia, o mês vira 31 tarefas de fork/join
+    private static final LocalDateTime INICIO = LocalDateTime.of(2043, 5, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2043, 5, 31, 23, 59, 59);
+
+    @Autowired
+    private TopProdutosService topProdutosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ArquivamentoPedidoService arquivamentoPedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private static boolean massaCriada;
+    private static ProdutoEntity produtoA;
+    private static ProdutoEntity produtoB;
+    private static ProdutoEntity produtoC;
+
+    @BeforeEach
+    void setUp() {
+        if (massaCriada) {
+            return;
+        }
+        produtoA = criarProduto("10.00");
+        produtoB = criarProduto("25.00");
+        produtoC = criarProduto("3.00");
+
+        // Dois itens do mesmo produto no mesmo pedido contam como um pedido
+        criarPedido(LocalDateTime.of(2043, 5, 2, 10, 0), List.of(item(produtoA, 2), item(produtoA, 1)));
+        criarPedido(LocalDateTime.of(2043, 5, 3, 11, 0), List.of(item(produtoB, 1)));
+        criarPedido(LocalDateTime.of(2043, 5, 3, 12, 0), List.of(item(produtoC, 10)));
+        PedidoEntity cancelado = criarPedido(LocalDateTime.of(2043, 5, 4, 9, 0), List.of(item(produtoA, 5)));
+        PedidoEntity arquivado = criarPedido(LocalDateTime.of(2043, 5, 20, 15, 0), List.of(item(produtoB, 2)));
+
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.atualizarStatus(arquivado.getId(), PedidoEntity.StatusPedido.APROVADO);
+        pedidoService.atualizarStatus(arquivado.getId(), PedidoEntity.StatusPedido.ENTREGUE);
+        assertEquals(1, arquivamentoPedidoService.arquivarLote(List.of(arquivado.getId())));
+        massaCriada = true;
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por quantidade vendida, somando pedidos ativos e arquivados sem os cancelados")
+    void testMaisVendidosPorQuantidade() {
+        List<TotalVendasProduto> ranking = topProdutosService.maisVendidos(INICIO, FIM, CriterioRanking.QUANTIDADE, 10);
+
+        assertEquals(3, ranking.size());
+        assertTotal(ranking.get(0), produtoC, 10, 1, "30.00");
+        // Empate em quantidade: desempata pelo ID do produto
+        assertTotal(ranking.get(1), produtoA, 3, 1, "30.00");
+        assertTotal(ranking.get(2), produtoB, 3, 2, "75.00");
+        assertEquals(produtoC.getNome(), ranking.get(0).getNome());
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por receita e devolver só os N primeiros")
+    void testMaisVendidosPorReceitaComLimite() {
+        List<TotalVendasProduto> ranking = topProdutosService.maisVendidos(INICIO, FIM, CriterioRanking.RECEITA, 2);
+
+        assertEquals(2, ranking.size());
+        assertTotal(ranking.get(0), produtoB, 3, 2, "75.00");
+        assertTotal(ranking.get(1), produtoA, 3, 1, "30.00");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar limite fora da faixa permitida")
+    void testLimiteInvalido() {
+        assertThrows(BadRequestException.class,
+                () -> topProdutosService.maisVendidos(INICIO, FIM, CriterioRanking.QUANTIDADE, 0));
+    }
+
+    private static void assertTotal(TotalVendasProduto total, ProdutoEntity produto, long quantidade, long pedidos, String valor) {
+        assertEquals(produto.getId(), total.getProdutoId());
+        assertEquals(quantidade, total.getQuantidadeVendida());
+        assertEquals(pedidos, total.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal(valor).compareTo(total.getValorTotal()));
+    }
+
+    private ProdutoEntity criarProduto(String preco) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal(preco), 100));
+    }
+
+    private PedidoEntity criarPedido(LocalDateTime data, List<ItemPedidoRequest> itens) {
+        PedidoEntity pedido = pedidoService.salvar(new PedidoRequest("Cliente " + UUID.randomUUID(), null, null, null, null, itens));
+        PedidoEntity gravado = pedidoRepository.findById(pedido.getId()).orElseThrow();
+        gravado.setDataPedido(data);
+        return pedidoRepository.save(gravado);
+    }
+
+    private static ItemPedidoRequest item(ProdutoEntity produto, int quantidade) {
+        return new ItemPedidoRequest(produto.getId(), quantidade);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sistema.pedidos.service;
+
+import com.sistema.pedidos.entity.ItemPedidoEntity;
+import com.sistema.pedidos.entity.PedidoEntity;
+import com.sistema.pedidos.entity.ProdutoEntity;
+import com.sistema.pedidos.model.AgrupamentoPeriodo;
+import com.sistema.pedidos.model.ItemPedidoRequest;
+import com.sistema.pedidos.model.PedidoRequest;
+import com.sistema.pedidos.model.ReceitaPeriodo;
+import com.sistema.pedidos.model.TotalVendasProduto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class VendasDiariasServiceTest {
+
+    @Autowired
+    private VendasDiariasService vendasDiariasService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Test
+    @DisplayName("Deve manter os totais diários em criação, atualização, cancelamento e exclusão, iguais aos da reconstrução")
+    void testTotaisAcompanhamGravacoes() {
+        // Produtos novos, usados só aqui; os pedidos entram no dia de hoje
+        ProdutoEntity produtoA = criarProduto("10.00");
+        ProdutoEntity produtoB = criarProduto("25.00");
+        LocalDate hoje = LocalDate.now();
+        BigDecimal receitaAntes = receitaDoDia(hoje);
+
+        PedidoEntity atualizado = criarPedido(item(produtoA, 2));
+        // O pedido devolvido traz o estoque já baixado
+        assertEquals(98, atualizado.getItens().get(0).getProduto().getQuantidadeEstoque());
+        PedidoEntity cancelado = criarPedido(item(produtoA, 1), item(produtoB, 1));
+        PedidoEntity canceladoEmLote = criarPedido(item(produtoB, 2));
+        PedidoEntity excluido = criarPedido(item(produtoA, 4));
+        criarPedido(item(produtoA, 1), item(produtoA, 2));
+
+        assertTotal(hoje, produtoA, 10, 4, "100.00");
+        assertTotal(hoje, produtoB, 3, 2, "75.00");
+
+        // Troca 2 x A por 1 x B: A perde 20,00 e um pedido, B ganha 25,00 e um pedido
+        PedidoEntity alteracao = new PedidoEntity();
+        alteracao.setCliente(atualizado.getCliente());
+        ItemPedidoEntity novoItem = new ItemPedidoEntity();
+        novoItem.setProduto(produtoB);
+        novoItem.setQuantidade(1);
+        alteracao.setItens(List.of(novoItem));
+        pedidoService.atualizar(atualizado.getId(), alteracao);
+        assertTotal(hoje, produtoA, 8, 3, "80.00");
+        assertTotal(hoje, produtoB, 4, 3, "100.00");
+        // O estoque dos itens antigos volta e o dos novos sai
+        assertEquals(92, produtoService.buscarPorId(produtoA.getId()).getQuantidadeEstoque());
+        assertEquals(96, produtoService.buscarPorId(produtoB.getId()).getQuantidadeEstoque());
+
+        pedidoService.atualizarStatus(cancelado.getId(), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.atualizarStatusEmLote(List.of(canceladoEmLote.getId()), PedidoEntity.StatusPedido.CANCELADO);
+        pedidoService.excluir(excluido.getId());
+        assertTotal(hoje, produtoA, 3, 1, "30.00");
+        assertTotal(hoje, produtoB, 1, 1, "25.00");
+        assertEquals(0, new BigDecimal("55.00").compareTo(receitaDoDia(hoje).subtract(receitaAntes)));
+
+        // A reconstrução a partir dos pedidos chega aos mesmos totais mantidos incrementalmente
+        vendasDiariasService.reconstruir();
+        assertTotal(hoje, produtoA, 3, 1, "30.00");
+        assertTotal(hoje, produtoB, 1, 1, "25.00");
+    }
+
+    private void assertTotal(LocalDate dia, ProdutoEntity produto, long quantidade, long pedidos, String receita) {
+        TotalVendasProduto total = vendasDiariasService.vendasPorProduto(dia, dia).stream()
+                .filter(totalProduto -> totalProduto.getProdutoId().equals(produto.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(quantidade, total.getQuantidadeVendida());
+        assertEquals(pedidos, total.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal(receita).compareTo(total.getValorTotal()));
+    }
+
+    private BigDecimal receitaDoDia(LocalDate dia) {
+        List<ReceitaPeriodo> porDia = vendasDiariasService.receitaPorPeriodo(dia, dia, AgrupamentoPeriodo.DIA);
+        return porDia.isEmpty() ? BigDecimal.ZERO : porDia.get(0).getValorTotal();
+    }
+
+    private ProdutoEntity criarProduto(String preco) {
+        return produtoService.salvar(new ProdutoEntity("Produto " + UUID.randomUUID(), null, new BigDecimal(preco), 100));
+    }
+
+    private PedidoEntity criarPedido(ItemPedidoRequest... itens) {
+        return pedidoService.salvar(new PedidoRequest("Cliente " + UUID.randomUUID(), null, null, null, null, List.of(itens)));
+    }
+
+    private static ItemPedidoRequest item(ProdutoEntity produto, int quantidade) {
+        return new ItemPedidoRequest(produto.getId(), quantidade);
+    }
+}